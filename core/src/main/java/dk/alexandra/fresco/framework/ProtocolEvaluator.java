@@ -30,17 +30,31 @@ public interface ProtocolEvaluator<ResourcePoolT extends ResourcePool> {
 
     private final int nativeProtocols;
     private final int batches;
+    private final int batchSize;
 
     /**
-     * Createes a new statistics object.
+     * Createes a new statistics object for an evaluator without a notion of batch size. The batch
+     * size is reported as zero.
      *
      * @param nativeProtocols the total number of native protocols in evaluation
      * @param batches the total of batches in the evaluation
      */
     public EvaluationStatistics(int nativeProtocols, int batches) {
+      this(nativeProtocols, batches, 0);
+    }
+
+    /**
+     * Createes a new statistics object.
+     *
+     * @param nativeProtocols the total number of native protocols in evaluation
+     * @param batches the total of batches in the evaluation
+     * @param batchSize the maximum batch size in use at the end of the evaluation
+     */
+    public EvaluationStatistics(int nativeProtocols, int batches, int batchSize) {
 
       this.nativeProtocols = nativeProtocols;
       this.batches = batches;
+      this.batchSize = batchSize;
     }
 
     /**
@@ -60,5 +74,16 @@ public interface ProtocolEvaluator<ResourcePoolT extends ResourcePool> {
     public int getBatches() {
       return batches;
     }
+
+    /**
+     * Returns the maximum batch size in use at the end of the evaluation. If the evaluator adapts
+     * the batch size this is the size chosen for the next evaluation. Zero if the evaluator did
+     * not report a batch size.
+     *
+     * @return the maximum batch size
+     */
+    public int getBatchSize() {
+      return batchSize;
+    }
   }
 }
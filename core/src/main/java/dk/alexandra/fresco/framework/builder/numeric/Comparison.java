@@ -3,6 +3,7 @@ package dk.alexandra.fresco.framework.builder.numeric;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.ComputationDirectory;
 import dk.alexandra.fresco.framework.value.SInt;
+import java.util.List;
 
 /**
  * Interface for comparing numeric values.
@@ -35,6 +36,19 @@ public interface Comparison extends ComputationDirectory {
    */
   DRes<SInt> compareLEQ(DRes<SInt> x1, DRes<SInt> x2);
 
+  /**
+   * Computes x1<sub>i</sub> <= x2<sub>i</sub> for each pair of values in the two lists.
+   *
+   * <p>The comparisons are done together, so the number of rounds is that of a single
+   * comparison.</p>
+   *
+   * @param x1 the left hand sides
+   * @param x2 the right hand sides, of the same size as x1
+   * @return A deferred result computing the list of comparison results. Each result will be
+   *         either [1] (true) or [0] (false).
+   */
+  DRes<List<DRes<SInt>>> compareLEQ(List<DRes<SInt>> x1, List<DRes<SInt>> x2);
+
   /**
    * Compares if x1 <= x2, but with twice the possible bit-length.
    * Requires that the maximum bit length is set to something that can handle
@@ -63,4 +77,14 @@ public interface Comparison extends ComputationDirectory {
    * @return A deferred result computing x == 0. Result will be either [1] (true) or [0] (false)
    */
   DRes<SInt> compareZero(DRes<SInt> x, int bitLength);
+
+  /**
+   * Test for equality with zero for each of a list of bitLength-bit numbers.
+   *
+   * @param x the values to test against zero
+   * @param bitLength bitlength
+   * @return A deferred result computing the list of x<sub>i</sub> == 0. Each result will be
+   *         either [1] (true) or [0] (false)
+   */
+  DRes<List<DRes<SInt>>> compareZero(List<DRes<SInt>> x, int bitLength);
 }
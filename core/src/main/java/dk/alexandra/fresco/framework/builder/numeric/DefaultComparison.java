@@ -4,8 +4,11 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.compare.eq.Equality;
 import dk.alexandra.fresco.lib.compare.gt.LessThanOrEquals;
+import dk.alexandra.fresco.lib.compare.gt.LessThanOrEqualsBatch;
 import dk.alexandra.fresco.lib.compare.zerotest.ZeroTest;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Default way of producing the protocols within the interface. This default class can be
@@ -52,6 +55,13 @@ public class DefaultComparison implements Comparison {
         new LessThanOrEquals(bitLength, magicSecureNumber, x, y));
   }
 
+  @Override
+  public DRes<List<DRes<SInt>>> compareLEQ(List<DRes<SInt>> x, List<DRes<SInt>> y) {
+    int bitLength = factoryNumeric.getBasicNumericContext().getMaxBitLength();
+    return builder.seq(
+        new LessThanOrEqualsBatch(bitLength, magicSecureNumber, x, y));
+  }
+
   @Override
   public DRes<SInt> sign(DRes<SInt> x) {
     Numeric input = builder.numeric();
@@ -69,4 +79,15 @@ public class DefaultComparison implements Comparison {
     return builder.seq(new ZeroTest(bitLength, x, magicSecureNumber));
   }
 
+  @Override
+  public DRes<List<DRes<SInt>>> compareZero(List<DRes<SInt>> x, int bitLength) {
+    return builder.par(par -> {
+      List<DRes<SInt>> results = new ArrayList<>(x.size());
+      for (DRes<SInt> value : x) {
+        results.add(par.seq(new ZeroTest(bitLength, value, magicSecureNumber)));
+      }
+      return () -> results;
+    });
+  }
+
 }
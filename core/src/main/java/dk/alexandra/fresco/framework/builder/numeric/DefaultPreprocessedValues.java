@@ -55,4 +55,28 @@ public class DefaultPreprocessedValues implements PreprocessedValues {
       });
     }
   }
+
+  /**
+   * Creates a truncation pair from an additive mask, such that r >> d is the inner product of the
+   * bits above the d'th and the powers of two.
+   *
+   * @param builder the builder to compute the pair in
+   * @param shifts the number of bits d the second element is shifted
+   * @return a random truncation pair
+   */
+  public static DRes<TruncationPair> createTruncationPair(ProtocolBuilderNumeric builder,
+      int shifts) {
+    int bitLength = builder.getBasicNumericContext().getMaxBitLength();
+    if (shifts < 0 || shifts > bitLength) {
+      throw new IllegalArgumentException(
+          "Can not create a truncation pair shifting " + shifts + " of " + bitLength + " bits");
+    }
+    return builder.seq(seq -> seq.advancedNumeric().additiveMask(bitLength))
+        .seq((seq, mask) -> {
+          DRes<SInt> shifted = seq.advancedNumeric().innerProductWithPublicPart(
+              seq.getBigIntegerHelper().getTwoPowersList(bitLength - shifts),
+              mask.bits.subList(shifts, bitLength));
+          return () -> new TruncationPair(mask.random, shifted.out());
+        });
+  }
 }
@@ -4,6 +4,8 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.ComputationDirectory;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Basic interface for numeric applications. This is the interface which an arithmetic protocol
@@ -104,6 +106,31 @@ public interface Numeric extends ComputationDirectory {
     return mult(BigInteger.valueOf(a), b);
   }
 
+  /**
+   * Multiplies two lists of secret values element-wise and returns the products.
+   * <p>
+   * The default implementation issues one {@link #mult(DRes, DRes)} per pair, so it should be
+   * called on a parallel builder for the multiplications to be evaluated in the same rounds.
+   * Protocol suites that can multiply a whole vector with a single native protocol should override
+   * this to avoid the per-multiplication overhead.
+   * </p>
+   *
+   * @param a Secret values 1
+   * @param b Secret values 2, must have the same size as <code>a</code>
+   * @return A deferred result computing the list a[i]*b[i]
+   */
+  default DRes<List<DRes<SInt>>> mult(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+    if (a.size() != b.size()) {
+      throw new IllegalArgumentException(
+          "Lists must be of the same size, was " + a.size() + " and " + b.size());
+    }
+    List<DRes<SInt>> products = new ArrayList<>(a.size());
+    for (int i = 0; i < a.size(); i++) {
+      products.add(mult(a.get(i), b.get(i)));
+    }
+    return () -> products;
+  }
+
   /**
    * Returns a deferred result which creates a secret shared random bit. (This should be computed
    * beforehand to increase the speed of the application)
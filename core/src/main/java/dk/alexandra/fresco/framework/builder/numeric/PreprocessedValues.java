@@ -21,4 +21,35 @@ public interface PreprocessedValues {
    */
   DRes<List<DRes<SInt>>> getExponentiationPipe(int pipeLength);
 
+  /**
+   * Returns a truncation pair of the form [r], [r >> d], where r is a random value of
+   * {@link BasicNumericContext#getMaxBitLength()} bits. Masking a value of sufficiently smaller
+   * bit length with r and opening it allows the value to be truncated by d bits using only local
+   * operations on the pair, see {@link dk.alexandra.fresco.lib.real.fixed.utils.Truncate}.
+   *
+   * <p>The default implementation composes the pair online from random bits, see
+   * {@link DefaultPreprocessedValues#createTruncationPair(ProtocolBuilderNumeric, int)}.</p>
+   *
+   * @param builder the builder this object was created for, which the pair is computed in
+   * @param shifts the number of bits d the second element is shifted
+   * @return a random truncation pair
+   */
+  default DRes<TruncationPair> getTruncationPair(ProtocolBuilderNumeric builder, int shifts) {
+    return DefaultPreprocessedValues.createTruncationPair(builder, shifts);
+  }
+
+  /**
+   * Container holding a random value r and its d least significant bits shifted away.
+   */
+  class TruncationPair {
+
+    public final SInt random;
+    public final SInt shifted;
+
+    public TruncationPair(SInt random, SInt shifted) {
+      this.random = random;
+      this.shifted = shifted;
+    }
+  }
+
 }
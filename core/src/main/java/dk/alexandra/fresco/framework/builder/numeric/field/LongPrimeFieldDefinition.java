@@ -0,0 +1,282 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A finite field where the modulus is an odd prime of at most 62 bits. Elements are backed by a
+ * primitive <code>long</code> and all arithmetic is done without allocating
+ * <code>BigInteger</code>s.
+ * <p>
+ * Each element is serialized as exactly {@link #BYTE_LENGTH} bytes in big-endian order. Besides
+ * the {@link FieldDefinition} interface this class offers a bulk API working directly on
+ * <code>long[]</code> vectors, avoiding one object per element. Like the elements, the vectors
+ * hold values in Montgomery form, so a product costs a single reduction. Use
+ * {@link #toMontgomery(long[])} and {@link #fromMontgomery(long[])} to convert plain values.
+ * </p>
+ */
+public final class LongPrimeFieldDefinition implements FieldDefinition {
+
+  /**
+   * The number of bytes used to serialize a single element.
+   */
+  public static final int BYTE_LENGTH = Long.BYTES;
+
+  private final LongPrimeModulus modulus;
+  private final BigInteger bigModulus;
+  private final BigInteger modulusHalf;
+  private final int modulusBitLength;
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus, must be odd and at most 62 bits
+   */
+  public LongPrimeFieldDefinition(long modulus) {
+    this.modulus = new LongPrimeModulus(modulus);
+    this.bigModulus = BigInteger.valueOf(modulus);
+    this.modulusHalf = bigModulus.shiftRight(1);
+    this.modulusBitLength = bigModulus.bitLength();
+  }
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus, must be odd and at most 62 bits
+   */
+  public LongPrimeFieldDefinition(BigInteger modulus) {
+    this(toLong(modulus));
+  }
+
+  private static long toLong(BigInteger modulus) {
+    if (modulus.bitLength() > LongPrimeModulus.MAX_BIT_LENGTH) {
+      throw new IllegalArgumentException(
+          "Modulus must be at most " + LongPrimeModulus.MAX_BIT_LENGTH + " bits, was " + modulus);
+    }
+    return modulus.longValue();
+  }
+
+  /**
+   * Checks if a modulus can be used with this field definition.
+   *
+   * @param modulus the modulus
+   * @return true if the modulus is odd, larger than 2 and at most 62 bits
+   */
+  public static boolean isSupported(BigInteger modulus) {
+    return modulus.testBit(0)
+        && modulus.compareTo(BigInteger.valueOf(2)) > 0
+        && modulus.bitLength() <= LongPrimeModulus.MAX_BIT_LENGTH;
+  }
+
+  @Override
+  public FieldElement createElement(long value) {
+    return LongPrimeFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(String value) {
+    return LongPrimeFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(BigInteger value) {
+    return LongPrimeFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return bigModulus;
+  }
+
+  @Override
+  public int getBitLength() {
+    return modulusBitLength;
+  }
+
+  @Override
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    return new StrictBitVector(serialize(fieldElement));
+  }
+
+  @Override
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return BigInteger.valueOf(LongPrimeFieldElement.extractValue(value));
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    return FieldUtils.convertRepresentation(asUnsigned, bigModulus, modulusHalf);
+  }
+
+  @Override
+  public byte[] serialize(FieldElement fieldElement) {
+    byte[] bytes = new byte[BYTE_LENGTH];
+    writeLong(LongPrimeFieldElement.extractValue(fieldElement), bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public byte[] serialize(List<FieldElement> fieldElements) {
+    byte[] bytes = new byte[BYTE_LENGTH * fieldElements.size()];
+    for (int i = 0; i < fieldElements.size(); i++) {
+      writeLong(LongPrimeFieldElement.extractValue(fieldElements.get(i)), bytes, i * BYTE_LENGTH);
+    }
+    return bytes;
+  }
+
+  @Override
+  public FieldElement deserialize(byte[] bytes) {
+    return LongPrimeFieldElement.create(readLong(bytes, 0), modulus);
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(byte[] bytes) {
+    List<FieldElement> elements = new ArrayList<>(bytes.length / BYTE_LENGTH);
+    for (int i = 0; i < bytes.length; i += BYTE_LENGTH) {
+      elements.add(LongPrimeFieldElement.create(readLong(bytes, i), modulus));
+    }
+    return elements;
+  }
+
+  /**
+   * Extracts the values of a list of elements of this field.
+   *
+   * @param elements the elements
+   * @return the values in Montgomery form
+   */
+  public long[] toLongs(List<FieldElement> elements) {
+    long[] values = new long[elements.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = LongPrimeFieldElement.extractMontgomery(elements.get(i));
+    }
+    return values;
+  }
+
+  /**
+   * Creates field elements from a vector of values.
+   *
+   * @param values the values in Montgomery form
+   * @return the corresponding field elements
+   */
+  public FieldElement[] createElements(long[] values) {
+    FieldElement[] elements = new FieldElement[values.length];
+    for (int i = 0; i < values.length; i++) {
+      elements[i] = LongPrimeFieldElement.createFromMontgomery(values[i], modulus);
+    }
+    return elements;
+  }
+
+  /**
+   * Converts a vector of plain values to Montgomery form.
+   *
+   * @param values the values, which need not be reduced
+   * @return the values in Montgomery form
+   */
+  public long[] toMontgomery(long[] values) {
+    long[] result = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = modulus.toMontgomery(modulus.reduce(values[i]));
+    }
+    return result;
+  }
+
+  /**
+   * Converts a vector of values in Montgomery form to plain values.
+   *
+   * @param values the values in Montgomery form
+   * @return the values in the range <i>0, ..., p - 1</i>
+   */
+  public long[] fromMontgomery(long[] values) {
+    long[] result = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = modulus.fromMontgomery(values[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Computes <code>result[i] = left[i] + right[i] mod p</code> for values in Montgomery form.
+   *
+   * @param left the left operands
+   * @param right the right operands
+   * @param result the array to write the sums to, may be one of the operands
+   */
+  public void add(long[] left, long[] right, long[] result) {
+    for (int i = 0; i < result.length; i++) {
+      result[i] = modulus.add(left[i], right[i]);
+    }
+  }
+
+  /**
+   * Computes <code>result[i] = left[i] - right[i] mod p</code> for values in Montgomery form.
+   *
+   * @param left the left operands
+   * @param right the right operands
+   * @param result the array to write the differences to, may be one of the operands
+   */
+  public void subtract(long[] left, long[] right, long[] result) {
+    for (int i = 0; i < result.length; i++) {
+      result[i] = modulus.subtract(left[i], right[i]);
+    }
+  }
+
+  /**
+   * Computes <code>result[i] = left[i] * right[i] mod p</code> for values in Montgomery form.
+   *
+   * @param left the left operands
+   * @param right the right operands
+   * @param result the array to write the products to, may be one of the operands
+   */
+  public void multiply(long[] left, long[] right, long[] result) {
+    for (int i = 0; i < result.length; i++) {
+      result[i] = modulus.multiply(left[i], right[i]);
+    }
+  }
+
+  /**
+   * Serializes a vector of values in Montgomery form in the same format as
+   * {@link #serialize(List)}.
+   *
+   * @param values the values in Montgomery form
+   * @return the serialized values
+   */
+  public byte[] serialize(long[] values) {
+    byte[] bytes = new byte[BYTE_LENGTH * values.length];
+    for (int i = 0; i < values.length; i++) {
+      writeLong(modulus.fromMontgomery(values[i]), bytes, i * BYTE_LENGTH);
+    }
+    return bytes;
+  }
+
+  /**
+   * Deserializes a vector of values serialized by {@link #serialize(List)} or
+   * {@link #serialize(long[])}.
+   *
+   * @param bytes the serialized values
+   * @return the values in Montgomery form
+   */
+  public long[] deserializeToLongs(byte[] bytes) {
+    long[] values = new long[bytes.length / BYTE_LENGTH];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = modulus.toMontgomery(modulus.reduce(readLong(bytes, i * BYTE_LENGTH)));
+    }
+    return values;
+  }
+
+  private static void writeLong(long value, byte[] bytes, int offset) {
+    for (int i = BYTE_LENGTH - 1; i >= 0; i--) {
+      bytes[offset + i] = (byte) value;
+      value >>>= Byte.SIZE;
+    }
+  }
+
+  private static long readLong(byte[] bytes, int offset) {
+    long value = 0;
+    for (int i = 0; i < BYTE_LENGTH; i++) {
+      value = (value << Byte.SIZE) | (bytes[offset + i] & 0xFF);
+    }
+    return value;
+  }
+}
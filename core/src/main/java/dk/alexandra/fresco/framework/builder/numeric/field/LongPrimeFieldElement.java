@@ -0,0 +1,98 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.math.BigInteger;
+
+/**
+ * An element in a field defined by a {@link LongPrimeModulus}, stored as a primitive
+ * <code>long</code> in Montgomery form. Values are only converted when elements are created or
+ * their value is extracted.
+ */
+final class LongPrimeFieldElement implements FieldElement {
+
+  private static final long serialVersionUID = 5128713497254437563L;
+
+  private final long value;
+  private final LongPrimeModulus modulus;
+
+  private LongPrimeFieldElement(long value, LongPrimeModulus modulus) {
+    this.value = value;
+    this.modulus = modulus;
+  }
+
+  private FieldElement create(long montgomeryValue) {
+    return new LongPrimeFieldElement(montgomeryValue, modulus);
+  }
+
+  /**
+   * Creates an element from a value already in Montgomery form.
+   */
+  static FieldElement createFromMontgomery(long montgomeryValue, LongPrimeModulus modulus) {
+    return new LongPrimeFieldElement(montgomeryValue, modulus);
+  }
+
+  static FieldElement create(long value, LongPrimeModulus modulus) {
+    return createFromMontgomery(modulus.toMontgomery(modulus.reduce(value)), modulus);
+  }
+
+  static FieldElement create(BigInteger value, LongPrimeModulus modulus) {
+    long reduced = value.mod(BigInteger.valueOf(modulus.getPrime())).longValue();
+    return createFromMontgomery(modulus.toMontgomery(reduced), modulus);
+  }
+
+  static FieldElement create(String string, LongPrimeModulus modulus) {
+    return create(new BigInteger(string), modulus);
+  }
+
+  @Override
+  public FieldElement add(FieldElement operand) {
+    return create(modulus.add(value, extractMontgomery(operand)));
+  }
+
+  @Override
+  public FieldElement subtract(FieldElement operand) {
+    return create(modulus.subtract(value, extractMontgomery(operand)));
+  }
+
+  @Override
+  public FieldElement negate() {
+    return create(modulus.negate(value));
+  }
+
+  @Override
+  public FieldElement multiply(FieldElement operand) {
+    return create(modulus.multiply(value, extractMontgomery(operand)));
+  }
+
+  @Override
+  public FieldElement sqrt() {
+    return create(MathUtils.modularSqrt(BigInteger.valueOf(extractValue(this)), getModulus()),
+        modulus);
+  }
+
+  @Override
+  public FieldElement modInverse() {
+    return create(BigInteger.valueOf(extractValue(this)).modInverse(getModulus()), modulus);
+  }
+
+  static long extractMontgomery(FieldElement element) {
+    return ((LongPrimeFieldElement) element).value;
+  }
+
+  static long extractValue(FieldElement element) {
+    LongPrimeFieldElement longPrimeElement = (LongPrimeFieldElement) element;
+    return longPrimeElement.modulus.fromMontgomery(longPrimeElement.value);
+  }
+
+  private BigInteger getModulus() {
+    return BigInteger.valueOf(modulus.getPrime());
+  }
+
+  @Override
+  public String toString() {
+    return "LongPrimeFieldElement{"
+        + "value=" + extractValue(this)
+        + ", modulus=" + modulus
+        + '}';
+  }
+}
@@ -0,0 +1,143 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+
+/**
+ * A modulus small enough to fit in a <code>long</code>. All arithmetic is done on primitive values
+ * in the range <i>0, ..., p - 1</i>, so no objects are allocated. Values taking part in
+ * multiplications are kept in Montgomery form <i>aR mod p</i> with <i>R = 2<sup>64</sup></i>, so a
+ * product needs a single Montgomery reduction. Addition, subtraction and negation work the same
+ * on both forms.
+ * <p>
+ * The modulus must be odd and at most {@link #MAX_BIT_LENGTH} bits long. This guarantees that
+ * sums of two reduced values and the intermediate results of the Montgomery reduction never
+ * overflow a signed <code>long</code>.
+ * </p>
+ */
+final class LongPrimeModulus implements Serializable {
+
+  static final int MAX_BIT_LENGTH = 62;
+
+  private static final long serialVersionUID = -2417004361218813591L;
+  private static final long LOW_MASK = 0xFFFFFFFFL;
+
+  private final long prime;
+  private final long negatedInverse;
+  private final long rsquared;
+
+  /**
+   * Creates a new modulus.
+   *
+   * @param prime the modulus, an odd value of at most {@link #MAX_BIT_LENGTH} bits
+   */
+  LongPrimeModulus(long prime) {
+    if (prime <= 2) {
+      throw new IllegalArgumentException("Modulus must be larger than 2, was " + prime);
+    }
+    if ((prime & 1) == 0) {
+      throw new IllegalArgumentException("Modulus must be odd, was " + prime);
+    }
+    if (64 - Long.numberOfLeadingZeros(prime) > MAX_BIT_LENGTH) {
+      throw new IllegalArgumentException(
+          "Modulus must be at most " + MAX_BIT_LENGTH + " bits, was " + prime);
+    }
+    this.prime = prime;
+    this.negatedInverse = -inverseModTwoToSixtyFour(prime);
+    this.rsquared = BigInteger.ONE.shiftLeft(128).mod(BigInteger.valueOf(prime)).longValue();
+  }
+
+  long getPrime() {
+    return prime;
+  }
+
+  /**
+   * Computes <code>value mod p</code> in the range <i>0, ..., p - 1</i>.
+   */
+  long reduce(long value) {
+    long result = value % prime;
+    return result < 0 ? result + prime : result;
+  }
+
+  long add(long left, long right) {
+    long sum = left + right;
+    return sum >= prime ? sum - prime : sum;
+  }
+
+  long subtract(long left, long right) {
+    long difference = left - right;
+    return difference < 0 ? difference + prime : difference;
+  }
+
+  long negate(long value) {
+    return value == 0 ? 0 : prime - value;
+  }
+
+  /**
+   * Computes the Montgomery product <i>left * right * R<sup>-1</sup> mod p</i> for reduced
+   * <code>left</code> and <code>right</code>. For operands in Montgomery form this is the
+   * Montgomery form of their product.
+   */
+  long multiply(long left, long right) {
+    return montgomeryReduce(multiplyHigh(left, right), left * right);
+  }
+
+  /**
+   * Converts a reduced value to Montgomery form <i>value * R mod p</i>, using the precomputed
+   * <i>R<sup>2</sup> mod p</i>.
+   */
+  long toMontgomery(long value) {
+    return multiply(value, rsquared);
+  }
+
+  /**
+   * Converts a value in Montgomery form back to the value in the range <i>0, ..., p - 1</i>.
+   */
+  long fromMontgomery(long value) {
+    return montgomeryReduce(0, value);
+  }
+
+  /**
+   * Computes <i>T * R<sup>-1</sup> mod p</i> for <i>T = high * 2<sup>64</sup> + low &lt;
+   * p<sup>2</sup></i>.
+   */
+  private long montgomeryReduce(long high, long low) {
+    long m = low * negatedInverse;
+    // low + m * p is zero modulo 2^64, so the low word carries exactly when low is non-zero
+    long result = high + multiplyHigh(m, prime) + (low != 0 ? 1 : 0);
+    return result >= prime ? result - prime : result;
+  }
+
+  /**
+   * Computes the upper 64 bits of the unsigned 128 bit product of two unsigned longs.
+   */
+  static long multiplyHigh(long left, long right) {
+    long leftLow = left & LOW_MASK;
+    long leftHigh = left >>> 32;
+    long rightLow = right & LOW_MASK;
+    long rightHigh = right >>> 32;
+    long lowProduct = leftLow * rightLow;
+    long middle = leftHigh * rightLow + (lowProduct >>> 32);
+    long middleLow = leftLow * rightHigh + (middle & LOW_MASK);
+    return leftHigh * rightHigh + (middle >>> 32) + (middleLow >>> 32);
+  }
+
+  /**
+   * Computes the inverse of an odd value modulo 2<sup>64</sup> using Newton iteration, each
+   * iteration doubling the number of correct low bits.
+   */
+  private static long inverseModTwoToSixtyFour(long value) {
+    long inverse = value; // correct to 3 bits for any odd value
+    for (int i = 0; i < 5; i++) {
+      inverse *= 2 - value * inverse;
+    }
+    return inverse;
+  }
+
+  @Override
+  public String toString() {
+    return "LongPrimeModulus{"
+        + "value=" + prime
+        + '}';
+  }
+}
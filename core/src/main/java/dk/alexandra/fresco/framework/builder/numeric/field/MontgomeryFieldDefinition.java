@@ -0,0 +1,125 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A finite field for odd moduli of a fixed width, typically the 128 to 512 bit primes used by
+ * SPDZ. Elements are kept as fixed width limbs in Montgomery form, so arithmetic does not allocate
+ * intermediate <code>BigInteger</code>s and multiplication does not need a division.
+ * <p>
+ * Elements are serialized directly from the limbs using the same format as
+ * {@link BigIntegerFieldDefinition}, so the two definitions are interchangeable on the wire.
+ * </p>
+ */
+public final class MontgomeryFieldDefinition implements FieldDefinition {
+
+  private final MontgomeryModulus modulus;
+  private final BigInteger modulusHalf;
+  private final int modulusBitLength;
+  private final int byteLength;
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus, must be odd and larger than 2
+   */
+  public MontgomeryFieldDefinition(BigInteger modulus) {
+    this.modulus = new MontgomeryModulus(modulus);
+    this.modulusHalf = modulus.shiftRight(1);
+    this.modulusBitLength = modulus.bitLength();
+    this.byteLength = this.modulus.getByteLength();
+  }
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus as a string.
+   */
+  public MontgomeryFieldDefinition(String modulus) {
+    this(new BigInteger(modulus));
+  }
+
+  /**
+   * Checks if a modulus can be used with this field definition.
+   *
+   * @param modulus the modulus
+   * @return true if the modulus is odd and larger than 2
+   */
+  public static boolean isSupported(BigInteger modulus) {
+    return modulus.testBit(0) && modulus.compareTo(BigInteger.valueOf(2)) > 0;
+  }
+
+  @Override
+  public FieldElement createElement(long value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(String value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(BigInteger value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return modulus.getPrime();
+  }
+
+  @Override
+  public int getBitLength() {
+    return modulusBitLength;
+  }
+
+  @Override
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    return new StrictBitVector(serialize(fieldElement));
+  }
+
+  @Override
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return MontgomeryFieldElement.extractValue(value);
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    return FieldUtils.convertRepresentation(asUnsigned, getModulus(), modulusHalf);
+  }
+
+  @Override
+  public byte[] serialize(FieldElement fieldElement) {
+    byte[] bytes = new byte[byteLength];
+    modulus.writeBytes(MontgomeryFieldElement.extractLimbs(fieldElement), bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public byte[] serialize(List<FieldElement> fieldElements) {
+    byte[] bytes = new byte[byteLength * fieldElements.size()];
+    for (int i = 0; i < fieldElements.size(); i++) {
+      modulus.writeBytes(MontgomeryFieldElement.extractLimbs(fieldElements.get(i)), bytes,
+          i * byteLength);
+    }
+    return bytes;
+  }
+
+  @Override
+  public FieldElement deserialize(byte[] bytes) {
+    return MontgomeryFieldElement.createFromLimbs(modulus.readBytes(bytes, 0), modulus);
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(byte[] bytes) {
+    List<FieldElement> elements = new ArrayList<>(bytes.length / byteLength);
+    for (int i = 0; i < bytes.length; i += byteLength) {
+      elements.add(MontgomeryFieldElement.createFromLimbs(modulus.readBytes(bytes, i), modulus));
+    }
+    return elements;
+  }
+}
@@ -0,0 +1,91 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.math.BigInteger;
+
+/**
+ * An element in a field defined by a {@link MontgomeryModulus}, stored as fixed width limbs in
+ * Montgomery form.
+ */
+final class MontgomeryFieldElement implements FieldElement {
+
+  private static final long serialVersionUID = -3391560839265361846L;
+
+  private final int[] limbs;
+  private final MontgomeryModulus modulus;
+
+  private MontgomeryFieldElement(int[] limbs, MontgomeryModulus modulus) {
+    this.limbs = limbs;
+    this.modulus = modulus;
+  }
+
+  private FieldElement create(int[] limbs) {
+    return new MontgomeryFieldElement(limbs, modulus);
+  }
+
+  /**
+   * Creates an element from limbs already in Montgomery form.
+   */
+  static FieldElement createFromLimbs(int[] limbs, MontgomeryModulus modulus) {
+    return new MontgomeryFieldElement(limbs, modulus);
+  }
+
+  static FieldElement create(BigInteger value, MontgomeryModulus modulus) {
+    return new MontgomeryFieldElement(modulus.toMontgomery(value), modulus);
+  }
+
+  static FieldElement create(long value, MontgomeryModulus modulus) {
+    return create(BigInteger.valueOf(value), modulus);
+  }
+
+  static FieldElement create(String string, MontgomeryModulus modulus) {
+    return create(new BigInteger(string), modulus);
+  }
+
+  @Override
+  public FieldElement add(FieldElement operand) {
+    return create(modulus.add(limbs, extractLimbs(operand)));
+  }
+
+  @Override
+  public FieldElement subtract(FieldElement operand) {
+    return create(modulus.subtract(limbs, extractLimbs(operand)));
+  }
+
+  @Override
+  public FieldElement negate() {
+    return create(modulus.negate(limbs));
+  }
+
+  @Override
+  public FieldElement multiply(FieldElement operand) {
+    return create(modulus.multiply(limbs, extractLimbs(operand)));
+  }
+
+  @Override
+  public FieldElement sqrt() {
+    return create(MathUtils.modularSqrt(extractValue(this), modulus.getPrime()), modulus);
+  }
+
+  @Override
+  public FieldElement modInverse() {
+    return create(extractValue(this).modInverse(modulus.getPrime()), modulus);
+  }
+
+  static int[] extractLimbs(FieldElement element) {
+    return ((MontgomeryFieldElement) element).limbs;
+  }
+
+  static BigInteger extractValue(FieldElement element) {
+    MontgomeryFieldElement montgomeryElement = (MontgomeryFieldElement) element;
+    return montgomeryElement.modulus.fromMontgomery(montgomeryElement.limbs);
+  }
+
+  @Override
+  public String toString() {
+    return "MontgomeryFieldElement{"
+        + "value=" + extractValue(this)
+        + ", modulus=" + modulus
+        + '}';
+  }
+}
@@ -0,0 +1,248 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+
+/**
+ * An odd modulus of fixed width, represented as little-endian 32 bit limbs. Values modulo this
+ * modulus are kept in Montgomery form, i.e. <i>x</i> is stored as <i>xR mod p</i> where
+ * <i>R = 2<sup>32n</sup></i> for <i>n</i> limbs, so multiplication can be done with the CIOS
+ * (coarsely integrated operand scanning) Montgomery algorithm without any division.
+ * <p>
+ * Limbs are 32 bits such that products of two limbs, plus carries, fit in an unsigned
+ * <code>long</code>.
+ * </p>
+ */
+final class MontgomeryModulus implements Serializable {
+
+  private static final long serialVersionUID = 4613318409458201768L;
+  private static final long LIMB_MASK = 0xFFFFFFFFL;
+
+  private final BigInteger prime;
+  private final int[] limbs;
+  private final int byteLength;
+  private final long negatedInverse;
+  private final int[] rsquared;
+
+  /**
+   * Creates a new modulus.
+   *
+   * @param prime the modulus, must be odd and larger than 2
+   */
+  MontgomeryModulus(BigInteger prime) {
+    if (prime.compareTo(BigInteger.valueOf(2)) <= 0) {
+      throw new IllegalArgumentException("Modulus must be larger than 2, was " + prime);
+    }
+    if (!prime.testBit(0)) {
+      throw new IllegalArgumentException("Modulus must be odd, was " + prime);
+    }
+    this.prime = prime;
+    int numLimbs = (prime.bitLength() + Integer.SIZE - 1) / Integer.SIZE;
+    this.limbs = toLimbs(prime, numLimbs);
+    this.byteLength = 1 + ((prime.bitLength() - 1) / Byte.SIZE);
+    BigInteger limbBase = BigInteger.ONE.shiftLeft(Integer.SIZE);
+    this.negatedInverse = limbBase.subtract(prime.modInverse(limbBase)).longValue();
+    BigInteger r = BigInteger.ONE.shiftLeft(numLimbs * Integer.SIZE);
+    this.rsquared = toLimbs(r.multiply(r).mod(prime), numLimbs);
+  }
+
+  BigInteger getPrime() {
+    return prime;
+  }
+
+  /**
+   * The number of bytes needed to represent a value in the range <i>0, ..., p - 1</i>.
+   */
+  int getByteLength() {
+    return byteLength;
+  }
+
+  /**
+   * Converts a value to Montgomery form.
+   *
+   * @param value any integer
+   * @return <code>value * R mod p</code>
+   */
+  int[] toMontgomery(BigInteger value) {
+    return multiply(toLimbs(value.mod(prime), limbs.length), rsquared);
+  }
+
+  /**
+   * Converts a value in Montgomery form back to an integer.
+   *
+   * @param value a value in Montgomery form
+   * @return the integer in the range <i>0, ..., p - 1</i>
+   */
+  BigInteger fromMontgomery(int[] value) {
+    int[] canonical = fromMontgomeryLimbs(value);
+    byte[] bytes = new byte[canonical.length * Integer.BYTES];
+    for (int i = 0; i < canonical.length; i++) {
+      int limb = canonical[i];
+      int offset = bytes.length - (i + 1) * Integer.BYTES;
+      bytes[offset] = (byte) (limb >>> 24);
+      bytes[offset + 1] = (byte) (limb >>> 16);
+      bytes[offset + 2] = (byte) (limb >>> 8);
+      bytes[offset + 3] = (byte) limb;
+    }
+    return new BigInteger(1, bytes);
+  }
+
+  /**
+   * Writes the value, converted out of Montgomery form, as {@link #getByteLength()} big-endian
+   * bytes.
+   */
+  void writeBytes(int[] value, byte[] bytes, int offset) {
+    int[] canonical = fromMontgomeryLimbs(value);
+    for (int i = 0; i < byteLength; i++) {
+      int limb = canonical[i / Integer.BYTES];
+      bytes[offset + byteLength - 1 - i] = (byte) (limb >>> (Byte.SIZE * (i % Integer.BYTES)));
+    }
+  }
+
+  /**
+   * Reads {@link #getByteLength()} big-endian bytes and converts the value to Montgomery form.
+   */
+  int[] readBytes(byte[] bytes, int offset) {
+    int[] canonical = new int[limbs.length];
+    for (int i = 0; i < byteLength; i++) {
+      int value = bytes[offset + byteLength - 1 - i] & 0xFF;
+      canonical[i / Integer.BYTES] |= value << (Byte.SIZE * (i % Integer.BYTES));
+    }
+    if (compare(canonical, limbs) >= 0) {
+      // Only happens for malformed input, so we simply fall back to a full reduction
+      byte[] copy = new byte[byteLength];
+      System.arraycopy(bytes, offset, copy, 0, byteLength);
+      return toMontgomery(new BigInteger(1, copy));
+    }
+    return multiply(canonical, rsquared);
+  }
+
+  int[] add(int[] left, int[] right) {
+    int[] result = new int[limbs.length];
+    long carry = 0;
+    for (int i = 0; i < limbs.length; i++) {
+      long sum = (left[i] & LIMB_MASK) + (right[i] & LIMB_MASK) + carry;
+      result[i] = (int) sum;
+      carry = sum >>> Integer.SIZE;
+    }
+    if (carry != 0 || compare(result, limbs) >= 0) {
+      subtractInPlace(result, limbs);
+    }
+    return result;
+  }
+
+  int[] subtract(int[] left, int[] right) {
+    int[] result = left.clone();
+    if (subtractInPlace(result, right) != 0) {
+      addInPlace(result, limbs);
+    }
+    return result;
+  }
+
+  int[] negate(int[] value) {
+    int[] result = limbs.clone();
+    subtractInPlace(result, value);
+    if (compare(result, limbs) == 0) {
+      return new int[limbs.length];
+    }
+    return result;
+  }
+
+  /**
+   * Computes the Montgomery product <i>left * right * R<sup>-1</sup> mod p</i>.
+   */
+  int[] multiply(int[] left, int[] right) {
+    int numLimbs = limbs.length;
+    long[] accumulator = new long[numLimbs + 2];
+    for (int i = 0; i < numLimbs; i++) {
+      long leftLimb = left[i] & LIMB_MASK;
+      long carry = 0;
+      for (int j = 0; j < numLimbs; j++) {
+        long sum = accumulator[j] + leftLimb * (right[j] & LIMB_MASK) + carry;
+        accumulator[j] = sum & LIMB_MASK;
+        carry = sum >>> Integer.SIZE;
+      }
+      long sum = accumulator[numLimbs] + carry;
+      accumulator[numLimbs] = sum & LIMB_MASK;
+      accumulator[numLimbs + 1] = sum >>> Integer.SIZE;
+
+      long m = (accumulator[0] * negatedInverse) & LIMB_MASK;
+      sum = accumulator[0] + m * (limbs[0] & LIMB_MASK);
+      carry = sum >>> Integer.SIZE;
+      for (int j = 1; j < numLimbs; j++) {
+        sum = accumulator[j] + m * (limbs[j] & LIMB_MASK) + carry;
+        accumulator[j - 1] = sum & LIMB_MASK;
+        carry = sum >>> Integer.SIZE;
+      }
+      sum = accumulator[numLimbs] + carry;
+      accumulator[numLimbs - 1] = sum & LIMB_MASK;
+      accumulator[numLimbs] = accumulator[numLimbs + 1] + (sum >>> Integer.SIZE);
+    }
+    int[] result = new int[numLimbs];
+    for (int i = 0; i < numLimbs; i++) {
+      result[i] = (int) accumulator[i];
+    }
+    if (accumulator[numLimbs] != 0 || compare(result, limbs) >= 0) {
+      subtractInPlace(result, limbs);
+    }
+    return result;
+  }
+
+  private int[] fromMontgomeryLimbs(int[] value) {
+    int[] one = new int[limbs.length];
+    one[0] = 1;
+    return multiply(value, one);
+  }
+
+  private static int[] toLimbs(BigInteger value, int numLimbs) {
+    int[] result = new int[numLimbs];
+    for (int i = 0; i < numLimbs; i++) {
+      result[i] = value.shiftRight(i * Integer.SIZE).intValue();
+    }
+    return result;
+  }
+
+  /**
+   * Compares two values of the same number of limbs as unsigned integers.
+   */
+  private static int compare(int[] left, int[] right) {
+    for (int i = left.length - 1; i >= 0; i--) {
+      if (left[i] != right[i]) {
+        return Integer.compareUnsigned(left[i], right[i]);
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Computes <code>target -= operand</code> and returns the final borrow.
+   */
+  private static long subtractInPlace(int[] target, int[] operand) {
+    long borrow = 0;
+    for (int i = 0; i < target.length; i++) {
+      long difference = (target[i] & LIMB_MASK) - (operand[i] & LIMB_MASK) - borrow;
+      target[i] = (int) difference;
+      borrow = (difference >>> Integer.SIZE) & 1;
+    }
+    return borrow;
+  }
+
+  /**
+   * Computes <code>target += operand</code>, ignoring the final carry.
+   */
+  private static void addInPlace(int[] target, int[] operand) {
+    long carry = 0;
+    for (int i = 0; i < target.length; i++) {
+      long sum = (target[i] & LIMB_MASK) + (operand[i] & LIMB_MASK) + carry;
+      target[i] = (int) sum;
+      carry = sum >>> Integer.SIZE;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "MontgomeryModulus{"
+        + "value=" + prime
+        + '}';
+  }
+}
@@ -0,0 +1,607 @@
+package dk.alexandra.fresco.framework.network.socket;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.net.ServerSocketFactory;
+import javax.net.SocketFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link CloseableNetwork} implementation based on Java's nio API.
+ *
+ * <p>
+ * All communication with the other parties is handled by a single selector thread, regardless of
+ * the number of parties, instead of the two threads per party used by {@link SocketNetwork}. The
+ * message format is the same as for {@link SocketNetwork}, i.e., each message is prefixed by an
+ * integer indicating the byte length of the message and a negative length signals that the sender
+ * closed the connection. The two implementations can therefore be mixed between parties.
+ * </p>
+ * <p>
+ * Outgoing messages are copied into pooled direct buffers, packing several small messages into
+ * each buffer, and written with a single gathering write per round of the selector. Incoming
+ * messages are read into large heap buffers that are never reused, so each message can be handed
+ * to the client as a slice of the buffer it was read into without copying it (see
+ * {@link #receiveBuffer(int)}).
+ * </p>
+ * <p>
+ * The sockets given to this network must be backed by a {@link SocketChannel}, which rules out
+ * {@link javax.net.ssl.SSLSocket}. Use {@link SocketNetwork} when TLS is needed.
+ * </p>
+ */
+public class NioSocketNetwork implements CloseableNetwork {
+
+  static final int POOLED_BUFFER_SIZE = 1 << 16;
+  static final int READ_CHUNK_SIZE = 1 << 16;
+  private static final int MAX_POOLED_BUFFERS = 64;
+  private static final int MAX_GATHERED_BUFFERS = 16;
+  private static final int HEADER_BYTES = Integer.BYTES;
+  private static final int CLOSE_MARKER = -1;
+  private static final ByteBuffer CLOSE_FRAME = ByteBuffer.allocate(0);
+  private static final ByteBuffer CLOSED = ByteBuffer.allocate(0);
+  private static final Logger logger = LoggerFactory.getLogger(NioSocketNetwork.class);
+
+  private final NetworkConfiguration conf;
+  private final BlockingQueue<byte[]> selfQueue;
+  private final Map<Integer, Peer> peers;
+  private final Queue<Peer> pendingWrites;
+  private final Deque<ByteBuffer> bufferPool;
+  private final Selector selector;
+  private final Thread thread;
+  private volatile boolean closing;
+  private boolean alive;
+
+  /**
+   * Creates a network with the given a configuration and a mapping from party ids to sockets.
+   *
+   * <p>
+   * The mapping of party ids to sockets must be consistent with the network configuration. I.e.,
+   * there should be exactly one mapping for each opposing party (but not for the local party).
+   * Also, the sockets must be connected, open and backed by a {@link SocketChannel}. Sockets
+   * connected by the {@link Connector} created by {@link #createConnector(NetworkConfiguration,
+   * Duration)} satisfy this.
+   * </p>
+   *
+   * @param conf the network configuration
+   * @param socketMap a mapping from party ids to the socket to be used for communicating with
+   *     the given party.
+   * @throws IllegalArgumentException if {@code socketMap} and {@code conf} are inconsistent or
+   *     the sockets are not open, connected and backed by a channel.
+   */
+  public NioSocketNetwork(NetworkConfiguration conf, Map<Integer, Socket> socketMap) {
+    Objects.requireNonNull(conf);
+    Objects.requireNonNull(socketMap);
+    for (int i = 1; i < conf.noOfParties() + 1; i++) {
+      if (i == conf.getMyId()) {
+        continue;
+      }
+      if (!socketMap.containsKey(i)) {
+        throw new IllegalArgumentException("Missing socket for P" + i);
+      }
+      Socket s = socketMap.get(i);
+      if (s.isClosed()) {
+        throw new IllegalArgumentException("Closed socket for P" + i);
+      }
+      if (!s.isConnected()) {
+        throw new IllegalArgumentException("Unconnected socket for P" + i);
+      }
+      if (s.getChannel() == null) {
+        throw new IllegalArgumentException("Socket for P" + i + " is not backed by a channel");
+      }
+      ExceptionConverter.safe(() -> {
+        s.setTcpNoDelay(true);
+        return null;
+      }, "Could not set delayless TCP connection");
+    }
+    this.conf = conf;
+    this.selfQueue = new LinkedBlockingQueue<>();
+    this.peers = new HashMap<>(conf.noOfParties() - 1);
+    this.pendingWrites = new ConcurrentLinkedQueue<>();
+    this.bufferPool = new ArrayDeque<>();
+    this.alive = true;
+    this.selector = ExceptionConverter.safe(Selector::open, "Unable to open selector");
+    for (Entry<Integer, Socket> entry : socketMap.entrySet()) {
+      int id = entry.getKey();
+      inRange(id);
+      SocketChannel channel = entry.getValue().getChannel();
+      Peer peer = new Peer(id, channel);
+      peer.key = ExceptionConverter.safe(() -> {
+        channel.configureBlocking(false);
+        return channel.register(selector, SelectionKey.OP_READ, peer);
+      }, "Unable to register channel for P" + id);
+      peers.put(id, peer);
+    }
+    this.thread = new Thread(this::run);
+    this.thread.setDaemon(true);
+    this.thread.setName("NioSocketNetwork-P" + conf.getMyId());
+    this.thread.start();
+  }
+
+  /**
+   * Default constructor using one minute timeout.
+   *
+   * @param conf the configuration to load the network from.
+   */
+  public NioSocketNetwork(NetworkConfiguration conf) {
+    this(conf, createConnector(conf, Connector.DEFAULT_CONNECTION_TIMEOUT).getSocketMap());
+  }
+
+  /**
+   * Creates a {@link Connector} making sockets backed by channels, as required by this network.
+   * The handshake is the same as for any other {@link Connector}.
+   *
+   * @param conf the configuration defining the network to connect
+   * @param timeout duration to wait until timeout
+   * @return the connected connector
+   */
+  public static NetworkConnector createConnector(NetworkConfiguration conf, Duration timeout) {
+    return new Connector(conf, timeout, new ChannelSocketFactory(),
+        new ChannelServerSocketFactory());
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    if (partyId == conf.getMyId()) {
+      this.selfQueue.add(data);
+    } else {
+      inRange(partyId);
+      Peer peer = peers.get(partyId);
+      if (closing || peer.failed) {
+        throw new RuntimeException(
+            "P" + conf.getMyId() + ": Unable to send to P" + partyId + ". Connection closed");
+      }
+      queueFrame(peer, ByteBuffer.wrap(data));
+    }
+  }
+
+  @Override
+  public byte[] receive(int partyId) {
+    if (partyId == conf.getMyId()) {
+      return ExceptionConverter.safe(selfQueue::take, "Receiving from self failed");
+    }
+    ByteBuffer message = receiveBuffer(partyId);
+    if (message.hasArray() && message.arrayOffset() == 0
+        && message.remaining() == message.array().length) {
+      return message.array();
+    }
+    byte[] data = new byte[message.remaining()];
+    message.get(data);
+    return data;
+  }
+
+  /**
+   * Receives a message as a buffer, without copying it out of the buffer it was read into.
+   *
+   * <p>
+   * The returned buffer is owned by the caller and is never modified by this network.
+   * </p>
+   *
+   * @param partyId the party to receive from
+   * @return a buffer holding exactly the message in its remaining bytes
+   */
+  public ByteBuffer receiveBuffer(int partyId) {
+    if (partyId == conf.getMyId()) {
+      return ByteBuffer.wrap(ExceptionConverter.safe(selfQueue::take, "Receiving from self failed"));
+    }
+    inRange(partyId);
+    Peer peer = peers.get(partyId);
+    ByteBuffer message =
+        ExceptionConverter.safe(peer.incoming::take, "Receiving from P" + partyId + " failed");
+    if (message == CLOSED) {
+      // Leave the marker so that later calls also fail
+      peer.incoming.add(CLOSED);
+      throw new RuntimeException("P" + conf.getMyId() + ": Unable to receive from P" + partyId
+          + ". Connection closed");
+    }
+    return message;
+  }
+
+  /**
+   * Check if a party ID is in the range of known parties.
+   *
+   * @param partyId an ID for a party
+   */
+  private void inRange(final int partyId) {
+    if (!(0 < partyId && partyId < getNoOfParties() + 1)) {
+      throw new IllegalArgumentException(
+          "Party id " + partyId + " not in range 1 ... " + getNoOfParties());
+    }
+  }
+
+  private void queueFrame(Peer peer, ByteBuffer frame) {
+    peer.outgoing.add(frame);
+    if (peer.writeScheduled.compareAndSet(false, true)) {
+      pendingWrites.add(peer);
+      selector.wakeup();
+    }
+  }
+
+  private void run() {
+    try {
+      while (!(closing && isFlushed())) {
+        selector.select();
+        Peer pending;
+        while ((pending = pendingWrites.poll()) != null) {
+          pending.writeScheduled.set(false);
+          write(pending);
+        }
+        for (SelectionKey key : selector.selectedKeys()) {
+          Peer peer = (Peer) key.attachment();
+          if (key.isValid() && key.isReadable()) {
+            read(peer);
+          }
+          if (key.isValid() && key.isWritable()) {
+            write(peer);
+          }
+        }
+        selector.selectedKeys().clear();
+      }
+    } catch (Exception e) {
+      logger.error("P" + conf.getMyId() + ": Network failed unexpectedly", e);
+    } finally {
+      for (Peer peer : peers.values()) {
+        peer.incoming.add(CLOSED);
+        peer.failed = true;
+        ExceptionConverter.safe(() -> {
+          peer.channel.close();
+          return null;
+        }, "Unable to properly close channel");
+      }
+      ExceptionConverter.safe(() -> {
+        selector.close();
+        return null;
+      }, "Unable to properly close selector");
+    }
+  }
+
+  private boolean isFlushed() {
+    for (Peer peer : peers.values()) {
+      if (!peer.failed && (!peer.outgoing.isEmpty() || peer.hasPendingWrites())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes as much of the queued messages as the channel accepts, and registers interest in the
+   * channel becoming writable if anything is left.
+   */
+  private void write(Peer peer) {
+    if (peer.failed) {
+      return;
+    }
+    try {
+      while (true) {
+        if (!peer.hasPendingWrites()) {
+          gatherFrames(peer);
+          if (!peer.hasPendingWrites()) {
+            peer.key.interestOps(SelectionKey.OP_READ);
+            return;
+          }
+        }
+        long written = peer.channel.write(peer.gathered, peer.gatheredStart,
+            peer.gatheredEnd - peer.gatheredStart);
+        while (peer.hasPendingWrites() && !peer.gathered[peer.gatheredStart].hasRemaining()) {
+          release(peer.gathered[peer.gatheredStart]);
+          peer.gathered[peer.gatheredStart++] = null;
+        }
+        if (written == 0 && peer.hasPendingWrites()) {
+          peer.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+          return;
+        }
+      }
+    } catch (IOException e) {
+      fail(peer, e);
+    }
+  }
+
+  /**
+   * Moves queued messages to the buffers of the next gathering write. Small messages are copied,
+   * along with their headers, into pooled direct buffers while larger messages are written directly
+   * from the array they were sent with.
+   */
+  private void gatherFrames(Peer peer) {
+    peer.gatheredStart = 0;
+    peer.gatheredEnd = 0;
+    ByteBuffer current = null;
+    ByteBuffer frame;
+    // A single message adds at most three buffers, and one more may be added when done
+    while (peer.gatheredEnd + 4 <= MAX_GATHERED_BUFFERS
+        && (frame = peer.outgoing.poll()) != null) {
+      if (current == null || current.remaining() < HEADER_BYTES) {
+        current = nextBuffer(peer, current);
+      }
+      if (frame == CLOSE_FRAME) {
+        current.putInt(CLOSE_MARKER);
+        continue;
+      }
+      current.putInt(frame.remaining());
+      if (frame.remaining() <= current.remaining()) {
+        current.put(frame);
+      } else {
+        addGathered(peer, current);
+        addGathered(peer, frame);
+        current = null;
+      }
+    }
+    if (current != null) {
+      addGathered(peer, current);
+    }
+  }
+
+  private ByteBuffer nextBuffer(Peer peer, ByteBuffer current) {
+    if (current != null) {
+      addGathered(peer, current);
+    }
+    ByteBuffer buffer = bufferPool.poll();
+    return buffer == null ? ByteBuffer.allocateDirect(POOLED_BUFFER_SIZE) : buffer;
+  }
+
+  private void addGathered(Peer peer, ByteBuffer buffer) {
+    if (buffer.isDirect()) {
+      buffer.flip();
+    }
+    peer.gathered[peer.gatheredEnd++] = buffer;
+  }
+
+  private void release(ByteBuffer buffer) {
+    if (buffer.isDirect() && bufferPool.size() < MAX_POOLED_BUFFERS) {
+      buffer.clear();
+      bufferPool.push(buffer);
+    }
+  }
+
+  /**
+   * Reads what is available on the channel and queues every completed message.
+   */
+  private void read(Peer peer) {
+    try {
+      while (true) {
+        ByteBuffer target = peer.largeMessage != null ? peer.largeMessage : peer.chunk;
+        int read = peer.channel.read(target);
+        if (read < 0) {
+          closeInput(peer);
+          return;
+        }
+        if (peer.largeMessage != null) {
+          if (!peer.largeMessage.hasRemaining()) {
+            peer.largeMessage.flip();
+            peer.incoming.add(peer.largeMessage);
+            peer.largeMessage = null;
+          }
+        } else {
+          extractMessages(peer);
+        }
+        if (read == 0 || peer.inputClosed) {
+          return;
+        }
+      }
+    } catch (IOException e) {
+      fail(peer, e);
+    }
+  }
+
+  /**
+   * Slices completed messages out of the current chunk. If the chunk cannot hold the remainder of
+   * an incomplete message, the incomplete part is moved to a fresh chunk, or to a buffer of its
+   * own if the message is larger than a chunk.
+   */
+  private void extractMessages(Peer peer) {
+    ByteBuffer chunk = peer.chunk;
+    int end = chunk.position();
+    int needed = HEADER_BYTES;
+    while (end - peer.chunkStart >= HEADER_BYTES) {
+      int length = chunk.getInt(peer.chunkStart);
+      if (length < 0) {
+        closeInput(peer);
+        return;
+      }
+      int messageStart = peer.chunkStart + HEADER_BYTES;
+      if (end - messageStart < length) {
+        if (HEADER_BYTES + length > READ_CHUNK_SIZE) {
+          ByteBuffer large = ByteBuffer.allocate(length);
+          ByteBuffer available = chunk.duplicate();
+          available.position(messageStart).limit(end);
+          large.put(available);
+          peer.largeMessage = large;
+          peer.chunkStart = end;
+          needed = 0;
+        } else {
+          needed = HEADER_BYTES + length;
+        }
+        break;
+      }
+      ByteBuffer message = chunk.duplicate();
+      message.position(messageStart).limit(messageStart + length);
+      peer.incoming.add(message.slice());
+      peer.chunkStart = messageStart + length;
+    }
+    if (peer.chunkStart + Math.max(needed, 1) > chunk.capacity()) {
+      ByteBuffer fresh = ByteBuffer.allocate(READ_CHUNK_SIZE);
+      ByteBuffer remaining = chunk.duplicate();
+      remaining.position(peer.chunkStart).limit(end);
+      fresh.put(remaining);
+      peer.chunk = fresh;
+      peer.chunkStart = 0;
+    }
+  }
+
+  private void closeInput(Peer peer) {
+    peer.inputClosed = true;
+    peer.incoming.add(CLOSED);
+    peer.key.interestOps(peer.key.interestOps() & ~SelectionKey.OP_READ);
+  }
+
+  private void fail(Peer peer, IOException e) {
+    if (closing) {
+      logger.debug("P{}: Connection to P{} failed while closing", conf.getMyId(), peer.id, e);
+    } else {
+      logger.error("P" + conf.getMyId() + ": Connection to P" + peer.id + " failed", e);
+    }
+    peer.failed = true;
+    peer.incoming.add(CLOSED);
+    peer.key.cancel();
+  }
+
+  /**
+   * Closes the network down and releases held resources. This will block until all pending
+   * messages have been written.
+   */
+  @Override
+  public void close() {
+    if (alive) {
+      alive = false;
+      for (Peer peer : peers.values()) {
+        if (!peer.failed) {
+          queueFrame(peer, CLOSE_FRAME);
+        }
+      }
+      closing = true;
+      selector.wakeup();
+      ExceptionConverter.safe(() -> {
+        thread.join();
+        return null;
+      }, "Interrupted while closing network");
+      logger.info("P{}: Network closed", conf.getMyId());
+    } else {
+      logger.info("P{}: Network already closed", conf.getMyId());
+    }
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return this.conf.noOfParties();
+  }
+
+  /**
+   * The state of the connection to a single opposing party. Apart from the queues and flags, the
+   * state is only accessed by the selector thread.
+   */
+  private static final class Peer {
+
+    private final int id;
+    private final SocketChannel channel;
+    private final Queue<ByteBuffer> outgoing;
+    private final AtomicBoolean writeScheduled;
+    private final BlockingQueue<ByteBuffer> incoming;
+    private final ByteBuffer[] gathered;
+    private SelectionKey key;
+    private int gatheredStart;
+    private int gatheredEnd;
+    private ByteBuffer chunk;
+    private int chunkStart;
+    private ByteBuffer largeMessage;
+    private boolean inputClosed;
+    private volatile boolean failed;
+
+    private Peer(int id, SocketChannel channel) {
+      this.id = id;
+      this.channel = channel;
+      this.outgoing = new ConcurrentLinkedQueue<>();
+      this.writeScheduled = new AtomicBoolean(false);
+      this.incoming = new LinkedBlockingQueue<>();
+      this.gathered = new ByteBuffer[MAX_GATHERED_BUFFERS];
+      this.chunk = ByteBuffer.allocate(READ_CHUNK_SIZE);
+    }
+
+    private boolean hasPendingWrites() {
+      return gatheredStart < gatheredEnd;
+    }
+  }
+
+  /**
+   * Creates client sockets backed by a {@link SocketChannel}.
+   */
+  private static final class ChannelSocketFactory extends SocketFactory {
+
+    @Override
+    public Socket createSocket() throws IOException {
+      return SocketChannel.open().socket();
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+      return SocketChannel.open(new InetSocketAddress(host, port)).socket();
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+        throws IOException {
+      Socket socket = createSocket();
+      socket.bind(new InetSocketAddress(localHost, localPort));
+      socket.connect(new InetSocketAddress(host, port));
+      return socket;
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+      return SocketChannel.open(new InetSocketAddress(host, port)).socket();
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress,
+        int localPort) throws IOException {
+      Socket socket = createSocket();
+      socket.bind(new InetSocketAddress(localAddress, localPort));
+      socket.connect(new InetSocketAddress(address, port));
+      return socket;
+    }
+  }
+
+  /**
+   * Creates server sockets backed by a {@link ServerSocketChannel}, such that accepted sockets are
+   * backed by a {@link SocketChannel}.
+   */
+  private static final class ChannelServerSocketFactory extends ServerSocketFactory {
+
+    @Override
+    public ServerSocket createServerSocket() throws IOException {
+      ServerSocketChannel channel = ServerSocketChannel.open();
+      channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+      return channel.socket();
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+      return createServerSocket(port, 0, null);
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+      return createServerSocket(port, backlog, null);
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog, InetAddress address)
+        throws IOException {
+      ServerSocket socket = createServerSocket();
+      socket.bind(new InetSocketAddress(address, port), backlog);
+      return socket;
+    }
+  }
+}
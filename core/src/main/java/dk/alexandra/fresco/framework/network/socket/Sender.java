@@ -3,40 +3,98 @@ package dk.alexandra.fresco.framework.network.socket;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import java.io.BufferedOutputStream;
 import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The sender sending messages.
+ *
+ * <p>
+ * All messages queued at the time the sender wakes up are written before flushing, such that
+ * protocols sending many small messages at once do not pay a write to the socket per message. The
+ * buffered bytes are flushed when they exceed a maximum size, or when no more messages are queued.
+ * In the latter case the sender can optionally wait a bounded time for more messages to arrive
+ * before flushing.
+ * </p>
  */
 class Sender {
 
+  /**
+   * The default number of buffered bytes that triggers a flush.
+   */
+  static final int DEFAULT_MAX_FLUSH_BYTES = 1 << 16;
+  /**
+   * The default time to wait for more messages before flushing, i.e., flush as soon as the queue
+   * is empty.
+   */
+  static final Duration DEFAULT_MAX_FLUSH_LATENCY = Duration.ZERO;
   private static final Logger logger = LoggerFactory.getLogger(Sender.class);
+  /**
+   * Queued by {@link #stop()} to wake up the sender thread. Recognized by reference and never
+   * written.
+   */
+  private static final byte[] POISON = new byte[0];
   private final DataOutputStream out;
   private final BlockingQueue<byte[]> queue;
   private final AtomicBoolean flushAndStop;
-  private final AtomicBoolean ignoreNext;
   private final Thread thread;
+  private final int maxFlushBytes;
+  private final long maxFlushLatencyNanos;
+  private final AtomicLong frames;
+  private final AtomicLong flushes;
+  private final AtomicLong writes;
+
+  /**
+   * Creates a new sender on a given socket using the default flush policy. This starts a separate
+   * thread for sending queued messages.
+   *
+   * @param sock the socket to send over
+   */
+  Sender(Socket sock) {
+    this(sock, DEFAULT_MAX_FLUSH_BYTES, DEFAULT_MAX_FLUSH_LATENCY);
+  }
 
   /**
    * Creates a new sender on a given socket. This starts a separate thread for sending queued
    * messages.
    *
    * @param sock the socket to send over
+   * @param maxFlushBytes the number of buffered bytes that triggers a flush
+   * @param maxFlushLatency the maximum time to wait for more messages before flushing
    */
-  Sender(Socket sock) {
+  Sender(Socket sock, int maxFlushBytes, Duration maxFlushLatency) {
     Objects.requireNonNull(sock);
+    Objects.requireNonNull(maxFlushLatency);
+    if (maxFlushBytes < 1) {
+      throw new IllegalArgumentException("Max flush bytes must be positive, was " + maxFlushBytes);
+    }
+    if (maxFlushLatency.isNegative()) {
+      throw new IllegalArgumentException("Max flush latency must not be negative");
+    }
+    this.maxFlushBytes = maxFlushBytes;
+    this.maxFlushLatencyNanos = maxFlushLatency.toNanos();
+    this.frames = new AtomicLong();
+    this.flushes = new AtomicLong();
+    this.writes = new AtomicLong();
     this.out = ExceptionConverter.safe(
-        () -> new DataOutputStream(new BufferedOutputStream(sock.getOutputStream())),
+        () -> new DataOutputStream(new BufferedOutputStream(
+            new CountingOutputStream(sock.getOutputStream()), maxFlushBytes)),
         "Unable to get output stream from socket");
     this.queue = new LinkedBlockingQueue<>();
     this.flushAndStop = new AtomicBoolean(false);
-    this.ignoreNext = new AtomicBoolean(false);
     this.thread = new Thread(this::run);
     this.thread.setDaemon(true);
     this.thread.setName("sender-" + this.thread.getId());
@@ -71,10 +129,7 @@ class Sender {
   void stop() {
     flushAndStop.set(true);
     if (isRunning()) {
-      if (queue.isEmpty()) {
-        this.ignoreNext.set(true);
-        queue.add(new byte[] {});
-      }
+      queue.add(POISON);
       ExceptionConverter.safe(() -> {
         this.thread.join();
         return null;
@@ -82,14 +137,70 @@ class Sender {
     }
   }
 
+  /**
+   * The number of messages written so far.
+   */
+  long getFrameCount() {
+    return frames.get();
+  }
+
+  /**
+   * The number of times the buffered messages were flushed to the socket.
+   */
+  long getFlushCount() {
+    return flushes.get();
+  }
+
+  /**
+   * The number of writes to the socket, i.e., the number of system calls made for sending.
+   */
+  long getWriteCount() {
+    return writes.get();
+  }
+
+  /**
+   * Resets the frame, flush and write counters.
+   */
+  void resetCounters() {
+    frames.set(0);
+    flushes.set(0);
+    writes.set(0);
+  }
+
   private void run() {
+    List<byte[]> batch = new ArrayList<>();
     try {
       while (shouldRun()) {
-        byte[] data = queue.take();
-        if (!ignoreNext.get()) {
-          out.writeInt(data.length);
-          out.write(data);
-          out.flush();
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + maxFlushLatencyNanos;
+        int buffered = 0;
+        while (!batch.isEmpty()) {
+          for (byte[] data : batch) {
+            if (data == POISON) {
+              continue;
+            }
+            out.writeInt(data.length);
+            out.write(data);
+            frames.incrementAndGet();
+            buffered += Integer.BYTES + data.length;
+            if (buffered >= maxFlushBytes) {
+              flush();
+              buffered = 0;
+            }
+          }
+          batch.clear();
+          if (queue.drainTo(batch) == 0 && buffered > 0 && !flushAndStop.get()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+              byte[] next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+              if (next != null) {
+                batch.add(next);
+              }
+            }
+          }
+        }
+        if (buffered > 0) {
+          flush();
         }
       }
       out.writeInt(-1);
@@ -101,7 +212,34 @@ class Sender {
     }
   }
 
+  private void flush() throws IOException {
+    out.flush();
+    flushes.incrementAndGet();
+  }
+
   private boolean shouldRun() {
     return !(flushAndStop.get() && queue.isEmpty());
   }
+
+  /**
+   * Counts the writes to the underlying stream.
+   */
+  private final class CountingOutputStream extends FilterOutputStream {
+
+    private CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      writes.incrementAndGet();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      writes.incrementAndGet();
+    }
+  }
 }
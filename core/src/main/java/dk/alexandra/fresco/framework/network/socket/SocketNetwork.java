@@ -3,6 +3,7 @@ package dk.alexandra.fresco.framework.network.socket;
 import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
 import dk.alexandra.fresco.framework.network.CloseableNetwork;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.logging.PerformanceLogger;
 import java.net.Socket;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
@@ -34,9 +35,21 @@ import org.slf4j.LoggerFactory;
  * A very simple message format is used where each message is
  * prefixed by an integer indicating the byte length of the message.
  * </p>
+ * <p>
+ * The sending thread writes all queued messages before flushing them to the socket. The number of
+ * messages, flushes and socket writes made by the sending threads are reported as a
+ * {@link PerformanceLogger}.
+ * </p>
  */
-public class SocketNetwork implements CloseableNetwork {
+public class SocketNetwork implements CloseableNetwork, PerformanceLogger {
 
+  public static final String SENDER_PARTY_FRAMES = "Amount of messages sent pr. party";
+  public static final String SENDER_PARTY_FLUSHES = "Amount of flushes pr. party";
+  public static final String SENDER_PARTY_WRITES = "Amount of socket writes pr. party";
+  public static final String SENDER_TOTAL_FRAMES = "Total amount of messages sent";
+  public static final String SENDER_TOTAL_FLUSHES = "Total amount of flushes";
+  public static final String SENDER_TOTAL_WRITES = "Total amount of socket writes";
+  public static final String SENDER_FRAMES_PER_FLUSH = "Average amount of messages pr. flush";
   private static final Duration RECEIVE_TIMEOUT = Duration.ofMillis(100);
   private static final Logger logger = LoggerFactory.getLogger(SocketNetwork.class);
   private final BlockingQueue<byte[]> selfQueue;
@@ -45,6 +58,8 @@ public class SocketNetwork implements CloseableNetwork {
   private final Collection<Socket> sockets;
   private final Map<Integer, Sender> senders;
   private final Map<Integer, Receiver> receivers;
+  private final int maxFlushBytes;
+  private final Duration maxFlushLatency;
 
   /**
    * Creates a network with the given a configuration and a mapping from party ids to sockets.
@@ -62,8 +77,32 @@ public class SocketNetwork implements CloseableNetwork {
    *     the sockets are not open and connected.
    */
   public SocketNetwork(NetworkConfiguration conf, Map<Integer, Socket> socketMap) {
+    this(conf, socketMap, Sender.DEFAULT_MAX_FLUSH_BYTES, Sender.DEFAULT_MAX_FLUSH_LATENCY);
+  }
+
+  /**
+   * Creates a network with the given a configuration, a mapping from party ids to sockets and a
+   * policy for when to flush outgoing messages.
+   *
+   * <p>
+   * Outgoing messages are flushed when more than {@code maxFlushBytes} are buffered, or when no
+   * more messages have been queued within {@code maxFlushLatency} of the first buffered message.
+   * A zero latency flushes as soon as there are no more queued messages.
+   * </p>
+   *
+   * @param conf the network configuration
+   * @param socketMap a mapping from party ids to the socket to be used for communicating with
+   *     the given party.
+   * @param maxFlushBytes the number of buffered bytes that triggers a flush
+   * @param maxFlushLatency the maximum time to wait for more messages before flushing
+   * @throws IllegalArgumentException if {@code socketMap} and {@code conf} are inconsistent or
+   *     the sockets are not open and connected.
+   */
+  public SocketNetwork(NetworkConfiguration conf, Map<Integer, Socket> socketMap,
+      int maxFlushBytes, Duration maxFlushLatency) {
     Objects.requireNonNull(conf);
     Objects.requireNonNull(socketMap);
+    Objects.requireNonNull(maxFlushLatency);
     for (int i = 1; i < conf.noOfParties() + 1; i++) {
       if (i == conf.getMyId()) {
         continue;
@@ -84,6 +123,8 @@ public class SocketNetwork implements CloseableNetwork {
       }, "Could not set delayless TCP connection");
     }
     this.conf = conf;
+    this.maxFlushBytes = maxFlushBytes;
+    this.maxFlushLatency = maxFlushLatency;
     int externalParties = conf.noOfParties() - 1;
     this.receivers = new HashMap<>(externalParties);
     this.senders = new HashMap<>(externalParties);
@@ -118,7 +159,7 @@ public class SocketNetwork implements CloseableNetwork {
       Socket socket = entry.getValue();
       Receiver receiver = new Receiver(socket);
       this.receivers.put(id, receiver);
-      Sender sender = new Sender(socket);
+      Sender sender = new Sender(socket, maxFlushBytes, maxFlushLatency);
       this.senders.put(id, sender);
     }
   }
@@ -211,4 +252,33 @@ public class SocketNetwork implements CloseableNetwork {
   public int getNoOfParties() {
     return this.conf.noOfParties();
   }
+
+  @Override
+  public void reset() {
+    for (Sender sender : senders.values()) {
+      sender.resetCounters();
+    }
+  }
+
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    long totalFrames = 0;
+    long totalFlushes = 0;
+    long totalWrites = 0;
+    for (Entry<Integer, Sender> entry : senders.entrySet()) {
+      Sender sender = entry.getValue();
+      values.put(SENDER_PARTY_FRAMES + "_" + entry.getKey(), sender.getFrameCount());
+      values.put(SENDER_PARTY_FLUSHES + "_" + entry.getKey(), sender.getFlushCount());
+      values.put(SENDER_PARTY_WRITES + "_" + entry.getKey(), sender.getWriteCount());
+      totalFrames += sender.getFrameCount();
+      totalFlushes += sender.getFlushCount();
+      totalWrites += sender.getWriteCount();
+    }
+    values.put(SENDER_TOTAL_FRAMES, totalFrames);
+    values.put(SENDER_TOTAL_FLUSHES, totalFlushes);
+    values.put(SENDER_TOTAL_WRITES, totalWrites);
+    values.put(SENDER_FRAMES_PER_FLUSH, totalFlushes == 0 ? 0 : totalFrames / totalFlushes);
+    return values;
+  }
 }
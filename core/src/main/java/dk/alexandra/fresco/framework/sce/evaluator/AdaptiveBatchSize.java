@@ -0,0 +1,219 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+/**
+ * Chooses the batch size of a {@link BatchedProtocolEvaluator} online, based on the measured
+ * round time and the number of bytes sent per round.
+ *
+ * <p>
+ * The time of a network round is modelled as <code>latency + bytes * nanosPerByte</code>, where
+ * the latency covers the round trip and any fixed per round overhead, and <code>nanosPerByte</code>
+ * covers both bandwidth and local computation. The two are estimated by a linear regression over
+ * the recent rounds. Since every batch pays the latency once per round, the batch size is chosen
+ * such that the time spent on the payload of a round is {@link #LATENCY_FACTOR} times the latency,
+ * i.e., such that roughly 80% of each round is spent on useful work. This gives large batches on
+ * high latency networks and smaller batches, i.e., a smaller memory footprint, when latency is
+ * negligible.
+ * </p>
+ *
+ * <p>
+ * The batch size is only adjusted every {@link #getAdjustmentInterval()} batches and changes by at
+ * most a factor of two at a time. Until the model can be estimated, the batch size is doubled as
+ * long as the batches are filled, i.e., as long as the computation could use larger batches. If
+ * no batch since the last adjustment was filled, the batch size shrinks towards the largest batch
+ * actually seen, since a larger size only costs memory.
+ * </p>
+ *
+ * <p>
+ * All parties must use the same batch size, since the messages of a round are sent together. The
+ * evaluator therefore lets each party propose a batch size using {@link #propose()} and agrees on
+ * the smallest proposal. For the same reason, an evaluator using adaptive batch sizes should not
+ * be used for concurrent evaluations.
+ * </p>
+ */
+public class AdaptiveBatchSize {
+
+  /**
+   * The minimum batch size used by default.
+   */
+  public static final int DEFAULT_MIN_BATCH_SIZE = 128;
+  /**
+   * The number of batches between adjustments used by default.
+   */
+  public static final int DEFAULT_ADJUSTMENT_INTERVAL = 16;
+  /**
+   * The targeted ratio between the time spent on the payload of a round and the latency.
+   */
+  static final int LATENCY_FACTOR = 4;
+  private static final double DECAY = 0.9;
+  private static final int MIN_SAMPLES = 4;
+
+  private final int minBatchSize;
+  private final int maxBatchSize;
+  private final int adjustmentInterval;
+  private int batchSize;
+  private boolean filled;
+  private int largestBatch;
+  private int samples;
+  private double weight;
+  private double sumBytes;
+  private double sumNanos;
+  private double sumBytesSquared;
+  private double sumBytesNanos;
+  private double bytesPerProtocol;
+
+  /**
+   * Creates a new adaptive batch size starting at the maximum batch size.
+   *
+   * @param minBatchSize the smallest batch size to use
+   * @param maxBatchSize the largest batch size to use
+   */
+  public AdaptiveBatchSize(int minBatchSize, int maxBatchSize) {
+    this(minBatchSize, maxBatchSize, maxBatchSize, DEFAULT_ADJUSTMENT_INTERVAL);
+  }
+
+  /**
+   * Creates a new adaptive batch size.
+   *
+   * @param minBatchSize the smallest batch size to use
+   * @param initialBatchSize the batch size to use for the first batches
+   * @param maxBatchSize the largest batch size to use
+   * @param adjustmentInterval the number of batches between adjustments of the batch size
+   */
+  public AdaptiveBatchSize(int minBatchSize, int initialBatchSize, int maxBatchSize,
+      int adjustmentInterval) {
+    if (minBatchSize < 1 || maxBatchSize < minBatchSize) {
+      throw new IllegalArgumentException(
+          "Invalid batch size bounds [" + minBatchSize + ", " + maxBatchSize + "]");
+    }
+    if (initialBatchSize < minBatchSize || initialBatchSize > maxBatchSize) {
+      throw new IllegalArgumentException("Initial batch size " + initialBatchSize
+          + " is not within [" + minBatchSize + ", " + maxBatchSize + "]");
+    }
+    if (adjustmentInterval < 1) {
+      throw new IllegalArgumentException(
+          "Adjustment interval must be positive, was " + adjustmentInterval);
+    }
+    this.minBatchSize = minBatchSize;
+    this.maxBatchSize = maxBatchSize;
+    this.batchSize = initialBatchSize;
+    this.adjustmentInterval = adjustmentInterval;
+  }
+
+  /**
+   * Creates a batch size that never changes.
+   *
+   * @param batchSize the batch size
+   * @return a fixed batch size
+   */
+  public static AdaptiveBatchSize fixed(int batchSize) {
+    return new AdaptiveBatchSize(batchSize, batchSize);
+  }
+
+  /**
+   * Returns the batch size currently in use.
+   *
+   * @return the batch size
+   */
+  public synchronized int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Returns the number of batches between adjustments of the batch size.
+   *
+   * @return the adjustment interval
+   */
+  public int getAdjustmentInterval() {
+    return adjustmentInterval;
+  }
+
+  /**
+   * Tests if the batch size can change at all.
+   *
+   * @return true if the lower and upper bound are equal
+   */
+  public boolean isFixed() {
+    return minBatchSize == maxBatchSize;
+  }
+
+  /**
+   * Records the measurements of an evaluated batch.
+   *
+   * @param protocols the number of native protocols in the batch
+   * @param rounds the number of network rounds used to evaluate the batch
+   * @param bytes the number of bytes sent while evaluating the batch
+   * @param nanos the time spent evaluating the batch in nanoseconds
+   */
+  public synchronized void record(int protocols, long rounds, long bytes, long nanos) {
+    if (protocols == 0 || rounds == 0) {
+      return;
+    }
+    filled |= protocols >= batchSize;
+    largestBatch = Math.max(largestBatch, protocols);
+    double roundBytes = (double) bytes / rounds;
+    double roundNanos = (double) nanos / rounds;
+    weight = weight * DECAY + 1;
+    sumBytes = sumBytes * DECAY + roundBytes;
+    sumNanos = sumNanos * DECAY + roundNanos;
+    sumBytesSquared = sumBytesSquared * DECAY + roundBytes * roundBytes;
+    sumBytesNanos = sumBytesNanos * DECAY + roundBytes * roundNanos;
+    double perProtocol = roundBytes / protocols;
+    bytesPerProtocol = samples == 0
+        ? perProtocol
+        : bytesPerProtocol * DECAY + perProtocol * (1 - DECAY);
+    samples++;
+  }
+
+  /**
+   * Computes the batch size this party would like to use for the next batches, based on the
+   * batches recorded so far.
+   *
+   * @return the proposed batch size
+   */
+  public synchronized int propose() {
+    if (!filled) {
+      // The computation does not produce batches large enough for the size to matter, so any size
+      // above the largest batch serves it equally well
+      return bound(largestBatch + 1.0);
+    }
+    double proposal = 2.0 * batchSize;
+    if (samples >= MIN_SAMPLES) {
+      double variance = weight * sumBytesSquared - sumBytes * sumBytes;
+      if (variance > 1e-9 * weight * sumBytesSquared) {
+        double nanosPerByte = (weight * sumBytesNanos - sumBytes * sumNanos) / variance;
+        double latency = (sumNanos - nanosPerByte * sumBytes) / weight;
+        if (latency <= 0) {
+          // Rounds are (almost) free, so smaller batches cost nothing but save memory
+          proposal = minBatchSize;
+        } else if (nanosPerByte > 0 && bytesPerProtocol > 0) {
+          proposal = LATENCY_FACTOR * latency / (nanosPerByte * bytesPerProtocol);
+        }
+      }
+    }
+    return bound(proposal);
+  }
+
+  /**
+   * Bounds a proposal to at most a factor of two from the current batch size and to the range of
+   * allowed batch sizes.
+   */
+  private int bound(double proposal) {
+    proposal = Math.max(batchSize / 2.0, Math.min(2.0 * batchSize, proposal));
+    return (int) Math.max(minBatchSize, Math.min(maxBatchSize, proposal));
+  }
+
+  /**
+   * Sets the batch size agreed upon by the parties.
+   *
+   * @param batchSize the new batch size, which must be within the bounds
+   */
+  public synchronized void setBatchSize(int batchSize) {
+    if (batchSize < minBatchSize || batchSize > maxBatchSize) {
+      throw new IllegalArgumentException("Batch size " + batchSize
+          + " is not within [" + minBatchSize + ", " + maxBatchSize + "]");
+    }
+    this.batchSize = batchSize;
+    this.filled = false;
+    this.largestBatch = 0;
+  }
+}
@@ -5,6 +5,7 @@ import dk.alexandra.fresco.framework.ProtocolProducer;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 import dk.alexandra.fresco.suite.ProtocolSuite;
+import java.nio.ByteBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,6 +14,12 @@ import org.slf4j.LoggerFactory;
  * certain batch size. How each batch is evaluated is up to the given batch evaluation strategy.
  * Each batch is required to contain only functionally independent native protocols.
  *
+ * <p>
+ * The maximum batch size is either fixed or chosen online by an {@link AdaptiveBatchSize}. In the
+ * latter case the parties exchange their proposed batch sizes every
+ * {@link AdaptiveBatchSize#getAdjustmentInterval()} batches and all use the smallest one.
+ * </p>
+ *
  * @param <ResourcePoolT> The resource pool type to use
  */
 public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
@@ -23,7 +30,7 @@ public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
 
   private final BatchEvaluationStrategy<ResourcePoolT> batchEvaluator;
   private final ProtocolSuite<ResourcePoolT, ?> protocolSuite;
-  private final int maxBatchSize;
+  private final AdaptiveBatchSize batchSize;
 
   public BatchedProtocolEvaluator(
       BatchEvaluationStrategy<ResourcePoolT> batchEvaluator,
@@ -34,8 +41,21 @@ public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
   public BatchedProtocolEvaluator(
       BatchEvaluationStrategy<ResourcePoolT> batchEvaluator,
       ProtocolSuite<ResourcePoolT, ?> protocolSuite, int maxBatchSize) {
+    this(batchEvaluator, protocolSuite, AdaptiveBatchSize.fixed(maxBatchSize));
+  }
+
+  /**
+   * Creates a new evaluator that adapts the batch size to the network and the computation.
+   *
+   * @param batchEvaluator the strategy used to evaluate each batch
+   * @param protocolSuite the protocol suite
+   * @param batchSize the bounds and state of the adaptive batch size
+   */
+  public BatchedProtocolEvaluator(
+      BatchEvaluationStrategy<ResourcePoolT> batchEvaluator,
+      ProtocolSuite<ResourcePoolT, ?> protocolSuite, AdaptiveBatchSize batchSize) {
     this.batchEvaluator = batchEvaluator;
-    this.maxBatchSize = maxBatchSize;
+    this.batchSize = batchSize;
     this.protocolSuite = protocolSuite;
   }
 
@@ -50,12 +70,22 @@ public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
     ProtocolSuite.RoundSynchronization<ResourcePoolT> roundSynchronization =
         protocolSuite.createRoundSynchronization();
     do {
+      if (totalBatches > 0 && totalBatches % batchSize.getAdjustmentInterval() == 0
+          && !batchSize.isFixed()) {
+        adjustBatchSize(resourcePool, network);
+      }
+      int maxBatchSize = batchSize.getBatchSize();
       ProtocolCollectionList<ResourcePoolT> protocols = new ProtocolCollectionList<>(maxBatchSize);
       protocolProducer.getNextProtocols(protocols);
       int size = protocols.size();
 
       roundSynchronization.beforeBatch(protocols, resourcePool, network);
+      long rounds = networkBatchDecorator.getFlushCount();
+      long bytes = networkBatchDecorator.getBytesSent();
+      long then = System.nanoTime();
       batchEvaluator.processBatch(protocols, resourcePool, networkBatchDecorator);
+      batchSize.record(size, networkBatchDecorator.getFlushCount() - rounds,
+          networkBatchDecorator.getBytesSent() - bytes, System.nanoTime() - then);
       logger.trace("Done evaluating batch: " + batch++ + " with " + size + " native protocols");
       if (size == 0) {
         logger.debug("Batch " + batch + " is empty");
@@ -66,7 +96,29 @@ public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
     } while (protocolProducer.hasNextProtocols());
 
     roundSynchronization.finishedEval(resourcePool, network);
-    return new EvaluationStatistics(totalProtocols, totalBatches);
+    return new EvaluationStatistics(totalProtocols, totalBatches, batchSize.getBatchSize());
+  }
+
+  /**
+   * Exchanges the proposed batch sizes with the other parties and uses the smallest one.
+   */
+  private void adjustBatchSize(ResourcePool resourcePool, Network network) {
+    int agreed = batchSize.propose();
+    byte[] proposal = ByteBuffer.allocate(Integer.BYTES).putInt(agreed).array();
+    for (int i = 1; i <= resourcePool.getNoOfParties(); i++) {
+      if (i != resourcePool.getMyId()) {
+        network.send(i, proposal);
+      }
+    }
+    for (int i = 1; i <= resourcePool.getNoOfParties(); i++) {
+      if (i != resourcePool.getMyId()) {
+        agreed = Math.min(agreed, ByteBuffer.wrap(network.receive(i)).getInt());
+      }
+    }
+    if (agreed != batchSize.getBatchSize()) {
+      logger.debug("Changing batch size from " + batchSize.getBatchSize() + " to " + agreed);
+    }
+    batchSize.setBatchSize(agreed);
   }
 
   private NetworkBatchDecorator createSceNetwork(ResourcePool resourcePool, Network network) {
@@ -1,8 +1,9 @@
 package dk.alexandra.fresco.framework.sce.evaluator;
 
 import dk.alexandra.fresco.framework.network.Network;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -12,14 +13,24 @@ import java.util.Map;
  * communication on the network batched and hence throttled so evaluators behave nice
  * on the network.
  * <br/>
+ * Each message in a batch is prefixed by its length encoded as an unsigned varint, i.e. seven
+ * bits per byte with the most significant bit set on all but the last byte. Messages shorter than
+ * 128 bytes thus carry a single byte of overhead, while messages of any size can be sent.
+ * <br/>
  * It is important to call flush to empty all buffers after sending and before receiving data
  */
 public class NetworkBatchDecorator implements Network {
 
+  private static final int CONTINUATION_BIT = 0x80;
+  private static final int PAYLOAD_BITS = 0x7F;
+
   private int noOfParties;
   private final Network network;
   private Map<Integer, ByteArrayOutputStream> output;
-  private Map<Integer, ByteArrayInputStream> input;
+  private Map<Integer, ByteBuffer> input;
+  private long flushes;
+  private long bytesSent;
+  private Runnable flushListener;
 
   public NetworkBatchDecorator(int noOfParties, Network network) {
     this.noOfParties = noOfParties;
@@ -30,17 +41,36 @@ public class NetworkBatchDecorator implements Network {
 
   @Override
   public byte[] receive(int id) {
-    ByteArrayInputStream byteInputStream = input.get(id);
-    if (byteInputStream == null) {
+    ByteBuffer buffer = nextMessage(id);
+    int offset = buffer.arrayOffset() + buffer.position();
+    return Arrays.copyOfRange(buffer.array(), offset, offset + buffer.remaining());
+  }
+
+  /**
+   * Receives the next message from the given party as a read-only view into the batch received
+   * from the underlying network. Unlike {@link #receive(int)} this does not copy the message.
+   *
+   * <p>The returned buffer is only valid until the next call to {@link #flush()}.</p>
+   *
+   * @param id the party to receive from
+   * @return a buffer positioned at the start of the message and limited to its end
+   */
+  public ByteBuffer receiveBuffer(int id) {
+    return nextMessage(id).asReadOnlyBuffer();
+  }
+
+  private ByteBuffer nextMessage(int id) {
+    ByteBuffer batch = input.get(id);
+    if (batch == null) {
       byte[] partyData = network.receive(id);
-      byteInputStream = new ByteArrayInputStream(partyData);
-      input.put(id, byteInputStream);
+      batch = ByteBuffer.wrap(partyData);
+      input.put(id, batch);
     }
-
-    int count = byteInputStream.read();
-    byte[] bytes = new byte[count];
-    byteInputStream.read(bytes, 0, count);
-    return bytes;
+    int count = readLength(batch);
+    ByteBuffer message = batch.slice();
+    message.limit(count);
+    batch.position(batch.position() + count);
+    return message;
   }
 
   @Override
@@ -52,11 +82,7 @@ public class NetworkBatchDecorator implements Network {
   public void send(int id, byte[] data) {
     ByteArrayOutputStream buffer = this.output
         .computeIfAbsent(id, (i) -> new ByteArrayOutputStream());
-    if (data.length > Byte.MAX_VALUE) {
-      throw new IllegalStateException(
-          "Current implementation only supports small packages, data.length=" + data.length);
-    }
-    buffer.write(data.length);
+    writeLength(buffer, data.length);
     buffer.write(data, 0, data.length);
   }
 
@@ -69,9 +95,62 @@ public class NetworkBatchDecorator implements Network {
         ByteArrayOutputStream byteArrayOutputStream = output.get(i);
         byte[] data = byteArrayOutputStream.toByteArray();
         network.send(i, data);
+        bytesSent += data.length;
       }
       output.remove(i);
     }
     input.clear();
+    flushes++;
+    if (flushListener != null) {
+      flushListener.run();
+    }
+  }
+
+  /**
+   * Sets a listener which is run at the end of every flush, i.e., at the end of every network
+   * round. Replaces any previously set listener.
+   *
+   * @param flushListener the listener, or null to remove the current listener
+   */
+  public void setFlushListener(Runnable flushListener) {
+    this.flushListener = flushListener;
+  }
+
+  /**
+   * Returns the number of times this network has been flushed, i.e., the number of network rounds.
+   *
+   * @return the number of flushes
+   */
+  public long getFlushCount() {
+    return flushes;
+  }
+
+  /**
+   * Returns the total number of bytes sent to the underlying network.
+   *
+   * @return the number of bytes sent
+   */
+  public long getBytesSent() {
+    return bytesSent;
+  }
+
+  private static void writeLength(ByteArrayOutputStream buffer, int length) {
+    while ((length & ~PAYLOAD_BITS) != 0) {
+      buffer.write((length & PAYLOAD_BITS) | CONTINUATION_BIT);
+      length >>>= 7;
+    }
+    buffer.write(length);
+  }
+
+  private static int readLength(ByteBuffer buffer) {
+    int length = 0;
+    int shift = 0;
+    int current;
+    do {
+      current = buffer.get() & 0xFF;
+      length |= (current & PAYLOAD_BITS) << shift;
+      shift += 7;
+    } while ((current & CONTINUATION_BIT) != 0);
+    return length;
   }
 }
@@ -0,0 +1,277 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ParallelResourcePool;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A batched strategy that evaluates the local computation of each round on several threads.
+ *
+ * <p>
+ * The batch is split into a number of chunks of consecutive native protocols, which are kept for
+ * the entire batch. Each round is evaluated as follows:
+ * </p>
+ * <p>
+ * 1. In the first round, all chunks are evaluated sequentially in order. In any later round, the
+ * chunks are evaluated in parallel on a fork-join pool, each using its own view of the resource
+ * pool. The views are joined in chunk order after the round.
+ * </p>
+ * <p>
+ * 2. Each chunk batches its messages in its own {@link NetworkBatchDecorator}. For every party,
+ * a bitmap of the chunks with messages for that party is sent, followed by the batches of those
+ * chunks in chunk order, and the network is flushed. Chunks without messages for a party cost
+ * nothing but their bit.
+ * </p>
+ * <p>
+ * 3. When a chunk first receives from a party in the next round, the bitmap and the batches of all
+ * chunks are received from that party and each chunk reads only its own.
+ * </p>
+ * <p>
+ * Since the first round is evaluated in the same order as by the {@link BatchedStrategy}, native
+ * protocols consuming preprocessed material in their first round get the same material. The
+ * parallel rounds require the resource pool to implement {@link ParallelResourcePool}, such that
+ * the remaining side effects are applied in the sequential order. Otherwise all rounds are
+ * evaluated sequentially.
+ * </p>
+ * <p>
+ * All parties must use the same number of chunks, as it determines how the messages are framed.
+ * This number is therefore fixed by configuration rather than by the number of available cores.
+ * </p>
+ */
+public class ParallelBatchedStrategy<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  /**
+   * The number of chunks used by {@link EvaluationStrategy#PARALLEL_BATCHED}.
+   */
+  public static final int DEFAULT_CHUNKS = 8;
+  /**
+   * The least number of native protocols in a chunk, such that small batches are not split.
+   */
+  static final int MIN_CHUNK_SIZE = 16;
+
+  private final int maxChunks;
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates a new strategy with the default number of chunks using the common fork-join pool.
+   */
+  public ParallelBatchedStrategy() {
+    this(DEFAULT_CHUNKS, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a new strategy.
+   *
+   * @param maxChunks the largest number of chunks a batch is split into
+   * @param pool the pool evaluating the chunks
+   */
+  public ParallelBatchedStrategy(int maxChunks, ForkJoinPool pool) {
+    if (maxChunks < 1) {
+      throw new IllegalArgumentException("Number of chunks must be positive, was " + maxChunks);
+    }
+    this.maxChunks = maxChunks;
+    this.pool = pool;
+  }
+
+  @Override
+  public void processBatch(
+      ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
+      NetworkBatchDecorator networkBatchDecorator) {
+    List<Chunk<ResourcePoolT>> chunks = split(protocols, resourcePool.getNoOfParties());
+    Segments segments = new Segments(networkBatchDecorator, chunks.size());
+    int round = 0;
+    boolean done = false;
+    while (!done) {
+      if (round == 0 || !(resourcePool instanceof ParallelResourcePool)) {
+        for (Chunk<ResourcePoolT> chunk : chunks) {
+          chunk.evaluate(round, resourcePool, segments);
+        }
+      } else {
+        evaluateParallel(chunks, round, resourcePool, segments);
+      }
+      done = true;
+      for (Chunk<ResourcePoolT> chunk : chunks) {
+        done &= chunk.isDone();
+      }
+      send(chunks, networkBatchDecorator);
+      networkBatchDecorator.flush();
+      segments.clear();
+      round++;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void evaluateParallel(List<Chunk<ResourcePoolT>> chunks, int round,
+      ResourcePoolT resourcePool, Segments segments) {
+    ParallelResourcePool<ResourcePoolT> parallelPool =
+        (ParallelResourcePool<ResourcePoolT>) resourcePool;
+    List<ResourcePoolT> views = new ArrayList<>(chunks.size());
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks.size());
+    for (Chunk<ResourcePoolT> chunk : chunks) {
+      ResourcePoolT view = parallelPool.fork();
+      views.add(view);
+      tasks.add(pool.submit(() -> chunk.evaluate(round, view, segments)));
+    }
+    for (ForkJoinTask<?> task : tasks) {
+      task.join();
+    }
+    for (ResourcePoolT view : views) {
+      parallelPool.join(view);
+    }
+  }
+
+  private void send(List<Chunk<ResourcePoolT>> chunks,
+      NetworkBatchDecorator networkBatchDecorator) {
+    for (int party = 1; party <= networkBatchDecorator.getNoOfParties(); party++) {
+      byte[] present = new byte[(chunks.size() + Byte.SIZE - 1) / Byte.SIZE];
+      boolean hasOutput = false;
+      for (int i = 0; i < chunks.size(); i++) {
+        if (chunks.get(i).transport.output[party] != null) {
+          present[i / Byte.SIZE] |= 1 << (i % Byte.SIZE);
+          hasOutput = true;
+        }
+      }
+      if (hasOutput) {
+        networkBatchDecorator.send(party, present);
+        for (Chunk<ResourcePoolT> chunk : chunks) {
+          byte[] output = chunk.transport.output[party];
+          if (output != null) {
+            networkBatchDecorator.send(party, output);
+            chunk.transport.output[party] = null;
+          }
+        }
+      }
+    }
+  }
+
+  private List<Chunk<ResourcePoolT>> split(ProtocolCollection<ResourcePoolT> protocols,
+      int noOfParties) {
+    int size = protocols.size();
+    int chunkCount = Math.max(1, Math.min(maxChunks, size / MIN_CHUNK_SIZE));
+    int chunkSize = (size + chunkCount - 1) / chunkCount;
+    List<Chunk<ResourcePoolT>> chunks = new ArrayList<>(chunkCount);
+    Chunk<ResourcePoolT> current = null;
+    for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+      if (current == null || current.protocols.size() == chunkSize) {
+        current = new Chunk<>(chunks.size(), chunkSize, noOfParties);
+        chunks.add(current);
+      }
+      current.protocols.addProtocol(protocol);
+    }
+    return chunks;
+  }
+
+  /**
+   * The batches received from the other parties in the current round, split by chunk.
+   */
+  private static final class Segments {
+
+    private final NetworkBatchDecorator networkBatchDecorator;
+    private final int chunkCount;
+    private final byte[][][] segments;
+
+    private Segments(NetworkBatchDecorator networkBatchDecorator, int chunkCount) {
+      this.networkBatchDecorator = networkBatchDecorator;
+      this.chunkCount = chunkCount;
+      this.segments = new byte[networkBatchDecorator.getNoOfParties() + 1][][];
+    }
+
+    private synchronized byte[] get(int party, int chunk) {
+      if (segments[party] == null) {
+        byte[] present = networkBatchDecorator.receive(party);
+        segments[party] = new byte[chunkCount][];
+        for (int i = 0; i < chunkCount; i++) {
+          if ((present[i / Byte.SIZE] & (1 << (i % Byte.SIZE))) != 0) {
+            segments[party][i] = networkBatchDecorator.receive(party);
+          }
+        }
+      }
+      if (segments[party][chunk] == null) {
+        throw new IllegalStateException(
+            "Party " + party + " sent no messages for chunk " + chunk + " in this round");
+      }
+      return segments[party][chunk];
+    }
+
+    private synchronized void clear() {
+      for (int i = 0; i < segments.length; i++) {
+        segments[i] = null;
+      }
+    }
+  }
+
+  /**
+   * A chunk of a batch together with its network, which batches the messages of the chunk in the
+   * same way as the batch network of the evaluator.
+   */
+  private static final class Chunk<ResourcePoolT extends ResourcePool> {
+
+    private final ProtocolCollectionList<ResourcePoolT> protocols;
+    private final ChunkTransport transport;
+    private final NetworkBatchDecorator network;
+
+    private Chunk(int index, int size, int noOfParties) {
+      this.protocols = new ProtocolCollectionList<>(size);
+      this.transport = new ChunkTransport(index, noOfParties);
+      this.network = new NetworkBatchDecorator(noOfParties, transport);
+    }
+
+    private boolean isDone() {
+      return protocols.size() == 0;
+    }
+
+    private void evaluate(int round, ResourcePoolT resourcePool, Segments segments) {
+      transport.segments = segments;
+      Iterator<NativeProtocol<?, ResourcePoolT>> iterator = protocols.iterator();
+      while (iterator.hasNext()) {
+        NativeProtocol<?, ResourcePoolT> protocol = iterator.next();
+        EvaluationStatus status = protocol.evaluate(round, resourcePool, network);
+        if (status.equals(EvaluationStatus.IS_DONE)) {
+          iterator.remove();
+        }
+      }
+      network.flush();
+    }
+  }
+
+  /**
+   * The transport below the network of a single chunk. Keeps the batches the chunk sends in a round
+   * until they are sent together with those of the other chunks, and receives the batches sent to
+   * the chunk from the segments of the round.
+   */
+  private static final class ChunkTransport implements Network {
+
+    private final int index;
+    private final byte[][] output;
+    private Segments segments;
+
+    private ChunkTransport(int index, int noOfParties) {
+      this.index = index;
+      this.output = new byte[noOfParties + 1][];
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      output[partyId] = data;
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return segments.get(partyId, index);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return output.length - 1;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * A batched strategy that splits each batch into a number of stages given by the pipeline depth
+ * and evaluates them round by round. All stages start in the same network round. In each network
+ * round:
+ * <p>
+ * 1. Every stage that is not done evaluates its next round, in order. The messages of all stages
+ * are collected in the {@link NetworkBatchDecorator}.
+ * </p>
+ * <p>
+ * 2. All messages collected in step 1 are sent with a single flush.
+ * </p>
+ * <p>
+ * A batch therefore takes exactly as many network rounds and flushes as with the
+ * {@link BatchedStrategy}. The messages of each stage are contiguous within a flush, and a stage
+ * is dropped from the round robin as soon as all its protocols are done.
+ * </p>
+ * <p>
+ * Since the protocols in a batch are functionally independent the stages can be evaluated in any
+ * relative order. All parties must however use the same strategy and depth, as the order
+ * determines how messages are packed into each flush.
+ * </p>
+ */
+public class PipelinedBatchedStrategy<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  /**
+   * The pipeline depth used by {@link EvaluationStrategy#PIPELINED_BATCHED}.
+   */
+  public static final int DEFAULT_DEPTH = 2;
+
+  private final int depth;
+
+  /**
+   * Creates a new strategy with the default pipeline depth.
+   */
+  public PipelinedBatchedStrategy() {
+    this(DEFAULT_DEPTH);
+  }
+
+  /**
+   * Creates a new strategy.
+   *
+   * @param depth the number of stages each batch is split into
+   */
+  public PipelinedBatchedStrategy(int depth) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("Pipeline depth must be positive, was " + depth);
+    }
+    this.depth = depth;
+  }
+
+  @Override
+  public void processBatch(
+      ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
+      NetworkBatchDecorator networkBatchDecorator) {
+    Deque<Stage<ResourcePoolT>> active = split(protocols);
+    while (!active.isEmpty()) {
+      Iterator<Stage<ResourcePoolT>> iterator = active.iterator();
+      while (iterator.hasNext()) {
+        Stage<ResourcePoolT> stage = iterator.next();
+        if (stage.evaluateNextRound(resourcePool, networkBatchDecorator)) {
+          iterator.remove();
+        }
+      }
+      networkBatchDecorator.flush();
+    }
+  }
+
+  private Deque<Stage<ResourcePoolT>> split(ProtocolCollection<ResourcePoolT> protocols) {
+    int stageSize = (protocols.size() + depth - 1) / depth;
+    Deque<Stage<ResourcePoolT>> stages = new ArrayDeque<>(depth);
+    Stage<ResourcePoolT> current = null;
+    for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+      if (current == null || current.protocols.size() == stageSize) {
+        current = new Stage<>(stageSize);
+        stages.addLast(current);
+      }
+      current.protocols.addProtocol(protocol);
+    }
+    return stages;
+  }
+
+  private static final class Stage<ResourcePoolT extends ResourcePool> {
+
+    private final ProtocolCollectionList<ResourcePoolT> protocols;
+    private int round;
+
+    private Stage(int size) {
+      this.protocols = new ProtocolCollectionList<>(size);
+    }
+
+    /**
+     * Evaluates the next round of the protocols in this stage.
+     *
+     * @return true if all protocols of the stage are done
+     */
+    private boolean evaluateNextRound(ResourcePoolT resourcePool,
+        NetworkBatchDecorator networkBatchDecorator) {
+      Iterator<NativeProtocol<?, ResourcePoolT>> iterator = protocols.iterator();
+      while (iterator.hasNext()) {
+        NativeProtocol<?, ResourcePoolT> protocol = iterator.next();
+        EvaluationStatus status = protocol.evaluate(round, resourcePool, networkBatchDecorator);
+        if (status.equals(EvaluationStatus.IS_DONE)) {
+          iterator.remove();
+        }
+      }
+      round++;
+      return protocols.size() == 0;
+    }
+  }
+}
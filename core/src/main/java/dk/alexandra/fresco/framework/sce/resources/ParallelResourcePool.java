@@ -0,0 +1,36 @@
+package dk.alexandra.fresco.framework.sce.resources;
+
+/**
+ * A resource pool which can be used by native protocols evaluated concurrently on several threads.
+ *
+ * <p>
+ * Each thread is given its own view of the resource pool created by {@link #fork()}. Any state a
+ * native protocol changes through the view, e.g., opened values stored for a later MAC check, must
+ * be kept in the view until it is applied to this resource pool by {@link #join(ResourcePool)}.
+ * The views are joined one at a time and in a fixed order, such that the state of this resource
+ * pool is the same as if the native protocols had been evaluated sequentially.
+ * </p>
+ *
+ * <p>
+ * State which is consumed in a particular order, such as preprocessed material, can not be buffered
+ * in this way. Native protocols evaluated on a view should therefore only read such state.
+ * </p>
+ *
+ * @param <ResourcePoolT> the type of the views
+ */
+public interface ParallelResourcePool<ResourcePoolT extends ResourcePool> {
+
+  /**
+   * Creates a view of this resource pool to be used by a single thread.
+   *
+   * @return a new view
+   */
+  ResourcePoolT fork();
+
+  /**
+   * Applies the changes made through a view created by {@link #fork()} to this resource pool.
+   *
+   * @param view the view to join
+   */
+  void join(ResourcePoolT view);
+}
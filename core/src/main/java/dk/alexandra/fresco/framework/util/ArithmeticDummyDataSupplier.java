@@ -9,8 +9,8 @@ import java.util.stream.IntStream;
 
 /**
  * Supplies generic pre-processed material common across arithmetic SPDZ-like suites, including
- * random elements, bits, and multiplication triples. <p>Uses {@link Random} to deterministically
- * generate all material. NOT secure.</p>
+ * random elements, bits, multiplication triples and truncation pairs. <p>Uses {@link Random} to
+ * deterministically generate all material. NOT secure.</p>
  */
 public class ArithmeticDummyDataSupplier {
 
@@ -62,6 +62,21 @@ public class ArithmeticDummyDataSupplier {
     );
   }
 
+  /**
+   * Computes the next random truncation pair and this party's shares.
+   *
+   * @param bitLength the bit length of the random value r
+   * @param shifts the number of bits r is shifted to obtain the second value
+   */
+  public TruncationPairShares getTruncationPairShares(int bitLength, int shifts) {
+    BigInteger value = new BigInteger(bitLength, random);
+    BigInteger shifted = value.shiftRight(shifts);
+    return new TruncationPairShares(
+        new Pair<>(value, sharer.share(value, noOfParties).get(myId - 1)),
+        new Pair<>(shifted, sharer.share(shifted, noOfParties).get(myId - 1))
+    );
+  }
+
   /**
    * Constructs an exponentiation pipe. <p>An exponentiation pipe is a list of numbers in the
    * following format: r^{-1}, r, r^{2}, r^{3}, ..., r^{expPipeLength}, where r is a random element
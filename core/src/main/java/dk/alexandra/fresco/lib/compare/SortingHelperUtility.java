@@ -2,7 +2,6 @@ package dk.alexandra.fresco.lib.compare;
 
 
 import dk.alexandra.fresco.framework.DRes;
-import dk.alexandra.fresco.framework.builder.numeric.Comparison;
 import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.value.SInt;
@@ -14,21 +13,14 @@ public class SortingHelperUtility {
 
   public DRes<SInt> isSorted(ProtocolBuilderNumeric builder,
       List<DRes<SInt>> values) {
-    return builder.par(par -> {
-      Comparison comparison = par.comparison();
-      ArrayList<DRes<SInt>> comparisons = new ArrayList<>();
-      boolean first = true;
-
-      DRes<SInt> previous = null;
-      for (DRes<SInt> value : values) {
-        if (!first) {
-          comparisons.add(comparison.compareLEQ(previous, value));
-        } else {
-          first = false;
-        }
-        previous = value;
+    return builder.seq(seq -> {
+      List<DRes<SInt>> previous = new ArrayList<>();
+      List<DRes<SInt>> next = new ArrayList<>();
+      for (int i = 1; i < values.size(); i++) {
+        previous.add(values.get(i - 1));
+        next.add(values.get(i));
       }
-      return () -> comparisons;
+      return seq.comparison().compareLEQ(previous, next);
     }).seq((seq, comparison) -> seq.advancedNumeric().product(comparison));
   }
 
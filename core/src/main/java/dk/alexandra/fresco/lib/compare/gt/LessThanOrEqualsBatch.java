@@ -0,0 +1,200 @@
+package dk.alexandra.fresco.lib.compare.gt;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.AdvancedNumeric.RandomAdditiveMask;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.conditional.ConditionalSelect;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Computes x<sub>i</sub> <= y<sub>i</sub> for a list of pairs of values using the protocol of
+ * {@link LessThanOrEquals}.
+ *
+ * <p>All pairs are compared in lockstep: the masks are generated together, every masked value is
+ * opened in the same batch, the equality tests on the top halves are done as one batch, and the
+ * recursive comparison of the half-length values is a single batch comparison for the whole list
+ * rather than one comparison per pair.</p>
+ */
+public class LessThanOrEqualsBatch
+    implements Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final int bitLength;
+  private final int securityParameter;
+  private final List<DRes<SInt>> x;
+  private final List<DRes<SInt>> y;
+
+  /**
+   * Creates a new batch comparison.
+   *
+   * @param bitLength the maximum bit length of the values to compare
+   * @param securityParameter the statistical security parameter of the masks
+   * @param x the left hand sides
+   * @param y the right hand sides, of the same size as x
+   */
+  public LessThanOrEqualsBatch(int bitLength, int securityParameter, List<DRes<SInt>> x,
+      List<DRes<SInt>> y) {
+    if (x.size() != y.size()) {
+      throw new IllegalArgumentException(
+          "Cannot compare " + x.size() + " values to " + y.size() + " values");
+    }
+    this.bitLength = bitLength;
+    this.securityParameter = securityParameter;
+    this.x = x;
+    this.y = y;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    final BigInteger modulus = builder.getBasicNumericContext().getModulus();
+
+    final int bitLengthBottom = bitLength / 2;
+    final int bitLengthTop = bitLength - bitLengthBottom;
+
+    final BigInteger twoToBitLength = BigInteger.ONE.shiftLeft(bitLength);
+    final BigInteger twoToBitLengthBottom = BigInteger.ONE.shiftLeft(bitLengthBottom);
+    final BigInteger twoToNegBitLength = twoToBitLength.modInverse(modulus);
+
+    final BigInteger one = BigInteger.ONE;
+
+    return builder.par(par -> {
+      List<DRes<RandomAdditiveMask>> masks = new ArrayList<>(x.size());
+      for (int i = 0; i < x.size(); i++) {
+        masks.add(par.advancedNumeric().additiveMask(bitLength + securityParameter));
+      }
+      return () -> masks;
+    }).par((par, masks) -> {
+      List<State> states = new ArrayList<>(x.size());
+      for (int i = 0; i < x.size(); i++) {
+        RandomAdditiveMask mask = masks.get(i).out();
+        DRes<SInt> xi = x.get(i);
+        DRes<SInt> yi = y.get(i);
+        State state = new State();
+        state.opened = par.seq(seq -> {
+          // construct r-values (rBar, rBottom, rTop)
+          List<DRes<SInt>> bits = mask.bits;
+          state.rBottom = seq.advancedNumeric().innerProductWithPublicPart(
+              seq.getBigIntegerHelper().getTwoPowersList(bitLengthBottom),
+              bits.subList(0, bitLengthBottom));
+          state.rTop = seq.advancedNumeric().innerProductWithPublicPart(
+              seq.getBigIntegerHelper().getTwoPowersList(bitLengthTop),
+              bits.subList(bitLengthBottom, bitLength));
+          Numeric numeric = seq.numeric();
+          state.rBar = numeric.add(numeric.mult(twoToBitLengthBottom, state.rTop), state.rBottom);
+
+          // mask and reveal z = 2^bitLength + y - x
+          state.z = numeric.add(twoToBitLength, numeric.sub(yi, xi));
+          return numeric.open(numeric.add(state.z, () -> mask.random));
+        });
+        states.add(state);
+      }
+      return () -> states;
+    }).par((par, states) -> {
+      for (State state : states) {
+        // extract mTop and mBot
+        state.mBar = state.opened.out().mod(twoToBitLength);
+        state.mBot = state.mBar.mod(twoToBitLengthBottom);
+        state.mTop = state.mBar.shiftRight(bitLengthBottom);
+        state.dif = par.numeric().sub(state.mTop, state.rTop);
+      }
+      return () -> states;
+    }).seq((seq, states) -> {
+      List<DRes<SInt>> difs = states.stream().map(state -> state.dif)
+          .collect(Collectors.toList());
+      DRes<List<DRes<SInt>>> eqResults = seq.comparison().compareZero(difs, bitLengthTop);
+      return () -> new Pair<>(states, eqResults.out());
+    }).par((par, statesAndEqResults) -> {
+      List<State> states = statesAndEqResults.getFirst();
+      List<DRes<SInt>> eqResults = statesAndEqResults.getSecond();
+      for (int i = 0; i < states.size(); i++) {
+        // [eqResult]? BOT : TOP (for m and r) (store as mPrime,rPrime)
+        State state = states.get(i);
+        DRes<SInt> eqResult = eqResults.get(i);
+        state.rPrime = par.seq(new ConditionalSelect(eqResult, state.rBottom, state.rTop));
+        state.mPrime = par.seq(seq -> {
+          Numeric numeric = seq.numeric();
+          DRes<SInt> negEqResult = numeric.sub(one, eqResult);
+          DRes<SInt> prod1 = numeric.mult(state.mBot, eqResult);
+          DRes<SInt> prod2 = numeric.mult(state.mTop, negEqResult);
+          return numeric.add(prod1, prod2);
+        });
+      }
+      return () -> states;
+    }).seq((seq, states) -> {
+      DRes<List<DRes<SInt>>> subComparisonResults;
+      if (bitLength == 2) {
+        // sub comparisons are of length 1: mPrime >= rPrime: NOT (rPrime AND NOT mPrime)
+        subComparisonResults = seq.par(par -> {
+          List<DRes<SInt>> results = new ArrayList<>(states.size());
+          for (State state : states) {
+            results.add(par.seq(inner -> {
+              Numeric numeric = inner.numeric();
+              DRes<SInt> mPrimeNegated = numeric.sub(one, state.mPrime);
+              DRes<SInt> rPrimeStrictlyGTmPrime = numeric.mult(mPrimeNegated, state.rPrime);
+              return numeric.sub(one, rPrimeStrictlyGTmPrime);
+            }));
+          }
+          return () -> results;
+        });
+      } else {
+        // compare the half-length inputs of all pairs at once
+        int nextBitLength = (bitLength + 1) / 2;
+        List<DRes<SInt>> rPrimes = states.stream().map(state -> state.rPrime)
+            .collect(Collectors.toList());
+        List<DRes<SInt>> mPrimes = states.stream().map(state -> state.mPrime)
+            .collect(Collectors.toList());
+        subComparisonResults =
+            seq.seq(new LessThanOrEqualsBatch(nextBitLength, securityParameter, rPrimes, mPrimes));
+      }
+      return () -> new Pair<>(states, subComparisonResults.out());
+    }).par((par, statesAndSubComparisonResults) -> {
+      List<State> states = statesAndSubComparisonResults.getFirst();
+      List<DRes<SInt>> subComparisonResults = statesAndSubComparisonResults.getSecond();
+      List<DRes<SInt>> results = new ArrayList<>(states.size());
+      for (int i = 0; i < states.size(); i++) {
+        State state = states.get(i);
+        DRes<SInt> subComparisonResult = subComparisonResults.get(i);
+        results.add(par.seq(seq -> {
+          Numeric numeric = seq.numeric();
+
+          // u = 1 - subComparisonResult
+          DRes<SInt> u = numeric.sub(one, subComparisonResult);
+
+          // res = z - ((m mod 2^bitLength) - (r mod 2^bitlength) + u*2^bitLength)
+          DRes<SInt> reducedWithError = numeric.sub(state.mBar, state.rBar);
+          DRes<SInt> additiveError = numeric.mult(twoToBitLength, u);
+          DRes<SInt> reducedNoError = numeric.add(additiveError, reducedWithError);
+          DRes<SInt> resUnshifted = numeric.sub(state.z, reducedNoError);
+
+          // res >> 2^bitLength
+          return numeric.mult(twoToNegBitLength, resUnshifted);
+        }));
+      }
+      return () -> results;
+    });
+  }
+
+  /**
+   * The intermediate values of the comparison of a single pair.
+   */
+  private static class State {
+
+    private DRes<BigInteger> opened;
+    private DRes<SInt> rBottom;
+    private DRes<SInt> rTop;
+    private DRes<SInt> rBar;
+    private DRes<SInt> z;
+    private BigInteger mBar;
+    private BigInteger mBot;
+    private BigInteger mTop;
+    private DRes<SInt> dif;
+    private DRes<SInt> rPrime;
+    private DRes<SInt> mPrime;
+  }
+}
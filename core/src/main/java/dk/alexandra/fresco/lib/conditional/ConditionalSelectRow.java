@@ -2,7 +2,7 @@ package dk.alexandra.fresco.lib.conditional;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.ComputationParallel;
-import dk.alexandra.fresco.framework.builder.numeric.AdvancedNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.util.ArrayList;
@@ -11,6 +11,10 @@ import java.util.List;
 /**
  * Does a conditional select on two lists rather than on two numbers. Equivalent to the java
  * expression: <code>condition ? left : right</code>
+ * <p>
+ * All rows are selected with a single element-wise multiplication of the condition with the
+ * differences <code>left - right</code>.
+ * </p>
  */
 public class ConditionalSelectRow<T extends DRes<SInt>>
     implements ComputationParallel<List<DRes<SInt>>, ProtocolBuilderNumeric> {
@@ -30,13 +34,24 @@ public class ConditionalSelectRow<T extends DRes<SInt>>
 
   @Override
   public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
-    List<DRes<SInt>> selected = new ArrayList<>();
-    List<? extends DRes<SInt>> leftOut = left.out();
     List<? extends DRes<SInt>> rightOut = right.out();
-    AdvancedNumeric advancedNumeric = builder.advancedNumeric();
-    for (int i = 0; i < leftOut.size(); i++) {
-      selected.add(advancedNumeric.condSelect(condition, leftOut.get(i), rightOut.get(i)));
-    }
-    return () -> selected;
+    return builder.par(par -> {
+      List<? extends DRes<SInt>> leftOut = left.out();
+      List<DRes<SInt>> conditions = new ArrayList<>(leftOut.size());
+      List<DRes<SInt>> differences = new ArrayList<>(leftOut.size());
+      Numeric numeric = par.numeric();
+      for (int i = 0; i < leftOut.size(); i++) {
+        conditions.add(condition);
+        differences.add(numeric.sub(leftOut.get(i), rightOut.get(i)));
+      }
+      return numeric.mult(conditions, differences);
+    }).par((par, products) -> {
+      List<DRes<SInt>> selected = new ArrayList<>(products.size());
+      Numeric numeric = par.numeric();
+      for (int i = 0; i < products.size(); i++) {
+        selected.add(numeric.add(products.get(i), rightOut.get(i)));
+      }
+      return () -> selected;
+    });
   }
 }
@@ -0,0 +1,405 @@
+package dk.alexandra.fresco.lib.helper.bristol;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A Bristol circuit compiled into a compact gate table ordered by multiplicative depth.
+ *
+ * <p>The AND-depth of a wire is 0 for the inputs, one more than the deepest input for the output
+ * of an AND gate and the depth of the deepest input for the output of an XOR or INV gate. The gates
+ * are grouped into blocks of independent gates which can be evaluated in parallel: for each depth,
+ * first a block with all AND gates of that depth, followed by the XOR and INV gates of that depth
+ * split into as many blocks as needed to respect the dependencies among them. Only the AND blocks
+ * communicate, so a circuit is evaluated in as many rounds as its AND-depth.</p>
+ *
+ * <p>Each gate is stored as {@value #GATE_SIZE} consecutive ints in a single buffer: the gate
+ * type, the left and right input wire (the right is -1 for INV gates) and the output wire. Circuits
+ * are immutable and can be shared between evaluations.</p>
+ *
+ * <p>A compiled circuit can be written to a binary file with {@link #writeTo(File)} and loaded
+ * again with {@link #load(File)}, which memory-maps the file instead of parsing the text. The file
+ * consists of a header of {@value #HEADER_INTS} ints (a magic number, the number of wires, inputs
+ * and outputs, the AND-depth and the number of gates and blocks) followed by the gate table and the
+ * block boundaries.</p>
+ */
+public final class BristolCircuit {
+
+  public static final int XOR = 0;
+  public static final int AND = 1;
+  public static final int INV = 2;
+  static final int GATE_SIZE = 4;
+  static final int MAGIC = 0x42524931;
+  static final int HEADER_INTS = 8;
+
+  private final int noWires;
+  private final int noInput1;
+  private final int noInput2;
+  private final int noOutput;
+  private final IntBuffer gates;
+  private final IntBuffer blocks;
+  private final int andDepth;
+
+  private BristolCircuit(int noWires, int noInput1, int noInput2, int noOutput, IntBuffer gates,
+      IntBuffer blocks, int andDepth) {
+    this.noWires = noWires;
+    this.noInput1 = noInput1;
+    this.noInput2 = noInput2;
+    this.noOutput = noOutput;
+    this.gates = gates;
+    this.blocks = blocks;
+    this.andDepth = andDepth;
+  }
+
+  /**
+   * Parses a circuit in Bristol format, see
+   * https://www.cs.bris.ac.uk/Research/CryptographySecurity/MPC/ for a specification.
+   *
+   * @param lines the lines of the circuit description
+   * @return the compiled circuit
+   * @throws IllegalArgumentException if the description is not a valid circuit
+   */
+  public static BristolCircuit parse(Iterator<String> lines) {
+    int[] meta = parseInts(lines.next());
+    int noWires = meta[1];
+    meta = parseInts(lines.next());
+    int noInput1 = meta[0];
+    int noInput2 = meta[1];
+    int noOutput = meta[2];
+    List<int[]> parsed = new ArrayList<>();
+    while (lines.hasNext()) {
+      String line = lines.next().trim();
+      if (!line.isEmpty()) {
+        parsed.add(parseGate(line));
+      }
+    }
+    return layer(noWires, noInput1, noInput2, noOutput, parsed);
+  }
+
+  private static int[] parseGate(String line) {
+    Tokens tokens = new Tokens(line);
+    int noIn = tokens.nextInt();
+    int noOut = tokens.nextInt();
+    int[] wires = new int[noIn + noOut];
+    for (int i = 0; i < wires.length; i++) {
+      wires[i] = tokens.nextInt();
+    }
+    String type = tokens.next();
+    if (tokens.hasNext()) {
+      throw new IllegalArgumentException("Wrong circuit format for gate: " + line);
+    }
+    int[] gate = new int[GATE_SIZE];
+    if ("XOR".equals(type) || "AND".equals(type)) {
+      if (noIn != 2 || noOut != 1) {
+        throw new IllegalArgumentException("Wrong circuit format for " + type);
+      }
+      gate[0] = "XOR".equals(type) ? XOR : AND;
+      gate[2] = wires[1];
+    } else if ("INV".equals(type)) {
+      if (noIn != 1 || noOut != 1) {
+        throw new IllegalArgumentException("Wrong circuit format for INV");
+      }
+      gate[0] = INV;
+      gate[2] = -1;
+    } else {
+      throw new IllegalArgumentException("Unknown gate type: " + type);
+    }
+    gate[1] = wires[0];
+    gate[3] = wires[noIn];
+    return gate;
+  }
+
+  /**
+   * Computes the depth of each gate and orders the gates in blocks of independent gates.
+   */
+  private static BristolCircuit layer(int noWires, int noInput1, int noInput2, int noOutput,
+      List<int[]> parsed) {
+    int[] wireDepth = new int[noWires];
+    int[] wireStep = new int[noWires];
+    Arrays.fill(wireDepth, -1);
+    for (int i = 0; i < noInput1 + noInput2; i++) {
+      wireDepth[checkWire(i, noWires)] = 0;
+    }
+    // the block of a gate is given by its depth and its step within the depth, where the AND
+    // gates of a depth are step 0 and a linear gate is one step after its latest input of the
+    // same depth
+    long[] keys = new long[parsed.size()];
+    int andDepth = 0;
+    for (int g = 0; g < parsed.size(); g++) {
+      int[] gate = parsed.get(g);
+      int depth = depthOf(gate[1], wireDepth, noWires);
+      if (gate[0] != INV) {
+        depth = Math.max(depth, depthOf(gate[2], wireDepth, noWires));
+      }
+      int step = 0;
+      if (gate[0] == AND) {
+        depth++;
+        andDepth = Math.max(andDepth, depth);
+      } else {
+        step = 1 + stepOf(gate[1], depth, wireDepth, wireStep);
+        if (gate[0] != INV) {
+          step = Math.max(step, 1 + stepOf(gate[2], depth, wireDepth, wireStep));
+        }
+      }
+      int out = checkWire(gate[3], noWires);
+      if (wireDepth[out] != -1) {
+        throw new IllegalArgumentException("Wire " + out + " is assigned more than once");
+      }
+      wireDepth[out] = depth;
+      wireStep[out] = step;
+      keys[g] = ((long) depth << Integer.SIZE) | step;
+    }
+    for (int i = noWires - noOutput; i < noWires; i++) {
+      if (wireDepth[checkWire(i, noWires)] == -1) {
+        throw new IllegalArgumentException("Output wire " + i + " is never assigned");
+      }
+    }
+
+    Integer[] order = new Integer[parsed.size()];
+    for (int g = 0; g < order.length; g++) {
+      order[g] = g;
+    }
+    // stable, so gates of a block keep the order of the description
+    Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+    int[] gates = new int[order.length * GATE_SIZE];
+    List<Integer> blockStarts = new ArrayList<>();
+    for (int i = 0; i < order.length; i++) {
+      System.arraycopy(parsed.get(order[i]), 0, gates, i * GATE_SIZE, GATE_SIZE);
+      if (i == 0 || keys[order[i]] != keys[order[i - 1]]) {
+        blockStarts.add(i);
+      }
+    }
+    int[] blocks = new int[blockStarts.size() + 1];
+    for (int i = 0; i < blockStarts.size(); i++) {
+      blocks[i] = blockStarts.get(i);
+    }
+    blocks[blockStarts.size()] = order.length;
+    return new BristolCircuit(noWires, noInput1, noInput2, noOutput, IntBuffer.wrap(gates),
+        IntBuffer.wrap(blocks), andDepth);
+  }
+
+  /**
+   * Memory-maps a circuit written by {@link #writeTo(File)}.
+   *
+   * @param file the file to load
+   * @return the circuit backed by the file
+   * @throws IOException if the file cannot be mapped
+   * @throws IllegalArgumentException if the file is not a compiled circuit
+   */
+  public static BristolCircuit load(File file) throws IOException {
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (buffer.capacity() < HEADER_INTS * Integer.BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Not a compiled Bristol circuit: " + file);
+    }
+    IntBuffer ints = buffer.asIntBuffer();
+    int noGates = ints.get(6);
+    int noBlocks = ints.get(7);
+    long expected = (HEADER_INTS + (long) noGates * GATE_SIZE + noBlocks + 1) * Integer.BYTES;
+    if (noGates < 0 || noBlocks < 0 || buffer.capacity() != expected) {
+      throw new IllegalArgumentException(
+          "Expected " + expected + " bytes of circuit but got " + buffer.capacity());
+    }
+    IntBuffer gates = slice(ints, HEADER_INTS, noGates * GATE_SIZE);
+    IntBuffer blocks = slice(ints, HEADER_INTS + noGates * GATE_SIZE, noBlocks + 1);
+    return new BristolCircuit(ints.get(1), ints.get(2), ints.get(3), ints.get(4), gates, blocks,
+        ints.get(5));
+  }
+
+  /**
+   * Writes this circuit to a file which can be loaded using {@link #load(File)}.
+   *
+   * @param file the file to write to
+   * @throws IOException if writing the file fails
+   */
+  public void writeTo(File file) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(noWires);
+      out.writeInt(noInput1);
+      out.writeInt(noInput2);
+      out.writeInt(noOutput);
+      out.writeInt(andDepth);
+      out.writeInt(getNoGates());
+      out.writeInt(getNoBlocks());
+      for (int i = 0; i < gates.limit(); i++) {
+        out.writeInt(gates.get(i));
+      }
+      for (int i = 0; i < blocks.limit(); i++) {
+        out.writeInt(blocks.get(i));
+      }
+    }
+  }
+
+  private static IntBuffer slice(IntBuffer ints, int offset, int length) {
+    IntBuffer duplicate = ints.duplicate();
+    duplicate.position(offset);
+    duplicate.limit(offset + length);
+    return duplicate.slice();
+  }
+
+  private static int depthOf(int wire, int[] wireDepth, int noWires) {
+    int depth = wireDepth[checkWire(wire, noWires)];
+    if (depth == -1) {
+      throw new IllegalArgumentException("Input wire " + wire + " was not set");
+    }
+    return depth;
+  }
+
+  private static int stepOf(int wire, int depth, int[] wireDepth, int[] wireStep) {
+    return wireDepth[wire] == depth ? wireStep[wire] : 0;
+  }
+
+  private static int checkWire(int wire, int noWires) {
+    if (wire < 0 || wire >= noWires) {
+      throw new IllegalArgumentException("Wire " + wire + " is out of range");
+    }
+    return wire;
+  }
+
+  private static int[] parseInts(String line) {
+    Tokens tokens = new Tokens(line);
+    List<Integer> values = new ArrayList<>();
+    while (tokens.hasNext()) {
+      values.add(tokens.nextInt());
+    }
+    return values.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  public int getNoWires() {
+    return noWires;
+  }
+
+  public int getNoInput1() {
+    return noInput1;
+  }
+
+  public int getNoInput2() {
+    return noInput2;
+  }
+
+  public int getNoOutput() {
+    return noOutput;
+  }
+
+  public int getNoGates() {
+    return gates.limit() / GATE_SIZE;
+  }
+
+  /**
+   * Returns the number of blocks of independent gates.
+   */
+  public int getNoBlocks() {
+    return blocks.limit() - 1;
+  }
+
+  /**
+   * Returns the length of the longest path of AND gates through the circuit.
+   */
+  public int getAndDepth() {
+    return andDepth;
+  }
+
+  /**
+   * Returns the index of the first gate in the given block.
+   */
+  public int getBlockStart(int block) {
+    return blocks.get(block);
+  }
+
+  /**
+   * Returns the index after the last gate in the given block.
+   */
+  public int getBlockEnd(int block) {
+    return blocks.get(block + 1);
+  }
+
+  public int getType(int gate) {
+    return gates.get(gate * GATE_SIZE);
+  }
+
+  public int getLeft(int gate) {
+    return gates.get(gate * GATE_SIZE + 1);
+  }
+
+  /**
+   * Returns the right input wire of the gate or -1 for INV gates.
+   */
+  public int getRight(int gate) {
+    return gates.get(gate * GATE_SIZE + 2);
+  }
+
+  public int getOut(int gate) {
+    return gates.get(gate * GATE_SIZE + 3);
+  }
+
+  /**
+   * Splits a line at whitespace without creating intermediate strings for numbers.
+   */
+  private static final class Tokens {
+
+    private final String line;
+    private int position;
+
+    private Tokens(String line) {
+      this.line = line;
+      skipWhitespace();
+    }
+
+    private boolean hasNext() {
+      return position < line.length();
+    }
+
+    private int nextInt() {
+      if (!hasNext()) {
+        throw new IllegalArgumentException("Missing number in line: " + line);
+      }
+      int value = 0;
+      while (hasNext() && !Character.isWhitespace(line.charAt(position))) {
+        int digit = line.charAt(position) - '0';
+        if (digit < 0 || digit > 9 || value > (Integer.MAX_VALUE - digit) / 10) {
+          throw new IllegalArgumentException("Invalid number in line: " + line);
+        }
+        value = value * 10 + digit;
+        position++;
+      }
+      skipWhitespace();
+      return value;
+    }
+
+    private String next() {
+      if (!hasNext()) {
+        throw new IllegalArgumentException("Missing gate type in line: " + line);
+      }
+      int start = position;
+      while (hasNext() && !Character.isWhitespace(line.charAt(position))) {
+        position++;
+      }
+      String token = line.substring(start, position);
+      skipWhitespace();
+      return token;
+    }
+
+    private void skipWhitespace() {
+      while (hasNext() && Character.isWhitespace(line.charAt(position))) {
+        position++;
+      }
+    }
+  }
+
+}
@@ -1,16 +1,21 @@
 package dk.alexandra.fresco.lib.helper.bristol;
 
 import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.binary.Binary;
 import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
 import dk.alexandra.fresco.framework.value.SBool;
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 /**
@@ -19,185 +24,153 @@ import java.util.stream.Stream;
  * The circuit is expected to be in "Bristol" format, see
  * https://www.cs.bris.ac.uk/Research/CryptographySecurity/MPC/ for a specification of this.
  *
- * Reading is done in a streamed fashion.
+ * The description is compiled once into a {@link BristolCircuit} in which the gates are grouped by
+ * AND-depth, and each group of independent gates is evaluated as one parallel block. Circuits read
+ * from the classpath are cached, so they are only parsed once per class loader. If the system
+ * property {@value #CACHE_DIRECTORY_PROPERTY} names a directory, compiled circuits are also stored
+ * there and memory-mapped on later runs instead of being parsed again. Delete the compiled files
+ * when the circuit descriptions change.
  */
 public class BristolCircuitParser implements
     dk.alexandra.fresco.framework.builder.Computation<List<SBool>, ProtocolBuilderBinary> {
 
-  private Stream<String> lines;
-  private Iterator<String> linesIter;
-
-  // TODO: It is not memory efficient to keep all wires in a map like this.
-  // Given that this circuit is fixed, it should, somehow, be possible to
-  // garbage collect intermediate results early, if they are not used further.
-  private Map<Integer, DRes<SBool>> wires;
-
-  private List<DRes<SBool>> in1;
-  private List<DRes<SBool>> in2;
-
-  // Some meta data.
-  private int no_wires;
-  private int no_input1;
-  private int no_input2;
-  private int no_output;
+  /**
+   * System property naming a directory for compiled circuits.
+   */
+  public static final String CACHE_DIRECTORY_PROPERTY = "fresco.bristol.cache";
+  private static final Map<String, BristolCircuit> CACHE = new ConcurrentHashMap<>();
 
-  String dangling = null;
+  private final BristolCircuit circuit;
+  private final List<DRes<SBool>> in1;
+  private final List<DRes<SBool>> in2;
 
   public BristolCircuitParser(Stream<String> lines, List<DRes<SBool>> in1,
       List<DRes<SBool>> in2) {
+    this(parse(lines), in1, in2);
+  }
+
+  /**
+   * Creates a computation evaluating an already compiled circuit on the given inputs.
+   *
+   * @param circuit the circuit to evaluate
+   * @param in1 the first input
+   * @param in2 the second input
+   */
+  public BristolCircuitParser(BristolCircuit circuit, List<DRes<SBool>> in1,
+      List<DRes<SBool>> in2) {
+    this.circuit = circuit;
     this.in1 = in1;
     this.in2 = in2;
-
-    this.lines = lines;
-    this.linesIter = lines.iterator();
-
-    // Read first line; this is meta data.
-    String[] meta = linesIter.next().split(" \\s*");
-    this.no_wires = Integer.parseInt(meta[1]);
-    meta = linesIter.next().split(" \\s*");
-    this.no_input1 = Integer.parseInt(meta[0]);
-    this.no_input2 = Integer.parseInt(meta[1]);
-    this.no_output = Integer.parseInt(meta[2]);
-    linesIter.next(); // 3rd line is always empty line.
-
-    this.wires = new HashMap<>(no_wires);
-    initWires();
   }
 
-  private void initWires() {
-    for (int i = 0; i < this.no_input1; i++) {
-      this.wires.put(i, this.in1.get(i));
+  private static BristolCircuit parse(Stream<String> lines) {
+    try (Stream<String> closing = lines) {
+      return BristolCircuit.parse(closing.iterator());
     }
-    for (int i = 0; i < this.no_input2; i++) {
-      this.wires.put(i + this.no_input1, this.in2.get(i));
-    }
-    for (int i = 0; i < this.no_output; i++) {
-      this.wires.put(this.no_wires - this.no_output + i, null);
-    }
-
   }
 
-
-  /**
-   * Convert one line of text file to the corresponding basic boolean gate.
-   *
-   * Returns null if any input of circuit is not currently present in wires map.
-   */
-  private void parseLine(String line, ProtocolBuilderBinary builder) {
-    String[] tokens = line.split(" \\s*");
-    int no_input = Integer.parseInt(tokens[0]);
-    int no_output = Integer.parseInt(tokens[1]);
-    int[] in = new int[no_input];
-    int[] out = new int[no_output];
-    for (int i = 0; i < no_input; i++) {
-      in[i] = Integer.parseInt(tokens[2 + i]);
+  @Override
+  public DRes<List<SBool>> buildComputation(ProtocolBuilderBinary builder) {
+    @SuppressWarnings("unchecked")
+    DRes<SBool>[] wires = new DRes[circuit.getNoWires()];
+    for (int i = 0; i < circuit.getNoInput1(); i++) {
+      wires[i] = in1.get(i);
     }
-    for (int i = 0; i < no_output; i++) {
-      out[i] = Integer.parseInt(tokens[2 + no_input + i]);
+    for (int i = 0; i < circuit.getNoInput2(); i++) {
+      wires[i + circuit.getNoInput1()] = in2.get(i);
     }
-    String type = tokens[2 + no_input + no_output];
-
-    if ("XOR".equals(type)) {
-      if (in.length != 2 || out.length != 1) {
-        throw new IllegalArgumentException("Wrong circuit format for XOR");
-      }
-      DRes<SBool> leftInWireXor = wires.get(in[0]);
-      DRes<SBool> rightInWireXor = wires.get(in[1]);
-      DRes<SBool> outWireXor = wires.get(out[0]);
-
-      // If some input wire is not ready we have reached a gate that depends on
-      // output that is not yet ready, aka first gate of next batch.
-      if (leftInWireXor == null) {
-        throw new IllegalArgumentException("xor: LEFT input wire " + in[0] + " was null");
+    return builder.seq(seq -> {
+      for (int block = 0; block < circuit.getNoBlocks(); block++) {
+        int start = circuit.getBlockStart(block);
+        int end = circuit.getBlockEnd(block);
+        seq.par(par -> {
+          Binary binary = par.binary();
+          for (int gate = start; gate < end; gate++) {
+            wires[circuit.getOut(gate)] = evaluateGate(binary, gate, wires);
+          }
+          return () -> null;
+        });
       }
-      if (rightInWireXor == null) {
-        throw new IllegalArgumentException("xor: RIGHT input wire " + in[1] + " was null");
-      }
-
-      outWireXor = builder.binary().xor(leftInWireXor, rightInWireXor);
-      this.wires.put(out[0], outWireXor);
-
-    } else if ("AND".equals(type)) {
-      if (in.length != 2 || out.length != 1) {
-        throw new IllegalArgumentException("Wrong circuit format for AND");
+      return () -> null;
+    }).seq((seq, nothing) -> {
+      List<SBool> output = new ArrayList<>(circuit.getNoOutput());
+      for (int i = circuit.getNoWires() - circuit.getNoOutput(); i < circuit.getNoWires(); i++) {
+        output.add(wires[i].out());
       }
-      DRes<SBool> leftInWireAnd = wires.get(in[0]);
-      DRes<SBool> rightInWireAnd = wires.get(in[1]);
-      DRes<SBool> outWireAnd = wires.get(out[0]);
-
-      if (leftInWireAnd == null) {
-        throw new IllegalArgumentException("and LEFT input " + in[0] + " was not set");
-      }
-      if (rightInWireAnd == null) {
-        throw new IllegalArgumentException("and RIGHT input " + in[1] + " was not set");
-      }
-
-      outWireAnd = builder.binary().and(leftInWireAnd, rightInWireAnd);
-      this.wires.put(out[0], outWireAnd);
-    } else if ("INV".equals(type)) {
-      if (in.length != 1 || out.length != 1) {
-        throw new IllegalArgumentException("Wrong circuit format for INV");
-      }
-      DRes<SBool> inWireNot = wires.get(in[0]);
-      DRes<SBool> outWireNot = wires.get(out[0]);
-      if (inWireNot == null) {
-        throw new IllegalArgumentException("NOT input " + in[0] + " was not set");
-      }
-      outWireNot = builder.binary().not(inWireNot);
-      this.wires.put(out[0], outWireNot);
-    } else {
-      throw new IllegalArgumentException("Unknown gate type: " + type);
-    }
+      return () -> output;
+    });
   }
 
-  private static final class IterationState implements DRes<IterationState> {
-
-    private final Iterator<String> it;
-
-    private IterationState(Iterator<String> it) {
-      this.it = it;
+  private DRes<SBool> evaluateGate(Binary binary, int gate, DRes<SBool>[] wires) {
+    DRes<SBool> left = input(wires, circuit.getLeft(gate));
+    switch (circuit.getType(gate)) {
+      case BristolCircuit.XOR:
+        return binary.xor(left, input(wires, circuit.getRight(gate)));
+      case BristolCircuit.AND:
+        return binary.and(left, input(wires, circuit.getRight(gate)));
+      default:
+        return binary.not(left);
     }
+  }
 
-    @Override
-    public IterationState out() {
-      return this;
+  private static DRes<SBool> input(DRes<SBool>[] wires, int wire) {
+    DRes<SBool> value = wires[wire];
+    if (value == null) {
+      throw new IllegalArgumentException("Input wire " + wire + " was null");
     }
+    return value;
   }
 
   /**
-   * Fills res with next protocols, starting from pos. Returns next empty pos of array.
+   * Returns the compiled circuit for the Bristol description at the given classpath location,
+   * parsing it on first use.
+   *
+   * @param path the location of the description on the classpath
+   * @return the compiled circuit
    */
-  public DRes<List<SBool>> buildComputation(ProtocolBuilderBinary builder) {
+  public static BristolCircuit getCircuit(String path) {
+    return CACHE.computeIfAbsent(path, BristolCircuitParser::readCircuit);
+  }
 
-    return builder.seq(seq ->
-        new IterationState(this.linesIter)
-    ).whileLoop((state) -> state.it.hasNext(), (seq, state) -> {
-      String line = state.it.next();
-      if (line.equals("")) {
-        // empty line
-        return state;
-      }
-      parseLine(line, seq);
-      return state;
-    }).seq((seq, state) -> {
-      List<SBool> output = new ArrayList<>();
-      for (int i = 0; i < this.no_output; i++) {
-        output.add(this.wires.get(this.no_wires - this.no_output + i).out());
+  private static BristolCircuit readCircuit(String path) {
+    String directory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+    if (directory == null) {
+      return parseResource(path);
+    }
+    File compiled = new File(directory, path.replaceAll("[^A-Za-z0-9._-]", "_") + ".bin");
+    try {
+      if (!compiled.isFile()) {
+        File temp = File.createTempFile(compiled.getName(), ".tmp", compiled.getParentFile());
+        try {
+          parseResource(path).writeTo(temp);
+          Files.move(temp.toPath(), compiled.toPath(), StandardCopyOption.REPLACE_EXISTING,
+              StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+          Files.deleteIfExists(temp.toPath());
+        }
       }
-      this.lines.close();
-      return () -> output;
-    });
+      return BristolCircuit.load(compiled);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to cache compiled circuit " + path, e);
+    }
   }
 
-  public static BristolCircuitParser readCircuitDescription(String path,
-      List<DRes<SBool>> in1, List<DRes<SBool>> in2) {
+  private static BristolCircuit parseResource(String path) {
     ClassLoader classLoader = BristolCircuitParser.class.getClassLoader();
     InputStream is = classLoader.getResourceAsStream(path);
     if (is == null) {
       throw new IllegalArgumentException("Couldn't find bristol circuit descritpion at " + path);
     }
-    Stream<String> stream = new BufferedReader(new InputStreamReader(is)).lines();
-    return new BristolCircuitParser(stream, in1, in2);
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
+      return BristolCircuit.parse(reader.lines().iterator());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static BristolCircuitParser readCircuitDescription(String path,
+      List<DRes<SBool>> in1, List<DRes<SBool>> in2) {
+    return new BristolCircuitParser(getCircuit(path), in1, in2);
   }
 
 }
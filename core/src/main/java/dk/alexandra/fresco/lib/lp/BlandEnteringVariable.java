@@ -10,6 +10,7 @@ import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.collections.Matrix;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class BlandEnteringVariable
@@ -47,13 +48,9 @@ public class BlandEnteringVariable
       }
       return () -> updatedF;
     }).seq((seq, updatedF) ->
-        seq.par(par -> {
-          ArrayList<DRes<SInt>> signs = new ArrayList<>(updatedF.size());
-          for (DRes<SInt> f : updatedF) {
-            signs.add(par.comparison().compareLEQ(f, negativeOne));
-          }
-          return () -> signs;
-        }).seq((seq2, signs) -> {
+        seq.seq(inner -> inner.comparison().compareLEQ(updatedF,
+            Collections.nCopies(updatedF.size(), negativeOne))
+        ).seq((seq2, signs) -> {
           //Prefix sum
           ArrayList<DRes<SInt>> updatedSigns = new ArrayList<>();
           updatedSigns.add(signs.get(0));
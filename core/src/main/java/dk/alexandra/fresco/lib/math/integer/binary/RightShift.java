@@ -10,9 +10,17 @@ import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Shifts a number to the right.
+ *
+ * <p>The input is masked with a random value r whose bits are known in shared form, and the
+ * masked value is opened. The shifted input is then the difference of the shifted opening and the
+ * shifted mask, corrected by the carry from the bits shifted away, which is computed in a number
+ * of rounds logarithmic in the number of shifts.</p>
  */
 public class RightShift implements Computation<RightShiftResult, ProtocolBuilderNumeric> {
 
@@ -60,32 +68,7 @@ public class RightShift implements Computation<RightShiftResult, ProtocolBuilder
       BigInteger masked = maskedInput.getFirst().out();
       RandomAdditiveMask mask = maskedInput.getSecond();
 
-      /*
-       * m = r + input, so there is a carry from the addition of the first (least significant) bit
-       * if and only if m_0 = 0 and r_0 = 1.
-       */
-      boolean mi = masked.testBit(0);
-      DRes<SInt> ri = mask.bits.get(0);
-      DRes<SInt> currentCarry = mi ? seq.numeric().known(BigInteger.ZERO) : ri;
-
-      for (int i = 1; i < shifts; i++) {
-        mi = masked.testBit(i);
-        ri = mask.bits.get(i);
-        DRes<SInt> x = seq.numeric().mult(currentCarry, ri);
-
-        /*
-         * One of the following must be true for there to be a carry from the addition of the i'th
-         * bits of the input and the mask, r:
-         *
-         * 1) If the i'th bit of the masked input is set, both the i'th bit of r AND the carry from
-         * the previous bit should be set.
-         *
-         * 2) If the i'th bit of the masked input it not set, either the i'th bit of r is set OR
-         * there was a carry from the previous adding the (i-1)'th bits.
-         */
-        currentCarry = mi ? x : seq.numeric().sub(seq.numeric().add(currentCarry, ri), x);
-      }
-      final DRes<SInt> carry = currentCarry;
+      final DRes<SInt> carry = carry(seq, masked, mask.bits);
 
       /*
        * rBottom = r (mod 2^shifts).
@@ -122,4 +105,84 @@ public class RightShift implements Computation<RightShiftResult, ProtocolBuilder
       }
     });
   }
+
+  /**
+   * Computes the carry into bit <i>shifts</i> when adding the input and the mask, r, given the
+   * opened sum m and the bits of r.
+   *
+   * <p>Each bit position i maps an incoming carry c to an outgoing carry g_i + p_i * c, where
+   * g_i is set if the position generates a carry and p_i is set if it propagates the incoming
+   * carry. Adjacent positions are combined pairwise in a tree, so the carry is found in a number of
+   * rounds logarithmic in <i>shifts</i>.</p>
+   */
+  private DRes<SInt> carry(ProtocolBuilderNumeric builder, BigInteger masked,
+      List<DRes<SInt>> bits) {
+    return builder.par(par -> {
+      /*
+       * Since m = r + input, there is a carry from the i'th bit if either m_i is not set and r_i
+       * is set, or the carry from the previous bit is propagated, which happens if m_i and r_i are
+       * equal. Terms which are publicly zero are represented by null. There is no carry into the
+       * least significant bit, so it never propagates.
+       */
+      List<Pair<DRes<SInt>, DRes<SInt>>> positions = new ArrayList<>(shifts);
+      for (int i = 0; i < shifts; i++) {
+        DRes<SInt> ri = bits.get(i);
+        if (masked.testBit(i)) {
+          positions.add(new Pair<>(null, i == 0 ? null : ri));
+        } else {
+          positions.add(new Pair<>(ri, i == 0 ? null : par.numeric().sub(BigInteger.ONE, ri)));
+        }
+      }
+      return () -> positions;
+    }).whileLoop(positions -> positions.size() > 1, (seq, positions) -> seq.par(par -> {
+      List<DRes<Pair<DRes<SInt>, DRes<SInt>>>> combined =
+          new ArrayList<>((positions.size() + 1) / 2);
+      for (int i = 0; i + 1 < positions.size(); i += 2) {
+        combined.add(combine(par, positions.get(i + 1), positions.get(i)));
+      }
+      if (positions.size() % 2 == 1) {
+        Pair<DRes<SInt>, DRes<SInt>> last = positions.get(positions.size() - 1);
+        combined.add(() -> last);
+      }
+      return () -> combined.stream().map(DRes::out).collect(Collectors.toList());
+    })).seq((seq, positions) -> {
+      if (positions.isEmpty() || positions.get(0).getFirst() == null) {
+        return seq.numeric().known(BigInteger.ZERO);
+      } else {
+        return positions.get(0).getFirst();
+      }
+    });
+  }
+
+  /**
+   * Combines the generate and propagate bits of two adjacent groups of bit positions into those of
+   * the group covering both.
+   */
+  private static DRes<Pair<DRes<SInt>, DRes<SInt>>> combine(ProtocolBuilderNumeric builder,
+      Pair<DRes<SInt>, DRes<SInt>> high, Pair<DRes<SInt>, DRes<SInt>> low) {
+    return builder.par(par -> {
+      DRes<SInt> propagated = null;
+      if (high.getSecond() != null && low.getFirst() != null) {
+        propagated = par.numeric().mult(high.getSecond(), low.getFirst());
+      }
+      DRes<SInt> propagate = null;
+      if (high.getSecond() != null && low.getSecond() != null) {
+        propagate = par.numeric().mult(high.getSecond(), low.getSecond());
+      }
+      Pair<DRes<SInt>, DRes<SInt>> products = new Pair<>(propagated, propagate);
+      return () -> products;
+    }).seq((seq, products) -> {
+      /*
+       * The combined group generates a carry if the high group does, or if the low group does and
+       * the high group propagates it. The two cases are exclusive, so the OR is a sum.
+       */
+      DRes<SInt> generate = high.getFirst();
+      DRes<SInt> propagated = products.getFirst();
+      if (propagated != null) {
+        generate = generate == null ? propagated : seq.numeric().add(generate, propagated);
+      }
+      Pair<DRes<SInt>, DRes<SInt>> result = new Pair<>(generate, products.getSecond());
+      return () -> result;
+    });
+  }
 }
@@ -2,8 +2,8 @@ package dk.alexandra.fresco.lib.real.fixed.utils;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.Computation;
-import dk.alexandra.fresco.framework.builder.numeric.AdvancedNumeric;
-import dk.alexandra.fresco.framework.builder.numeric.AdvancedNumeric.RandomAdditiveMask;
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues;
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues.TruncationPair;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
@@ -16,6 +16,11 @@ import java.math.BigInteger;
  * the exact result you need to use {@link RightShift} instead, but this will be at a significant
  * performance cost.
  *
+ * The mask is a truncation pair from
+ * {@link PreprocessedValues#getTruncationPair(ProtocolBuilderNumeric, int)}, so apart from
+ * producing the pair the truncation costs a single opening. Protocol suites which
+ * preprocess the pairs avoid generating and recombining a random bit for each bit of the mask.
+ *
  * The protocol is similar to protocol 3.1 in Catrina O., Saxena A. (2010) Secure Computation with
  * Fixed-Point Numbers. In: Sion R. (eds) Financial Cryptography and Data Security. FC 2010. Lecture
  * Notes in Computer Science, vol 6052. Springer, Berlin, Heidelberg.
@@ -35,39 +40,24 @@ public class Truncate implements Computation<SInt, ProtocolBuilderNumeric> {
   public DRes<SInt> buildComputation(ProtocolBuilderNumeric sequential) {
     return sequential.seq((builder) -> {
       /*
-       * Generate random additive mask of the same length as the input + some extra to avoid
-       * leakage.
+       * Get a random truncation pair r, r >> shifts, where r has the max bit length, i.e. it is
+       * longer than the input by enough to avoid leakage.
        */
-      AdvancedNumeric additiveMaskBuilder = builder.advancedNumeric();
-      DRes<RandomAdditiveMask> mask =
-          additiveMaskBuilder.additiveMask(sequential.getBasicNumericContext().getMaxBitLength());
-      return mask;
-    }).seq((parSubSequential, randomAdditiveMask) -> {
-      DRes<SInt> result = parSubSequential.numeric().add(input, () -> randomAdditiveMask.random);
+      return builder.preprocessedValues().getTruncationPair(builder, shifts);
+    }).seq((parSubSequential, pair) -> {
+      DRes<SInt> result = parSubSequential.numeric().add(input, () -> pair.random);
       DRes<BigInteger> open = parSubSequential.numeric().open(result);
-      return () -> new Pair<>(open, randomAdditiveMask);
+      return () -> new Pair<>(open, pair);
     }).seq((seq, maskedInput) -> {
       BigInteger masked = maskedInput.getFirst().out();
-      RandomAdditiveMask mask = maskedInput.getSecond();
-
-      /*
-       * rBottom = r (mod 2^shifts).
-       */
-      final DRes<SInt> rBottom = seq.advancedNumeric().innerProductWithPublicPart(
-          seq.getBigIntegerHelper().getTwoPowersList(shifts), mask.bits);
-
-      BigInteger inverse =
-          BigInteger.ONE.shiftLeft(shifts).modInverse(seq.getBasicNumericContext().getModulus());
-      DRes<SInt> rTop = seq.numeric().sub(mask.random, rBottom);
+      TruncationPair pair = maskedInput.getSecond();
 
       /*
-       * rTop is r with the last shifts bits set to zero, and it is hence divisible by 2^shifts, so
-       * multiplying with the inverse in the field corresponds to shifting.
+       * (x + r) >> shifts - r >> shifts is either x >> shifts or one larger, depending on the
+       * carry from the bits shifted away.
        */
-      DRes<SInt> rShifted = seq.numeric().mult(inverse, rTop);
       BigInteger mShifted = masked.shiftRight(shifts);
-      DRes<SInt> result = seq.numeric().sub(mShifted, rShifted);
-      return result;
+      return seq.numeric().sub(mShifted, () -> pair.shifted);
     });
   }
 }
@@ -170,17 +170,20 @@ public class DeaSolver implements Application<List<DeaResult>, ProtocolBuilderNu
                 .map(n -> innerPar.numeric().mult(invPivot, n)).collect(Collectors.toList());
             return () -> basisValues;
           }).par((innerPar, basisValues) -> {
-            List<DRes<SInt>> above =
-                lpOutput.basis.stream().map(n -> innerPar.comparison().compareLEQ(firstPeer, n))
-                    .collect(Collectors.toList());
-            List<DRes<SInt>> below =
-                lpOutput.basis.stream().map(n -> innerPar.comparison().compareLEQ(n, lastPeer))
-                    .collect(Collectors.toList());
-            List<List<DRes<SInt>>> newState = new ArrayList<>(3);
-            newState.add(above);
-            newState.add(below);
-            newState.add(basisValues);
-            return () -> newState;
+            // Compare to the first and last peer in one batch
+            int size = lpOutput.basis.size();
+            List<DRes<SInt>> lower = new ArrayList<>(Collections.nCopies(size, firstPeer));
+            lower.addAll(lpOutput.basis);
+            List<DRes<SInt>> upper = new ArrayList<>(lpOutput.basis);
+            upper.addAll(Collections.nCopies(size, lastPeer));
+            DRes<List<DRes<SInt>>> comparisons = innerPar.comparison().compareLEQ(lower, upper);
+            return () -> {
+              List<List<DRes<SInt>>> newState = new ArrayList<>(3);
+              newState.add(comparisons.out().subList(0, size));
+              newState.add(comparisons.out().subList(size, 2 * size));
+              newState.add(basisValues);
+              return newState;
+            };
           }).par((innerPar, state) -> {
             List<DRes<SInt>> inRange = IntStream.range(0, lpOutput.basis.size())
                 .mapToObj(n -> innerPar.numeric().mult(state.get(0).get(n), state.get(1).get(n)))
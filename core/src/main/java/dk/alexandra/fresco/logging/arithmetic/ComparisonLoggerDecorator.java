@@ -5,6 +5,7 @@ import dk.alexandra.fresco.framework.builder.numeric.Comparison;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.logging.PerformanceLogger;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ComparisonLoggerDecorator implements Comparison, PerformanceLogger {
@@ -43,6 +44,12 @@ public class ComparisonLoggerDecorator implements Comparison, PerformanceLogger
     return this.delegate.compareLEQ(x1, x2);
   }
 
+  @Override
+  public DRes<List<DRes<SInt>>> compareLEQ(List<DRes<SInt>> x1, List<DRes<SInt>> x2) {
+    leqCount += x1.size();
+    return this.delegate.compareLEQ(x1, x2);
+  }
+
   @Override
   public DRes<SInt> compareLEQLong(DRes<SInt> x1, DRes<SInt> x2) {
     leqCount++;
@@ -61,6 +68,12 @@ public class ComparisonLoggerDecorator implements Comparison, PerformanceLogger
     return this.delegate.compareZero(x, bitLength);
   }
 
+  @Override
+  public DRes<List<DRes<SInt>>> compareZero(List<DRes<SInt>> x, int bitLength) {
+    comp0Count += x.size();
+    return this.delegate.compareZero(x, bitLength);
+  }
+
   @Override
   public void reset() {
     eqCount = 0;
@@ -0,0 +1,28 @@
+package dk.alexandra.fresco.logging.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count which is cheap to update from many threads.
+ */
+public class Counter {
+
+  private final LongAdder value = new LongAdder();
+
+  public void increment() {
+    value.increment();
+  }
+
+  public void add(long amount) {
+    value.add(amount);
+  }
+
+  public long get() {
+    return value.sum();
+  }
+
+  public void reset() {
+    value.reset();
+  }
+
+}
@@ -0,0 +1,71 @@
+package dk.alexandra.fresco.logging.metrics;
+
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+
+/**
+ * Batch evaluation decorator recording batch and round latencies and throughput in a
+ * {@link MetricsRegistry}.
+ *
+ * <p>A round is one flush of the batch network. The latency of a round is the time from the start
+ * of the batch or the previous flush to the end of the flush.</p>
+ */
+public class MetricsBatchEvaluationDecorator<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  public static final String BATCH_LATENCY = "fresco_batch_latency_nanos";
+  public static final String ROUND_LATENCY = "fresco_round_latency_nanos";
+  public static final String PROTOCOLS = "fresco_native_protocols";
+  public static final String PROTOCOLS_PER_SECOND = "fresco_native_protocols_per_second";
+
+  private final BatchEvaluationStrategy<ResourcePoolT> delegate;
+  private final Histogram batchLatency;
+  private final Histogram roundLatency;
+  private final Counter protocols;
+  private final Runnable roundListener = this::recordRound;
+  private long roundStart;
+
+  /**
+   * Creates a new decorator. The throughput is the number of native protocols per second spent
+   * evaluating batches.
+   *
+   * @param delegate the strategy to decorate
+   * @param registry the registry to record metrics in
+   */
+  public MetricsBatchEvaluationDecorator(BatchEvaluationStrategy<ResourcePoolT> delegate,
+      MetricsRegistry registry) {
+    this.delegate = delegate;
+    this.batchLatency = registry.histogram(BATCH_LATENCY);
+    this.roundLatency = registry.histogram(ROUND_LATENCY);
+    this.protocols = registry.counter(PROTOCOLS);
+    registry.gauge(PROTOCOLS_PER_SECOND, () -> {
+      long nanos = batchLatency.getSum();
+      return nanos == 0 ? 0 : (long) (protocols.get() * 1e9 / nanos);
+    });
+  }
+
+  @Override
+  public void processBatch(ProtocolCollection<ResourcePoolT> protocols,
+      ResourcePoolT resourcePool, NetworkBatchDecorator network) {
+    int size = protocols.size();
+    long then = System.nanoTime();
+    roundStart = then;
+    network.setFlushListener(roundListener);
+    try {
+      delegate.processBatch(protocols, resourcePool, network);
+    } finally {
+      network.setFlushListener(null);
+    }
+    batchLatency.record(System.nanoTime() - then);
+    this.protocols.add(size);
+  }
+
+  private void recordRound() {
+    long now = System.nanoTime();
+    roundLatency.record(now - roundStart);
+    roundStart = now;
+  }
+
+}
@@ -0,0 +1,72 @@
+package dk.alexandra.fresco.logging.metrics;
+
+import dk.alexandra.fresco.framework.network.Network;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Network decorator recording traffic and waiting time per party in a {@link MetricsRegistry}.
+ *
+ * <p>The time spent in {@link #receive(int)} is the time this party waits for a given peer, so a
+ * peer with a much higher {@value #RECEIVE_WAIT} than the others is a straggler. Decorate the
+ * network passed to the evaluator to get one receive per round and peer.</p>
+ */
+public class MetricsNetworkDecorator implements Network, Closeable {
+
+  public static final String BYTES_SENT = "fresco_network_sent_bytes";
+  public static final String BYTES_RECEIVED = "fresco_network_received_bytes";
+  public static final String RECEIVE_WAIT = "fresco_network_receive_wait_nanos";
+  public static final String PARTY = "party";
+
+  private final Network delegate;
+  private final Counter[] sent;
+  private final Counter[] received;
+  private final Histogram[] waits;
+
+  /**
+   * Creates a new decorator.
+   *
+   * @param network the network to decorate
+   * @param registry the registry to record metrics in
+   */
+  public MetricsNetworkDecorator(Network network, MetricsRegistry registry) {
+    this.delegate = network;
+    int parties = network.getNoOfParties();
+    this.sent = new Counter[parties + 1];
+    this.received = new Counter[parties + 1];
+    this.waits = new Histogram[parties + 1];
+    for (int i = 1; i <= parties; i++) {
+      sent[i] = registry.counter(BYTES_SENT, PARTY, i);
+      received[i] = registry.counter(BYTES_RECEIVED, PARTY, i);
+      waits[i] = registry.histogram(RECEIVE_WAIT, PARTY, i);
+    }
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    delegate.send(partyId, data);
+    sent[partyId].add(data.length);
+  }
+
+  @Override
+  public byte[] receive(int partyId) {
+    long then = System.nanoTime();
+    byte[] data = delegate.receive(partyId);
+    waits[partyId].record(System.nanoTime() - then);
+    received[partyId].add(data.length);
+    return data;
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return delegate.getNoOfParties();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (delegate instanceof Closeable) {
+      ((Closeable) delegate).close();
+    }
+  }
+
+}
@@ -0,0 +1,277 @@
+package dk.alexandra.fresco.logging.metrics;
+
+import dk.alexandra.fresco.logging.PerformanceLogger;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * A registry of named metrics which can be read while an application is running.
+ *
+ * <p>Metrics are {@link Counter}s, {@link Histogram}s and gauges, i.e. functions which are
+ * evaluated when the registry is read. A metric is identified by its name and optionally a single
+ * label, such as the id of the party a network metric refers to. Asking for a metric which does
+ * not exist creates it, so components can look up their metrics once and update them without
+ * further synchronization.</p>
+ *
+ * <p>The current values can be exported in JSON or in the Prometheus text format, where
+ * histograms are written as summaries with the 50th, 90th and 99th percentiles. The registry is
+ * also a {@link PerformanceLogger}, so it can be printed with the existing performance
+ * printers.</p>
+ */
+public class MetricsRegistry implements PerformanceLogger {
+
+  private static final double[] PERCENTILES = {50, 90, 99};
+
+  private final Map<Key, Counter> counters = new ConcurrentHashMap<>();
+  private final Map<Key, Histogram> histograms = new ConcurrentHashMap<>();
+  private final Map<Key, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+  public Counter counter(String name) {
+    return counters.computeIfAbsent(new Key(name, null, null), k -> new Counter());
+  }
+
+  public Counter counter(String name, String label, Object value) {
+    return counters.computeIfAbsent(new Key(name, label, value), k -> new Counter());
+  }
+
+  public Histogram histogram(String name) {
+    return histograms.computeIfAbsent(new Key(name, null, null), k -> new Histogram());
+  }
+
+  public Histogram histogram(String name, String label, Object value) {
+    return histograms.computeIfAbsent(new Key(name, label, value), k -> new Histogram());
+  }
+
+  /**
+   * Registers a gauge, replacing any gauge previously registered with the same name.
+   *
+   * @param name the name of the gauge
+   * @param gauge function computing the current value
+   */
+  public void gauge(String name, LongSupplier gauge) {
+    gauges.put(new Key(name, null, null), gauge);
+  }
+
+  /**
+   * Registers a labelled gauge, replacing any gauge previously registered with the same name and
+   * label.
+   *
+   * @param name the name of the gauge
+   * @param label the name of the label
+   * @param value the value of the label
+   * @param gauge function computing the current value
+   */
+  public void gauge(String name, String label, Object value, LongSupplier gauge) {
+    gauges.put(new Key(name, label, value), gauge);
+  }
+
+  /**
+   * Resets all counters and histograms. Gauges are left registered.
+   */
+  @Override
+  public void reset() {
+    counters.values().forEach(Counter::reset);
+    histograms.values().forEach(Histogram::reset);
+  }
+
+  /**
+   * Produces the counters, the gauges and the count, median, 99th percentile and maximum of each
+   * histogram.
+   */
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    counters.forEach((key, counter) -> values.put(key.toString(), counter.get()));
+    gauges.forEach((key, gauge) -> values.put(key.toString(), gauge.getAsLong()));
+    histograms.forEach((key, histogram) -> {
+      values.put(key.withSuffix("_count").toString(), histogram.getCount());
+      values.put(key.withSuffix("_p50").toString(), histogram.getPercentile(50));
+      values.put(key.withSuffix("_p99").toString(), histogram.getPercentile(99));
+      values.put(key.withSuffix("_max").toString(), histogram.getMax());
+    });
+    return values;
+  }
+
+  /**
+   * Returns the current values as a JSON object with the members <code>counters</code>,
+   * <code>gauges</code> and <code>histograms</code>.
+   */
+  public String toJson() {
+    StringBuilder json = new StringBuilder("{\n  \"counters\": {");
+    String separator = "\n";
+    for (Map.Entry<Key, Counter> e : sorted(counters).entrySet()) {
+      json.append(separator).append("    ").append(quote(e.getKey().toString())).append(": ")
+          .append(e.getValue().get());
+      separator = ",\n";
+    }
+    json.append("\n  },\n  \"gauges\": {");
+    separator = "\n";
+    for (Map.Entry<Key, LongSupplier> e : sorted(gauges).entrySet()) {
+      json.append(separator).append("    ").append(quote(e.getKey().toString())).append(": ")
+          .append(e.getValue().getAsLong());
+      separator = ",\n";
+    }
+    json.append("\n  },\n  \"histograms\": {");
+    separator = "\n";
+    for (Map.Entry<Key, Histogram> e : sorted(histograms).entrySet()) {
+      Histogram histogram = e.getValue();
+      json.append(separator).append("    ").append(quote(e.getKey().toString())).append(": {")
+          .append("\"count\": ").append(histogram.getCount())
+          .append(", \"sum\": ").append(histogram.getSum())
+          .append(", \"min\": ").append(histogram.getMin())
+          .append(", \"max\": ").append(histogram.getMax());
+      for (double percentile : PERCENTILES) {
+        json.append(", \"p").append((int) percentile).append("\": ")
+            .append(histogram.getPercentile(percentile));
+      }
+      json.append("}");
+      separator = ",\n";
+    }
+    return json.append("\n  }\n}\n").toString();
+  }
+
+  /**
+   * Returns the current values in the Prometheus text exposition format.
+   */
+  public String toPrometheus() {
+    StringBuilder text = new StringBuilder();
+    String type = null;
+    for (Map.Entry<Key, Counter> e : sorted(counters).entrySet()) {
+      type = typeLine(text, type, e.getKey(), "counter");
+      text.append(e.getKey()).append(' ').append(e.getValue().get()).append('\n');
+    }
+    for (Map.Entry<Key, LongSupplier> e : sorted(gauges).entrySet()) {
+      type = typeLine(text, type, e.getKey(), "gauge");
+      text.append(e.getKey()).append(' ').append(e.getValue().getAsLong()).append('\n');
+    }
+    for (Map.Entry<Key, Histogram> e : sorted(histograms).entrySet()) {
+      Key key = e.getKey();
+      Histogram histogram = e.getValue();
+      type = typeLine(text, type, key, "summary");
+      for (double percentile : PERCENTILES) {
+        text.append(key.name).append('{');
+        if (key.label != null) {
+          text.append(key.label).append("=\"").append(key.value).append("\",");
+        }
+        text.append("quantile=\"").append(percentile / 100).append("\"} ")
+            .append(histogram.getPercentile(percentile)).append('\n');
+      }
+      text.append(key.withSuffix("_sum")).append(' ').append(histogram.getSum()).append('\n');
+      text.append(key.withSuffix("_count")).append(' ').append(histogram.getCount()).append('\n');
+    }
+    return text.toString();
+  }
+
+  /**
+   * Writes the current values as JSON to the given file. The file is replaced atomically, so it
+   * can be polled by other processes while the application runs.
+   *
+   * @param file the file to write to
+   * @throws IOException if writing the file fails
+   */
+  public void writeJson(File file) throws IOException {
+    write(file, toJson());
+  }
+
+  /**
+   * Writes the current values in the Prometheus text format to the given file, e.g. for the
+   * textfile collector of the node exporter. The file is replaced atomically.
+   *
+   * @param file the file to write to
+   * @throws IOException if writing the file fails
+   */
+  public void writePrometheus(File file) throws IOException {
+    write(file, toPrometheus());
+  }
+
+  private void write(File file, String content) throws IOException {
+    File absolute = file.getAbsoluteFile();
+    File temp = new File(absolute.getParentFile(), absolute.getName() + ".tmp");
+    try (Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+      writer.write(content);
+    }
+    Files.move(temp.toPath(), absolute.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static String typeLine(StringBuilder text, String previous, Key key, String type) {
+    if (!key.name.equals(previous)) {
+      text.append("# TYPE ").append(key.name).append(' ').append(type).append('\n');
+    }
+    return key.name;
+  }
+
+  private static <T> SortedMap<Key, T> sorted(Map<Key, T> metrics) {
+    return new TreeMap<>(metrics);
+  }
+
+  private static String quote(String value) {
+    return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
+  /**
+   * The name and optional label of a metric.
+   */
+  private static final class Key implements Comparable<Key> {
+
+    private final String name;
+    private final String label;
+    private final String value;
+
+    private Key(String name, String label, Object value) {
+      this.name = Objects.requireNonNull(name);
+      this.label = label;
+      this.value = label == null ? null : String.valueOf(value);
+    }
+
+    private Key withSuffix(String suffix) {
+      return new Key(name + suffix, label, value);
+    }
+
+    @Override
+    public int compareTo(Key other) {
+      int result = name.compareTo(other.name);
+      if (result == 0) {
+        result = String.valueOf(label).compareTo(String.valueOf(other.label));
+      }
+      if (result == 0) {
+        result = String.valueOf(value).compareTo(String.valueOf(other.value));
+      }
+      return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return name.equals(other.name) && Objects.equals(label, other.label)
+          && Objects.equals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, label, value);
+    }
+
+    @Override
+    public String toString() {
+      return label == null ? name : name + "{" + label + "=\"" + value + "\"}";
+    }
+  }
+}
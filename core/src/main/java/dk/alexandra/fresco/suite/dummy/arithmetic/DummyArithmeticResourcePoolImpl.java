@@ -1,14 +1,16 @@
 package dk.alexandra.fresco.suite.dummy.arithmetic;
 
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.sce.resources.ParallelResourcePool;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 
 /**
- * Implements the resource pool needed for the Dummy Arithmetic suite.
+ * Implements the resource pool needed for the Dummy Arithmetic suite. The resource pool holds no
+ * mutable state, so it can be shared by all threads of a parallel evaluation.
  */
 public class DummyArithmeticResourcePoolImpl extends ResourcePoolImpl
-    implements DummyArithmeticResourcePool {
+    implements DummyArithmeticResourcePool, ParallelResourcePool<DummyArithmeticResourcePool> {
 
   private final FieldDefinition fieldDefinition;
 
@@ -29,4 +31,14 @@ public class DummyArithmeticResourcePoolImpl extends ResourcePoolImpl
   public FieldDefinition getFieldDefinition() {
     return fieldDefinition;
   }
+
+  @Override
+  public DummyArithmeticResourcePool fork() {
+    return this;
+  }
+
+  @Override
+  public void join(DummyArithmeticResourcePool view) {
+    // Nothing to join
+  }
 }
@@ -0,0 +1,172 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.junit.Test;
+
+public class LongPrimeFieldDefinitionTest {
+
+  private static final long SMALL_PRIME = 113;
+  private static final BigInteger LARGE_PRIME = BigInteger.ONE.shiftLeft(62).subtract(
+      BigInteger.valueOf(57));
+
+  @Test(expected = IllegalArgumentException.class)
+  public void evenModulus() {
+    new LongPrimeFieldDefinition(1024);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooSmallModulus() {
+    new LongPrimeFieldDefinition(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooLargeModulus() {
+    new LongPrimeFieldDefinition(BigInteger.ONE.shiftLeft(63).subtract(BigInteger.valueOf(25)));
+  }
+
+  @Test
+  public void isSupported() {
+    assertTrue(LongPrimeFieldDefinition.isSupported(LARGE_PRIME));
+    assertTrue(LongPrimeFieldDefinition.isSupported(BigInteger.valueOf(SMALL_PRIME)));
+    assertFalse(LongPrimeFieldDefinition.isSupported(BigInteger.valueOf(2)));
+    assertFalse(LongPrimeFieldDefinition.isSupported(BigInteger.valueOf(1024)));
+    assertFalse(LongPrimeFieldDefinition.isSupported(ModulusFinder.findSuitableModulus(64)));
+  }
+
+  @Test
+  public void getModulusAndBitLength() {
+    LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(LARGE_PRIME);
+    assertThat(definition.getModulus(), Is.is(LARGE_PRIME));
+    assertThat(definition.getBitLength(), Is.is(62));
+  }
+
+  @Test
+  public void creators() {
+    LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(SMALL_PRIME);
+    testCreation(definition, 27, 27);
+    testCreation(definition, 27 + 113, 27);
+    testCreation(definition, 27 - 113, 27);
+    testCreation(definition, -1, 112);
+    testCreation(definition, 0, 0);
+  }
+
+  private void testCreation(LongPrimeFieldDefinition definition, long value, long expected) {
+    BigInteger expectedValue = BigInteger.valueOf(expected);
+    assertThat(definition.convertToUnsigned(definition.createElement(value)),
+        Is.is(expectedValue));
+    assertThat(definition.convertToUnsigned(definition.createElement("" + value)),
+        Is.is(expectedValue));
+    assertThat(definition.convertToUnsigned(definition.createElement(BigInteger.valueOf(value))),
+        Is.is(expectedValue));
+  }
+
+  @Test
+  public void arithmeticMatchesBigInteger() {
+    Random random = new Random(42);
+    for (BigInteger prime : Arrays.asList(BigInteger.valueOf(SMALL_PRIME),
+        ModulusFinder.findSuitableModulus(32), LARGE_PRIME)) {
+      LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(prime);
+      for (int i = 0; i < 1000; i++) {
+        BigInteger left = new BigInteger(prime.bitLength(), random).mod(prime);
+        BigInteger right = new BigInteger(prime.bitLength(), random).mod(prime);
+        FieldElement leftElement = definition.createElement(left);
+        FieldElement rightElement = definition.createElement(right);
+        assertEquals(left.add(right).mod(prime),
+            definition.convertToUnsigned(leftElement.add(rightElement)));
+        assertEquals(left.subtract(right).mod(prime),
+            definition.convertToUnsigned(leftElement.subtract(rightElement)));
+        assertEquals(left.multiply(right).mod(prime),
+            definition.convertToUnsigned(leftElement.multiply(rightElement)));
+        assertEquals(left.negate().mod(prime),
+            definition.convertToUnsigned(leftElement.negate()));
+      }
+    }
+  }
+
+  @Test
+  public void multiplyExtremes() {
+    LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(LARGE_PRIME);
+    FieldElement max = definition.createElement(-1);
+    assertThat(definition.convertToUnsigned(max.multiply(max)), Is.is(BigInteger.ONE));
+    FieldElement zero = definition.createElement(0);
+    assertThat(definition.convertToUnsigned(max.multiply(zero)), Is.is(BigInteger.ZERO));
+  }
+
+  @Test
+  public void modInverseAndSqrt() {
+    LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(SMALL_PRIME);
+    FieldElement element = definition.createElement(27);
+    assertThat(definition.convertToUnsigned(element.modInverse()), Is.is(BigInteger.valueOf(67)));
+    FieldElement two = definition.createElement(2);
+    assertThat(definition.convertToUnsigned(two.sqrt()), Is.is(BigInteger.valueOf(62)));
+  }
+
+  @Test
+  public void convertToSigned() {
+    LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(SMALL_PRIME);
+    assertThat(definition.convertToSigned(BigInteger.valueOf(112)), Is.is(BigInteger.ONE.negate()));
+    assertThat(definition.convertToSigned(BigInteger.valueOf(5)), Is.is(BigInteger.valueOf(5)));
+  }
+
+  @Test
+  public void serialize() {
+    LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(LARGE_PRIME);
+    FieldElement element = definition.createElement(0x0102030405060708L);
+    byte[] bytes = definition.serialize(element);
+    assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}, bytes);
+    assertThat(definition.convertToUnsigned(definition.deserialize(bytes)),
+        Is.is(BigInteger.valueOf(0x0102030405060708L)));
+  }
+
+  @Test
+  public void serializeList() {
+    LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(SMALL_PRIME);
+    List<FieldElement> elements = Arrays.asList(
+        definition.createElement(1), definition.createElement(112), definition.createElement(0));
+    byte[] bytes = definition.serialize(elements);
+    assertEquals(3 * LongPrimeFieldDefinition.BYTE_LENGTH, bytes.length);
+    assertArrayEquals(new long[]{1, 112, 0},
+        definition.fromMontgomery(definition.toLongs(definition.deserializeList(bytes))));
+    assertArrayEquals(bytes, definition.serialize(definition.toMontgomery(new long[]{1, 112, 0})));
+    assertArrayEquals(new long[]{1, 112, 0},
+        definition.fromMontgomery(definition.deserializeToLongs(bytes)));
+  }
+
+  @Test
+  public void convertToBitVector() {
+    LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(SMALL_PRIME);
+    FieldElement element = definition.createElement(5);
+    assertTrue(definition.convertToBitVector(element).getBit(0, true));
+    assertFalse(definition.convertToBitVector(element).getBit(1, true));
+    assertTrue(definition.convertToBitVector(element).getBit(2, true));
+  }
+
+  @Test
+  public void vectorArithmetic() {
+    LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(SMALL_PRIME);
+    long[] left = definition.toMontgomery(new long[]{1, 100, 112});
+    long[] right = definition.toMontgomery(new long[]{2, 20, 112});
+    long[] result = new long[3];
+    definition.add(left, right, result);
+    assertArrayEquals(new long[]{3, 7, 111}, definition.fromMontgomery(result));
+    definition.subtract(left, right, result);
+    assertArrayEquals(new long[]{112, 80, 0}, definition.fromMontgomery(result));
+    definition.multiply(left, right, result);
+    assertArrayEquals(new long[]{2, 2000 % 113, 1}, definition.fromMontgomery(result));
+    FieldElement[] elements =
+        definition.createElements(definition.toMontgomery(new long[]{-1, 114}));
+    assertThat(definition.convertToUnsigned(elements[0]), Is.is(BigInteger.valueOf(112)));
+    assertThat(definition.convertToUnsigned(elements[1]), Is.is(BigInteger.ONE));
+  }
+}
@@ -0,0 +1,129 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.junit.Test;
+
+public class MontgomeryFieldDefinitionTest {
+
+  private static final List<BigInteger> PRIMES = Arrays.asList(
+      BigInteger.valueOf(113),
+      ModulusFinder.findSuitableModulus(128),
+      ModulusFinder.findSuitableModulus(256),
+      ModulusFinder.findSuitableModulus(512),
+      BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE));
+
+  @Test(expected = IllegalArgumentException.class)
+  public void evenModulus() {
+    new MontgomeryFieldDefinition(BigInteger.ONE.shiftLeft(128));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooSmallModulus() {
+    new MontgomeryFieldDefinition(BigInteger.valueOf(2));
+  }
+
+  @Test
+  public void isSupported() {
+    for (BigInteger prime : PRIMES) {
+      assertTrue(MontgomeryFieldDefinition.isSupported(prime));
+    }
+    assertFalse(MontgomeryFieldDefinition.isSupported(BigInteger.valueOf(2)));
+    assertFalse(MontgomeryFieldDefinition.isSupported(BigInteger.ONE.shiftLeft(128)));
+  }
+
+  @Test
+  public void arithmeticMatchesBigInteger() {
+    Random random = new Random(42);
+    for (BigInteger prime : PRIMES) {
+      MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(prime);
+      for (int i = 0; i < 500; i++) {
+        BigInteger left = new BigInteger(prime.bitLength(), random).mod(prime);
+        BigInteger right = new BigInteger(prime.bitLength(), random).mod(prime);
+        FieldElement leftElement = definition.createElement(left);
+        FieldElement rightElement = definition.createElement(right);
+        assertEquals(left, definition.convertToUnsigned(leftElement));
+        assertEquals(left.add(right).mod(prime),
+            definition.convertToUnsigned(leftElement.add(rightElement)));
+        assertEquals(left.subtract(right).mod(prime),
+            definition.convertToUnsigned(leftElement.subtract(rightElement)));
+        assertEquals(left.multiply(right).mod(prime),
+            definition.convertToUnsigned(leftElement.multiply(rightElement)));
+        assertEquals(left.negate().mod(prime),
+            definition.convertToUnsigned(leftElement.negate()));
+      }
+    }
+  }
+
+  @Test
+  public void arithmeticExtremes() {
+    for (BigInteger prime : PRIMES) {
+      MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(prime);
+      FieldElement max = definition.createElement(-1);
+      FieldElement zero = definition.createElement(0);
+      assertThat(definition.convertToUnsigned(max.multiply(max)), Is.is(BigInteger.ONE));
+      assertThat(definition.convertToUnsigned(max.add(max)), Is.is(prime.subtract(
+          BigInteger.valueOf(2))));
+      assertThat(definition.convertToUnsigned(max.multiply(zero)), Is.is(BigInteger.ZERO));
+      assertThat(definition.convertToUnsigned(zero.negate()), Is.is(BigInteger.ZERO));
+      assertThat(definition.convertToUnsigned(zero.subtract(max)), Is.is(BigInteger.ONE));
+    }
+  }
+
+  @Test
+  public void modInverseAndSqrt() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(BigInteger.valueOf(113));
+    FieldElement element = definition.createElement(27);
+    assertThat(definition.convertToUnsigned(element.modInverse()), Is.is(BigInteger.valueOf(67)));
+    FieldElement two = definition.createElement(2);
+    assertThat(definition.convertToUnsigned(two.sqrt()), Is.is(BigInteger.valueOf(62)));
+  }
+
+  @Test
+  public void serializationMatchesBigIntegerFieldDefinition() {
+    Random random = new Random(7);
+    for (BigInteger prime : PRIMES) {
+      MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(prime);
+      BigIntegerFieldDefinition reference = new BigIntegerFieldDefinition(prime);
+      List<FieldElement> elements = new ArrayList<>();
+      List<FieldElement> referenceElements = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        BigInteger value = new BigInteger(prime.bitLength(), random).mod(prime);
+        elements.add(definition.createElement(value));
+        referenceElements.add(reference.createElement(value));
+        assertArrayEquals(reference.serialize(referenceElements.get(i)),
+            definition.serialize(elements.get(i)));
+        assertEquals(value, definition.convertToUnsigned(
+            definition.deserialize(reference.serialize(referenceElements.get(i)))));
+      }
+      byte[] bytes = definition.serialize(elements);
+      assertArrayEquals(reference.serialize(referenceElements), bytes);
+      List<FieldElement> deserialized = definition.deserializeList(bytes);
+      for (int i = 0; i < elements.size(); i++) {
+        assertEquals(definition.convertToUnsigned(elements.get(i)),
+            definition.convertToUnsigned(deserialized.get(i)));
+      }
+    }
+  }
+
+  @Test
+  public void deserializeUnreducedValue() {
+    BigInteger prime = BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE);
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(prime);
+    byte[] bytes = new byte[16];
+    Arrays.fill(bytes, (byte) -1);
+    assertThat(definition.convertToUnsigned(definition.deserialize(bytes)),
+        Is.is(new BigInteger(1, bytes).mod(prime)));
+  }
+}
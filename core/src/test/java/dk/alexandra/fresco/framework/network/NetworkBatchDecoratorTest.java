@@ -1,6 +1,8 @@
 package dk.alexandra.fresco.framework.network;
 
 import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -65,25 +67,49 @@ public class NetworkBatchDecoratorTest {
     Assert.assertArrayEquals(new byte[]{1, 123}, transmissions.get(3));
   }
 
-  @Test(expected = RuntimeException.class)
-  public void errorOnBigPackets() throws Exception {
-    networkBatchDecorator.sendToAll(
-        new byte[]{
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-        });
+  @Test
+  public void sendBigPackets() throws Exception {
+    byte[] data = new byte[300];
+    Arrays.fill(data, (byte) 123);
+    networkBatchDecorator.send(1, data);
+    networkBatchDecorator.flush();
+    byte[] sent = transmissions.get(1);
+    Assert.assertEquals(302, sent.length);
+    Assert.assertEquals((byte) 0xAC, sent[0]);
+    Assert.assertEquals((byte) 0x02, sent[1]);
+    Assert.assertArrayEquals(data, Arrays.copyOfRange(sent, 2, sent.length));
+  }
+
+  @Test
+  public void sendAndReceiveBigPackets() throws Exception {
+    byte[] big = new byte[100000];
+    for (int i = 0; i < big.length; i++) {
+      big[i] = (byte) i;
+    }
+    networkBatchDecorator.send(2, new byte[]{1, 2});
+    networkBatchDecorator.send(2, big);
+    networkBatchDecorator.send(2, new byte[]{});
+    networkBatchDecorator.send(2, new byte[128]);
+    networkBatchDecorator.flush();
+    Assert.assertArrayEquals(new byte[]{1, 2}, networkBatchDecorator.receive(2));
+    Assert.assertArrayEquals(big, networkBatchDecorator.receive(2));
+    Assert.assertArrayEquals(new byte[]{}, networkBatchDecorator.receive(2));
+    Assert.assertArrayEquals(new byte[128], networkBatchDecorator.receive(2));
+  }
 
+  @Test
+  public void receiveBuffer() throws Exception {
+    transmissions.put(1, new byte[]{4, 2, 2, 23, 3, 1, 22});
+    ByteBuffer first = networkBatchDecorator.receiveBuffer(1);
+    Assert.assertEquals(4, first.remaining());
+    Assert.assertTrue(first.isReadOnly());
+    Assert.assertEquals(2, first.get());
+    Assert.assertEquals(2, first.get());
+    Assert.assertEquals(23, first.get());
+    Assert.assertEquals(3, first.get());
+    ByteBuffer second = networkBatchDecorator.receiveBuffer(1);
+    Assert.assertEquals(1, second.remaining());
+    Assert.assertEquals(22, second.get(0));
   }
 
   private class DummyNetwork implements Network {
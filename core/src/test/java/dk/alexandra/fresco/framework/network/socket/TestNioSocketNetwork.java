@@ -0,0 +1,143 @@
+package dk.alexandra.fresco.framework.network.socket;
+
+import static dk.alexandra.fresco.framework.network.socket.Connector.DEFAULT_CONNECTION_TIMEOUT;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.AbstractCloseableNetworkTest;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class TestNioSocketNetwork extends AbstractCloseableNetworkTest {
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf) {
+    return newCloseableNetwork(conf, DEFAULT_CONNECTION_TIMEOUT);
+  }
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf, Duration timeout) {
+    return new NioSocketNetwork(conf, NioSocketNetwork.createConnector(conf, timeout)
+        .getSocketMap());
+  }
+
+  private List<Map<Integer, Socket>> connect(int numParties, boolean channels)
+      throws InterruptedException, ExecutionException {
+    List<NetworkConfiguration> confs = getNetConfs(numParties);
+    ExecutorService es = Executors.newFixedThreadPool(numParties);
+    List<Future<NetworkConnector>> fs = new ArrayList<>(numParties);
+    try {
+      for (int i = 0; i < numParties; i++) {
+        final int id = i;
+        fs.add(es.submit(() -> channels
+            ? NioSocketNetwork.createConnector(confs.get(id), DEFAULT_CONNECTION_TIMEOUT)
+            : new Connector(confs.get(id), DEFAULT_CONNECTION_TIMEOUT)));
+      }
+      List<Map<Integer, Socket>> socketMaps = new ArrayList<>(numParties);
+      for (Future<NetworkConnector> f : fs) {
+        socketMaps.add(f.get().getSocketMap());
+      }
+      return socketMaps;
+    } finally {
+      es.shutdownNow();
+    }
+  }
+
+  private void closeSockets(List<Map<Integer, Socket>> socketMaps) throws IOException {
+    for (Map<Integer, Socket> socketMap : socketMaps) {
+      for (Socket s : socketMap.values()) {
+        s.close();
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSocketWithoutChannel() throws Exception {
+    List<Map<Integer, Socket>> socketMaps = connect(2, false);
+    try {
+      new NioSocketNetwork(getNetConfs(2).get(0), socketMaps.get(0));
+    } finally {
+      closeSockets(socketMaps);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingParty() throws Exception {
+    List<Map<Integer, Socket>> socketMaps = connect(3, true);
+    try {
+      socketMaps.get(0).remove(2);
+      new NioSocketNetwork(getNetConfs(3).get(0), socketMaps.get(0));
+    } finally {
+      closeSockets(socketMaps);
+    }
+  }
+
+  @Test(expected = RuntimeException.class, timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testClosedByPeer() throws Exception {
+    List<Map<Integer, Socket>> socketMaps = connect(2, true);
+    CloseableNetwork network = null;
+    try {
+      network = new NioSocketNetwork(getNetConfs(2).get(0), socketMaps.get(0));
+      new DataOutputStream(socketMaps.get(1).get(1).getOutputStream()).writeInt(-1);
+      network.receive(2);
+    } finally {
+      if (network != null) {
+        network.close();
+      }
+      closeSockets(socketMaps);
+    }
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testCompatibleWithSocketNetwork() throws Exception {
+    List<Map<Integer, Socket>> socketMaps = connect(2, true);
+    List<NetworkConfiguration> confs = getNetConfs(2);
+    CloseableNetwork nioNetwork = new NioSocketNetwork(confs.get(0), socketMaps.get(0));
+    CloseableNetwork socketNetwork = new SocketNetwork(confs.get(1), socketMaps.get(1));
+    try {
+      byte[] small = new byte[]{1, 2, 3};
+      byte[] large = new byte[3 * NioSocketNetwork.READ_CHUNK_SIZE + 5];
+      large[large.length - 1] = 42;
+      nioNetwork.send(2, small);
+      nioNetwork.send(2, large);
+      socketNetwork.send(1, large);
+      socketNetwork.send(1, small);
+      assertArrayEquals(small, socketNetwork.receive(1));
+      assertArrayEquals(large, socketNetwork.receive(1));
+      assertArrayEquals(large, nioNetwork.receive(2));
+      assertArrayEquals(small, nioNetwork.receive(2));
+    } finally {
+      nioNetwork.close();
+      socketNetwork.close();
+    }
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testReceiveBuffer() {
+    networks = createNetworks(2);
+    NioSocketNetwork receiver = (NioSocketNetwork) networks.get(2);
+    int messages = 3 * NioSocketNetwork.POOLED_BUFFER_SIZE / 10;
+    for (int i = 0; i < messages; i++) {
+      networks.get(1).send(2, new byte[]{(byte) i, 1, 2, 3, 4, 5, 6, 7, 8, (byte) -i});
+    }
+    for (int i = 0; i < messages; i++) {
+      ByteBuffer buffer = receiver.receiveBuffer(1);
+      assertEquals(10, buffer.remaining());
+      assertEquals((byte) i, buffer.get(buffer.position()));
+      assertEquals((byte) -i, buffer.get(buffer.position() + 9));
+    }
+  }
+}
@@ -1,6 +1,9 @@
 package dk.alexandra.fresco.framework.network.socket;
 
 import static dk.alexandra.fresco.framework.network.socket.Connector.DEFAULT_CONNECTION_TIMEOUT;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
 import dk.alexandra.fresco.framework.network.AbstractCloseableNetworkTest;
@@ -267,4 +270,139 @@ public class TestSocketNetwork extends AbstractCloseableNetworkTest {
     }
   }
 
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testSenderCoalescesQueuedMessages() throws Exception {
+    final int numParties = 2;
+    final int numMessages = 100;
+    List<NetworkConfiguration> confs = getNetConfs(numParties);
+    ExecutorService es = Executors.newFixedThreadPool(numParties);
+    List<Future<NetworkConnector>> fs = new ArrayList<>(numParties);
+    try {
+      for (int i = 0; i < numParties; i++) {
+        final int id = i;
+        fs.add(es.submit(() -> new Connector(confs.get(id), DEFAULT_CONNECTION_TIMEOUT)));
+      }
+      Map<Integer, Socket> socketMap1 = fs.get(0).get().getSocketMap();
+      Map<Integer, Socket> socketMap2 = fs.get(1).get().getSocketMap();
+      Sender sender = new Sender(socketMap1.get(2), Sender.DEFAULT_MAX_FLUSH_BYTES,
+          Duration.ofMinutes(1));
+      Receiver receiver = new Receiver(socketMap2.get(1));
+      for (int i = 0; i < numMessages; i++) {
+        sender.queueMessage(new byte[] { (byte) i });
+      }
+      sender.stop();
+      for (int i = 0; i < numMessages; i++) {
+        assertArrayEquals(new byte[] { (byte) i }, receiver.pollMessage(Duration.ofMinutes(1)));
+      }
+      assertEquals(numMessages, sender.getFrameCount());
+      assertEquals(1, sender.getFlushCount());
+      // One write for the messages and one for the end of stream marker
+      assertEquals(2, sender.getWriteCount());
+      receiver.stop();
+    } finally {
+      for (Future<NetworkConnector> futureConn : fs) {
+        for (Socket s : futureConn.get().getSocketMap().values()) {
+          s.close();
+        }
+      }
+      es.shutdownNow();
+    }
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testSenderWritesAllMessagesWhenStoppedConcurrently() throws Exception {
+    final int numParties = 2;
+    final int numMessages = 1000;
+    List<NetworkConfiguration> confs = getNetConfs(numParties);
+    ExecutorService es = Executors.newFixedThreadPool(numParties);
+    List<Future<NetworkConnector>> fs = new ArrayList<>(numParties);
+    try {
+      for (int i = 0; i < numParties; i++) {
+        final int id = i;
+        fs.add(es.submit(() -> new Connector(confs.get(id), DEFAULT_CONNECTION_TIMEOUT)));
+      }
+      Map<Integer, Socket> socketMap1 = fs.get(0).get().getSocketMap();
+      Map<Integer, Socket> socketMap2 = fs.get(1).get().getSocketMap();
+      Sender sender = new Sender(socketMap1.get(2), 1024, Duration.ZERO);
+      Receiver receiver = new Receiver(socketMap2.get(1));
+      // Stop while the sender thread is still busy writing the queued messages
+      Future<?> stopped = es.submit(() -> {
+        for (int i = 0; i < numMessages; i++) {
+          byte[] msg = new byte[256];
+          msg[0] = (byte) i;
+          sender.queueMessage(msg);
+        }
+        sender.stop();
+      });
+      for (int i = 0; i < numMessages; i++) {
+        byte[] msg = receiver.pollMessage(Duration.ofMinutes(1));
+        assertEquals(256, msg.length);
+        assertEquals((byte) i, msg[0]);
+      }
+      stopped.get();
+      assertEquals(numMessages, sender.getFrameCount());
+      receiver.stop();
+    } finally {
+      for (Future<NetworkConnector> futureConn : fs) {
+        for (Socket s : futureConn.get().getSocketMap().values()) {
+          s.close();
+        }
+      }
+      es.shutdownNow();
+    }
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testSenderFlushesAtMaxBytes() throws Exception {
+    final int numParties = 2;
+    List<NetworkConfiguration> confs = getNetConfs(numParties);
+    ExecutorService es = Executors.newFixedThreadPool(numParties);
+    List<Future<NetworkConnector>> fs = new ArrayList<>(numParties);
+    try {
+      for (int i = 0; i < numParties; i++) {
+        final int id = i;
+        fs.add(es.submit(() -> new Connector(confs.get(id), DEFAULT_CONNECTION_TIMEOUT)));
+      }
+      Map<Integer, Socket> socketMap1 = fs.get(0).get().getSocketMap();
+      Map<Integer, Socket> socketMap2 = fs.get(1).get().getSocketMap();
+      Sender sender = new Sender(socketMap1.get(2), 16, Duration.ofMinutes(1));
+      Receiver receiver = new Receiver(socketMap2.get(1));
+      for (int i = 0; i < 4; i++) {
+        sender.queueMessage(new byte[12]);
+      }
+      for (int i = 0; i < 4; i++) {
+        assertArrayEquals(new byte[12], receiver.pollMessage(Duration.ofMinutes(1)));
+      }
+      assertEquals(4, sender.getFlushCount());
+      sender.stop();
+      receiver.stop();
+    } finally {
+      for (Future<NetworkConnector> futureConn : fs) {
+        for (Socket s : futureConn.get().getSocketMap().values()) {
+          s.close();
+        }
+      }
+      es.shutdownNow();
+    }
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testLoggedValues() {
+    networks = createNetworks(2);
+    for (int i = 0; i < 10; i++) {
+      networks.get(1).send(2, new byte[] { (byte) i });
+    }
+    for (int i = 0; i < 10; i++) {
+      networks.get(2).receive(1);
+    }
+    SocketNetwork network = (SocketNetwork) networks.get(1);
+    Map<String, Long> values = network.getLoggedValues();
+    assertEquals(10, (long) values.get(SocketNetwork.SENDER_TOTAL_FRAMES));
+    assertEquals(10, (long) values.get(SocketNetwork.SENDER_PARTY_FRAMES + "_2"));
+    assertTrue(values.get(SocketNetwork.SENDER_TOTAL_FLUSHES) >= 1);
+    assertTrue(values.get(SocketNetwork.SENDER_TOTAL_WRITES)
+        >= values.get(SocketNetwork.SENDER_TOTAL_FLUSHES));
+    network.reset();
+    assertEquals(0, (long) network.getLoggedValues().get(SocketNetwork.SENDER_TOTAL_FRAMES));
+  }
 }
@@ -0,0 +1,105 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestAdaptiveBatchSize {
+
+  private static final long LATENCY = 1_000_000;
+  private static final long NANOS_PER_BYTE = 10;
+  private static final long BYTES_PER_PROTOCOL = 100;
+
+  private void simulate(AdaptiveBatchSize batchSize, long latency, int intervals) {
+    for (int i = 0; i < intervals; i++) {
+      for (int j = 0; j < batchSize.getAdjustmentInterval(); j++) {
+        int size = batchSize.getBatchSize();
+        long bytes = size * BYTES_PER_PROTOCOL;
+        batchSize.record(size, 2, 2 * bytes, 2 * (latency + bytes * NANOS_PER_BYTE));
+      }
+      batchSize.setBatchSize(batchSize.propose());
+    }
+  }
+
+  @Test
+  public void testConvergesToLatencyBoundSize() {
+    AdaptiveBatchSize batchSize = new AdaptiveBatchSize(16, 256, 1 << 16, 4);
+    simulate(batchSize, LATENCY, 20);
+    long expected = AdaptiveBatchSize.LATENCY_FACTOR * LATENCY
+        / (NANOS_PER_BYTE * BYTES_PER_PROTOCOL);
+    assertEquals(expected, batchSize.getBatchSize(), expected / 100.0);
+  }
+
+  @Test
+  public void testHigherLatencyGivesLargerBatches() {
+    AdaptiveBatchSize lan = new AdaptiveBatchSize(16, 256, 1 << 16, 4);
+    AdaptiveBatchSize wan = new AdaptiveBatchSize(16, 256, 1 << 16, 4);
+    simulate(lan, LATENCY / 10, 20);
+    simulate(wan, LATENCY * 10, 20);
+    assertTrue(lan.getBatchSize() < 1000);
+    assertTrue(wan.getBatchSize() > 10000);
+  }
+
+  @Test
+  public void testShrinksTowardsFillWhenBatchesAreNotFilled() {
+    AdaptiveBatchSize batchSize = new AdaptiveBatchSize(1, 256, 1024, 4);
+    for (int i = 0; i < 4; i++) {
+      batchSize.record(10, 1, 1000, LATENCY);
+    }
+    assertEquals(128, batchSize.propose());
+    for (int i = 0; i < 10; i++) {
+      for (int j = 0; j < batchSize.getAdjustmentInterval(); j++) {
+        batchSize.record(10, 1, 1000, LATENCY);
+      }
+      batchSize.setBatchSize(batchSize.propose());
+    }
+    // just above the largest batch, so the batches stay unfilled
+    assertEquals(11, batchSize.getBatchSize());
+  }
+
+  @Test
+  public void testShrinksWhenRoundsAreFree() {
+    AdaptiveBatchSize batchSize = new AdaptiveBatchSize(16, 256, 1 << 16, 4);
+    simulate(batchSize, 0, 20);
+    assertEquals(16, batchSize.getBatchSize());
+  }
+
+  @Test
+  public void testChangesAtMostFactorTwo() {
+    AdaptiveBatchSize batchSize = new AdaptiveBatchSize(1, 1024, 1 << 20, 4);
+    batchSize.record(1024, 1, 1024, 1);
+    assertEquals(2048, batchSize.propose());
+  }
+
+  @Test
+  public void testFixed() {
+    AdaptiveBatchSize batchSize = AdaptiveBatchSize.fixed(4096);
+    assertTrue(batchSize.isFixed());
+    assertEquals(4096, batchSize.getBatchSize());
+    batchSize.record(4096, 1, 1024, 1);
+    assertEquals(4096, batchSize.propose());
+    assertFalse(new AdaptiveBatchSize(1, 2).isFixed());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalBounds() {
+    new AdaptiveBatchSize(10, 5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalInitialSize() {
+    new AdaptiveBatchSize(10, 5, 20, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalAdjustmentInterval() {
+    new AdaptiveBatchSize(10, 10, 20, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSetOutOfBounds() {
+    new AdaptiveBatchSize(10, 20).setBatchSize(21);
+  }
+}
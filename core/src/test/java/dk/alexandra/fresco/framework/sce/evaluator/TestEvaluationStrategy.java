@@ -1,8 +1,17 @@
 package dk.alexandra.fresco.framework.sce.evaluator;
 
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 
 public class TestEvaluationStrategy {
@@ -11,5 +20,93 @@ public class TestEvaluationStrategy {
  public void testEnums(){
    assertThat(EvaluationStrategy.valueOf("SEQUENTIAL"), is(EvaluationStrategy.SEQUENTIAL));
    assertThat(EvaluationStrategy.valueOf("SEQUENTIAL_BATCHED"), is(EvaluationStrategy.SEQUENTIAL_BATCHED));
+   assertThat(EvaluationStrategy.valueOf("PIPELINED_BATCHED"), is(EvaluationStrategy.PIPELINED_BATCHED));
+   assertThat(EvaluationStrategy.valueOf("PARALLEL_BATCHED"), is(EvaluationStrategy.PARALLEL_BATCHED));
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void testIllegalPipelineDepth() {
+   new PipelinedBatchedStrategy<>(0);
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void testIllegalChunkCount() {
+   new ParallelBatchedStrategy<>(0, ForkJoinPool.commonPool());
+ }
+
+ @Test
+ public void testPipelineFlushesOncePerRound() {
+   final int depth = 3;
+   final int rounds = 4;
+   LoopbackNetwork network = new LoopbackNetwork();
+   NetworkBatchDecorator decorator = new NetworkBatchDecorator(2, network);
+   ProtocolCollectionList<ResourcePool> protocols = new ProtocolCollectionList<>(10);
+   List<Integer> evaluatedRounds = new ArrayList<>();
+   for (int i = 0; i < 10; i++) {
+     protocols.addProtocol(new EchoProtocol((byte) i, rounds, evaluatedRounds));
+   }
+   new PipelinedBatchedStrategy<>(depth).processBatch(protocols, null, decorator);
+   for (int i = 1; i < evaluatedRounds.size(); i++) {
+     assertThat(evaluatedRounds.get(i - 1) <= evaluatedRounds.get(i), is(true));
+   }
+   assertEquals(10 * rounds, evaluatedRounds.size());
+   assertEquals(rounds, decorator.getFlushCount());
+ }
+
+ /**
+  * Sends its id to itself in every round but the last and checks it is received in the next.
+  */
+ private static class EchoProtocol implements NativeProtocol<Void, ResourcePool> {
+
+   private final byte id;
+   private final int rounds;
+   private final List<Integer> evaluatedRounds;
+
+   private EchoProtocol(byte id, int rounds, List<Integer> evaluatedRounds) {
+     this.id = id;
+     this.rounds = rounds;
+     this.evaluatedRounds = evaluatedRounds;
+   }
+
+   @Override
+   public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+     evaluatedRounds.add(round);
+     if (round > 0) {
+       assertEquals(id, network.receive(2)[0]);
+     }
+     if (round < rounds - 1) {
+       network.send(2, new byte[] {id});
+       return EvaluationStatus.HAS_MORE_ROUNDS;
+     }
+     return EvaluationStatus.IS_DONE;
+   }
+
+   @Override
+   public Void out() {
+     return null;
+   }
+ }
+
+ /**
+  * Delivers everything sent back to the sender in order, one message per flush.
+  */
+ private static class LoopbackNetwork implements Network {
+
+   private final Deque<byte[]> queue = new ArrayDeque<>();
+
+   @Override
+   public void send(int partyId, byte[] data) {
+     queue.addLast(data);
+   }
+
+   @Override
+   public byte[] receive(int partyId) {
+     return queue.removeFirst();
+   }
+
+   @Override
+   public int getNoOfParties() {
+     return 2;
+   }
  }
 }
@@ -123,6 +123,42 @@ public class TestArithmeticDummyDataSupplier {
     }
   }
 
+  private void testGetTruncationPairShares(int noOfParties, BigInteger modulus) {
+    List<ArithmeticDummyDataSupplier> suppliers = new ArrayList<>(noOfParties);
+    for (int i = 0; i < noOfParties; i++) {
+      suppliers.add(new ArithmeticDummyDataSupplier(i + 1, noOfParties, modulus));
+    }
+    int bitLength = modulus.bitLength() - 1;
+    int shifts = bitLength / 2;
+    List<BigInteger> randomValues = new ArrayList<>(noOfParties);
+    List<BigInteger> randomShares = new ArrayList<>(noOfParties);
+    List<BigInteger> shiftedValues = new ArrayList<>(noOfParties);
+    List<BigInteger> shiftedShares = new ArrayList<>(noOfParties);
+    for (ArithmeticDummyDataSupplier supplier : suppliers) {
+      TruncationPairShares pair = supplier.getTruncationPairShares(bitLength, shifts);
+      randomValues.add(pair.getRandom().getFirst());
+      randomShares.add(pair.getRandom().getSecond());
+      shiftedValues.add(pair.getShifted().getFirst());
+      shiftedShares.add(pair.getShifted().getSecond());
+    }
+    BigInteger random = randomValues.get(0);
+    assertTrue(random.bitLength() <= bitLength);
+    assertEquals(random.shiftRight(shifts), shiftedValues.get(0));
+    randomValues.add(MathUtils.sum(randomShares, modulus));
+    assertAllEqual(randomValues);
+    shiftedValues.add(MathUtils.sum(shiftedShares, modulus));
+    assertAllEqual(shiftedValues);
+  }
+
+  @Test
+  public void testGetTruncationPairShares() {
+    for (BigInteger modulus : moduli) {
+      testGetTruncationPairShares(2, modulus);
+      testGetTruncationPairShares(3, modulus);
+      testGetTruncationPairShares(5, modulus);
+    }
+  }
+
   @Test
   public void testGetRandomElementShareTwoParties() {
     testGetRandomElementShare(2);
@@ -183,6 +183,38 @@ public class BasicArithmeticTests {
     }
   }
 
+  public static class TestMultiplyList<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      List<BigInteger> leftValues = new ArrayList<>();
+      List<BigInteger> rightValues = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        leftValues.add(BigInteger.valueOf(i));
+        rightValues.add(BigInteger.valueOf(3 * i + 7));
+      }
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app = producer -> {
+            DRes<List<DRes<SInt>>> left = producer.collections().closeList(leftValues, 1);
+            DRes<List<DRes<SInt>>> right = producer.collections().closeList(rightValues, 1);
+            DRes<List<DRes<SInt>>> products = producer
+                .par(par -> par.numeric().mult(left.out(), right.out()));
+            DRes<List<DRes<BigInteger>>> opened = producer.collections().openList(products);
+            return () -> opened.out().stream().map(DRes::out).collect(Collectors.toList());
+          };
+          List<BigInteger> output = runApplication(app);
+          Assert.assertEquals(leftValues.size(), output.size());
+          for (int i = 0; i < leftValues.size(); i++) {
+            Assert.assertEquals(leftValues.get(i).multiply(rightValues.get(i)), output.get(i));
+          }
+        }
+      };
+    }
+  }
+
   public static class TestMultiplyByZero<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -271,4 +271,77 @@ public class CompareTests {
     }
   }
 
+  public static class TestCompareLEQBatch<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() throws Exception {
+          List<BigInteger> left = new ArrayList<>();
+          List<BigInteger> right = new ArrayList<>();
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app = builder -> {
+            Numeric input = builder.numeric();
+            int maxBitLength = builder.getBasicNumericContext().getMaxBitLength();
+            // the differences of all pairs must fit in maxBitLength bits
+            BigInteger max = BigInteger.ONE.shiftLeft(maxBitLength - 1).subtract(BigInteger.ONE);
+            List<BigInteger> values = Arrays.asList(max, max.subtract(BigInteger.ONE),
+                max.negate(), BigInteger.valueOf(-3), BigInteger.valueOf(-1), BigInteger.ZERO, BigInteger.ONE,
+                BigInteger.valueOf(1234), BigInteger.valueOf(-1234));
+            for (BigInteger x : values) {
+              for (BigInteger y : values) {
+                left.add(x);
+                right.add(y);
+              }
+            }
+            List<DRes<SInt>> x = left.stream().map(input::known).collect(Collectors.toList());
+            List<DRes<SInt>> y = right.stream().map(input::known).collect(Collectors.toList());
+            DRes<List<DRes<SInt>>> comps = builder.comparison().compareLEQ(x, y);
+            DRes<List<DRes<BigInteger>>> opened = builder.collections().openList(comps);
+            return () -> opened.out().stream().map(DRes::out).collect(Collectors.toList());
+          };
+          List<BigInteger> output = runApplication(app);
+          Assert.assertEquals(left.size(), output.size());
+          for (int i = 0; i < output.size(); i++) {
+            BigInteger expected = left.get(i).compareTo(right.get(i)) <= 0
+                ? BigInteger.ONE : BigInteger.ZERO;
+            Assert.assertEquals(left.get(i) + " <= " + right.get(i), expected, output.get(i));
+          }
+        }
+      };
+    }
+  }
+
+  public static class TestCompareZeroBatch<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() throws Exception {
+          List<BigInteger> values = Arrays.asList(BigInteger.ZERO, BigInteger.ONE,
+              BigInteger.valueOf(-1), BigInteger.ZERO, BigInteger.valueOf(1234));
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app = builder -> {
+            Numeric input = builder.numeric();
+            int maxBitLength = builder.getBasicNumericContext().getMaxBitLength();
+            List<DRes<SInt>> x = values.stream().map(input::known).collect(Collectors.toList());
+            DRes<List<DRes<SInt>>> comps = builder.comparison().compareZero(x, maxBitLength);
+            DRes<List<DRes<BigInteger>>> opened = builder.collections().openList(comps);
+            return () -> opened.out().stream().map(DRes::out).collect(Collectors.toList());
+          };
+          List<BigInteger> output = runApplication(app);
+          Assert.assertEquals(values.size(), output.size());
+          for (int i = 0; i < output.size(); i++) {
+            BigInteger expected = values.get(i).signum() == 0 ? BigInteger.ONE : BigInteger.ZERO;
+            Assert.assertEquals(expected, output.get(i));
+          }
+        }
+      };
+    }
+  }
+
 }
@@ -0,0 +1,128 @@
+package dk.alexandra.fresco.lib.helper.bristol;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class BristolCircuitTest {
+
+  @Test
+  public void testLayers() {
+    // wires 0-3 are inputs, 9 is the output
+    BristolCircuit circuit = parse(
+        "6 10",
+        "2 2 1",
+        "",
+        "2 1 0 1 4 AND",
+        "2 1 2 3 5 XOR",
+        "1 1 5 6 INV",
+        "2 1 4 6 7 AND",
+        "2 1 2 3 8 AND",
+        "2 1 7 8 9 XOR");
+    assertEquals(6, circuit.getNoGates());
+    assertEquals(2, circuit.getAndDepth());
+    // depth 0: XOR, INV. depth 1: two ANDs. depth 2: AND, XOR
+    assertEquals(5, circuit.getNoBlocks());
+    assertBlock(circuit, 0, BristolCircuit.XOR);
+    assertBlock(circuit, 1, BristolCircuit.INV);
+    assertBlock(circuit, 2, BristolCircuit.AND, BristolCircuit.AND);
+    assertBlock(circuit, 3, BristolCircuit.AND);
+    assertBlock(circuit, 4, BristolCircuit.XOR);
+    assertEquals(9, circuit.getOut(circuit.getBlockStart(4)));
+  }
+
+  @Test
+  public void testBlocksAreIndependent() {
+    BristolCircuit circuit = BristolCircuitParser.getCircuit("circuits/AES-non-expanded.txt");
+    assertEquals(40, circuit.getAndDepth());
+    Set<Integer> available = new HashSet<>();
+    for (int i = 0; i < circuit.getNoInput1() + circuit.getNoInput2(); i++) {
+      available.add(i);
+    }
+    for (int block = 0; block < circuit.getNoBlocks(); block++) {
+      Set<Integer> outputs = new HashSet<>();
+      for (int gate = circuit.getBlockStart(block); gate < circuit.getBlockEnd(block); gate++) {
+        assertTrue(available.contains(circuit.getLeft(gate)));
+        if (circuit.getType(gate) != BristolCircuit.INV) {
+          assertTrue(available.contains(circuit.getRight(gate)));
+        }
+        outputs.add(circuit.getOut(gate));
+      }
+      available.addAll(outputs);
+    }
+    assertEquals(circuit.getNoWires(), available.size());
+  }
+
+  @Test
+  public void testWriteAndLoad() throws IOException {
+    BristolCircuit circuit = BristolCircuitParser.getCircuit("circuits/AES-non-expanded.txt");
+    File file = File.createTempFile("circuit", ".bin");
+    file.deleteOnExit();
+    circuit.writeTo(file);
+    BristolCircuit loaded = BristolCircuit.load(file);
+    assertEquals(circuit.getNoWires(), loaded.getNoWires());
+    assertEquals(circuit.getNoInput1(), loaded.getNoInput1());
+    assertEquals(circuit.getNoInput2(), loaded.getNoInput2());
+    assertEquals(circuit.getNoOutput(), loaded.getNoOutput());
+    assertEquals(circuit.getAndDepth(), loaded.getAndDepth());
+    assertEquals(circuit.getNoGates(), loaded.getNoGates());
+    assertEquals(circuit.getNoBlocks(), loaded.getNoBlocks());
+    for (int block = 0; block < circuit.getNoBlocks(); block++) {
+      assertEquals(circuit.getBlockStart(block), loaded.getBlockStart(block));
+      assertEquals(circuit.getBlockEnd(block), loaded.getBlockEnd(block));
+    }
+    for (int gate = 0; gate < circuit.getNoGates(); gate++) {
+      assertEquals(circuit.getType(gate), loaded.getType(gate));
+      assertEquals(circuit.getLeft(gate), loaded.getLeft(gate));
+      assertEquals(circuit.getRight(gate), loaded.getRight(gate));
+      assertEquals(circuit.getOut(gate), loaded.getOut(gate));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLoadInvalidFile() throws IOException {
+    File file = File.createTempFile("circuit", ".bin");
+    file.deleteOnExit();
+    Files.write(file.toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+    BristolCircuit.load(file);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidNumber() {
+    parse("1 3", "1 1 1", "", "2 1 0 x 2 XOR");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsetInput() {
+    parse("1 4", "1 1 1", "", "2 1 0 2 3 XOR");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testReassignedWire() {
+    parse("2 3", "1 1 1", "", "2 1 0 1 2 XOR", "2 1 0 1 2 AND");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnassignedOutput() {
+    parse("1 4", "1 1 1", "", "2 1 0 1 2 XOR");
+  }
+
+  private static BristolCircuit parse(String... lines) {
+    return BristolCircuit.parse(Arrays.asList(lines).iterator());
+  }
+
+  private static void assertBlock(BristolCircuit circuit, int block, int... types) {
+    assertEquals(types.length, circuit.getBlockEnd(block) - circuit.getBlockStart(block));
+    for (int i = 0; i < types.length; i++) {
+      assertEquals(types[i], circuit.getType(circuit.getBlockStart(block) + i));
+    }
+  }
+
+}
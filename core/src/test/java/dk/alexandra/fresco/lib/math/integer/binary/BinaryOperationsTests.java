@@ -10,6 +10,7 @@ import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -61,6 +62,58 @@ public class BinaryOperationsTests {
     }
   }
 
+  /**
+   * Test binary right shift of shared secrets by different numbers of shifts, such that the carry
+   * is combined over both even and odd numbers of bit positions.
+   */
+  public static class TestRightShiftManyShifts<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        private final List<BigInteger> inputs = Arrays.asList(BigInteger.ZERO, BigInteger.ONE,
+            BigInteger.valueOf(255), BigInteger.valueOf(256), BigInteger.valueOf(12332157),
+            BigInteger.valueOf(16777215));
+        private final List<Integer> shifts = Arrays.asList(1, 2, 5, 8, 13, 24);
+
+        @Override
+        public void test() throws Exception {
+          Application<List<List<BigInteger>>, ProtocolBuilderNumeric> app =
+              (ProtocolBuilderNumeric builder) -> {
+                List<DRes<BigInteger>> results = new ArrayList<>();
+                List<DRes<BigInteger>> remainders = new ArrayList<>();
+                for (BigInteger input : inputs) {
+                  DRes<SInt> encryptedInput = builder.numeric().known(input);
+                  for (int shift : shifts) {
+                    DRes<RightShiftResult> shiftedRight =
+                        builder.advancedNumeric().rightShiftWithRemainder(encryptedInput, shift);
+                    results.add(builder.numeric().open(() -> shiftedRight.out().getResult()));
+                    remainders
+                        .add(builder.numeric().open(() -> shiftedRight.out().getRemainder()));
+                  }
+                }
+                return () -> Arrays.asList(
+                    results.stream().map(DRes::out).collect(Collectors.toList()),
+                    remainders.stream().map(DRes::out).collect(Collectors.toList()));
+              };
+          List<List<BigInteger>> output = runApplication(app);
+
+          int index = 0;
+          for (BigInteger input : inputs) {
+            for (int shift : shifts) {
+              Assert.assertEquals(input.shiftRight(shift), output.get(0).get(index));
+              Assert.assertEquals(input.mod(BigInteger.ONE.shiftLeft(shift)),
+                  output.get(1).get(index));
+              index++;
+            }
+          }
+        }
+      };
+    }
+  }
+
 
   /**
    * Test binary right shift of a shared secret.
@@ -0,0 +1,166 @@
+package dk.alexandra.fresco.logging.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import dk.alexandra.fresco.framework.sce.evaluator.ProtocolCollectionList;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import org.junit.Test;
+
+public class TestMetricsRegistry {
+
+  @Test
+  public void testHistogramPercentiles() {
+    Histogram histogram = new Histogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1000L, histogram.getMin());
+    assertEquals(1000000L, histogram.getMax());
+    assertEquals(500500000L, histogram.getSum());
+    assertWithin(500000, histogram.getPercentile(50));
+    assertWithin(990000, histogram.getPercentile(99));
+    assertEquals(1000000L, histogram.getPercentile(100));
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getPercentile(50));
+  }
+
+  @Test
+  public void testHistogramBuckets() {
+    for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 1000, 123456789, Long.MAX_VALUE}) {
+      int index = Histogram.bucketIndex(value);
+      assertTrue(Histogram.lowerBound(index) <= value);
+      assertTrue(Histogram.upperBound(index) >= value);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testHistogramIllegalPercentile() {
+    new Histogram().getPercentile(101);
+  }
+
+  @Test
+  public void testRegistry() {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.counter("bytes", "party", 1).add(10);
+    registry.counter("bytes", "party", 1).add(5);
+    registry.counter("bytes", "party", 2).add(7);
+    registry.histogram("latency").record(3);
+    registry.gauge("depth", () -> 42);
+    Map<String, Long> values = registry.getLoggedValues();
+    assertEquals(15L, (long) values.get("bytes{party=\"1\"}"));
+    assertEquals(7L, (long) values.get("bytes{party=\"2\"}"));
+    assertEquals(42L, (long) values.get("depth"));
+    assertEquals(1L, (long) values.get("latency_count"));
+
+    String prometheus = registry.toPrometheus();
+    assertTrue(prometheus.contains("# TYPE bytes counter\nbytes{party=\"1\"} 15\n"
+        + "bytes{party=\"2\"} 7\n"));
+    assertTrue(prometheus.contains("# TYPE depth gauge\ndepth 42\n"));
+    assertTrue(prometheus.contains("latency{quantile=\"0.5\"} 3\n"));
+    assertTrue(prometheus.contains("latency_count 1\n"));
+
+    String json = registry.toJson();
+    assertTrue(json.contains("\"bytes{party=\\\"1\\\"}\": 15"));
+    assertTrue(json.contains("\"depth\": 42"));
+    assertTrue(json.contains("\"latency\": {\"count\": 1, \"sum\": 3"));
+
+    registry.reset();
+    assertEquals(0L, (long) registry.getLoggedValues().get("bytes{party=\"1\"}"));
+    assertEquals(42L, (long) registry.getLoggedValues().get("depth"));
+  }
+
+  @Test
+  public void testWriteFiles() throws IOException {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.counter("count").increment();
+    File file = File.createTempFile("metrics", ".prom");
+    file.deleteOnExit();
+    registry.writePrometheus(file);
+    assertEquals(registry.toPrometheus(),
+        new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    registry.writeJson(file);
+    assertEquals(registry.toJson(),
+        new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testNetworkDecorator() throws IOException {
+    MetricsRegistry registry = new MetricsRegistry();
+    MetricsNetworkDecorator network = new MetricsNetworkDecorator(new Network() {
+      @Override
+      public void send(int partyId, byte[] data) {
+      }
+
+      @Override
+      public byte[] receive(int partyId) {
+        return new byte[partyId];
+      }
+
+      @Override
+      public int getNoOfParties() {
+        return 3;
+      }
+    }, registry);
+    network.send(2, new byte[5]);
+    network.receive(3);
+    network.receive(3);
+    assertEquals(5, registry.counter(MetricsNetworkDecorator.BYTES_SENT, "party", 2).get());
+    assertEquals(6, registry.counter(MetricsNetworkDecorator.BYTES_RECEIVED, "party", 3).get());
+    assertEquals(2,
+        registry.histogram(MetricsNetworkDecorator.RECEIVE_WAIT, "party", 3).getCount());
+    assertEquals(0,
+        registry.histogram(MetricsNetworkDecorator.RECEIVE_WAIT, "party", 1).getCount());
+    assertEquals(3, network.getNoOfParties());
+    network.close();
+  }
+
+  @Test
+  public void testBatchEvaluationDecoratorTimesFlushes() {
+    MetricsRegistry registry = new MetricsRegistry();
+    MetricsBatchEvaluationDecorator<ResourcePool> decorator =
+        new MetricsBatchEvaluationDecorator<>((protocols, resourcePool, network) -> {
+          for (int i = 0; i < 3; i++) {
+            network.flush();
+          }
+        }, registry);
+    NetworkBatchDecorator network = new NetworkBatchDecorator(2, new Network() {
+      @Override
+      public void send(int partyId, byte[] data) {
+      }
+
+      @Override
+      public byte[] receive(int partyId) {
+        return new byte[0];
+      }
+
+      @Override
+      public int getNoOfParties() {
+        return 2;
+      }
+    });
+    decorator.processBatch(new ProtocolCollectionList<>(1), null, network);
+    // flushes outside of a batch are not rounds of the decorated strategy
+    network.flush();
+    Histogram rounds = registry.histogram(MetricsBatchEvaluationDecorator.ROUND_LATENCY);
+    Histogram batches = registry.histogram(MetricsBatchEvaluationDecorator.BATCH_LATENCY);
+    assertEquals(3, rounds.getCount());
+    assertEquals(1, batches.getCount());
+    assertTrue(rounds.getSum() <= batches.getSum());
+  }
+
+  private void assertWithin(long expected, long actual) {
+    assertTrue("Expected about " + expected + " but got " + actual,
+        Math.abs(expected - actual) <= expected / 16);
+  }
+
+}
@@ -7,6 +7,9 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.ExponentiationPipeTests;
 import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.LongPrimeFieldDefinition;
+import dk.alexandra.fresco.framework.sce.evaluator.AdaptiveBatchSize;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
 import dk.alexandra.fresco.framework.util.ModulusFinder;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.arithmetic.AdvancedNumericTests.TestMinInfFrac;
@@ -93,11 +96,71 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new BasicArithmeticTests.TestSimpleMultAndAdd<>(), new TestParameters());
   }
 
+  @Test
+  public void test_MultiplyList_Sequential() {
+    runTest(new BasicArithmeticTests.TestMultiplyList<>(), new TestParameters());
+  }
+
+  @Test
+  public void test_MultiplyList_Pipelined() {
+    runTest(new BasicArithmeticTests.TestMultiplyList<>(), new TestParameters()
+        .evaluationStrategy(EvaluationStrategy.PIPELINED_BATCHED).numParties(3));
+  }
+
+  @Test
+  public void test_Lots_Of_Mults_Pipelined() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters()
+        .evaluationStrategy(EvaluationStrategy.PIPELINED_BATCHED));
+  }
+
+  @Test
+  public void test_MultiplyList_Parallel() {
+    runTest(new BasicArithmeticTests.TestMultiplyList<>(), new TestParameters()
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED).numParties(3));
+  }
+
+  @Test
+  public void test_Lots_Of_Mults_Parallel() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters()
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED).numParties(3));
+  }
+
+  @Test
+  public void test_Lots_Of_Mults_AdaptiveBatchSize() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters()
+        .numParties(2).batchSizeBounds(1, 64));
+  }
+
+  @Test
+  public void test_MiMC_AdaptiveBatchSize() {
+    // many sequential rounds of small batches, so the batch size shrinks from the maximum
+    runTest(new MiMCTests.TestMiMCDifferentPlainTexts<>(false), new TestParameters()
+        .numParties(2).batchSizeBounds(AdaptiveBatchSize.DEFAULT_MIN_BATCH_SIZE, 4096));
+  }
+
   @Test
   public void testSumAndOutputSequential() {
     runTest(new BasicArithmeticTests.TestSumAndMult<>(), new TestParameters());
   }
 
+  @Test
+  public void testSumAndOutputSequentialLongField() {
+    runTest(new BasicArithmeticTests.TestSumAndMult<>(), new TestParameters()
+        .field(getLongModulus()));
+  }
+
+  @Test
+  public void test_Lots_Of_Mults_Sequential_Long_Field() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters()
+        .field(getLongModulus()));
+  }
+
+  @Test
+  public void test_MultiplyList_Sequential_Long_Field() {
+    runTest(new BasicArithmeticTests.TestMultiplyList<>(), new TestParameters()
+        .field(getLongModulus()));
+  }
+
   @Test
   public void testSumAndProduct() {
     runTest(new TestSumAndProduct<>(), new TestParameters());
@@ -118,11 +181,33 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new CompareTests.TestCompareLT<>(), new TestParameters());
   }
 
+  @Test
+  public void test_compareLt_Parallel() {
+    runTest(new CompareTests.TestCompareLT<>(), new TestParameters()
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED).numParties(2));
+  }
+
   @Test
   public void testCompareLtEdgeCasesSequential() {
     runTest(new CompareTests.TestCompareLTEdgeCases<>(), new TestParameters());
   }
 
+  @Test
+  public void test_compareLeqBatch_Sequential() {
+    runTest(new CompareTests.TestCompareLEQBatch<>(), new TestParameters());
+  }
+
+  @Test
+  public void test_compareLeqBatch_Parallel() {
+    runTest(new CompareTests.TestCompareLEQBatch<>(), new TestParameters()
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED).numParties(2));
+  }
+
+  @Test
+  public void test_compareZeroBatch_Sequential() {
+    runTest(new CompareTests.TestCompareZeroBatch<>(), new TestParameters());
+  }
+
   @Test
   public void test_compareEQ_Sequential() {
     runTest(new CompareTests.TestCompareEQ<>(), new TestParameters());
@@ -438,6 +523,10 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     return new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(i));
   }
 
+  private FieldDefinition getLongModulus() {
+    return new LongPrimeFieldDefinition(ModulusFinder.findSuitableModulus(56));
+  }
+
   @Test
   public void test_LpSolverBland() {
     runTest(new LpBuildingBlockTests.TestLpSolver<>(LPSolver.PivotRule.BLAND),
@@ -465,6 +554,11 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new BinaryOperationsTests.TestRightShift<>(), new TestParameters());
   }
 
+  @Test
+  public void test_Right_Shift_Many_Shifts() {
+    runTest(new BinaryOperationsTests.TestRightShiftManyShifts<>(), new TestParameters());
+  }
+
   @Test
   public void test_Bit_Length() {
     runTest(new BinaryOperationsTests.TestBitLength<>(), new TestParameters());
@@ -5,7 +5,10 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.DefaultPreprocessedValues;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.LongPrimeFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MontgomeryFieldDefinition;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
@@ -28,6 +31,7 @@ import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
 import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzBinaryDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzMascotDataSupplier;
@@ -85,7 +89,7 @@ public class CmdLineProtocolSuite {
               + "54255445443244279389455058889493431223951165286470575994074291745908195329");
       this.resourcePool =
           new DummyArithmeticResourcePoolImpl(myId, noOfPlayers,
-              new BigIntegerFieldDefinition(mod));
+              createFieldDefinition(new BigInteger(mod)));
     } else if (protocolSuiteName.equals("spdz")) {
       this.protocolSuite = getSpdzProtocolSuite(properties);
       this.resourcePool = createSpdzResourcePool(properties, networkSupplier);
@@ -120,8 +124,23 @@ public class CmdLineProtocolSuite {
             + "54255445443244279389455058889493431223951165286470575994074291745908195329");
     int maxBitLength = Integer.parseInt(properties.getProperty("maxbitlength", "150"));
     int fixedPointPrecision = Integer.parseInt(properties.getProperty("fixedPointPrecision", "16"));
-    return new DummyArithmeticProtocolSuite(new BigIntegerFieldDefinition(mod), maxBitLength,
-        fixedPointPrecision);
+    return new DummyArithmeticProtocolSuite(createFieldDefinition(new BigInteger(mod)),
+        maxBitLength, fixedPointPrecision);
+  }
+
+  /**
+   * Creates a field definition for the modulus, using the primitive long based implementation
+   * whenever the modulus is small enough, fixed width Montgomery arithmetic for other odd moduli
+   * and plain <code>BigInteger</code> arithmetic for the moduli neither supports.
+   */
+  private static FieldDefinition createFieldDefinition(BigInteger modulus) {
+    if (LongPrimeFieldDefinition.isSupported(modulus)) {
+      return new LongPrimeFieldDefinition(modulus);
+    } else if (MontgomeryFieldDefinition.isSupported(modulus)) {
+      return new MontgomeryFieldDefinition(modulus);
+    } else {
+      return new BigIntegerFieldDefinition(modulus);
+    }
   }
 
   private ProtocolSuite<?, ?> getSpdzProtocolSuite(Properties properties) {
@@ -146,7 +165,7 @@ public class CmdLineProtocolSuite {
 
     final int modBitLength = Integer.parseInt(properties.getProperty("spdz.modBitLength", "128"));
     final BigInteger modulus = ModulusFinder.findSuitableModulus(modBitLength);
-    final BigIntegerFieldDefinition definition = new BigIntegerFieldDefinition(modulus);
+    final FieldDefinition definition = createFieldDefinition(modulus);
     SpdzDataSupplier supplier = null;
 
     if (strategy == PreprocessingStrategy.DUMMY) {
@@ -155,8 +174,12 @@ public class CmdLineProtocolSuite {
       int noOfThreadsUsed = 1;
       String storageName = SpdzStorageDataSupplier.STORAGE_NAME_PREFIX + noOfThreadsUsed + "_"
               + myId + "_" + 0 + "_";
-      supplier = new SpdzStorageDataSupplier(
-              new FilebasedStreamedStorageImpl(new InMemoryStorage()), storageName, noOfPlayers);
+      if (SpdzBinaryDataSupplier.exists(storageName)) {
+        supplier = new SpdzBinaryDataSupplier(storageName, noOfPlayers);
+      } else {
+        supplier = new SpdzStorageDataSupplier(
+                new FilebasedStreamedStorageImpl(new InMemoryStorage()), storageName, noOfPlayers);
+      }
     } else {
       // MASCOT preprocessing
       int prgSeedLength = 256;
@@ -9,6 +9,7 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
 import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
 import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.AdaptiveBatchSize;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
 import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
@@ -127,6 +128,11 @@ public class CmdLineUtil<ResourcePoolT extends ResourcePool, BuilderT extends Pr
                 + "Defaults to 4096")
         .longOpt("max-batch").required(false).hasArg(true).build());
 
+    options.addOption(Option.builder("a")
+        .desc("Informs FRESCO that the batch size should be adapted to the network, between "
+            + AdaptiveBatchSize.DEFAULT_MIN_BATCH_SIZE + " and the maximum batch size")
+        .longOpt("adaptive-batch").required(false).hasArg(false).build());
+
     options.addOption(Option.builder("D").argName("property=value")
         .desc("Used to set properties of protocol suite and other customizable components.")
         .required(false).hasArg().numberOfArgs(2).valueSeparator().build());
@@ -257,7 +263,14 @@ public class CmdLineUtil<ResourcePoolT extends ResourcePool, BuilderT extends Pr
         batchEvalStrat = new BatchEvaluationLoggingDecorator<>(batchEvalStrat);
       }
       int maxBatchSize = getMaxBatchSize();
-      this.evaluator = new BatchedProtocolEvaluator<>(batchEvalStrat, protocolSuite, maxBatchSize);
+      if (this.cmd.hasOption("a")) {
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(
+            Math.min(AdaptiveBatchSize.DEFAULT_MIN_BATCH_SIZE, maxBatchSize), maxBatchSize);
+        this.evaluator = new BatchedProtocolEvaluator<>(batchEvalStrat, protocolSuite, batchSize);
+      } else {
+        this.evaluator =
+            new BatchedProtocolEvaluator<>(batchEvalStrat, protocolSuite, maxBatchSize);
+      }
     } catch (Exception e) {
       ExceptionConverter.safe(() -> {
             closeNetwork();
@@ -4,6 +4,7 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues;
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues.TruncationPair;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.compare.MiscBigIntegerGenerators;
@@ -11,6 +12,7 @@ import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
 import dk.alexandra.fresco.lib.real.RealNumericContext;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzAddProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzAddProtocolKnownLeft;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzBatchMultProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzInputProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzKnownSIntProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocol;
@@ -22,6 +24,7 @@ import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownLeft;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownRight;
 import java.math.BigInteger;
+import java.util.List;
 
 /**
  * Basic native builder for the SPDZ protocol suite.
@@ -49,10 +52,26 @@ public class SpdzBuilder implements BuilderFactoryNumeric {
 
   @Override
   public PreprocessedValues createPreprocessedValues(ProtocolBuilderNumeric protocolBuilder) {
-    return pipeLength -> {
-      SpdzExponentiationPipeProtocol spdzExpPipeProtocol =
-          new SpdzExponentiationPipeProtocol(pipeLength);
-      return protocolBuilder.append(spdzExpPipeProtocol);
+    return new PreprocessedValues() {
+      @Override
+      public DRes<List<DRes<SInt>>> getExponentiationPipe(int pipeLength) {
+        SpdzExponentiationPipeProtocol spdzExpPipeProtocol =
+            new SpdzExponentiationPipeProtocol(pipeLength);
+        return protocolBuilder.append(spdzExpPipeProtocol);
+      }
+
+      @Override
+      public DRes<TruncationPair> getTruncationPair(ProtocolBuilderNumeric builder, int shifts) {
+        int bitLength = basicNumericContext.getMaxBitLength();
+        if (shifts < 0 || shifts > bitLength) {
+          throw new IllegalArgumentException(
+              "Can not create a truncation pair shifting " + shifts + " of " + bitLength
+                  + " bits");
+        }
+        SpdzTruncationPairProtocol spdzTruncationPairProtocol =
+            new SpdzTruncationPairProtocol(bitLength, shifts);
+        return protocolBuilder.append(spdzTruncationPairProtocol);
+      }
     };
   }
 
@@ -97,6 +116,12 @@ public class SpdzBuilder implements BuilderFactoryNumeric {
         return protocolBuilder.append(spdzMultProtocol);
       }
 
+      @Override
+      public DRes<List<DRes<SInt>>> mult(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+        SpdzBatchMultProtocol spdzBatchMultProtocol = new SpdzBatchMultProtocol(a, b);
+        return protocolBuilder.append(spdzBatchMultProtocol);
+      }
+
       @Override
       public DRes<SInt> mult(BigInteger a, DRes<SInt> b) {
         SpdzMultProtocolKnownLeft spdzMultProtocol4 = new SpdzMultProtocolKnownLeft(a, b);
@@ -3,16 +3,30 @@ package dk.alexandra.fresco.suite.spdz;
 import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
 import dk.alexandra.fresco.lib.real.RealNumericContext;
+import dk.alexandra.fresco.logging.metrics.MetricsRegistry;
 import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
 
 public class SpdzProtocolSuite implements ProtocolSuiteNumeric<SpdzResourcePool> {
 
   private final int maxBitLength;
   private final int fixedPointPrecision;
-
-  public SpdzProtocolSuite(int maxBitLength, int fixedPointPrecision) {
+  private final MetricsRegistry metrics;
+
+  /**
+   * Creates a new protocol suite recording the duration of each MAC check in the given registry.
+   *
+   * @param maxBitLength the maximum bit length of the numbers in the computation
+   * @param fixedPointPrecision the precision of fixed point numbers
+   * @param metrics the registry to record metrics in, or <code>null</code> to record nothing
+   */
+  public SpdzProtocolSuite(int maxBitLength, int fixedPointPrecision, MetricsRegistry metrics) {
     this.maxBitLength = maxBitLength;
     this.fixedPointPrecision = fixedPointPrecision;
+    this.metrics = metrics;
+  }
+
+  public SpdzProtocolSuite(int maxBitLength, int fixedPointPrecision) {
+    this(maxBitLength, fixedPointPrecision, null);
   }
 
   public SpdzProtocolSuite(int maxBitLength) {
@@ -37,6 +51,10 @@ public class SpdzProtocolSuite implements ProtocolSuiteNumeric<SpdzResourcePool>
 
   @Override
   public RoundSynchronization<SpdzResourcePool> createRoundSynchronization() {
-    return new SpdzRoundSynchronization(this);
+    SpdzRoundSynchronization roundSynchronization = new SpdzRoundSynchronization(this);
+    if (metrics != null) {
+      roundSynchronization.recordMacChecks(metrics);
+    }
+    return roundSynchronization;
   }
 }
@@ -3,6 +3,7 @@ package dk.alexandra.fresco.suite.spdz;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzNativeProtocol;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzPreprocessingDemand;
 
 public class SpdzRandomBitProtocol extends SpdzNativeProtocol<SInt> {
 
@@ -18,4 +19,9 @@ public class SpdzRandomBitProtocol extends SpdzNativeProtocol<SInt> {
   public SInt out() {
     return out;
   }
+
+  @Override
+  public void addPreprocessingDemand(SpdzPreprocessingDemand demand) {
+    demand.addBits(1);
+  }
 }
@@ -2,16 +2,29 @@ package dk.alexandra.fresco.suite.spdz;
 
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.sce.resources.ParallelResourcePool;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import java.security.MessageDigest;
+import java.util.List;
 import java.util.function.Function;
 
-public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResourcePool {
+/**
+ * Implements the resource pool needed for the Spdz suite.
+ *
+ * <p>
+ * Views created for parallel evaluation share the data supplier, but store opened values in a
+ * store of their own, which is appended to the store of this resource pool when joined.
+ * </p>
+ */
+public class SpdzResourcePoolImpl extends ResourcePoolImpl
+    implements SpdzResourcePool, ParallelResourcePool<SpdzResourcePool> {
 
   private static final int DRBG_SEED_LENGTH = 256;
 
@@ -84,4 +97,17 @@ public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResour
     return drbgSupplier.apply(seed);
   }
 
+  @Override
+  public SpdzResourcePool fork() {
+    // Suppliers may load the key lazily, so make sure this happens before it is read concurrently
+    dataSupplier.getSecretSharedKey();
+    return new SpdzResourcePoolImpl(getMyId(), getNoOfParties(), new OpenedValueStoreImpl<>(),
+        dataSupplier, drbgSupplier, drbgSeedBitLength);
+  }
+
+  @Override
+  public void join(SpdzResourcePool view) {
+    Pair<List<SpdzSInt>, List<FieldElement>> values = view.getOpenedValueStore().popValues();
+    openedValueStore.pushOpenedValues(values.getFirst(), values.getSecond());
+  }
 }
@@ -1,5 +1,6 @@
 package dk.alexandra.fresco.suite.spdz;
 
+import dk.alexandra.fresco.framework.NativeProtocol;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
@@ -8,19 +9,24 @@ import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.logging.metrics.Histogram;
+import dk.alexandra.fresco.logging.metrics.MetricsRegistry;
 import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMacCheckProtocol;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzNativeProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputProtocol;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzPreprocessingDemand;
 import java.security.SecureRandom;
-import java.util.stream.StreamSupport;
 
 /**
  * A default implementation of the round synchronization for spdz - mostly doing the MAC check if
- * needed.
+ * needed. Before each batch, the preprocessed material the batch consumes is reserved from the
+ * data supplier.
  */
 public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResourcePool> {
 
+  public static final String MAC_CHECK_DURATION = "fresco_spdz_mac_check_nanos";
   private static final int DEFAULT_VALUE_THRESHOLD = 1000000;
   private static final int DEFAULT_BATCH_SIZE = 128;
   private final int openValueThreshold;
@@ -28,6 +34,7 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
   private final SecureRandom secRand;
   private boolean isCheckRequired = false;
   private final int batchSize;
+  private Histogram macCheckDuration;
 
   /**
    * Creates new {@link SpdzRoundSynchronization}.
@@ -51,7 +58,17 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
     this(spdzProtocolSuite, DEFAULT_VALUE_THRESHOLD, DEFAULT_BATCH_SIZE);
   }
 
+  /**
+   * Records the duration of each MAC check in the given registry.
+   *
+   * @param metrics the registry to record in
+   */
+  public void recordMacChecks(MetricsRegistry metrics) {
+    this.macCheckDuration = metrics.histogram(MAC_CHECK_DURATION);
+  }
+
   protected void doMacCheck(SpdzResourcePool resourcePool, Network network) {
+    long then = System.nanoTime();
     SpdzBuilder spdzBuilder = new SpdzBuilder(
         spdzProtocolSuite.createNumericContext(resourcePool),
         spdzProtocolSuite.createRealNumericContext());
@@ -68,6 +85,9 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
     ProtocolBuilderNumeric sequential = spdzBuilder.createSequential();
     macCheck.buildComputation(sequential);
     evaluator.eval(sequential.build(), resourcePool, network);
+    if (macCheckDuration != null) {
+      macCheckDuration.record(System.nanoTime() - then);
+    }
   }
 
   @Override
@@ -94,12 +114,21 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
   public void beforeBatch(
       ProtocolCollection<SpdzResourcePool> protocols, SpdzResourcePool resourcePool,
       Network network) {
-    isCheckRequired = StreamSupport.stream(protocols.spliterator(), false)
-        .anyMatch(p -> p instanceof SpdzOutputProtocol);
+    isCheckRequired = false;
+    SpdzPreprocessingDemand demand = new SpdzPreprocessingDemand(resourcePool.getNoOfParties());
+    for (NativeProtocol<?, SpdzResourcePool> protocol : protocols) {
+      isCheckRequired |= protocol instanceof SpdzOutputProtocol;
+      if (protocol instanceof SpdzNativeProtocol) {
+        ((SpdzNativeProtocol<?>) protocol).addPreprocessingDemand(demand);
+      }
+    }
     OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
     if (store.hasPendingValues() && isCheckRequired) {
       doMacCheck(resourcePool, network);
     }
+    if (!demand.isEmpty()) {
+      resourcePool.getDataSupplier().reserve(demand);
+    }
   }
 
   protected int getBatchSize() {
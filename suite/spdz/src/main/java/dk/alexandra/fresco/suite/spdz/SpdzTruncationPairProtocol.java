@@ -0,0 +1,46 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues.TruncationPair;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTruncationPair;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzNativeProtocol;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzPreprocessingDemand;
+
+/**
+ * Fetches a truncation pair ([r], [r >> d]) from the data supplier, where r is a random value of
+ * the given bit length and d is the number of shifts.
+ * <p>
+ * The pair is computed locally without any communication. Suppliers without dedicated pairs
+ * compose it from preprocessed random bits, so the protocol demands one bit per bit of r.
+ * </p>
+ */
+public class SpdzTruncationPairProtocol extends SpdzNativeProtocol<TruncationPair> {
+
+  private final int bitLength;
+  private final int shifts;
+  private TruncationPair out;
+
+  public SpdzTruncationPairProtocol(int bitLength, int shifts) {
+    this.bitLength = bitLength;
+    this.shifts = shifts;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool resourcePool, Network network) {
+    SpdzTruncationPair pair =
+        resourcePool.getDataSupplier().getNextTruncationPair(bitLength, shifts);
+    this.out = new TruncationPair(pair.getRandom(), pair.getShifted());
+    return EvaluationStatus.IS_DONE;
+  }
+
+  @Override
+  public TruncationPair out() {
+    return out;
+  }
+
+  @Override
+  public void addPreprocessingDemand(SpdzPreprocessingDemand demand) {
+    // suppliers without dedicated pairs compose them from bits
+    demand.addBits(bitLength);
+  }
+}
@@ -0,0 +1,36 @@
+package dk.alexandra.fresco.suite.spdz.datatypes;
+
+import java.io.Serializable;
+
+public class SpdzTruncationPair implements Serializable {
+
+  private static final long serialVersionUID = 2815049351836722043L;
+
+  private final SpdzSInt random;
+  private final SpdzSInt shifted;
+
+  /**
+   * Construct a new SpdzTruncationPair. The pair contains two values r and r' such that
+   * r' = r >> d for some number of shifts d.
+   *
+   * @param random r
+   * @param shifted r'
+   */
+  public SpdzTruncationPair(SpdzSInt random, SpdzSInt shifted) {
+    this.random = random;
+    this.shifted = shifted;
+  }
+
+  public SpdzSInt getRandom() {
+    return random;
+  }
+
+  public SpdzSInt getShifted() {
+    return shifted;
+  }
+
+  @Override
+  public String toString() {
+    return "SpdzTruncationPair [random=" + random + ", shifted=" + shifted + "]";
+  }
+}
@@ -0,0 +1,107 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzPreprocessingDemand;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multiplies two lists of secret values element-wise.
+ * <p>
+ * This is the vectorized version of {@link SpdzMultProtocol}. All triples are fetched in one call
+ * and the shares of all epsilons and deltas are sent to the other parties as a single message,
+ * rather than two messages per multiplication.
+ * </p>
+ */
+public class SpdzBatchMultProtocol extends SpdzNativeProtocol<List<DRes<SInt>>> {
+
+  private final List<DRes<SInt>> left;
+  private final List<DRes<SInt>> right;
+  private List<DRes<SInt>> out;
+  private List<SpdzTriple> triples;
+  private List<SpdzSInt> epsilonsAndDeltas; // my shares of [x_i]-[a_i] followed by [y_i]-[b_i]
+
+  /**
+   * Creates a new batch multiplication of <code>left</code> and <code>right</code>.
+   *
+   * @param left the left factors
+   * @param right the right factors, must have the same size as <code>left</code>
+   */
+  public SpdzBatchMultProtocol(List<DRes<SInt>> left, List<DRes<SInt>> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Lists must be of the same size, was " + left.size() + " and " + right.size());
+    }
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
+      Network network) {
+    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
+    int noOfPlayers = spdzResourcePool.getNoOfParties();
+    ByteSerializer<FieldElement> serializer = spdzResourcePool.getFieldDefinition();
+    int size = left.size();
+    if (round == 0) {
+      this.triples = dataSupplier.getNextTriples(size);
+      this.epsilonsAndDeltas = new ArrayList<>(2 * size);
+      for (int i = 0; i < size; i++) {
+        epsilonsAndDeltas.add(((SpdzSInt) left.get(i).out()).subtract(triples.get(i).getA()));
+      }
+      for (int i = 0; i < size; i++) {
+        epsilonsAndDeltas.add(((SpdzSInt) right.get(i).out()).subtract(triples.get(i).getB()));
+      }
+      List<FieldElement> shares = new ArrayList<>(2 * size);
+      for (SpdzSInt value : epsilonsAndDeltas) {
+        shares.add(value.getShare());
+      }
+      network.sendToAll(serializer.serialize(shares));
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      List<FieldElement> opened = new ArrayList<>(serializer.deserializeList(network.receive(1)));
+      for (int i = 2; i <= noOfPlayers; i++) {
+        List<FieldElement> received = serializer.deserializeList(network.receive(i));
+        for (int j = 0; j < opened.size(); j++) {
+          opened.set(j, opened.get(j).add(received.get(j)));
+        }
+      }
+
+      FieldElement macKeyShare = dataSupplier.getSecretSharedKey();
+      int myId = spdzResourcePool.getMyId();
+      this.out = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        FieldElement e = opened.get(i);
+        FieldElement d = opened.get(size + i);
+        FieldElement product = e.multiply(d);
+        SpdzSInt ed = new SpdzSInt(product, macKeyShare.multiply(product));
+        SpdzTriple triple = triples.get(i);
+        out.add(triple.getC()
+            .add(triple.getB().multiply(e))
+            .add(triple.getA().multiply(d))
+            .add(ed, myId));
+      }
+      // Set the opened and closed values.
+      spdzResourcePool.getOpenedValueStore().pushOpenedValues(epsilonsAndDeltas, opened);
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return out;
+  }
+
+  @Override
+  public void addPreprocessingDemand(SpdzPreprocessingDemand demand) {
+    demand.addTriples(left.size());
+  }
+}
@@ -9,6 +9,7 @@ import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzPreprocessingDemand;
 import java.math.BigInteger;
 
 public class SpdzInputProtocol extends SpdzNativeProtocol<SInt> {
@@ -61,4 +62,9 @@ public class SpdzInputProtocol extends SpdzNativeProtocol<SInt> {
   public SpdzSInt out() {
     return out;
   }
+
+  @Override
+  public void addPreprocessingDemand(SpdzPreprocessingDemand demand) {
+    demand.addInputMasks(inputter, 1);
+  }
 }
@@ -23,6 +23,11 @@ import java.util.function.Function;
  */
 public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNumeric> {
 
+  /**
+   * The number of random coefficients sampled at a time.
+   */
+  public static final int COEFFICIENT_CHUNK = 1024;
+
   private final BigInteger modulus;
   private final List<SpdzSInt> closedValues;
   private final List<FieldElement> openedValues;
@@ -48,6 +53,10 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
       final int drbgSeedBitLength) {
     this.closedValues = toCheck.getFirst();
     this.openedValues = toCheck.getSecond();
+    if (closedValues.size() != openedValues.size()) {
+      throw new IllegalArgumentException("Got " + closedValues.size() + " macs for "
+          + openedValues.size() + " opened values");
+    }
     this.modulus = modulus;
     this.jointDrbgSupplier = jointDrbgSupplier;
     this.alpha = alpha;
@@ -66,22 +75,19 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
         .seq(new CoinTossingComputation(drbgByteLength, commitmentSerializer, localDrbg))
         .seq((seq, seed) -> {
           Drbg jointDrbg = jointDrbgSupplier.apply(seed);
-          FieldElement[] rs = sampleRandomCoefficients(openedValues.size(), definition,
-              jointDrbg);
+          // compute a as the sum of the opened values times r_j and gamma_i as the sum of all
+          // MAC's on the opened values times r_j, sampling the r_j's in chunks as we go.
           FieldElement a = definition.createElement(0);
-          int index = 0;
-          for (FieldElement openedValue : openedValues) {
-            FieldElement openedValueHidden = openedValue.multiply(rs[index++]);
-            a = a.add(openedValueHidden);
-          }
-
-          // compute gamma_i as the sum of all MAC's on the opened values times
-          // r_j.
           FieldElement gamma = definition.createElement(0);
-          index = 0;
-          for (SpdzSInt closedValue : closedValues) {
-            FieldElement closedValueHidden = rs[index++].multiply(closedValue.getMac());
-            gamma = gamma.add(closedValueHidden);
+          for (int start = 0; start < openedValues.size(); start += COEFFICIENT_CHUNK) {
+            int end = Math.min(openedValues.size(), start + COEFFICIENT_CHUNK);
+            List<FieldElement> rs = sampleRandomCoefficients(end - start, definition, modulus,
+                jointDrbg);
+            for (int i = start; i < end; i++) {
+              FieldElement r = rs.get(i - start);
+              a = a.add(openedValues.get(i).multiply(r));
+              gamma = gamma.add(r.multiply(closedValues.get(i).getMac()));
+            }
           }
 
           // compute delta_i as: gamma_i - alpha_i*a
@@ -111,14 +117,31 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
         });
   }
 
-  private FieldElement[] sampleRandomCoefficients(int numCoefficients,
-      FieldDefinition fieldDefinition, Drbg jointDrbg) {
-    FieldElement[] coefficients = new FieldElement[numCoefficients];
+  /**
+   * Samples coefficients with one bit less than the modulus, such that the sampled bytes can be
+   * deserialized directly into field elements without reduction.
+   *
+   * @param numCoefficients the number of coefficients to sample
+   * @param fieldDefinition the field to sample in
+   * @param modulus the modulus of the field
+   * @param jointDrbg the DRBG to sample from
+   * @return the sampled coefficients
+   */
+  public static List<FieldElement> sampleRandomCoefficients(int numCoefficients,
+      FieldDefinition fieldDefinition, BigInteger modulus, Drbg jointDrbg) {
+    int elementLength = fieldDefinition.serialize(fieldDefinition.createElement(0)).length;
+    int sampleBits = modulus.bitLength() - 1;
+    int sampleLength = (sampleBits + Byte.SIZE - 1) / Byte.SIZE;
+    int topBits = sampleBits % Byte.SIZE;
+    int topMask = topBits == 0 ? 0xFF : (1 << topBits) - 1;
+    byte[] samples = new byte[numCoefficients * sampleLength];
+    jointDrbg.nextBytes(samples);
+    byte[] elements = new byte[numCoefficients * elementLength];
     for (int i = 0; i < numCoefficients; i++) {
-      byte[] bytes = new byte[modulus.bitLength() / Byte.SIZE];
-      jointDrbg.nextBytes(bytes);
-      coefficients[i] = fieldDefinition.createElement(new BigInteger(bytes));
+      int offset = (i + 1) * elementLength - sampleLength;
+      System.arraycopy(samples, i * sampleLength, elements, offset, sampleLength);
+      elements[offset] &= topMask;
     }
-    return coefficients;
+    return fieldDefinition.deserializeList(elements);
   }
 }
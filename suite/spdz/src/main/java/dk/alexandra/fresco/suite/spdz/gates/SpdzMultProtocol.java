@@ -9,6 +9,7 @@ import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzPreprocessingDemand;
 
 public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
 
@@ -76,4 +77,9 @@ public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
   public SpdzSInt out() {
     return out;
   }
+
+  @Override
+  public void addPreprocessingDemand(SpdzPreprocessingDemand demand) {
+    demand.addTriples(1);
+  }
 }
@@ -3,6 +3,7 @@ package dk.alexandra.fresco.suite.spdz.gates;
 import dk.alexandra.fresco.framework.NativeProtocol;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzPreprocessingDemand;
 import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.Collection;
@@ -11,6 +12,16 @@ import java.util.List;
 public abstract class SpdzNativeProtocol<OutputT> implements
     NativeProtocol<OutputT, SpdzResourcePool> {
 
+  /**
+   * Adds the preprocessed material this protocol will consume when evaluated to the given demand.
+   * Protocols consuming material must override this, as the material is reserved before the batch
+   * containing the protocol is evaluated.
+   *
+   * @param demand the demand of the batch containing this protocol
+   */
+  public void addPreprocessingDemand(SpdzPreprocessingDemand demand) {
+  }
+
   byte[] sendBroadcastValidation(MessageDigest dig, Network network, byte[] b) {
     dig.update(b);
     return sendAndReset(dig, network);
@@ -9,6 +9,7 @@ import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzPreprocessingDemand;
 import java.math.BigInteger;
 import java.util.List;
 
@@ -58,4 +59,9 @@ public class SpdzOutputSingleProtocol extends SpdzNativeProtocol<BigInteger>
       return EvaluationStatus.IS_DONE;
     }
   }
+
+  @Override
+  public void addPreprocessingDemand(SpdzPreprocessingDemand demand) {
+    demand.addInputMasks(targetPlayer, 1);
+  }
 }
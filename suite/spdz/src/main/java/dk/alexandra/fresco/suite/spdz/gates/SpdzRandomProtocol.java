@@ -5,6 +5,7 @@ import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzPreprocessingDemand;
 
 public class SpdzRandomProtocol extends SpdzNativeProtocol<SInt> {
 
@@ -23,4 +24,8 @@ public class SpdzRandomProtocol extends SpdzNativeProtocol<SInt> {
     return EvaluationStatus.IS_DONE;
   }
 
+  @Override
+  public void addPreprocessingDemand(SpdzPreprocessingDemand demand) {
+    demand.addRandomElements(1);
+  }
 }
@@ -0,0 +1,509 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.logging.PerformanceLogger;
+import dk.alexandra.fresco.logging.metrics.MetricsRegistry;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.preprocessing.MascotFormatConverter;
+import dk.alexandra.fresco.tools.mascot.Mascot;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A data supplier running the {@link Mascot} protocol on a background thread.
+ *
+ * <p>
+ * Triples, random elements, random bits and input masks towards each party are kept in separate
+ * pools. A pool is refilled in batches once it drops below the low watermark, until it holds at
+ * least the high watermark. Consumers only block when a pool holds less than they ask for. The
+ * background thread uses its own network, which must not be used by anything else.
+ * </p>
+ * <p>
+ * All parties must run Mascot with the same arguments in the same order, but the pools of the
+ * parties are not drained at exactly the same time. Before each production step, the parties
+ * therefore exchange how much each of them wants of every kind of material, and all produce the
+ * largest of the amounts in a fixed order. This also means that production only starts once every
+ * party has asked for something.
+ * </p>
+ * <p>
+ * Exponentiation pipes are not pooled, but generated by the supplied callback when requested.
+ * </p>
+ */
+public class SpdzAsyncMascotDataSupplier implements SpdzDataSupplier, PerformanceLogger,
+    Closeable {
+
+  public static final String PRODUCED = "Elements produced by Mascot";
+  public static final String CONSUMED = "Elements consumed";
+  public static final String PRODUCTION_RATE = "Elements produced pr. second of production";
+  public static final String CONSUMPTION_RATE = "Elements consumed pr. second";
+  public static final String STALLS = "Times a consumer waited for a pool";
+  public static final String STALL_TIME = "Milliseconds consumers waited for a pool";
+  public static final String POOL_DEPTH = "fresco_spdz_pool_depth";
+
+  /**
+   * The default number of elements produced at a time.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 256;
+  /**
+   * The default size below which a pool is refilled.
+   */
+  public static final int DEFAULT_LOW_WATERMARK = 256;
+  /**
+   * The default size up to which a pool is refilled.
+   */
+  public static final int DEFAULT_HIGH_WATERMARK = 1024;
+
+  private static final Logger logger = LoggerFactory.getLogger(SpdzAsyncMascotDataSupplier.class);
+  private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+  private static final int TRIPLES = 0;
+  private static final int RANDOM_ELEMENTS = 1;
+  private static final int BITS = 2;
+  private static final int MASKS = 3;
+
+  private final int myId;
+  private final int numberOfPlayers;
+  private final int instanceId;
+  private final Supplier<Network> network;
+  private final FieldDefinition fieldDefinition;
+  private final int modBitLength;
+  private final Function<Integer, SpdzSInt[]> preprocessedValues;
+  private final int prgSeedLength;
+  private final int batchSize;
+  private final int lowWatermark;
+  private final int highWatermark;
+  private final FieldElement ssk;
+  private final Map<Integer, RotList> seedOts;
+  private final Drbg drbg;
+  private final List<Pool<?>> pools;
+  private Thread producer;
+  private boolean closed;
+  private RuntimeException failure;
+  private long startNanos;
+
+  /**
+   * Creates a new supplier. The background thread is started by {@link #start()} or when material
+   * is first requested.
+   *
+   * @param myId this party's id
+   * @param numberOfPlayers number of players
+   * @param instanceId identifier used to distinguish parallel instances of Mascot
+   * @param network supplier of the network used by the background thread
+   * @param fieldDefinition field definition
+   * @param modBitLength bit length of modulus
+   * @param preprocessedValues callback to generate exponentiation pipes
+   * @param prgSeedLength bit length of prg
+   * @param batchSize number of elements Mascot produces at a time
+   * @param lowWatermark size below which a pool is refilled
+   * @param highWatermark size up to which a pool is refilled
+   * @param ssk mac key share
+   * @param seedOts pre-computed base OTs
+   * @param drbg source of randomness
+   */
+  public SpdzAsyncMascotDataSupplier(int myId, int numberOfPlayers, int instanceId,
+      Supplier<Network> network, FieldDefinition fieldDefinition, int modBitLength,
+      Function<Integer, SpdzSInt[]> preprocessedValues, int prgSeedLength, int batchSize,
+      int lowWatermark, int highWatermark, FieldElement ssk, Map<Integer, RotList> seedOts,
+      Drbg drbg) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive, was " + batchSize);
+    }
+    if (lowWatermark < 0 || highWatermark < lowWatermark) {
+      throw new IllegalArgumentException("Watermarks must satisfy 0 <= low <= high, was "
+          + lowWatermark + " and " + highWatermark);
+    }
+    this.myId = myId;
+    this.numberOfPlayers = numberOfPlayers;
+    this.instanceId = instanceId;
+    this.network = network;
+    this.fieldDefinition = fieldDefinition;
+    this.modBitLength = modBitLength;
+    this.preprocessedValues = preprocessedValues;
+    this.prgSeedLength = prgSeedLength;
+    this.batchSize = batchSize;
+    this.lowWatermark = lowWatermark;
+    this.highWatermark = highWatermark;
+    this.ssk = ssk;
+    this.seedOts = seedOts;
+    this.drbg = drbg;
+    this.pools = new ArrayList<>(MASKS + numberOfPlayers);
+    pools.add(new Pool<>("triples", (mascot, count) -> mascot.getTriples(count).stream()
+        .map(MascotFormatConverter::toSpdzTriple).collect(Collectors.toList())));
+    pools.add(new Pool<>("random_elements", (mascot, count) ->
+        mascot.getRandomElements(count).stream()
+            .map(MascotFormatConverter::toSpdzSInt).collect(Collectors.toList())));
+    pools.add(new Pool<>("bits", (mascot, count) -> mascot.getRandomBits(count).stream()
+        .map(MascotFormatConverter::toSpdzSInt).collect(Collectors.toList())));
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      int towardsPlayerId = partyId;
+      pools.add(new Pool<>("masks_" + partyId, (mascot, count) ->
+          mascot.getInputMasks(towardsPlayerId, count).stream()
+              .map(MascotFormatConverter::toSpdzInputMask).collect(Collectors.toList())));
+    }
+  }
+
+  /**
+   * Creates a supplier with the default batch size and watermarks.
+   */
+  public static SpdzAsyncMascotDataSupplier createSimpleSupplier(int myId, int numberOfPlayers,
+      Supplier<Network> network, int modBitLength, FieldDefinition fieldDefinition,
+      Function<Integer, SpdzSInt[]> preprocessedValues,
+      Map<Integer, RotList> seedOts, Drbg drbg, FieldElement ssk) {
+    int prgSeedLength = 256;
+    return new SpdzAsyncMascotDataSupplier(myId, numberOfPlayers, 1, network, fieldDefinition,
+        modBitLength, preprocessedValues, prgSeedLength, DEFAULT_BATCH_SIZE,
+        DEFAULT_LOW_WATERMARK, DEFAULT_HIGH_WATERMARK, ssk, seedOts, drbg);
+  }
+
+  /**
+   * Starts the background thread if it is not already running.
+   */
+  public synchronized void start() {
+    if (producer != null) {
+      return;
+    }
+    if (closed) {
+      throw new IllegalStateException("Supplier has been closed");
+    }
+    startNanos = System.nanoTime();
+    producer = new Thread(this::produce, "Mascot-" + myId + "-" + instanceId);
+    producer.setDaemon(true);
+    producer.start();
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    return this.<SpdzTriple>take(TRIPLES, 1).get(0);
+  }
+
+  @Override
+  public List<SpdzTriple> getNextTriples(int numTriples) {
+    return this.<SpdzTriple>take(TRIPLES, numTriples);
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    return this.<SpdzSInt>take(RANDOM_ELEMENTS, 1).get(0);
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    return this.<SpdzSInt>take(BITS, 1).get(0);
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardsPlayerId) {
+    return this.<SpdzInputMask>take(MASKS + towardsPlayerId - 1, 1).get(0);
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    return preprocessedValues.apply(modBitLength);
+  }
+
+  /**
+   * Waits until every pool holds the material the batch consumes.
+   */
+  @Override
+  public synchronized void reserve(SpdzPreprocessingDemand demand) {
+    int[] counts = new int[pools.size()];
+    counts[TRIPLES] = demand.getTriples();
+    counts[RANDOM_ELEMENTS] = demand.getRandomElements();
+    counts[BITS] = demand.getBits();
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      counts[MASKS + partyId - 1] = demand.getInputMasks(partyId);
+    }
+    for (int i = 0; i < counts.length; i++) {
+      await(i, counts[i]);
+    }
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    return fieldDefinition;
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    return ssk;
+  }
+
+  /**
+   * Stops the background thread and waits a bounded time for it to terminate. The thread is given
+   * the chance to stop together with those of the other parties first, and is interrupted if it
+   * does not. Waiting consumers fail.
+   */
+  @Override
+  public void close() throws IOException {
+    Thread thread;
+    synchronized (this) {
+      closed = true;
+      notifyAll();
+      thread = producer;
+    }
+    if (thread == null) {
+      return;
+    }
+    try {
+      thread.join(CLOSE_TIMEOUT_MILLIS);
+      if (thread.isAlive()) {
+        logger.warn("Background preprocessing did not stop, interrupting it");
+        thread.interrupt();
+        thread.join(CLOSE_TIMEOUT_MILLIS);
+      }
+    } catch (InterruptedException e) {
+      thread.interrupt();
+      Thread.currentThread().interrupt();
+    }
+    if (thread.isAlive()) {
+      logger.warn("Background preprocessing is still running after close");
+    }
+  }
+
+  @Override
+  public synchronized void reset() {
+    for (Pool<?> pool : pools) {
+      pool.produced = 0;
+      pool.consumed = 0;
+      pool.productionNanos = 0;
+      pool.stalls = 0;
+      pool.stallNanos = 0;
+    }
+    startNanos = System.nanoTime();
+  }
+
+  /**
+   * Registers the number of elements currently in each pool as gauges in the given registry.
+   *
+   * @param metrics the registry to register the gauges in
+   */
+  public void registerMetrics(MetricsRegistry metrics) {
+    for (Pool<?> pool : pools) {
+      metrics.gauge(POOL_DEPTH, "pool", pool.name, () -> {
+        synchronized (this) {
+          return pool.elements.size();
+        }
+      });
+    }
+  }
+
+  @Override
+  public synchronized Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+    for (Pool<?> pool : pools) {
+      values.put(PRODUCED + "_" + pool.name, pool.produced);
+      values.put(CONSUMED + "_" + pool.name, pool.consumed);
+      values.put(PRODUCTION_RATE + "_" + pool.name,
+          pool.produced * 1_000_000_000L / Math.max(1, pool.productionNanos));
+      values.put(CONSUMPTION_RATE + "_" + pool.name,
+          pool.consumed * 1_000_000_000L / elapsedNanos);
+      values.put(STALLS + "_" + pool.name, pool.stalls);
+      values.put(STALL_TIME + "_" + pool.name, pool.stallNanos / 1_000_000);
+    }
+    return values;
+  }
+
+  @SuppressWarnings("unchecked")
+  private synchronized <T> List<T> take(int index, int count) {
+    await(index, count);
+    Pool<T> pool = (Pool<T>) pools.get(index);
+    List<T> elements = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      elements.add(pool.elements.pop());
+    }
+    pool.consumed += count;
+    pool.needed = 0;
+    notifyAll();
+    return elements;
+  }
+
+  private synchronized void await(int index, int count) {
+    Pool<?> pool = pools.get(index);
+    if (pool.elements.size() >= count) {
+      return;
+    }
+    start();
+    pool.needed = Math.max(pool.needed, count);
+    pool.stalls++;
+    notifyAll();
+    long waitStart = System.nanoTime();
+    try {
+      while (pool.elements.size() < count) {
+        if (failure != null) {
+          throw new RuntimeException("Background preprocessing failed", failure);
+        }
+        if (closed) {
+          throw new IllegalStateException("Supplier has been closed");
+        }
+        wait();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for preprocessed material", e);
+    } finally {
+      pool.stallNanos += System.nanoTime() - waitStart;
+    }
+  }
+
+  /**
+   * Computes how much of each kind of material this party wants produced next.
+   */
+  private int[] request() {
+    int[] request = new int[pools.size()];
+    for (int i = 0; i < pools.size(); i++) {
+      Pool<?> pool = pools.get(i);
+      int size = pool.elements.size();
+      if (size < lowWatermark) {
+        pool.refilling = true;
+      } else if (size >= highWatermark) {
+        pool.refilling = false;
+      }
+      if (pool.refilling) {
+        request[i] = batchSize;
+      }
+      if (pool.needed > size) {
+        request[i] = Math.max(request[i], pool.needed - size);
+      }
+    }
+    return request;
+  }
+
+  private static boolean isEmpty(int[] request) {
+    for (int amount : request) {
+      if (amount > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void produce() {
+    Network network = null;
+    try {
+      network = this.network.get();
+      Mascot mascot = new Mascot(
+          new MascotResourcePoolImpl(myId, numberOfPlayers, instanceId, drbg, seedOts,
+              new MascotSecurityParameters(modBitLength, prgSeedLength, 3), fieldDefinition),
+          network, ssk);
+      while (true) {
+        boolean stop;
+        int[] request;
+        synchronized (this) {
+          while (!closed && isEmpty(request())) {
+            wait();
+          }
+          stop = closed;
+          request = request();
+        }
+        int[] agreed = agree(network, stop, request);
+        if (agreed == null) {
+          break;
+        }
+        for (int i = 0; i < agreed.length; i++) {
+          if (agreed[i] > 0) {
+            produce(pools.get(i), mascot, agreed[i]);
+          }
+        }
+      }
+    } catch (RuntimeException e) {
+      logger.error("Background preprocessing failed", e);
+      synchronized (this) {
+        failure = e;
+        notifyAll();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      if (network instanceof Closeable) {
+        try {
+          ((Closeable) network).close();
+        } catch (IOException e) {
+          logger.warn("Could not close the preprocessing network", e);
+        }
+      }
+    }
+  }
+
+  private <T> void produce(Pool<T> pool, Mascot mascot, int count) {
+    logger.trace("Producing {} {}", count, pool.name);
+    long start = System.nanoTime();
+    List<T> elements = pool.producer.apply(mascot, count);
+    long nanos = System.nanoTime() - start;
+    synchronized (this) {
+      pool.elements.addAll(elements);
+      pool.produced += elements.size();
+      pool.productionNanos += nanos;
+      notifyAll();
+    }
+  }
+
+  /**
+   * Exchanges requests with the other parties and returns the largest amount of each kind of
+   * material, or null if any party stops.
+   */
+  private int[] agree(Network network, boolean stop, int[] request) {
+    ByteBuffer message = ByteBuffer.allocate(1 + Integer.BYTES * request.length);
+    message.put((byte) (stop ? 1 : 0));
+    for (int amount : request) {
+      message.putInt(amount);
+    }
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      if (partyId != myId) {
+        network.send(partyId, message.array());
+      }
+    }
+    int[] agreed = request.clone();
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      if (partyId != myId) {
+        ByteBuffer received = ByteBuffer.wrap(network.receive(partyId));
+        stop |= received.get() != 0;
+        for (int i = 0; i < agreed.length; i++) {
+          agreed[i] = Math.max(agreed[i], received.getInt());
+        }
+      }
+    }
+    return stop ? null : agreed;
+  }
+
+  /**
+   * A pool of one kind of material together with its statistics.
+   */
+  private static final class Pool<T> {
+
+    private final String name;
+    private final BiFunction<Mascot, Integer, List<T>> producer;
+    private final ArrayDeque<T> elements = new ArrayDeque<>();
+    private int needed;
+    private boolean refilling;
+    private long produced;
+    private long consumed;
+    private long productionNanos;
+    private long stalls;
+    private long stallNanos;
+
+    private Pool(String name, BiFunction<Mascot, Integer, List<T>> producer) {
+      this.name = name;
+      this.producer = producer;
+    }
+  }
+}
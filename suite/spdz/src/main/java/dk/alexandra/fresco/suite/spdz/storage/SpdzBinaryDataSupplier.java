@@ -0,0 +1,220 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzBinaryFormat.Header;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzBinaryFormat.Kind;
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Data supplier which supplies the SPDZ protocol suite with preprocessed data stored in the binary
+ * format written by {@link SpdzBinaryDataWriter}.
+ *
+ * <p>
+ * Unlike the {@link SpdzStorageDataSupplier}, which deserializes every object through Java
+ * serialization, this supplier maps the files into memory and decodes the field elements of many
+ * records at once. Records are decoded in bulk when triples are requested through
+ * {@link #getNextTriples(int)} and when the demand of a batch is announced through
+ * {@link #reserve(SpdzPreprocessingDemand)}. Otherwise they are decoded one at a time.
+ * </p>
+ */
+public class SpdzBinaryDataSupplier implements SpdzDataSupplier {
+
+  private final String storageName;
+  private final int windowSize;
+  private final FieldDefinition definition;
+  private final FieldElement ssk;
+  private final RecordStream<SpdzTriple> triples;
+  private final List<RecordStream<SpdzInputMask>> inputMasks;
+  private final RecordStream<SpdzSInt> bits;
+  private final RecordStream<SpdzSInt[]> expPipes;
+
+  /**
+   * Creates a new supplier using the field given by the modulus in the storage.
+   *
+   * @param storageName the name of the storage, i.e., the common prefix of the files
+   * @param noOfParties the number of parties in the computation
+   */
+  public SpdzBinaryDataSupplier(String storageName, int noOfParties) {
+    this(storageName, noOfParties, null, SpdzBinaryRecordReader.DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * Creates a new supplier.
+   *
+   * @param storageName the name of the storage, i.e., the common prefix of the files
+   * @param noOfParties the number of parties in the computation
+   * @param definition the field definition used when the storage was written
+   */
+  public SpdzBinaryDataSupplier(String storageName, int noOfParties,
+      FieldDefinition definition) {
+    this(storageName, noOfParties, definition, SpdzBinaryRecordReader.DEFAULT_WINDOW_SIZE);
+  }
+
+  SpdzBinaryDataSupplier(String storageName, int noOfParties, FieldDefinition definition,
+      int windowSize) {
+    this.storageName = storageName;
+    this.windowSize = windowSize;
+    SpdzBinaryRecordReader keyReader =
+        new SpdzBinaryRecordReader(Kind.KEY.fileName(storageName), windowSize);
+    Header header = keyReader.getHeader();
+    if (definition == null) {
+      definition = new BigIntegerFieldDefinition(header.modulus);
+    }
+    this.definition = definition;
+    validate(header);
+    this.ssk = definition.deserialize(keyReader.next(1));
+    this.triples = new RecordStream<>(Kind.TRIPLE.fileName(storageName), elements ->
+        new SpdzTriple(
+            new SpdzSInt(elements.get(0), elements.get(1)),
+            new SpdzSInt(elements.get(2), elements.get(3)),
+            new SpdzSInt(elements.get(4), elements.get(5))));
+    this.inputMasks = new ArrayList<>(noOfParties);
+    for (int towardsPlayerId = 1; towardsPlayerId <= noOfParties; towardsPlayerId++) {
+      inputMasks.add(new RecordStream<>(Kind.INPUT_MASK.fileName(storageName, towardsPlayerId),
+          elements -> new SpdzInputMask(new SpdzSInt(elements.get(0), elements.get(1)),
+              elements.size() > 2 ? elements.get(2) : null)));
+    }
+    this.bits = new RecordStream<>(Kind.BIT.fileName(storageName),
+        elements -> new SpdzSInt(elements.get(0), elements.get(1)));
+    this.expPipes = new RecordStream<>(Kind.EXP_PIPE.fileName(storageName), elements -> {
+      SpdzSInt[] expPipe = new SpdzSInt[elements.size() / 2];
+      for (int i = 0; i < expPipe.length; i++) {
+        expPipe[i] = new SpdzSInt(elements.get(2 * i), elements.get(2 * i + 1));
+      }
+      return expPipe;
+    });
+  }
+
+  /**
+   * Tests if a binary storage with the given name exists.
+   *
+   * @param storageName the name of the storage
+   * @return true if the storage holds a share of the MAC key
+   */
+  public static boolean exists(String storageName) {
+    return new File(Kind.KEY.fileName(storageName)).isFile();
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    return triples.next();
+  }
+
+  @Override
+  public List<SpdzTriple> getNextTriples(int numTriples) {
+    return triples.next(numTriples);
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    return expPipes.next();
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardPlayerId) {
+    return inputMasks.get(towardPlayerId - 1).next();
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    return bits.next();
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    return definition;
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    return ssk;
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    return triples.next().getA();
+  }
+
+  @Override
+  public void reserve(SpdzPreprocessingDemand demand) {
+    triples.prefetch(demand.getTriples() + demand.getRandomElements());
+    for (int towardsPlayerId = 1; towardsPlayerId <= inputMasks.size(); towardsPlayerId++) {
+      inputMasks.get(towardsPlayerId - 1).prefetch(demand.getInputMasks(towardsPlayerId));
+    }
+    bits.prefetch(demand.getBits());
+  }
+
+  private void validate(Header header) {
+    int elementLength = definition.serialize(definition.createElement(0)).length;
+    if (!header.modulus.equals(definition.getModulus())
+        || header.elementLength != elementLength) {
+      throw new IllegalArgumentException("The storage " + storageName
+          + " was not written for the field with modulus " + definition.getModulus());
+    }
+  }
+
+  /**
+   * The records of a single file, opened when first read and decoded into objects.
+   */
+  private final class RecordStream<T> {
+
+    private final String fileName;
+    private final Function<List<FieldElement>, T> decoder;
+    private final Deque<T> decoded = new ArrayDeque<>();
+    private SpdzBinaryRecordReader reader;
+
+    private RecordStream(String fileName, Function<List<FieldElement>, T> decoder) {
+      this.fileName = fileName;
+      this.decoder = decoder;
+    }
+
+    private T next() {
+      if (decoded.isEmpty()) {
+        prefetch(1);
+      }
+      return decoded.poll();
+    }
+
+    private List<T> next(int count) {
+      prefetch(count);
+      List<T> result = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        result.add(decoded.poll());
+      }
+      return result;
+    }
+
+    /**
+     * Decodes records in bulk until at least count records are decoded but not yet handed out.
+     */
+    private void prefetch(int count) {
+      int missing = count - decoded.size();
+      if (missing <= 0) {
+        return;
+      }
+      if (reader == null) {
+        if (!new File(fileName).isFile()) {
+          throw new IllegalArgumentException(fileName + " was not present in the storage");
+        }
+        reader = new SpdzBinaryRecordReader(fileName, windowSize);
+        validate(reader.getHeader());
+      }
+      int elementsPerRecord = reader.getHeader().elementsPerRecord;
+      List<FieldElement> elements = definition.deserializeList(reader.next(missing));
+      for (int i = 0; i < missing; i++) {
+        decoded.add(decoder.apply(
+            elements.subList(i * elementsPerRecord, (i + 1) * elementsPerRecord)));
+      }
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzBinaryFormat.Header;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzBinaryFormat.Kind;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes preprocessed material for a single party in the binary format read by
+ * {@link SpdzBinaryDataSupplier}.
+ *
+ * <p>
+ * Each kind of material is written to a file of its own, which is created when the first record of
+ * that kind is written. The number of field elements in a record is fixed by the first record,
+ * i.e., all exponentiation pipes in a file must have the same length, and either all or none of
+ * the input masks towards a party must hold the mask itself.
+ * </p>
+ */
+public class SpdzBinaryDataWriter implements Closeable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final String storageName;
+  private final FieldDefinition definition;
+  private final int elementLength;
+  private final Map<String, RecordOutput> outputs = new HashMap<>();
+
+  /**
+   * Creates a new writer.
+   *
+   * @param storageName the name of the storage, i.e., the common prefix of the files written
+   * @param definition the field definition used to serialize the field elements
+   */
+  public SpdzBinaryDataWriter(String storageName, FieldDefinition definition) {
+    this.storageName = storageName;
+    this.definition = definition;
+    this.elementLength = definition.serialize(definition.createElement(0)).length;
+  }
+
+  /**
+   * Writes the share of the MAC key.
+   *
+   * @param ssk the share of the key
+   */
+  public void writeSecretSharedKey(FieldElement ssk) {
+    String fileName = Kind.KEY.fileName(storageName);
+    if (outputs.containsKey(fileName)) {
+      throw new IllegalStateException("The MAC key share has already been written");
+    }
+    output(Kind.KEY, fileName, 1).write(definition.serialize(ssk));
+  }
+
+  /**
+   * Writes a multiplication triple.
+   *
+   * @param triple the triple
+   */
+  public void writeTriple(SpdzTriple triple) {
+    RecordOutput output = output(Kind.TRIPLE, Kind.TRIPLE.fileName(storageName), 6);
+    write(output, triple.getA());
+    write(output, triple.getB());
+    write(output, triple.getC());
+  }
+
+  /**
+   * Writes an input mask towards a given party.
+   *
+   * @param towardsPlayerId the id of the input player
+   * @param mask the input mask
+   */
+  public void writeInputMask(int towardsPlayerId, SpdzInputMask mask) {
+    boolean hasRealValue = mask.getRealValue() != null;
+    RecordOutput output = output(Kind.INPUT_MASK,
+        Kind.INPUT_MASK.fileName(storageName, towardsPlayerId), hasRealValue ? 3 : 2);
+    if (hasRealValue != (output.elementsPerRecord == 3)) {
+      throw new IllegalArgumentException(
+          "All input masks towards player " + towardsPlayerId + " must agree on the real value");
+    }
+    write(output, mask.getMask());
+    if (hasRealValue) {
+      output.write(definition.serialize(mask.getRealValue()));
+    }
+  }
+
+  /**
+   * Writes a random bit.
+   *
+   * @param bit the bit
+   */
+  public void writeBit(SpdzSInt bit) {
+    write(output(Kind.BIT, Kind.BIT.fileName(storageName), 2), bit);
+  }
+
+  /**
+   * Writes an exponentiation pipe.
+   *
+   * @param expPipe the exponentiation pipe
+   */
+  public void writeExpPipe(SpdzSInt[] expPipe) {
+    RecordOutput output =
+        output(Kind.EXP_PIPE, Kind.EXP_PIPE.fileName(storageName), 2 * expPipe.length);
+    if (output.elementsPerRecord != 2 * expPipe.length) {
+      throw new IllegalArgumentException("All exponentiation pipes must have length "
+          + output.elementsPerRecord / 2 + ", was " + expPipe.length);
+    }
+    for (SpdzSInt element : expPipe) {
+      write(output, element);
+    }
+  }
+
+  private void write(RecordOutput output, SpdzSInt element) {
+    output.write(definition.serialize(element.getShare()));
+    output.write(definition.serialize(element.getMac()));
+  }
+
+  private RecordOutput output(Kind kind, String fileName, int elementsPerRecord) {
+    return outputs.computeIfAbsent(fileName,
+        name -> new RecordOutput(name, new Header(kind, elementLength, elementsPerRecord,
+            definition.getModulus())));
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOException exception = null;
+    for (RecordOutput output : outputs.values()) {
+      try {
+        output.out.close();
+      } catch (IOException e) {
+        exception = e;
+      }
+    }
+    outputs.clear();
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  private static final class RecordOutput {
+
+    private final DataOutputStream out;
+    private final int elementsPerRecord;
+
+    private RecordOutput(String fileName, Header header) {
+      this.elementsPerRecord = header.elementsPerRecord;
+      try {
+        File file = new File(fileName);
+        if (file.getParentFile() != null) {
+          file.getParentFile().mkdirs();
+        }
+        this.out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+        header.write(out);
+      } catch (IOException e) {
+        throw new RuntimeException("IOException creating binary SPDZ storage " + fileName, e);
+      }
+    }
+
+    private void write(byte[] bytes) {
+      try {
+        out.write(bytes);
+      } catch (IOException e) {
+        throw new RuntimeException("IOException writing binary SPDZ storage", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The fixed record file format read by {@link SpdzBinaryDataSupplier} and written by
+ * {@link SpdzBinaryDataWriter}.
+ *
+ * <p>
+ * Each kind of preprocessed material is stored in a file of its own, consisting of a header
+ * followed by records of equal length. Each record holds a fixed number of field elements, each
+ * serialized by the field definition to a fixed number of bytes. The header holds:
+ * </p>
+ * <ul>
+ * <li>the magic number {@link #MAGIC} and the format {@link #VERSION}</li>
+ * <li>the kind of material stored in the file</li>
+ * <li>the number of bytes per field element and the number of field elements per record</li>
+ * <li>the length of the modulus in bytes followed by the modulus as a big-endian two's complement
+ * integer</li>
+ * </ul>
+ */
+final class SpdzBinaryFormat {
+
+  static final int MAGIC = 0x53504442; // "SPDB"
+  static final byte VERSION = 1;
+  static final String FILE_SUFFIX = ".bin";
+
+  /**
+   * The kinds of preprocessed material and the number of field elements in their records.
+   */
+  enum Kind {
+    /**
+     * The share of the MAC key: a single record holding one element.
+     */
+    KEY(SpdzStorageDataSupplier.SSK_KEY),
+    /**
+     * Multiplication triples: shares and MACs of a, b and c.
+     */
+    TRIPLE(SpdzStorageDataSupplier.TRIPLE_STORAGE),
+    /**
+     * Input masks: the share and MAC of the mask, followed by the mask itself for the inputter.
+     */
+    INPUT_MASK(SpdzStorageDataSupplier.INPUT_STORAGE),
+    /**
+     * Random bits: a share and a MAC.
+     */
+    BIT(SpdzStorageDataSupplier.BIT_STORAGE),
+    /**
+     * Exponentiation pipes: a share and a MAC for each element of the pipe.
+     */
+    EXP_PIPE(SpdzStorageDataSupplier.EXP_PIPE_STORAGE);
+
+    private final String name;
+
+    Kind(String name) {
+      this.name = name;
+    }
+
+    String fileName(String storageName) {
+      return storageName + name + FILE_SUFFIX;
+    }
+
+    String fileName(String storageName, int towardsPlayerId) {
+      return storageName + name + towardsPlayerId + FILE_SUFFIX;
+    }
+  }
+
+  /**
+   * The contents of a file header.
+   */
+  static final class Header {
+
+    final Kind kind;
+    final int elementLength;
+    final int elementsPerRecord;
+    final BigInteger modulus;
+
+    Header(Kind kind, int elementLength, int elementsPerRecord, BigInteger modulus) {
+      this.kind = kind;
+      this.elementLength = elementLength;
+      this.elementsPerRecord = elementsPerRecord;
+      this.modulus = modulus;
+    }
+
+    int recordLength() {
+      return elementLength * elementsPerRecord;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      byte[] modulusBytes = modulus.toByteArray();
+      out.writeInt(MAGIC);
+      out.writeByte(VERSION);
+      out.writeByte(kind.ordinal());
+      out.writeInt(elementLength);
+      out.writeInt(elementsPerRecord);
+      out.writeInt(modulusBytes.length);
+      out.write(modulusBytes);
+    }
+
+    /**
+     * Reads a header from the start of a file and leaves the channel positioned at the first
+     * record.
+     */
+    static Header read(FileChannel channel, String fileName) throws IOException {
+      ByteBuffer fixed = ByteBuffer.allocate(Integer.BYTES * 4 + 2);
+      readFully(channel, fixed, fileName);
+      if (fixed.getInt() != MAGIC) {
+        throw new IllegalArgumentException(fileName + " is not a binary SPDZ storage file");
+      }
+      byte version = fixed.get();
+      if (version != VERSION) {
+        throw new IllegalArgumentException(
+            "Unsupported version " + version + " of binary SPDZ storage file " + fileName);
+      }
+      int kind = fixed.get();
+      if (kind < 0 || kind >= Kind.values().length) {
+        throw new IllegalArgumentException("Unknown kind " + kind + " in " + fileName);
+      }
+      int elementLength = fixed.getInt();
+      int elementsPerRecord = fixed.getInt();
+      int modulusLength = fixed.getInt();
+      if (elementLength < 1 || elementsPerRecord < 1 || modulusLength < 1) {
+        throw new IllegalArgumentException("Malformed header in " + fileName);
+      }
+      ByteBuffer modulus = ByteBuffer.allocate(modulusLength);
+      readFully(channel, modulus, fileName);
+      return new Header(Kind.values()[kind], elementLength, elementsPerRecord,
+          new BigInteger(modulus.array()));
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, String fileName)
+        throws IOException {
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) < 0) {
+          throw new IllegalArgumentException("Truncated header in " + fileName);
+        }
+      }
+      buffer.flip();
+    }
+  }
+
+  private SpdzBinaryFormat() {
+  }
+}
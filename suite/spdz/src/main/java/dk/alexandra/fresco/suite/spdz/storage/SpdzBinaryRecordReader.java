@@ -0,0 +1,107 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.suite.spdz.storage.SpdzBinaryFormat.Header;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Reads the records of a file in the binary SPDZ storage format through memory mapped windows.
+ *
+ * <p>
+ * Each window holds a whole number of records, such that a record never spans two windows. The
+ * file is only kept open while a window is mapped, as a mapping stays valid after its channel is
+ * closed.
+ * </p>
+ */
+final class SpdzBinaryRecordReader {
+
+  /**
+   * The default size in bytes of the mapped windows.
+   */
+  static final int DEFAULT_WINDOW_SIZE = 1 << 26;
+
+  private final String fileName;
+  private final Header header;
+  private final long dataStart;
+  private final long recordCount;
+  private final int recordsPerWindow;
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long position;
+
+  /**
+   * Opens a file and reads its header.
+   *
+   * @param fileName the name of the file
+   * @param windowSize the largest number of bytes mapped at a time
+   */
+  SpdzBinaryRecordReader(String fileName, int windowSize) {
+    this.fileName = fileName;
+    try (RandomAccessFile file = new RandomAccessFile(fileName, "r")) {
+      FileChannel channel = file.getChannel();
+      this.header = Header.read(channel, fileName);
+      this.dataStart = channel.position();
+      long dataLength = channel.size() - dataStart;
+      if (dataLength % header.recordLength() != 0) {
+        throw new IllegalArgumentException("Truncated record at the end of " + fileName);
+      }
+      this.recordCount = dataLength / header.recordLength();
+    } catch (IOException e) {
+      throw new RuntimeException("IOException reading binary SPDZ storage " + fileName, e);
+    }
+    this.recordsPerWindow = Math.max(1, windowSize / header.recordLength());
+  }
+
+  Header getHeader() {
+    return header;
+  }
+
+  /**
+   * Returns the number of records not yet read.
+   */
+  long remaining() {
+    return recordCount - position;
+  }
+
+  /**
+   * Reads the next records into a single array.
+   *
+   * @param count the number of records to read
+   * @return the bytes of the records
+   * @throws IllegalArgumentException if fewer than count records are left
+   */
+  byte[] next(int count) {
+    if (count > remaining()) {
+      throw new IllegalArgumentException("Record no. " + (position + remaining()) + " of "
+          + header.kind + " was not present in the storage: " + fileName);
+    }
+    int recordLength = header.recordLength();
+    byte[] bytes = new byte[count * recordLength];
+    int offset = 0;
+    while (offset < bytes.length) {
+      if (window == null || !window.hasRemaining()) {
+        map();
+      }
+      int length = Math.min(bytes.length - offset, window.remaining());
+      window.get(bytes, offset, length);
+      offset += length;
+    }
+    position += count;
+    return bytes;
+  }
+
+  private void map() {
+    windowStart = window == null ? 0 : windowStart + recordsPerWindow;
+    long records = Math.min(recordsPerWindow, recordCount - windowStart);
+    long recordLength = header.recordLength();
+    try (RandomAccessFile file = new RandomAccessFile(fileName, "r")) {
+      window = file.getChannel().map(MapMode.READ_ONLY,
+          dataStart + windowStart * recordLength, records * recordLength);
+    } catch (IOException e) {
+      throw new RuntimeException("IOException mapping binary SPDZ storage " + fileName, e);
+    }
+  }
+}
@@ -6,6 +6,9 @@ import dk.alexandra.fresco.lib.compare.zerotest.ZeroTestBruteforce;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTruncationPair;
+import java.util.ArrayList;
+import java.util.List;
 
 public interface SpdzDataSupplier {
 
@@ -16,6 +19,21 @@ public interface SpdzDataSupplier {
    */
   SpdzTriple getNextTriple();
 
+  /**
+   * Supplies the given number of triples. <p>Implementations that produce triples in batches may
+   * override this to hand out a whole batch at once.</p>
+   *
+   * @param numTriples the number of triples to supply
+   * @return the next new triples
+   */
+  default List<SpdzTriple> getNextTriples(int numTriples) {
+    List<SpdzTriple> triples = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      triples.add(getNextTriple());
+    }
+    return triples;
+  }
+
   /**
    * Supplies the next exponentiation pipe. <p>An exponentiation pipe is a list of numbers in the
    * following format: r^{-1}, r, r^{2}, r^{3}, ..., r^{l}, where r is a random element, l is the
@@ -41,6 +59,30 @@ public interface SpdzDataSupplier {
    */
   SpdzSInt getNextBit();
 
+  /**
+   * Supplies the next truncation pair, i.e. a random value r of the given bit length along with
+   * r >> shifts. <p>The default implementation composes r from random bits using local operations
+   * only. Implementations that can produce pairs directly should override this.</p>
+   *
+   * @param bitLength the bit length of r
+   * @param shifts the number of bits r is shifted to obtain the second value
+   * @return the next new truncation pair
+   */
+  default SpdzTruncationPair getNextTruncationPair(int bitLength, int shifts) {
+    FieldDefinition definition = getFieldDefinition();
+    FieldElement two = definition.createElement(2);
+    SpdzSInt zero = new SpdzSInt(definition.createElement(0), definition.createElement(0));
+    SpdzSInt random = zero;
+    SpdzSInt shifted = zero;
+    for (int i = bitLength - 1; i >= 0; i--) {
+      random = random.multiply(two).add(getNextBit());
+      if (i == shifts) {
+        shifted = random;
+      }
+    }
+    return new SpdzTruncationPair(random, shifted);
+  }
+
   /**
    * The field definition used for this instance of SPDZ.
    *
@@ -62,4 +104,15 @@ public interface SpdzDataSupplier {
    * @return A SpdzSInt representing a random secret shared field element.
    */
   SpdzSInt getNextRandomFieldElement();
+
+  /**
+   * Announces the material that is about to be consumed by the next batch of native protocols.
+   * <p>Implementations generating material on demand may override this to generate everything the
+   * batch needs in bulk before it is evaluated. The default does nothing, so material is fetched
+   * lazily by the native protocols.</p>
+   *
+   * @param demand the material the next batch consumes
+   */
+  default void reserve(SpdzPreprocessingDemand demand) {
+  }
 }
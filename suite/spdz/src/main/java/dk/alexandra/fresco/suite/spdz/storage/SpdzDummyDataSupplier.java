@@ -6,9 +6,11 @@ import dk.alexandra.fresco.framework.util.ArithmeticDummyDataSupplier;
 import dk.alexandra.fresco.framework.util.ModularReductionAlgorithm;
 import dk.alexandra.fresco.framework.util.MultiplicationTripleShares;
 import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.TruncationPairShares;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTruncationPair;
 import java.math.BigInteger;
 import java.util.List;
 
@@ -69,6 +71,14 @@ public class SpdzDummyDataSupplier implements SpdzDataSupplier {
     return toSpdzSInt(supplier.getRandomBitShare());
   }
 
+  @Override
+  public SpdzTruncationPair getNextTruncationPair(int bitLength, int shifts) {
+    TruncationPairShares rawPair = supplier.getTruncationPairShares(bitLength, shifts);
+    return new SpdzTruncationPair(
+        toSpdzSInt(rawPair.getRandom()),
+        toSpdzSInt(rawPair.getShifted()));
+  }
+
   @Override
   public FieldDefinition getFieldDefinition() {
     return fieldDefinition;
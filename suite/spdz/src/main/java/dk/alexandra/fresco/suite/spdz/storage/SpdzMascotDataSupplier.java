@@ -20,7 +20,9 @@ import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrgImpl;
 import dk.alexandra.fresco.tools.ot.otextension.RotList;
 import java.security.SecureRandom;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -128,6 +130,21 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
     return MascotFormatConverter.toSpdzTriple(triple);
   }
 
+  @Override
+  public List<SpdzTriple> getNextTriples(int numTriples) {
+    ensureInitialized();
+    if (triples.size() < numTriples) {
+      logger.trace("Getting another triple batch");
+      triples.addAll(mascot.getTriples(Math.max(batchSize, numTriples - triples.size())));
+      logger.trace("Got another triple batch");
+    }
+    List<SpdzTriple> nextTriples = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      nextTriples.add(MascotFormatConverter.toSpdzTriple(triples.pop()));
+    }
+    return nextTriples;
+  }
+
   @Override
   public SpdzSInt getNextRandomFieldElement() {
     ensureInitialized();
@@ -170,6 +187,38 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
     return MascotFormatConverter.toSpdzSInt(randomBits.pop());
   }
 
+  /**
+   * Generates the material missing to meet the demand. Material is generated in the same order
+   * by all parties, since the demand of a batch is the same for all parties.
+   */
+  @Override
+  public void reserve(SpdzPreprocessingDemand demand) {
+    ensureInitialized();
+    if (triples.size() < demand.getTriples()) {
+      logger.trace("Reserving triples");
+      triples.addAll(mascot.getTriples(
+          Math.max(batchSize, demand.getTriples() - triples.size())));
+    }
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      ArrayDeque<InputMask> inputMasks = masks.get(partyId);
+      if (inputMasks.size() < demand.getInputMasks(partyId)) {
+        logger.trace("Reserving masks");
+        inputMasks.addAll(mascot.getInputMasks(partyId,
+            Math.max(batchSize, demand.getInputMasks(partyId) - inputMasks.size())));
+      }
+    }
+    if (randomElements.size() < demand.getRandomElements()) {
+      logger.trace("Reserving random elements");
+      randomElements.addAll(mascot.getRandomElements(
+          Math.max(batchSize, demand.getRandomElements() - randomElements.size())));
+    }
+    if (randomBits.size() < demand.getBits()) {
+      logger.trace("Reserving bits");
+      randomBits.addAll(mascot.getRandomBits(
+          Math.max(batchSize, demand.getBits() - randomBits.size())));
+    }
+  }
+
   @Override
   public FieldDefinition getFieldDefinition() {
     return fieldDefinition;
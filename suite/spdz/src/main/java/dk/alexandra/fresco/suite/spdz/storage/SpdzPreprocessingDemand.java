@@ -0,0 +1,107 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+/**
+ * Counts the preprocessed material a batch of native protocols will consume from a
+ * {@link SpdzDataSupplier}.
+ *
+ * <p>
+ * The demand is collected before the batch is evaluated and handed to
+ * {@link SpdzDataSupplier#reserve(SpdzPreprocessingDemand)}, such that suppliers generating
+ * material on the fly can do so in bulk between batches rather than in the middle of a round.
+ * </p>
+ */
+public class SpdzPreprocessingDemand {
+
+  private final int[] inputMasks;
+  private int triples;
+  private int randomElements;
+  private int bits;
+
+  /**
+   * Creates an empty demand.
+   *
+   * @param noOfParties the number of parties
+   */
+  public SpdzPreprocessingDemand(int noOfParties) {
+    this.inputMasks = new int[noOfParties + 1];
+  }
+
+  /**
+   * Adds a number of multiplication triples to the demand.
+   *
+   * @param count the number of triples
+   */
+  public void addTriples(int count) {
+    triples += count;
+  }
+
+  /**
+   * Adds a number of input masks towards a given party to the demand.
+   *
+   * @param towardsPlayerId the id of the input player
+   * @param count the number of masks
+   */
+  public void addInputMasks(int towardsPlayerId, int count) {
+    inputMasks[towardsPlayerId] += count;
+  }
+
+  /**
+   * Adds a number of random field elements to the demand.
+   *
+   * @param count the number of elements
+   */
+  public void addRandomElements(int count) {
+    randomElements += count;
+  }
+
+  /**
+   * Adds a number of random bits to the demand.
+   *
+   * @param count the number of bits
+   */
+  public void addBits(int count) {
+    bits += count;
+  }
+
+  public int getTriples() {
+    return triples;
+  }
+
+  public int getInputMasks(int towardsPlayerId) {
+    return inputMasks[towardsPlayerId];
+  }
+
+  public int getRandomElements() {
+    return randomElements;
+  }
+
+  public int getBits() {
+    return bits;
+  }
+
+  /**
+   * Returns the number of parties this demand was created for.
+   *
+   * @return the number of parties
+   */
+  public int getNoOfParties() {
+    return inputMasks.length - 1;
+  }
+
+  /**
+   * Tests if nothing has been added to this demand.
+   *
+   * @return true if the demand is empty
+   */
+  public boolean isEmpty() {
+    if (triples > 0 || randomElements > 0 || bits > 0) {
+      return false;
+    }
+    for (int masks : inputMasks) {
+      if (masks > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -9,7 +9,9 @@ import dk.alexandra.fresco.framework.TestThreadRunner;
 import dk.alexandra.fresco.framework.builder.numeric.DefaultPreprocessedValues;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MontgomeryFieldDefinition;
 import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
 import dk.alexandra.fresco.framework.configuration.NetworkUtil;
 import dk.alexandra.fresco.framework.network.CloseableNetwork;
@@ -42,6 +44,7 @@ import dk.alexandra.fresco.logging.PerformancePrinter;
 import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
 import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzBinaryDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzMascotDataSupplier;
@@ -163,6 +166,14 @@ public abstract class AbstractSpdzTest {
     return new SpdzProtocolSuite(maxBitLength);
   }
 
+  /**
+   * Creates the field definition used with MASCOT preprocessing. Override to run the MASCOT tests
+   * on a different field definition.
+   */
+  protected FieldDefinition createMascotFieldDefinition(BigInteger modulus) {
+    return new MontgomeryFieldDefinition(modulus);
+  }
+
   protected void runTest(
       TestThreadRunner.TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> f,
       EvaluationStrategy evalStrategy, PreprocessingStrategy preProStrat, int noOfParties,
@@ -244,7 +255,7 @@ public abstract class AbstractSpdzTest {
           IntStream.range(1, numberOfParties + 1).boxed().collect(Collectors.toList());
       Drbg drbg = getDrbg(myId, PRG_SEED_LENGTH);
       BigInteger modulus = ModulusFinder.findSuitableModulus(modBitLength);
-      final BigIntegerFieldDefinition definition = new BigIntegerFieldDefinition(modulus);
+      final FieldDefinition definition = createMascotFieldDefinition(modulus);
       Map<Integer, RotList> seedOts =
           getSeedOts(myId, partyIds, PRG_SEED_LENGTH, drbg, otGenerator.createExtraNetwork(myId));
       FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
@@ -274,9 +285,13 @@ public abstract class AbstractSpdzTest {
       int noOfThreadsUsed = 1;
       String storageName = SpdzStorageDataSupplier.STORAGE_NAME_PREFIX + noOfThreadsUsed + "_"
           + myId + "_" + 0 + "_";
-      FilebasedStreamedStorageImpl storage =
-          new FilebasedStreamedStorageImpl(new InMemoryStorage());
-      supplier = new SpdzStorageDataSupplier(storage, storageName, numberOfParties);
+      if (SpdzBinaryDataSupplier.exists(storageName)) {
+        supplier = new SpdzBinaryDataSupplier(storageName, numberOfParties);
+      } else {
+        FilebasedStreamedStorageImpl storage =
+            new FilebasedStreamedStorageImpl(new InMemoryStorage());
+        supplier = new SpdzStorageDataSupplier(storage, storageName, numberOfParties);
+      }
     }
     return new SpdzResourcePoolImpl(myId, numberOfParties, new OpenedValueStoreImpl<>(), supplier,
         AesCtrDrbg::new);
@@ -8,6 +8,9 @@ import dk.alexandra.fresco.lib.math.integer.division.DivisionTests.TestDivision;
 import dk.alexandra.fresco.lib.math.integer.division.DivisionTests.TestKnownDivisorDivision;
 import dk.alexandra.fresco.lib.math.integer.log.LogTests.TestLogarithm;
 import dk.alexandra.fresco.lib.math.integer.sqrt.SqrtTests.TestSquareRoot;
+import dk.alexandra.fresco.lib.real.BasicFixedPointTests;
+import dk.alexandra.fresco.lib.real.LinearAlgebraTests;
+import dk.alexandra.fresco.lib.real.TruncationTests;
 import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -81,6 +84,12 @@ public class TestSpdzBasicArithmetic2Parties extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 2);
   }
 
+  @Test
+  public void test_MultiplyList_Sequential() {
+    runTest(new BasicArithmeticTests.TestMultiplyList<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
   @Test
   public void test_Sum_And_Output_Sequential() {
     runTest(new BasicArithmeticTests.TestSumAndMult<>(),
@@ -111,6 +120,18 @@ public class TestSpdzBasicArithmetic2Parties extends AbstractSpdzTest {
         PreprocessingStrategy.MASCOT, 2, 16, 16, 16);
   }
 
+  @Test
+  public void test_Lots_Of_Mults_Pipelined() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.PIPELINED_BATCHED,
+        PreprocessingStrategy.DUMMY, 2, 128, 64, 16);
+  }
+
+  @Test
+  public void test_Lots_Of_Mults_Parallel() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.PARALLEL_BATCHED,
+        PreprocessingStrategy.DUMMY, 2, 128, 64, 16);
+  }
+
   @Test
   public void test_Lots_Of_Mults_Sequential_Batched_Different_Modulus() {
     runTest(new BasicArithmeticTests.TestLotsMult<>(),
@@ -123,4 +144,21 @@ public class TestSpdzBasicArithmetic2Parties extends AbstractSpdzTest {
         EvaluationStrategy.SEQUENTIAL_BATCHED,
         PreprocessingStrategy.MASCOT, 2, 16, 16, 16);
   }
+
+  @Test
+  public void test_Truncation_Sequential_Batched() {
+    runTest(new TruncationTests.TestTruncation<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void test_Real_Mults_Sequential_Batched() {
+    runTest(new BasicFixedPointTests.TestMult<>(),
+        PreprocessingStrategy.DUMMY, 2, 512, 150, 16);
+  }
+
+  @Test
+  public void test_Real_Matrix_Multiplication_Sequential_Batched() {
+    runTest(new LinearAlgebraTests.TestMatrixMultiplication<>(),
+        PreprocessingStrategy.DUMMY, 2, 512, 150, 16);
+  }
 }
@@ -29,6 +29,12 @@ public class TestSpdzBasicArithmetic3Parties extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 3);
   }
 
+  @Test
+  public void test_MultiplyList_Sequential() {
+    runTest(new BasicArithmeticTests.TestMultiplyList<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
   @Test
   public void test_Lots_Of_Mults_Sequential() {
     runTest(new BasicArithmeticTests.TestLotsMult<>(),
@@ -1,8 +1,10 @@
 package dk.alexandra.fresco.suite.spdz;
 
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
 import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.resources.storage.FilebasedStreamedStorageImpl;
 import dk.alexandra.fresco.framework.sce.resources.storage.InMemoryStorage;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
 import dk.alexandra.fresco.lib.compare.CompareTests;
 import dk.alexandra.fresco.lib.list.EliminateDuplicatesTests.TestFindDuplicatesOne;
 import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
@@ -25,6 +27,18 @@ public class TestSpdzComparison extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 2);
   }
 
+  @Test
+  public void test_compareLEQBatch_Sequential() {
+    runTest(new CompareTests.TestCompareLEQBatch<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void test_compareZeroBatch_Sequential() {
+    runTest(new CompareTests.TestCompareZeroBatch<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
   @Test
   @Ignore("This is not tested on windows and does not work here")
   public void test_compareLT_Sequential_static() throws Exception {
@@ -42,6 +56,18 @@ public class TestSpdzComparison extends AbstractSpdzTest {
     }
   }
 
+  @Test
+  public void test_compareLT_Sequential_binary_static() throws Exception {
+    try {
+      InitializeStorage.initBinaryStorage(2, 1, 1000, 100, 10000, 100,
+          new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(512)));
+      runTest(new CompareTests.TestCompareLT<>(),
+          PreprocessingStrategy.STATIC, 2);
+    } finally {
+      InitializeStorage.cleanup();
+    }
+  }
+
   @Test
   public void test_compareEQ_Sequential() {
     runTest(new CompareTests.TestCompareEQ<>(),
@@ -66,6 +92,18 @@ public class TestSpdzComparison extends AbstractSpdzTest {
         PreprocessingStrategy.MASCOT, 2, 64, 2, 1);
   }
 
+  @Test
+  public void testCompareLTParallel() {
+    runTest(new CompareTests.TestCompareLT<>(), EvaluationStrategy.PARALLEL_BATCHED,
+        PreprocessingStrategy.DUMMY, 2, 128, 64, 16);
+  }
+
+  @Test
+  public void testCompareLTPipelinedMascot() {
+    runTest(new CompareTests.TestCompareLT<>(), EvaluationStrategy.PIPELINED_BATCHED,
+        PreprocessingStrategy.MASCOT, 2, 64, 2, 1);
+  }
+
   @Test
   public void testCompareEQSequentialBatchedMascot() {
     runTest(new CompareTests.TestCompareEQ<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
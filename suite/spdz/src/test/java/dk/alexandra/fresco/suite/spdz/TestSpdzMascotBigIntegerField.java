@@ -0,0 +1,47 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.lib.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.lib.arithmetic.BasicArithmeticTests.TestOpenNoConversionByDefault;
+import dk.alexandra.fresco.lib.arithmetic.MiMCTests;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import java.math.BigInteger;
+import org.junit.Test;
+
+/**
+ * Runs MASCOT preprocessing on the {@link BigIntegerFieldDefinition}, whereas the other tests use
+ * the Montgomery field definition.
+ */
+public class TestSpdzMascotBigIntegerField extends AbstractSpdzTest {
+
+  @Override
+  protected FieldDefinition createMascotFieldDefinition(BigInteger modulus) {
+    return new BigIntegerFieldDefinition(modulus);
+  }
+
+  @Test
+  public void testInputMascot() {
+    runTest(new BasicArithmeticTests.TestInput<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.MASCOT, 2, 16, 16, 16);
+  }
+
+  @Test
+  public void testInputFromAllMascot() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.MASCOT, 2, 16, 16, 16);
+  }
+
+  @Test
+  public void testOpenNoConversionByDefaultMascot() {
+    runTest(new TestOpenNoConversionByDefault<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.MASCOT, 2, 16, 16, 16);
+  }
+
+  @Test
+  public void testMimcWithMascot() {
+    runTest(new MiMCTests.TestMiMCEncDec<>(false), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.MASCOT, 2, 16, 16, 4);
+  }
+}
@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.suite.spdz;
 
 import dk.alexandra.fresco.lib.math.integer.binary.BinaryOperationsTests.TestRightShift;
+import dk.alexandra.fresco.lib.math.integer.binary.BinaryOperationsTests.TestRightShiftManyShifts;
 import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
 import org.junit.Test;
 
@@ -11,4 +12,10 @@ public class TestSpdzRightShift extends AbstractSpdzTest {
     runTest(new TestRightShift<>(),
         PreprocessingStrategy.DUMMY, 2);
   }
+
+  @Test
+  public void testRightShiftManyShiftsTwoParties() throws Exception {
+    runTest(new TestRightShiftManyShifts<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
 }
@@ -13,6 +13,7 @@ import dk.alexandra.fresco.lib.generic.CoinTossingComputation;
 import dk.alexandra.fresco.lib.generic.CommitmentComputation;
 import dk.alexandra.fresco.lib.generic.MaliciousCommitmentComputation;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzMacCheckProtocol;
 import java.math.BigInteger;
 import java.util.List;
 
@@ -52,21 +53,18 @@ public class MaliciousSpdzMacCheckComputation implements Computation<Void, Proto
         .seq((seq, seed) -> {
           this.jointDrbg = new AesCtrDrbg(seed);
           FieldDefinition fieldDefinition = builder.getBasicNumericContext().getFieldDefinition();
-          FieldElement[] rs = sampleRandomCoefficients(openedValues.size(), definition);
           FieldElement a = definition.createElement(0);
-          int index = 0;
-          for (FieldElement openedValue : openedValues) {
-            FieldElement openedValueHidden = openedValue.multiply(rs[index++]);
-            a = a.add(openedValueHidden);
-          }
-
-          // compute gamma_i as the sum of all MAC's on the opened values times
-          // r_j.
           FieldElement gamma = definition.createElement(0);
-          index = 0;
-          for (SpdzSInt closedValue : closedValues) {
-            FieldElement closedValueHidden = rs[index++].multiply(closedValue.getMac());
-            gamma = gamma.add(closedValueHidden);
+          int chunk = SpdzMacCheckProtocol.COEFFICIENT_CHUNK;
+          for (int start = 0; start < openedValues.size(); start += chunk) {
+            int end = Math.min(openedValues.size(), start + chunk);
+            List<FieldElement> rs = SpdzMacCheckProtocol.sampleRandomCoefficients(end - start,
+                definition, modulus, jointDrbg);
+            for (int i = start; i < end; i++) {
+              FieldElement r = rs.get(i - start);
+              a = a.add(openedValues.get(i).multiply(r));
+              gamma = gamma.add(r.multiply(closedValues.get(i).getMac()));
+            }
           }
 
           // compute delta_i as: gamma_i - alpha_i*a
@@ -90,15 +88,4 @@ public class MaliciousSpdzMacCheckComputation implements Computation<Void, Proto
           }
         }).seq((seq, ignored) -> null);
   }
-
-  private FieldElement[] sampleRandomCoefficients(int numCoefficients,
-      FieldDefinition fieldDefinition) {
-    FieldElement[] coefficients = new FieldElement[numCoefficients];
-    for (int i = 0; i < numCoefficients; i++) {
-      byte[] bytes = new byte[modulus.bitLength() / Byte.SIZE];
-      jointDrbg.nextBytes(bytes);
-      coefficients[i] = fieldDefinition.createElement(new BigInteger(bytes));
-    }
-    return coefficients;
-  }
 }
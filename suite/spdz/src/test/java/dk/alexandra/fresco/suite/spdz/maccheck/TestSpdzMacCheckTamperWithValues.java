@@ -1,6 +1,8 @@
 package dk.alexandra.fresco.suite.spdz.maccheck;
 
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import dk.alexandra.fresco.framework.Application;
 import dk.alexandra.fresco.framework.DRes;
@@ -10,13 +12,18 @@ import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
 import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
 import dk.alexandra.fresco.framework.util.ModulusFinder;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.AbstractSpdzTest;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzMacCheckProtocol;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 import org.hamcrest.core.IsInstanceOf;
 import org.junit.Test;
 
@@ -43,6 +50,78 @@ public class TestSpdzMacCheckTamperWithValues extends AbstractSpdzTest {
     }
   }
 
+  @Test
+  public void testModifySharesSmallModulus() {
+    runTest(new TestModifyShares<>(2), PreprocessingStrategy.DUMMY, 2, 8, 4, 1);
+  }
+
+  @Test
+  public void testCoefficientsSmallModulus() {
+    BigInteger modulus = definition.getModulus();
+    List<FieldElement> coefficients = SpdzMacCheckProtocol.sampleRandomCoefficients(
+        SpdzMacCheckProtocol.COEFFICIENT_CHUNK, definition, modulus, new AesCtrDrbg(new byte[32]));
+    boolean nonZero = false;
+    for (FieldElement coefficient : coefficients) {
+      BigInteger value = definition.convertToUnsigned(coefficient);
+      assertTrue(value.bitLength() < modulus.bitLength());
+      nonZero |= value.signum() != 0;
+    }
+    assertTrue(nonZero);
+  }
+
+  /**
+   * Opens a number of inputs with a tampered share in a field small enough that a single
+   * coefficient is a byte or less. Since a check may pass by chance with probability about one
+   * over the modulus the application is run a few times and must be rejected at least once.
+   */
+  private static class TestModifyShares<ResourcePoolT extends SpdzResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    private static final int NUM_VALUES = 16;
+    private static final int ATTEMPTS = 3;
+    private final int cheatingPartyId;
+
+    TestModifyShares(int cheatingPartyId) {
+      this.cheatingPartyId = cheatingPartyId;
+    }
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          Application<List<DRes<BigInteger>>, ProtocolBuilderNumeric> app = producer -> {
+            List<DRes<SInt>> inputs = new ArrayList<>(NUM_VALUES);
+            for (int i = 0; i < NUM_VALUES; i++) {
+              inputs.add(producer.numeric().input(BigInteger.ONE, 1));
+            }
+            return producer.seq(seq -> {
+              List<DRes<BigInteger>> opened = new ArrayList<>(NUM_VALUES);
+              for (DRes<SInt> input : inputs) {
+                SInt value = input.out();
+                if (seq.getBasicNumericContext().getMyId() == cheatingPartyId) {
+                  value = ((SpdzSInt) value).multiply(definition.createElement(2));
+                }
+                final SInt finalSInt = value;
+                opened.add(seq.numeric().open(() -> finalSInt));
+              }
+              return () -> opened;
+            });
+          };
+          for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            try {
+              runApplication(app);
+            } catch (Exception e) {
+              assertThat(e.getCause(), IsInstanceOf.instanceOf(MaliciousException.class));
+              return;
+            }
+          }
+          fail("Tampered openings were accepted by the MAC check");
+        }
+      };
+    }
+  }
+
   private static class TestModifyShare<ResourcePoolT extends SpdzResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
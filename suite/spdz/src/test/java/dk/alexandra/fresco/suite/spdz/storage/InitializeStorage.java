@@ -386,6 +386,61 @@ public class InitializeStorage {
     System.out.println("Done generating preprocessed data for the SPDZ protocol suite");
   }
 
+  /**
+   * Generates the necessary preprocessed data for SPDZ tests and writes it in the binary format
+   * read by {@link SpdzBinaryDataSupplier}. The storage names are the same as used by
+   * {@link #initStreamedStorage(StreamedStorage, int, int, int, int, int, int, FieldDefinition)}.
+   *
+   * @param noOfPlayers The number of players
+   * @param noOfThreads The number of threads used
+   * @param noOfTriples The number of triples to generate
+   * @param noOfInputMasks The number of masks for input to generate.
+   * @param noOfBits The number of random bits to generate
+   * @param noOfExpPipes The number of exponentiation pipes to generate.
+   * @param fieldDefinition field definition to use.
+   */
+  public static void initBinaryStorage(int noOfPlayers, int noOfThreads, int noOfTriples,
+      int noOfInputMasks, int noOfBits, int noOfExpPipes, FieldDefinition fieldDefinition)
+      throws IOException {
+    List<FieldElement> alphaShares = FakeTripGen.generateAlphaShares(noOfPlayers, fieldDefinition);
+    FieldElement alpha = fieldDefinition.createElement(0);
+    for (FieldElement share : alphaShares) {
+      alpha = alpha.add(share);
+    }
+    for (int threadId = 0; threadId < noOfThreads; threadId++) {
+      List<SpdzTriple[]> triples =
+          FakeTripGen.generateTriples(noOfTriples, noOfPlayers, fieldDefinition, alpha);
+      List<List<SpdzInputMask[]>> inputMasks =
+          FakeTripGen.generateInputMasks(noOfInputMasks, noOfPlayers, fieldDefinition, alpha);
+      List<SpdzSInt[]> bits = FakeTripGen.generateBits(noOfBits, noOfPlayers, fieldDefinition,
+          alpha);
+      List<SpdzSInt[][]> expPipes =
+          FakeTripGen.generateExpPipes(noOfExpPipes, noOfPlayers, fieldDefinition, alpha);
+      for (int i = 0; i < noOfPlayers; i++) {
+        String storageName = SpdzStorageDataSupplier.STORAGE_NAME_PREFIX + noOfThreads + "_"
+            + (i + 1) + "_" + threadId + "_";
+        try (SpdzBinaryDataWriter writer = new SpdzBinaryDataWriter(storageName,
+            fieldDefinition)) {
+          writer.writeSecretSharedKey(alphaShares.get(i));
+          for (SpdzTriple[] triple : triples) {
+            writer.writeTriple(triple[i]);
+          }
+          for (int towardsPlayer = 1; towardsPlayer <= noOfPlayers; towardsPlayer++) {
+            for (SpdzInputMask[] masks : inputMasks.get(towardsPlayer - 1)) {
+              writer.writeInputMask(towardsPlayer, masks[i]);
+            }
+          }
+          for (SpdzSInt[] bit : bits) {
+            writer.writeBit(bit[i]);
+          }
+          for (SpdzSInt[][] expPipe : expPipes) {
+            writer.writeExpPipe(expPipe[i]);
+          }
+        }
+      }
+    }
+  }
+
   /**
    * Does the same as
    * {@link #initStreamedStorage(StreamedStorage, int, int, int, int, int, int, FieldDefinition)}
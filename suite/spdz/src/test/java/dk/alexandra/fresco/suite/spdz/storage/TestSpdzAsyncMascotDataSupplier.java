@@ -0,0 +1,203 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.NetManager;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdzAsyncMascotDataSupplier {
+
+  private static final int MOD_BIT_LENGTH = 128;
+  private static final int PRG_SEED_LENGTH = 256;
+  private static final int NO_OF_PARTIES = 2;
+
+  private final FieldDefinition definition =
+      new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(MOD_BIT_LENGTH));
+  private ExecutorService executorService;
+  private NetManager otManager;
+  private NetManager mascotManager;
+
+  @Before
+  public void setUp() {
+    List<Integer> ports = Arrays.asList(11001, 11002);
+    executorService = Executors.newFixedThreadPool(NO_OF_PARTIES);
+    otManager = new NetManager(ports);
+    mascotManager = new NetManager(ports);
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+    otManager.close();
+    mascotManager.close();
+  }
+
+  private Drbg getDrbg(int myId) {
+    byte[] seed = new byte[PRG_SEED_LENGTH / 8];
+    new Random(myId).nextBytes(seed);
+    return AesCtrDrbgFactory.fromDerivedSeed(seed);
+  }
+
+  private Map<Integer, RotList> getSeedOts(int myId, Drbg drbg, Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= NO_OF_PARTIES; otherId++) {
+      if (otherId != myId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+
+  private SpdzAsyncMascotDataSupplier createSupplier(int myId, FieldElement ssk) {
+    Drbg drbg = getDrbg(myId);
+    Map<Integer, RotList> seedOts =
+        getSeedOts(myId, drbg, otManager.createExtraNetwork(myId));
+    return new SpdzAsyncMascotDataSupplier(myId, NO_OF_PARTIES, 1,
+        () -> mascotManager.createExtraNetwork(myId), definition, MOD_BIT_LENGTH, null,
+        PRG_SEED_LENGTH, 8, 4, 16, ssk, seedOts, drbg);
+  }
+
+  /**
+   * The material consumed by a single party.
+   */
+  private static class Consumed {
+
+    private List<SpdzTriple> triples;
+    private List<SpdzInputMask> masks = new ArrayList<>();
+    private List<SpdzSInt> bits = new ArrayList<>();
+    private SpdzSInt random;
+    private Map<String, Long> loggedValues;
+  }
+
+  private Consumed consume(int myId, FieldElement ssk) throws Exception {
+    Consumed consumed = new Consumed();
+    try (SpdzAsyncMascotDataSupplier supplier = createSupplier(myId, ssk)) {
+      SpdzPreprocessingDemand demand = new SpdzPreprocessingDemand(NO_OF_PARTIES);
+      demand.addRandomElements(1);
+      demand.addBits(3);
+      supplier.reserve(demand);
+      consumed.random = supplier.getNextRandomFieldElement();
+      for (int i = 0; i < 3; i++) {
+        consumed.bits.add(supplier.getNextBit());
+      }
+      // More than the high watermark, such that the consumer has to wait
+      consumed.triples = supplier.getNextTriples(20);
+      for (int i = 0; i < 5; i++) {
+        consumed.masks.add(supplier.getNextInputMask(1));
+      }
+      consumed.loggedValues = supplier.getLoggedValues();
+    }
+    return consumed;
+  }
+
+  private FieldElement open(SpdzSInt first, SpdzSInt second, FieldElement alpha) {
+    FieldElement value = first.getShare().add(second.getShare());
+    FieldElement mac = first.getMac().add(second.getMac());
+    assertEquals(definition.convertToUnsigned(alpha.multiply(value)),
+        definition.convertToUnsigned(mac));
+    return value;
+  }
+
+  @Test
+  public void testProducesValidMaterial() throws Exception {
+    List<FieldElement> ssks = new ArrayList<>();
+    List<Callable<Consumed>> tasks = new ArrayList<>();
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      int finalMyId = myId;
+      FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
+      ssks.add(ssk);
+      tasks.add(() -> consume(finalMyId, ssk));
+    }
+    List<Consumed> results = new ArrayList<>();
+    for (Future<Consumed> future : executorService.invokeAll(tasks)) {
+      results.add(ExceptionConverter.safe(future::get, "Party failed"));
+    }
+    FieldElement alpha = ssks.get(0).add(ssks.get(1));
+    Consumed first = results.get(0);
+    Consumed second = results.get(1);
+
+    assertEquals(20, first.triples.size());
+    for (int i = 0; i < first.triples.size(); i++) {
+      SpdzTriple left = first.triples.get(i);
+      SpdzTriple right = second.triples.get(i);
+      FieldElement a = open(left.getA(), right.getA(), alpha);
+      FieldElement b = open(left.getB(), right.getB(), alpha);
+      FieldElement c = open(left.getC(), right.getC(), alpha);
+      assertEquals(definition.convertToUnsigned(a.multiply(b)), definition.convertToUnsigned(c));
+    }
+    for (int i = 0; i < first.masks.size(); i++) {
+      SpdzInputMask own = first.masks.get(i);
+      SpdzInputMask other = second.masks.get(i);
+      assertNull(other.getRealValue());
+      FieldElement mask = open(own.getMask(), other.getMask(), alpha);
+      assertEquals(definition.convertToUnsigned(own.getRealValue()),
+          definition.convertToUnsigned(mask));
+    }
+    for (int i = 0; i < first.bits.size(); i++) {
+      FieldElement bit = open(first.bits.get(i), second.bits.get(i), alpha);
+      assertTrue(definition.convertToUnsigned(bit).bitLength() <= 1);
+    }
+    open(first.random, second.random, alpha);
+
+    for (Consumed consumed : results) {
+      Map<String, Long> values = consumed.loggedValues;
+      assertEquals(20L, (long) values.get(SpdzAsyncMascotDataSupplier.CONSUMED + "_triples"));
+      assertTrue(values.get(SpdzAsyncMascotDataSupplier.PRODUCED + "_triples") >= 20);
+      assertEquals(5L, (long) values.get(SpdzAsyncMascotDataSupplier.CONSUMED + "_masks_1"));
+      assertEquals(0L, (long) values.get(SpdzAsyncMascotDataSupplier.CONSUMED + "_masks_2"));
+      assertTrue(values.get(SpdzAsyncMascotDataSupplier.STALLS + "_triples") >= 1);
+      assertTrue(values.get(SpdzAsyncMascotDataSupplier.PRODUCTION_RATE + "_triples") > 0);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalWatermarks() {
+    new SpdzAsyncMascotDataSupplier(1, NO_OF_PARTIES, 1, () -> null, definition, MOD_BIT_LENGTH,
+        null, PRG_SEED_LENGTH, 8, 16, 4, null, null, null);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testClosed() throws Exception {
+    SpdzAsyncMascotDataSupplier supplier = new SpdzAsyncMascotDataSupplier(1, NO_OF_PARTIES, 1,
+        () -> null, definition, MOD_BIT_LENGTH, null, PRG_SEED_LENGTH, 8, 4, 16, null, null, null);
+    supplier.close();
+    supplier.getNextTriple();
+  }
+}
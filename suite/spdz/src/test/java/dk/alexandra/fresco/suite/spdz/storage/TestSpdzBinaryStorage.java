@@ -0,0 +1,160 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.IOException;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdzBinaryStorage {
+
+  private static final String STORAGE_NAME =
+      SpdzStorageDataSupplier.STORAGE_NAME_PREFIX + "binary_test_";
+
+  private final FieldDefinition definition =
+      new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(128));
+
+  @Before
+  public void setup() throws IOException {
+    InitializeStorage.cleanup();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    InitializeStorage.cleanup();
+  }
+
+  private SpdzSInt element(int share) {
+    return new SpdzSInt(definition.createElement(share), definition.createElement(share + 1));
+  }
+
+  private SpdzTriple triple(int i) {
+    return new SpdzTriple(element(6 * i), element(6 * i + 2), element(6 * i + 4));
+  }
+
+  private void assertElementEquals(SpdzSInt expected, SpdzSInt actual) {
+    assertEquals(definition.convertToUnsigned(expected.getShare()),
+        definition.convertToUnsigned(actual.getShare()));
+    assertEquals(definition.convertToUnsigned(expected.getMac()),
+        definition.convertToUnsigned(actual.getMac()));
+  }
+
+  private void assertTripleEquals(SpdzTriple expected, SpdzTriple actual) {
+    assertElementEquals(expected.getA(), actual.getA());
+    assertElementEquals(expected.getB(), actual.getB());
+    assertElementEquals(expected.getC(), actual.getC());
+  }
+
+  private void writeTriples(int count) throws IOException {
+    try (SpdzBinaryDataWriter writer = new SpdzBinaryDataWriter(STORAGE_NAME, definition)) {
+      writer.writeSecretSharedKey(definition.createElement(42));
+      for (int i = 0; i < count; i++) {
+        writer.writeTriple(triple(i));
+      }
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    assertFalse(SpdzBinaryDataSupplier.exists(STORAGE_NAME));
+    try (SpdzBinaryDataWriter writer = new SpdzBinaryDataWriter(STORAGE_NAME, definition)) {
+      writer.writeSecretSharedKey(definition.createElement(42));
+      writer.writeTriple(triple(0));
+      writer.writeInputMask(1, new SpdzInputMask(element(7), definition.createElement(9)));
+      writer.writeInputMask(2, new SpdzInputMask(element(11)));
+      writer.writeBit(element(1));
+      writer.writeExpPipe(new SpdzSInt[]{element(3), element(5), element(7)});
+    }
+    assertTrue(SpdzBinaryDataSupplier.exists(STORAGE_NAME));
+
+    SpdzBinaryDataSupplier supplier = new SpdzBinaryDataSupplier(STORAGE_NAME, 2);
+    assertEquals(definition.getModulus(), supplier.getFieldDefinition().getModulus());
+    assertEquals(42, supplier.getFieldDefinition()
+        .convertToUnsigned(supplier.getSecretSharedKey()).intValue());
+    assertTripleEquals(triple(0), supplier.getNextTriple());
+    SpdzInputMask own = supplier.getNextInputMask(1);
+    assertElementEquals(element(7), own.getMask());
+    assertEquals(9, definition.convertToUnsigned(own.getRealValue()).intValue());
+    SpdzInputMask other = supplier.getNextInputMask(2);
+    assertElementEquals(element(11), other.getMask());
+    assertNull(other.getRealValue());
+    assertElementEquals(element(1), supplier.getNextBit());
+    SpdzSInt[] expPipe = supplier.getNextExpPipe();
+    assertEquals(3, expPipe.length);
+    assertElementEquals(element(5), expPipe[1]);
+  }
+
+  @Test
+  public void testBulkReadAcrossWindows() throws IOException {
+    writeTriples(100);
+    int recordLength = 6 * definition.serialize(definition.createElement(0)).length;
+    // Windows of 7 records, such that the reads below cross several window boundaries
+    SpdzBinaryDataSupplier supplier =
+        new SpdzBinaryDataSupplier(STORAGE_NAME, 2, definition, 7 * recordLength + 1);
+    assertTripleEquals(triple(0), supplier.getNextTriple());
+    List<SpdzTriple> triples = supplier.getNextTriples(50);
+    for (int i = 0; i < 50; i++) {
+      assertTripleEquals(triple(i + 1), triples.get(i));
+    }
+    SpdzPreprocessingDemand demand = new SpdzPreprocessingDemand(2);
+    demand.addTriples(20);
+    demand.addRandomElements(5);
+    supplier.reserve(demand);
+    assertElementEquals(triple(51).getA(), supplier.getNextRandomFieldElement());
+    for (int i = 52; i < 100; i++) {
+      assertTripleEquals(triple(i), supplier.getNextTriple());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testExhausted() throws IOException {
+    writeTriples(3);
+    SpdzBinaryDataSupplier supplier = new SpdzBinaryDataSupplier(STORAGE_NAME, 2);
+    supplier.getNextTriples(4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingMaterial() throws IOException {
+    writeTriples(3);
+    new SpdzBinaryDataSupplier(STORAGE_NAME, 2).getNextBit();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongField() throws IOException {
+    writeTriples(3);
+    new SpdzBinaryDataSupplier(STORAGE_NAME, 2,
+        new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(64)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMixedInputMasks() throws IOException {
+    try (SpdzBinaryDataWriter writer = new SpdzBinaryDataWriter(STORAGE_NAME, definition)) {
+      writer.writeInputMask(1, new SpdzInputMask(element(7), definition.createElement(9)));
+      writer.writeInputMask(1, new SpdzInputMask(element(11)));
+    }
+  }
+
+  @Test
+  public void testSecretSharedKeyOnly() throws IOException {
+    try (SpdzBinaryDataWriter writer = new SpdzBinaryDataWriter(STORAGE_NAME, definition)) {
+      writer.writeSecretSharedKey(definition.createElement(1));
+    }
+    SpdzBinaryDataSupplier supplier = new SpdzBinaryDataSupplier(STORAGE_NAME, 2, definition);
+    FieldElement ssk = supplier.getSecretSharedKey();
+    assertArrayEquals(definition.serialize(definition.createElement(1)),
+        definition.serialize(ssk));
+  }
+}
@@ -13,6 +13,7 @@ import dk.alexandra.fresco.framework.util.TransposeUtils;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTruncationPair;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -177,6 +178,50 @@ public class TestSpdzDummyDataSupplier {
     }
   }
 
+  private void testGetNextTruncationPair(int noOfParties, FieldDefinition definition,
+      boolean fromBits) {
+    List<SpdzDummyDataSupplier> suppliers = setupSuppliers(noOfParties, definition);
+    FieldElement macKey = getMacKeyFromSuppliers(suppliers, definition);
+    int bitLength = definition.getModulus().bitLength() - 1;
+    int shifts = bitLength / 2;
+    List<SpdzSInt> randomShares = new ArrayList<>(noOfParties);
+    List<SpdzSInt> shiftedShares = new ArrayList<>(noOfParties);
+    for (SpdzDummyDataSupplier supplier : suppliers) {
+      SpdzDataSupplier pairSupplier = fromBits ? new BitsOnlySupplier(supplier) : supplier;
+      SpdzTruncationPair pair = pairSupplier.getNextTruncationPair(bitLength, shifts);
+      randomShares.add(pair.getRandom());
+      shiftedShares.add(pair.getShifted());
+    }
+    SpdzSInt random = recombine(randomShares);
+    SpdzSInt shifted = recombine(shiftedShares);
+    assertMacCorrect(definition, random, macKey);
+    assertMacCorrect(definition, shifted, macKey);
+    BigInteger randomValue = definition.convertToUnsigned(random.getShare());
+    assertTrue(randomValue.bitLength() <= bitLength);
+    assertEquals(randomValue.shiftRight(shifts),
+        definition.convertToUnsigned(shifted.getShare()));
+  }
+
+  private void testGetNextTruncationPair(int noOfParties, boolean fromBits) {
+    for (FieldDefinition field : fields) {
+      testGetNextTruncationPair(noOfParties, field, fromBits);
+    }
+  }
+
+  @Test
+  public void testGetNextTruncationPair() {
+    testGetNextTruncationPair(2, false);
+    testGetNextTruncationPair(3, false);
+    testGetNextTruncationPair(5, false);
+  }
+
+  @Test
+  public void testGetNextTruncationPairFromBits() {
+    testGetNextTruncationPair(2, true);
+    testGetNextTruncationPair(3, true);
+    testGetNextTruncationPair(5, true);
+  }
+
   @Test
   public void testGetNextTriple() {
     testGetNextTriple(2);
@@ -291,4 +336,52 @@ public class TestSpdzDummyDataSupplier {
           definition.convertToUnsigned(values.get(i)).mod(definition.getModulus()));
     }
   }
+
+  /**
+   * Supplier which only delegates the abstract methods, so truncation pairs are composed from bits
+   * by the default implementation.
+   */
+  private static class BitsOnlySupplier implements SpdzDataSupplier {
+
+    private final SpdzDataSupplier delegate;
+
+    BitsOnlySupplier(SpdzDataSupplier delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public SpdzTriple getNextTriple() {
+      return delegate.getNextTriple();
+    }
+
+    @Override
+    public SpdzSInt[] getNextExpPipe() {
+      return delegate.getNextExpPipe();
+    }
+
+    @Override
+    public SpdzInputMask getNextInputMask(int towardPlayerId) {
+      return delegate.getNextInputMask(towardPlayerId);
+    }
+
+    @Override
+    public SpdzSInt getNextBit() {
+      return delegate.getNextBit();
+    }
+
+    @Override
+    public FieldDefinition getFieldDefinition() {
+      return delegate.getFieldDefinition();
+    }
+
+    @Override
+    public FieldElement getSecretSharedKey() {
+      return delegate.getSecretSharedKey();
+    }
+
+    @Override
+    public SpdzSInt getNextRandomFieldElement() {
+      return delegate.getNextRandomFieldElement();
+    }
+  }
 }
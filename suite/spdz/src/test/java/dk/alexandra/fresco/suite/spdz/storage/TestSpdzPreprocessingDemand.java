@@ -0,0 +1,73 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.sce.evaluator.ProtocolCollectionList;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.SpdzProtocolSuite;
+import dk.alexandra.fresco.suite.spdz.SpdzRandomBitProtocol;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.SpdzRoundSynchronization;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzAddProtocol;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzBatchMultProtocol;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzInputProtocol;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocol;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzRandomProtocol;
+import java.math.BigInteger;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class TestSpdzPreprocessingDemand {
+
+  @Test
+  public void testEmpty() {
+    SpdzPreprocessingDemand demand = new SpdzPreprocessingDemand(2);
+    assertTrue(demand.isEmpty());
+    assertEquals(2, demand.getNoOfParties());
+    demand.addInputMasks(2, 1);
+    assertFalse(demand.isEmpty());
+  }
+
+  @Test
+  public void testRoundSynchronizationReservesDemandOfBatch() {
+    SpdzPreprocessingDemand[] reserved = new SpdzPreprocessingDemand[1];
+    SpdzDataSupplier supplier = new SpdzDummyDataSupplier(1, 2,
+        new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(64)), BigInteger.TEN) {
+      @Override
+      public void reserve(SpdzPreprocessingDemand demand) {
+        reserved[0] = demand;
+      }
+    };
+    SpdzResourcePool resourcePool = new SpdzResourcePoolImpl(1, 2, new SpdzOpenedValueStoreImpl(),
+        supplier, AesCtrDrbg::new);
+    SpdzRoundSynchronization synchronization =
+        new SpdzRoundSynchronization(new SpdzProtocolSuite(64));
+
+    ProtocolCollectionList<SpdzResourcePool> protocols = new ProtocolCollectionList<>(10);
+    protocols.addProtocol(new SpdzAddProtocol(null, null));
+    synchronization.beforeBatch(protocols, resourcePool, null);
+    assertNull(reserved[0]);
+
+    protocols.addProtocol(new SpdzMultProtocol(null, null));
+    protocols.addProtocol(new SpdzBatchMultProtocol(Arrays.asList(null, null, null),
+        Arrays.asList(null, null, null)));
+    protocols.addProtocol(new SpdzInputProtocol(BigInteger.ONE, 2));
+    protocols.addProtocol(new SpdzInputProtocol(BigInteger.ONE, 2));
+    protocols.addProtocol(new SpdzRandomProtocol());
+    protocols.addProtocol(new SpdzRandomBitProtocol());
+    synchronization.beforeBatch(protocols, resourcePool, null);
+    assertNotNull(reserved[0]);
+    assertEquals(4, reserved[0].getTriples());
+    assertEquals(0, reserved[0].getInputMasks(1));
+    assertEquals(2, reserved[0].getInputMasks(2));
+    assertEquals(1, reserved[0].getRandomElements());
+    assertEquals(1, reserved[0].getBits());
+  }
+}
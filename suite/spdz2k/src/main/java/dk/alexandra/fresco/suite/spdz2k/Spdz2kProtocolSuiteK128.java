@@ -0,0 +1,17 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt192;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntConverter192;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt64;
+
+/**
+ * Protocol suite using {@link CompUInt192} as the underlying plain-value type.
+ */
+public class Spdz2kProtocolSuiteK128 extends Spdz2kProtocolSuite<UInt64, UInt128, CompUInt192> {
+
+  public Spdz2kProtocolSuiteK128() {
+    super(new CompUIntConverter192());
+  }
+
+}
@@ -0,0 +1,18 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt256;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntConverter256;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt128;
+
+/**
+ * Protocol suite using {@link CompUInt256} as the underlying plain-value type, for applications
+ * that need 128-bit values with 128 bits of statistical security.
+ */
+public class Spdz2kProtocolSuiteK128S128 extends
+    Spdz2kProtocolSuite<UInt128, UInt128, CompUInt256> {
+
+  public Spdz2kProtocolSuiteK128S128() {
+    super(new CompUIntConverter256());
+  }
+
+}
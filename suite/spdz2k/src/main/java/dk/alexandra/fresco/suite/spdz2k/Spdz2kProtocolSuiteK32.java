@@ -0,0 +1,16 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt64;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntConverter64;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt32;
+
+/**
+ * Protocol suite using {@link CompUInt64} as the underlying plain-value type.
+ */
+public class Spdz2kProtocolSuiteK32 extends Spdz2kProtocolSuite<UInt32, UInt32, CompUInt64> {
+
+  public Spdz2kProtocolSuiteK32() {
+    super(new CompUIntConverter64());
+  }
+
+}
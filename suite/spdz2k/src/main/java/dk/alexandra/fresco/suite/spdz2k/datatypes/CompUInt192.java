@@ -0,0 +1,139 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.math.BigInteger;
+
+/**
+ * Unsigned 192-bit integer composed of a 128-bit least significant part and a 64-bit most
+ * significant part, i.e., k = 128 and s = 64. <p>Backed by three longs, see {@link UIntWords}.
+ * Note that this class is NOT SAFE to instantiate with negative values.</p>
+ */
+public class CompUInt192 implements CompUInt<UInt64, UInt128, CompUInt192> {
+
+  private static final int NUM_WORDS = 3;
+
+  private final long[] words;
+
+  /**
+   * Creates new {@link CompUInt192}. <p>Do <b>not</b> pad bytes by default.</p>
+   *
+   * @param bytes bytes interpreted in big-endian order.
+   */
+  public CompUInt192(byte[] bytes) {
+    this(bytes, false);
+  }
+
+  /**
+   * Creates new {@link CompUInt192}.
+   *
+   * @param bytes bytes interpreted in big-endian order, if fewer than 24 they are taken as the
+   *     least significant bytes
+   * @param requiresPadding indicates if the bytes need to be padded up to 24 bytes.
+   */
+  public CompUInt192(byte[] bytes, boolean requiresPadding) {
+    this(UIntWords.fromByteArray(requiresPadding ? CompUInt.pad(bytes, 192) : bytes, NUM_WORDS));
+  }
+
+  /**
+   * Creates new {@link CompUInt192} from {@link BigInteger}.
+   */
+  public CompUInt192(BigInteger value) {
+    this(value.toByteArray(), true);
+  }
+
+  CompUInt192(long value) {
+    this(new long[]{value, 0, 0});
+  }
+
+  CompUInt192(UInt64 value) {
+    this(value.toLong());
+  }
+
+  CompUInt192(UInt128 value) {
+    this(UIntWords.extend(value.getWords(), NUM_WORDS));
+  }
+
+  private CompUInt192(long[] words) {
+    this.words = words;
+  }
+
+  @Override
+  public CompUInt192 add(CompUInt192 other) {
+    return new CompUInt192(UIntWords.add(words, other.words));
+  }
+
+  @Override
+  public CompUInt192 multiply(CompUInt192 other) {
+    return new CompUInt192(UIntWords.multiply(words, other.words));
+  }
+
+  @Override
+  public CompUInt192 subtract(CompUInt192 other) {
+    return add(other.negateUInt());
+  }
+
+  @Override
+  public CompUInt192 negateUInt() {
+    return new CompUInt192(UIntWords.negate(words));
+  }
+
+  @Override
+  public boolean isZero() {
+    return UIntWords.isZero(words);
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return new BigInteger(1, toByteArray());
+  }
+
+  @Override
+  public UInt128 getLeastSignificant() {
+    return new UInt128(UIntWords.low(words, 2));
+  }
+
+  @Override
+  public UInt64 getMostSignificant() {
+    return new UInt64(words[2]);
+  }
+
+  @Override
+  public UInt64 getLeastSignificantAsHigh() {
+    return new UInt64(words[0]);
+  }
+
+  @Override
+  public long toLong() {
+    return words[0];
+  }
+
+  @Override
+  public int toInt() {
+    return (int) words[0];
+  }
+
+  @Override
+  public CompUInt192 shiftLowIntoHigh() {
+    return new CompUInt192(UIntWords.shiftLeft(words, 2));
+  }
+
+  @Override
+  public int getLowBitLength() {
+    return 128;
+  }
+
+  @Override
+  public int getHighBitLength() {
+    return 64;
+  }
+
+  @Override
+  public String toString() {
+    return toBigInteger().toString();
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    return UIntWords.toByteArray(words);
+  }
+
+}
@@ -0,0 +1,135 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.math.BigInteger;
+
+/**
+ * Unsigned 256-bit integer composed of two 128-bit halves, i.e., k = 128 and s = 128. <p>Backed by
+ * four longs, see {@link UIntWords}. Note that this class is NOT SAFE to instantiate with negative
+ * values.</p>
+ */
+public class CompUInt256 implements CompUInt<UInt128, UInt128, CompUInt256> {
+
+  private static final int NUM_WORDS = 4;
+
+  private final long[] words;
+
+  /**
+   * Creates new {@link CompUInt256}. <p>Do <b>not</b> pad bytes by default.</p>
+   *
+   * @param bytes bytes interpreted in big-endian order.
+   */
+  public CompUInt256(byte[] bytes) {
+    this(bytes, false);
+  }
+
+  /**
+   * Creates new {@link CompUInt256}.
+   *
+   * @param bytes bytes interpreted in big-endian order, if fewer than 32 they are taken as the
+   *     least significant bytes
+   * @param requiresPadding indicates if the bytes need to be padded up to 32 bytes.
+   */
+  public CompUInt256(byte[] bytes, boolean requiresPadding) {
+    this(UIntWords.fromByteArray(requiresPadding ? CompUInt.pad(bytes, 256) : bytes, NUM_WORDS));
+  }
+
+  /**
+   * Creates new {@link CompUInt256} from {@link BigInteger}.
+   */
+  public CompUInt256(BigInteger value) {
+    this(value.toByteArray(), true);
+  }
+
+  CompUInt256(long value) {
+    this(new long[]{value, 0, 0, 0});
+  }
+
+  CompUInt256(UInt128 value) {
+    this(UIntWords.extend(value.getWords(), NUM_WORDS));
+  }
+
+  private CompUInt256(long[] words) {
+    this.words = words;
+  }
+
+  @Override
+  public CompUInt256 add(CompUInt256 other) {
+    return new CompUInt256(UIntWords.add(words, other.words));
+  }
+
+  @Override
+  public CompUInt256 multiply(CompUInt256 other) {
+    return new CompUInt256(UIntWords.multiply(words, other.words));
+  }
+
+  @Override
+  public CompUInt256 subtract(CompUInt256 other) {
+    return add(other.negateUInt());
+  }
+
+  @Override
+  public CompUInt256 negateUInt() {
+    return new CompUInt256(UIntWords.negate(words));
+  }
+
+  @Override
+  public boolean isZero() {
+    return UIntWords.isZero(words);
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return new BigInteger(1, toByteArray());
+  }
+
+  @Override
+  public UInt128 getLeastSignificant() {
+    return new UInt128(UIntWords.low(words, 2));
+  }
+
+  @Override
+  public UInt128 getMostSignificant() {
+    return new UInt128(UIntWords.high(words, 2));
+  }
+
+  @Override
+  public UInt128 getLeastSignificantAsHigh() {
+    return getLeastSignificant();
+  }
+
+  @Override
+  public long toLong() {
+    return words[0];
+  }
+
+  @Override
+  public int toInt() {
+    return (int) words[0];
+  }
+
+  @Override
+  public CompUInt256 shiftLowIntoHigh() {
+    return new CompUInt256(UIntWords.shiftLeft(words, 2));
+  }
+
+  @Override
+  public int getLowBitLength() {
+    return 128;
+  }
+
+  @Override
+  public int getHighBitLength() {
+    return 128;
+  }
+
+  @Override
+  public String toString() {
+    return toBigInteger().toString();
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    return UIntWords.toByteArray(words);
+  }
+
+}
@@ -0,0 +1,15 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+public class CompUIntConverter192 implements CompUIntConverter<UInt64, UInt128, CompUInt192> {
+
+  @Override
+  public CompUInt192 createFromHigh(UInt64 value) {
+    return new CompUInt192(value);
+  }
+
+  @Override
+  public CompUInt192 createFromLow(UInt128 value) {
+    return new CompUInt192(value);
+  }
+
+}
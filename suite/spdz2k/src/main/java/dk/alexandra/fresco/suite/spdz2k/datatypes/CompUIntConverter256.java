@@ -0,0 +1,15 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+public class CompUIntConverter256 implements CompUIntConverter<UInt128, UInt128, CompUInt256> {
+
+  @Override
+  public CompUInt256 createFromHigh(UInt128 value) {
+    return new CompUInt256(value);
+  }
+
+  @Override
+  public CompUInt256 createFromLow(UInt128 value) {
+    return new CompUInt256(value);
+  }
+
+}
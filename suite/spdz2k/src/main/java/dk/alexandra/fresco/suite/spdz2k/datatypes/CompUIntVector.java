@@ -0,0 +1,274 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A vector of {@link CompUInt} values stored in a single flat array of 64-bit words. <p>Element
+ * i occupies the words from i * w to (i + 1) * w - 1, where w is the composite bit length divided
+ * by 64, in little-endian word order (see {@link UIntWords}). Bulk operations work directly on the
+ * words and allocate a single array for the result rather than an object per element.</p>
+ *
+ * <p>Conversion from and to individual {@link PlainT} instances is supported for interfacing with
+ * the rest of the suite but is not allocation-free.</p>
+ *
+ * @param <PlainT> the type of the elements
+ */
+public class CompUIntVector<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final CompUIntFactory<PlainT> factory;
+  private final long[] words;
+  private final int wordsPerElement;
+  private final int size;
+
+  /**
+   * Creates a vector of the given size where all elements are zero.
+   */
+  public CompUIntVector(CompUIntFactory<PlainT> factory, int size) {
+    this(factory, new long[size * wordsPerElement(factory)], size);
+  }
+
+  private CompUIntVector(CompUIntFactory<PlainT> factory, long[] words, int size) {
+    this.factory = factory;
+    this.words = words;
+    this.wordsPerElement = wordsPerElement(factory);
+    this.size = size;
+  }
+
+  /**
+   * Creates a vector holding the given elements.
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> CompUIntVector<PlainT> fromList(
+      List<PlainT> elements, CompUIntFactory<PlainT> factory) {
+    CompUIntVector<PlainT> vector = new CompUIntVector<>(factory, elements.size());
+    for (int i = 0; i < elements.size(); i++) {
+      vector.set(i, elements.get(i));
+    }
+    return vector;
+  }
+
+  /**
+   * Creates a vector from serialized elements, as produced by {@link #toByteArray(int)}.
+   *
+   * @param bytes the serialized elements
+   * @param bytesPerElement the number of bytes per element, where each element is taken as the
+   *     least significant bytes of a value
+   * @param factory factory for the elements
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> CompUIntVector<PlainT> fromByteArray(
+      byte[] bytes, int bytesPerElement, CompUIntFactory<PlainT> factory) {
+    if (bytes.length % bytesPerElement != 0) {
+      throw new IllegalArgumentException(
+          "Total number of bytes must be a multiple of length of single element");
+    }
+    CompUIntVector<PlainT> vector = new CompUIntVector<>(factory, bytes.length / bytesPerElement);
+    for (int i = 0; i < vector.size; i++) {
+      UIntWords.fromByteArray(bytes, i * bytesPerElement, bytesPerElement, vector.words,
+          i * vector.wordsPerElement, vector.wordsPerElement);
+    }
+    return vector;
+  }
+
+  /**
+   * Concatenates vectors into a single vector.
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> CompUIntVector<PlainT> concatenate(
+      List<CompUIntVector<PlainT>> vectors, CompUIntFactory<PlainT> factory) {
+    int totalSize = 0;
+    for (CompUIntVector<PlainT> vector : vectors) {
+      totalSize += vector.size;
+    }
+    CompUIntVector<PlainT> result = new CompUIntVector<>(factory, totalSize);
+    int offset = 0;
+    for (CompUIntVector<PlainT> vector : vectors) {
+      System.arraycopy(vector.words, 0, result.words, offset, vector.words.length);
+      offset += vector.words.length;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of elements.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns a copy of the elements from index from, inclusive, to index to, exclusive.
+   */
+  public CompUIntVector<PlainT> subVector(int from, int to) {
+    CompUIntVector<PlainT> result = new CompUIntVector<>(factory, to - from);
+    System.arraycopy(words, from * wordsPerElement, result.words, 0, result.words.length);
+    return result;
+  }
+
+  /**
+   * Returns the element at the given index.
+   */
+  public PlainT get(int index) {
+    byte[] bytes = new byte[wordsPerElement * Long.BYTES];
+    UIntWords.toByteArray(words, index * wordsPerElement, bytes, 0, bytes.length);
+    return factory.deserialize(bytes);
+  }
+
+  /**
+   * Overwrites the element at the given index.
+   */
+  public void set(int index, PlainT value) {
+    byte[] bytes = value.toByteArray();
+    UIntWords.fromByteArray(bytes, 0, bytes.length, words, index * wordsPerElement,
+        wordsPerElement);
+  }
+
+  /**
+   * Returns the elements as a list.
+   */
+  public List<PlainT> toList() {
+    List<PlainT> elements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      elements.add(get(i));
+    }
+    return elements;
+  }
+
+  /**
+   * Computes the element-wise sum of this and other.
+   */
+  public CompUIntVector<PlainT> add(CompUIntVector<PlainT> other) {
+    checkSize(other);
+    CompUIntVector<PlainT> result = new CompUIntVector<>(factory, size);
+    for (int i = 0; i < words.length; i += wordsPerElement) {
+      UIntWords.add(words, i, other.words, i, result.words, i, wordsPerElement);
+    }
+    return result;
+  }
+
+  /**
+   * Adds other to this vector element-wise, in place.
+   */
+  public void addInPlace(CompUIntVector<PlainT> other) {
+    checkSize(other);
+    for (int i = 0; i < words.length; i += wordsPerElement) {
+      UIntWords.add(words, i, other.words, i, words, i, wordsPerElement);
+    }
+  }
+
+  /**
+   * Adds serialized elements to this vector element-wise, in place. <p>The elements are decoded
+   * into a single scratch buffer, so this does not allocate per element.</p>
+   *
+   * @param bytes the serialized elements, as produced by {@link #toByteArray(int)}
+   * @param bytesPerElement the number of bytes per element
+   */
+  public void addInPlace(byte[] bytes, int bytesPerElement) {
+    if (bytes.length != size * bytesPerElement) {
+      throw new IllegalArgumentException(
+          "Expected " + size * bytesPerElement + " bytes but got " + bytes.length);
+    }
+    long[] scratch = new long[wordsPerElement];
+    for (int i = 0; i < size; i++) {
+      UIntWords.fromByteArray(bytes, i * bytesPerElement, bytesPerElement, scratch, 0,
+          wordsPerElement);
+      int offset = i * wordsPerElement;
+      UIntWords.add(words, offset, scratch, 0, words, offset, wordsPerElement);
+    }
+  }
+
+  /**
+   * Computes the element-wise difference of this and other.
+   */
+  public CompUIntVector<PlainT> subtract(CompUIntVector<PlainT> other) {
+    checkSize(other);
+    CompUIntVector<PlainT> result = new CompUIntVector<>(factory, size);
+    for (int i = 0; i < words.length; i += wordsPerElement) {
+      UIntWords.subtract(words, i, other.words, i, result.words, i, wordsPerElement);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the element-wise product of this and other.
+   */
+  public CompUIntVector<PlainT> multiply(CompUIntVector<PlainT> other) {
+    checkSize(other);
+    CompUIntVector<PlainT> result = new CompUIntVector<>(factory, size);
+    for (int i = 0; i < words.length; i += wordsPerElement) {
+      UIntWords.multiply(words, i, other.words, i, result.words, i, wordsPerElement);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the product of each element and a scalar.
+   */
+  public CompUIntVector<PlainT> multiply(PlainT scalar) {
+    long[] scalarWords = toWords(scalar);
+    CompUIntVector<PlainT> result = new CompUIntVector<>(factory, size);
+    for (int i = 0; i < words.length; i += wordsPerElement) {
+      UIntWords.multiply(words, i, scalarWords, 0, result.words, i, wordsPerElement);
+    }
+    return result;
+  }
+
+  /**
+   * Right-shifts each element by the given number of bits.
+   */
+  public CompUIntVector<PlainT> shiftRight(int bits) {
+    CompUIntVector<PlainT> result = new CompUIntVector<>(factory, size);
+    for (int i = 0; i < words.length; i += wordsPerElement) {
+      UIntWords.shiftRight(words, i, bits, result.words, i, wordsPerElement);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the inner product of this and other.
+   */
+  public PlainT innerProduct(CompUIntVector<PlainT> other) {
+    checkSize(other);
+    long[] accumulator = new long[wordsPerElement];
+    long[] product = new long[wordsPerElement];
+    for (int i = 0; i < words.length; i += wordsPerElement) {
+      UIntWords.multiply(words, i, other.words, i, product, 0, wordsPerElement);
+      UIntWords.add(accumulator, 0, product, 0, accumulator, 0, wordsPerElement);
+    }
+    return factory.deserialize(UIntWords.toByteArray(accumulator));
+  }
+
+  /**
+   * Serializes all elements in full, in the format of {@link CompUIntFactory#getSerializer()}.
+   */
+  public byte[] toByteArray() {
+    return toByteArray(wordsPerElement * Long.BYTES);
+  }
+
+  /**
+   * Serializes the given number of least significant bytes of each element, e.g., only the k bits
+   * holding the value when opening shares.
+   */
+  public byte[] toByteArray(int bytesPerElement) {
+    byte[] bytes = new byte[size * bytesPerElement];
+    for (int i = 0; i < size; i++) {
+      UIntWords.toByteArray(words, i * wordsPerElement, bytes, i * bytesPerElement,
+          bytesPerElement);
+    }
+    return bytes;
+  }
+
+  private long[] toWords(PlainT value) {
+    return UIntWords.fromByteArray(value.toByteArray(), wordsPerElement);
+  }
+
+  private void checkSize(CompUIntVector<PlainT> other) {
+    if (other.size != size) {
+      throw new IllegalArgumentException(
+          "Vectors must be of the same size, was " + size + " and " + other.size);
+    }
+  }
+
+  private static int wordsPerElement(CompUIntFactory<?> factory) {
+    return factory.getCompositeBitLength() / Long.SIZE;
+  }
+
+}
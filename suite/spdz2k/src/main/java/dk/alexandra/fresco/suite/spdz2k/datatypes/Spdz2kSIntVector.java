@@ -0,0 +1,143 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A vector of authenticated, secret-shared elements, stored as two flat {@link CompUIntVector}
+ * instances holding the shares and the mac shares. <p>This is the struct-of-arrays counterpart of
+ * a list of {@link Spdz2kSInt}; bulk arithmetic allocates one word array per operand rather than
+ * two objects per element.</p>
+ *
+ * @param <PlainT> type of underlying plain value
+ */
+public class Spdz2kSIntVector<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final CompUIntVector<PlainT> shares;
+  private final CompUIntVector<PlainT> macShares;
+
+  /**
+   * Creates a {@link Spdz2kSIntVector} from shares and mac shares of the same size.
+   */
+  public Spdz2kSIntVector(CompUIntVector<PlainT> shares, CompUIntVector<PlainT> macShares) {
+    if (shares.size() != macShares.size()) {
+      throw new IllegalArgumentException("Number of shares and mac shares must be equal, was "
+          + shares.size() + " and " + macShares.size());
+    }
+    this.shares = shares;
+    this.macShares = macShares;
+  }
+
+  /**
+   * Creates a vector holding the given elements.
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> Spdz2kSIntVector<PlainT> fromList(
+      List<Spdz2kSInt<PlainT>> elements, CompUIntFactory<PlainT> factory) {
+    CompUIntVector<PlainT> shares = new CompUIntVector<>(factory, elements.size());
+    CompUIntVector<PlainT> macShares = new CompUIntVector<>(factory, elements.size());
+    for (int i = 0; i < elements.size(); i++) {
+      shares.set(i, elements.get(i).getShare());
+      macShares.set(i, elements.get(i).getMacShare());
+    }
+    return new Spdz2kSIntVector<>(shares, macShares);
+  }
+
+  /**
+   * Concatenates vectors into a single vector.
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> Spdz2kSIntVector<PlainT> concatenate(
+      List<Spdz2kSIntVector<PlainT>> vectors, CompUIntFactory<PlainT> factory) {
+    List<CompUIntVector<PlainT>> shares = new ArrayList<>(vectors.size());
+    List<CompUIntVector<PlainT>> macShares = new ArrayList<>(vectors.size());
+    for (Spdz2kSIntVector<PlainT> vector : vectors) {
+      shares.add(vector.shares);
+      macShares.add(vector.macShares);
+    }
+    return new Spdz2kSIntVector<>(CompUIntVector.concatenate(shares, factory),
+        CompUIntVector.concatenate(macShares, factory));
+  }
+
+  /**
+   * Returns the number of elements.
+   */
+  public int size() {
+    return shares.size();
+  }
+
+  /**
+   * Returns the element at the given index.
+   */
+  public Spdz2kSInt<PlainT> get(int index) {
+    return new Spdz2kSInt<>(shares.get(index), macShares.get(index));
+  }
+
+  /**
+   * Returns the elements as a list.
+   */
+  public List<Spdz2kSInt<PlainT>> toList() {
+    List<Spdz2kSInt<PlainT>> elements = new ArrayList<>(size());
+    for (int i = 0; i < size(); i++) {
+      elements.add(get(i));
+    }
+    return elements;
+  }
+
+  /**
+   * Compute element-wise sum of this and other.
+   */
+  public Spdz2kSIntVector<PlainT> add(Spdz2kSIntVector<PlainT> other) {
+    return new Spdz2kSIntVector<>(shares.add(other.shares), macShares.add(other.macShares));
+  }
+
+  /**
+   * Compute element-wise difference of this and other.
+   */
+  public Spdz2kSIntVector<PlainT> subtract(Spdz2kSIntVector<PlainT> other) {
+    return new Spdz2kSIntVector<>(shares.subtract(other.shares),
+        macShares.subtract(other.macShares));
+  }
+
+  /**
+   * Compute product of each element and a constant (open) value.
+   */
+  public Spdz2kSIntVector<PlainT> multiply(PlainT other) {
+    return new Spdz2kSIntVector<>(shares.multiply(other), macShares.multiply(other));
+  }
+
+  /**
+   * Compute element-wise product of this and constant (open) values.
+   */
+  public Spdz2kSIntVector<PlainT> multiply(CompUIntVector<PlainT> other) {
+    return new Spdz2kSIntVector<>(shares.multiply(other), macShares.multiply(other));
+  }
+
+  /**
+   * Compute element-wise sum of this and constant (open) values. <p>See {@link
+   * Spdz2kSInt#addConstant(CompUInt, CompUInt, CompUInt, boolean)}.</p>
+   *
+   * @param other constant, open values
+   * @param macKeyShare mac key share for maccing open values
+   * @param isPartyOne used to ensure that only one party adds values to shares
+   * @return result of sum
+   */
+  public Spdz2kSIntVector<PlainT> addConstant(CompUIntVector<PlainT> other, PlainT macKeyShare,
+      boolean isPartyOne) {
+    CompUIntVector<PlainT> newShares = isPartyOne ? shares.add(other) : shares;
+    return new Spdz2kSIntVector<>(newShares, macShares.add(other.multiply(macKeyShare)));
+  }
+
+  /**
+   * Return shares.
+   */
+  public CompUIntVector<PlainT> getShares() {
+    return shares;
+  }
+
+  /**
+   * Return mac shares.
+   */
+  public CompUIntVector<PlainT> getMacShares() {
+    return macShares;
+  }
+
+}
@@ -0,0 +1,91 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.math.BigInteger;
+
+/**
+ * Unsigned 128-bit integer composed of two longs, adhering to the {@link UInt} interface so that it
+ * can be used by {@link CompUInt} instances.
+ */
+public class UInt128 implements UInt<UInt128> {
+
+  private static final int NUM_WORDS = 2;
+
+  private final long[] words;
+
+  /**
+   * Creates new {@link UInt128}.
+   *
+   * @param bytes bytes interpreted in big-endian order, at most 16
+   */
+  public UInt128(byte[] bytes) {
+    this(UIntWords.fromByteArray(bytes, NUM_WORDS));
+  }
+
+  public UInt128(long high, long low) {
+    this(new long[]{low, high});
+  }
+
+  UInt128(long[] words) {
+    this.words = words;
+  }
+
+  @Override
+  public UInt128 add(UInt128 other) {
+    return new UInt128(UIntWords.add(words, other.words));
+  }
+
+  @Override
+  public UInt128 multiply(UInt128 other) {
+    return new UInt128(UIntWords.multiply(words, other.words));
+  }
+
+  @Override
+  public UInt128 subtract(UInt128 other) {
+    return add(other.negateUInt());
+  }
+
+  @Override
+  public UInt128 negateUInt() {
+    return new UInt128(UIntWords.negate(words));
+  }
+
+  @Override
+  public boolean isZero() {
+    return UIntWords.isZero(words);
+  }
+
+  @Override
+  public int getBitLength() {
+    return 128;
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    return UIntWords.toByteArray(words);
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return new BigInteger(1, toByteArray());
+  }
+
+  @Override
+  public long toLong() {
+    return words[0];
+  }
+
+  @Override
+  public int toInt() {
+    return (int) words[0];
+  }
+
+  @Override
+  public String toString() {
+    return toBigInteger().toString();
+  }
+
+  long[] getWords() {
+    return words;
+  }
+
+}
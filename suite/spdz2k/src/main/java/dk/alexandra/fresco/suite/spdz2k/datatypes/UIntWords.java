@@ -0,0 +1,247 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+/**
+ * Arithmetic on unsigned integers represented as arrays of 64-bit words, used by the multi-word
+ * {@link UInt} implementations and by {@link CompUIntVector}. <p>Words are stored in little-endian
+ * order, i.e., the word at the lowest index holds the least significant 64 bits. All operations are
+ * modulo 2<sup>64 * n</sup> where n is the number of words of the operands.</p>
+ *
+ * <p>Besides the methods returning fresh arrays, most operations come in a variant that reads and
+ * writes n words at given offsets of larger arrays, such that vectors of integers can be stored in
+ * a single flat array and operated on without allocating anything per element.</p>
+ */
+final class UIntWords {
+
+  private static final long LOW_MASK = 0xffffffffL;
+
+  private UIntWords() {
+  }
+
+  /**
+   * Computes the sum of two words arrays.
+   */
+  static long[] add(long[] left, long[] right) {
+    long[] result = new long[left.length];
+    add(left, 0, right, 0, result, 0, left.length);
+    return result;
+  }
+
+  /**
+   * Computes the sum of n words at the given offsets. The result may alias either operand.
+   */
+  static void add(long[] left, int leftOffset, long[] right, int rightOffset, long[] result,
+      int resultOffset, int numWords) {
+    long carry = 0;
+    for (int i = 0; i < numWords; i++) {
+      long leftWord = left[leftOffset + i];
+      long sum = leftWord + right[rightOffset + i];
+      long carryOut = Long.compareUnsigned(sum, leftWord) < 0 ? 1 : 0;
+      long withCarry = sum + carry;
+      carryOut += Long.compareUnsigned(withCarry, sum) < 0 ? 1 : 0;
+      result[resultOffset + i] = withCarry;
+      carry = carryOut;
+    }
+  }
+
+  /**
+   * Computes the difference of n words at the given offsets. The result may alias either operand.
+   */
+  static void subtract(long[] left, int leftOffset, long[] right, int rightOffset,
+      long[] result, int resultOffset, int numWords) {
+    long borrow = 0;
+    for (int i = 0; i < numWords; i++) {
+      long leftWord = left[leftOffset + i];
+      long rightWord = right[rightOffset + i];
+      long difference = leftWord - rightWord;
+      long borrowOut = Long.compareUnsigned(leftWord, rightWord) < 0 ? 1 : 0;
+      long withBorrow = difference - borrow;
+      borrowOut += Long.compareUnsigned(difference, borrow) < 0 ? 1 : 0;
+      result[resultOffset + i] = withBorrow;
+      borrow = borrowOut;
+    }
+  }
+
+  /**
+   * Computes the arithmetic negation of a words array.
+   */
+  static long[] negate(long[] value) {
+    long[] result = new long[value.length];
+    long carry = 1;
+    for (int i = 0; i < value.length; i++) {
+      result[i] = ~value[i] + carry;
+      carry = (carry == 1 && result[i] == 0) ? 1 : 0;
+    }
+    return result;
+  }
+
+  /**
+   * Computes the product of two words arrays, discarding all words of the full product beyond the
+   * length of the operands.
+   */
+  static long[] multiply(long[] left, long[] right) {
+    long[] result = new long[left.length];
+    multiply(left, 0, right, 0, result, 0, left.length);
+    return result;
+  }
+
+  /**
+   * Computes the product of n words at the given offsets, discarding all words of the full product
+   * beyond n. The result must not alias either operand.
+   */
+  static void multiply(long[] left, int leftOffset, long[] right, int rightOffset, long[] result,
+      int resultOffset, int numWords) {
+    for (int i = 0; i < numWords; i++) {
+      result[resultOffset + i] = 0;
+    }
+    for (int i = 0; i < numWords; i++) {
+      long leftWord = left[leftOffset + i];
+      if (leftWord == 0) {
+        continue;
+      }
+      long carry = 0;
+      for (int j = 0; i + j < numWords; j++) {
+        // leftWord * right[j] + result[i + j] + carry always fits in two words
+        long rightWord = right[rightOffset + j];
+        long low = leftWord * rightWord;
+        long high = multiplyHigh(leftWord, rightWord);
+        int index = resultOffset + i + j;
+        long sum = result[index] + low;
+        high += Long.compareUnsigned(sum, low) < 0 ? 1 : 0;
+        result[index] = sum + carry;
+        high += Long.compareUnsigned(result[index], sum) < 0 ? 1 : 0;
+        carry = high;
+      }
+    }
+  }
+
+  /**
+   * Computes the upper 64 bits of the 128-bit unsigned product of two words.
+   */
+  static long multiplyHigh(long left, long right) {
+    long leftLow = left & LOW_MASK;
+    long leftHigh = left >>> 32;
+    long rightLow = right & LOW_MASK;
+    long rightHigh = right >>> 32;
+    long lowLow = leftLow * rightLow;
+    long lowHigh = leftLow * rightHigh;
+    long highLow = leftHigh * rightLow;
+    long middle = highLow + (lowLow >>> 32) + (lowHigh & LOW_MASK);
+    return leftHigh * rightHigh + (middle >>> 32) + (lowHigh >>> 32);
+  }
+
+  /**
+   * Right-shifts n words at the given offset by the given number of bits, filling in zeros. The
+   * result may alias the operand only if the offsets are equal.
+   */
+  static void shiftRight(long[] value, int offset, int bits, long[] result, int resultOffset,
+      int numWords) {
+    int wordShift = bits / Long.SIZE;
+    int bitShift = bits % Long.SIZE;
+    for (int i = 0; i < numWords; i++) {
+      int source = i + wordShift;
+      long word = source < numWords ? value[offset + source] >>> bitShift : 0;
+      if (bitShift != 0 && source + 1 < numWords) {
+        word |= value[offset + source + 1] << (Long.SIZE - bitShift);
+      }
+      result[resultOffset + i] = word;
+    }
+  }
+
+  /**
+   * Returns the given number of least significant words of a words array.
+   */
+  static long[] low(long[] value, int numWords) {
+    long[] result = new long[numWords];
+    System.arraycopy(value, 0, result, 0, numWords);
+    return result;
+  }
+
+  /**
+   * Returns the given number of most significant words of a words array.
+   */
+  static long[] high(long[] value, int numWords) {
+    long[] result = new long[numWords];
+    System.arraycopy(value, value.length - numWords, result, 0, numWords);
+    return result;
+  }
+
+  /**
+   * Zero-extends a words array to the given number of words.
+   */
+  static long[] extend(long[] value, int numWords) {
+    long[] result = new long[numWords];
+    System.arraycopy(value, 0, result, 0, value.length);
+    return result;
+  }
+
+  /**
+   * Left-shifts a words array by a whole number of words, discarding the words that overflow.
+   */
+  static long[] shiftLeft(long[] value, int numWords) {
+    long[] result = new long[value.length];
+    System.arraycopy(value, 0, result, numWords, value.length - numWords);
+    return result;
+  }
+
+  /**
+   * Checks if all words are zero.
+   */
+  static boolean isZero(long[] value) {
+    for (long word : value) {
+      if (word != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Converts a words array to its big-endian byte representation.
+   */
+  static byte[] toByteArray(long[] value) {
+    byte[] bytes = new byte[value.length * Long.BYTES];
+    toByteArray(value, 0, bytes, 0, bytes.length);
+    return bytes;
+  }
+
+  /**
+   * Writes the given number of least significant bytes of the words starting at the given offset
+   * to a byte array, in big-endian order.
+   */
+  static void toByteArray(long[] value, int offset, byte[] bytes, int byteOffset, int numBytes) {
+    for (int i = 0; i < numBytes; i++) {
+      long word = value[offset + i / Long.BYTES];
+      bytes[byteOffset + numBytes - i - 1] = (byte) (word >>> (8 * (i % Long.BYTES)));
+    }
+  }
+
+  /**
+   * Converts big-endian bytes to a words array. <p>If fewer bytes than needed are given, the bytes
+   * are taken as the least significant bytes of the result.</p>
+   */
+  static long[] fromByteArray(byte[] bytes, int numWords) {
+    if (bytes.length > numWords * Long.BYTES) {
+      throw new IllegalArgumentException("Exceeds capacity");
+    }
+    long[] result = new long[numWords];
+    fromByteArray(bytes, 0, bytes.length, result, 0, numWords);
+    return result;
+  }
+
+  /**
+   * Reads big-endian bytes into n words at the given offset, taking them as the least significant
+   * bytes and setting the remaining bits to zero.
+   */
+  static void fromByteArray(byte[] bytes, int byteOffset, int numBytes, long[] result,
+      int offset, int numWords) {
+    for (int i = 0; i < numWords; i++) {
+      result[offset + i] = 0;
+    }
+    for (int i = 0; i < numBytes; i++) {
+      int fromEnd = numBytes - i - 1;
+      result[offset + fromEnd / Long.BYTES] |=
+          (bytes[byteOffset + i] & 0xFFL) << (8 * (fromEnd % Long.BYTES));
+    }
+  }
+
+}
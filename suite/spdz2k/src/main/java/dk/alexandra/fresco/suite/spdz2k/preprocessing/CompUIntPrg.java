@@ -0,0 +1,86 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PRG for sampling uniformly random {@link CompT} instances from a seed.
+ *
+ * <p>Parties holding the same seed sample the same elements in the same order.</p>
+ */
+public class CompUIntPrg<CompT extends CompUInt<?, ?, CompT>> {
+
+  private final Drbg drbg;
+  private final CompUIntFactory<CompT> factory;
+  private final int byteLength;
+
+  /**
+   * Creates new PRG.
+   *
+   * @param seed seed to the underlying DRBG
+   * @param factory factory for the sampled elements
+   */
+  public CompUIntPrg(StrictBitVector seed, CompUIntFactory<CompT> factory) {
+    byte[] bytes = seed.toByteArray();
+    if (bytes.length != AesCtrDrbg.SEED_LENGTH) {
+      this.drbg = AesCtrDrbgFactory.fromDerivedSeed(bytes);
+    } else {
+      this.drbg = AesCtrDrbgFactory.fromRandomSeed(bytes);
+    }
+    this.factory = factory;
+    this.byteLength = factory.getCompositeBitLength() / Byte.SIZE;
+  }
+
+  /**
+   * Samples a uniformly random element of Z<sub>2<sup>k + s</sup></sub>.
+   */
+  public CompT getNext() {
+    return getNextBounded(factory.getCompositeBitLength());
+  }
+
+  /**
+   * Samples numElements uniformly random elements of Z<sub>2<sup>k + s</sup></sub>.
+   */
+  public List<CompT> getNext(int numElements) {
+    List<CompT> elements = new ArrayList<>(numElements);
+    for (int i = 0; i < numElements; i++) {
+      elements.add(getNext());
+    }
+    return elements;
+  }
+
+  /**
+   * Samples a uniformly random element of Z<sub>2<sup>bitLength</sup></sub>.
+   *
+   * @param bitLength the number of random least significant bits, must be divisible by 8
+   */
+  public CompT getNextBounded(int bitLength) {
+    if (bitLength % Byte.SIZE != 0 || bitLength > factory.getCompositeBitLength()) {
+      throw new IllegalArgumentException("Bit length must be a multiple of 8 of at most "
+          + factory.getCompositeBitLength() + " but was " + bitLength);
+    }
+    byte[] bytes = new byte[byteLength];
+    byte[] random = new byte[bitLength / Byte.SIZE];
+    drbg.nextBytes(random);
+    System.arraycopy(random, 0, bytes, byteLength - random.length, random.length);
+    return factory.deserialize(bytes);
+  }
+
+  /**
+   * Samples numElements uniformly random elements of Z<sub>2<sup>bitLength</sup></sub>.
+   */
+  public List<CompT> getNextBounded(int numElements, int bitLength) {
+    List<CompT> elements = new ArrayList<>(numElements);
+    for (int i = 0; i < numElements; i++) {
+      elements.add(getNextBounded(bitLength));
+    }
+    return elements;
+  }
+
+}
@@ -0,0 +1,78 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helper methods shared by the OT-based pre-processing protocols.
+ */
+final class CompUIntUtils {
+
+  private CompUIntUtils() {
+  }
+
+  /**
+   * Returns the bit at the given index of value, where index 0 is the least significant bit.
+   */
+  static boolean testBit(CompUInt<?, ?, ?> value, int index) {
+    byte[] bytes = value.toByteArray();
+    return ((bytes[bytes.length - 1 - index / Byte.SIZE] >>> (index % Byte.SIZE)) & 1) == 1;
+  }
+
+  /**
+   * Packs the bitLength least significant bits of each value into a single bit vector, such that
+   * bit j of value i becomes choice bit i * bitLength + j of an OT batch.
+   */
+  static StrictBitVector toChoiceBits(List<? extends CompUInt<?, ?, ?>> values, int bitLength) {
+    StrictBitVector choices = new StrictBitVector(values.size() * bitLength);
+    for (int i = 0; i < values.size(); i++) {
+      for (int j = 0; j < bitLength; j++) {
+        choices.setBit(i * bitLength + j, testBit(values.get(i), j), false);
+      }
+    }
+    return choices;
+  }
+
+  /**
+   * Computes the sum of 2<sup>j</sup> * summands<sub>from + j</sub> for j = 0, ..., bitLength - 1.
+   */
+  static <CompT extends CompUInt<?, ?, CompT>> CompT recombine(List<CompT> summands, int from,
+      int bitLength) {
+    CompT result = summands.get(from + bitLength - 1);
+    for (int j = bitLength - 2; j >= 0; j--) {
+      result = result.add(result).add(summands.get(from + j));
+    }
+    return result;
+  }
+
+  /**
+   * Repeats each element times times.
+   */
+  static <T> List<T> stretch(List<T> elements, int times) {
+    List<T> stretched = new ArrayList<>(elements.size() * times);
+    for (T element : elements) {
+      for (int i = 0; i < times; i++) {
+        stretched.add(element);
+      }
+    }
+    return stretched;
+  }
+
+  /**
+   * Sums lists of authenticated elements position-wise.
+   */
+  static <CompT extends CompUInt<?, ?, CompT>> List<Spdz2kSInt<CompT>> sumRows(
+      List<List<Spdz2kSInt<CompT>>> rows) {
+    List<Spdz2kSInt<CompT>> result = new ArrayList<>(rows.get(0));
+    for (List<Spdz2kSInt<CompT>> row : rows.subList(1, rows.size())) {
+      for (int i = 0; i < result.size(); i++) {
+        result.set(i, result.get(i).add(row.get(i)));
+      }
+    }
+    return result;
+  }
+
+}
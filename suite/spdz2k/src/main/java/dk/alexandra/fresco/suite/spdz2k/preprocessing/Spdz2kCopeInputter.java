@@ -0,0 +1,75 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The <i>inputter</i> party's side of Correlated Oblivious Product Evaluation (COPE) over
+ * Z<sub>2<sup>k + s</sup></sub>. For the other side of the protocol, see {@link
+ * Spdz2kCopeSigner}.
+ */
+public class Spdz2kCopeInputter<CompT extends CompUInt<?, ?, CompT>> {
+
+  private final List<CompUIntPrg<CompT>> leftPrgs;
+  private final List<CompUIntPrg<CompT>> rightPrgs;
+  private final CompUIntFactory<CompT> factory;
+  private final int otherId;
+  private final Network network;
+
+  /**
+   * Creates new COPE inputter and runs the initialization sub-protocol.
+   *
+   * @param resourcePool the resource pool used to create the OT extension
+   * @param network the network to use for communication
+   * @param otherId the id of the signer
+   * @param factory factory for ring elements
+   */
+  public Spdz2kCopeInputter(MascotResourcePool resourcePool, Network network, int otherId,
+      CompUIntFactory<CompT> factory) {
+    this.otherId = otherId;
+    this.network = network;
+    this.factory = factory;
+    List<Pair<StrictBitVector, StrictBitVector>> seeds = resourcePool.createRot(otherId, network)
+        .send(factory.getHighBitLength(), resourcePool.getPrgSeedLength());
+    this.leftPrgs = new ArrayList<>(seeds.size());
+    this.rightPrgs = new ArrayList<>(seeds.size());
+    for (Pair<StrictBitVector, StrictBitVector> seedPair : seeds) {
+      leftPrgs.add(new CompUIntPrg<>(seedPair.getFirst(), factory));
+      rightPrgs.add(new CompUIntPrg<>(seedPair.getSecond(), factory));
+    }
+  }
+
+  /**
+   * Computes shares of the products of this party's values and the signer's mac key share.
+   *
+   * @param inputElements the values to multiply with the mac key share
+   * @return this party's shares of the products
+   */
+  public List<CompT> extend(List<CompT> inputElements) {
+    int keyBitLength = leftPrgs.size();
+    List<CompT> diffs = new ArrayList<>(inputElements.size() * keyBitLength);
+    List<CompT> zeroMasks = new ArrayList<>(inputElements.size() * keyBitLength);
+    for (CompT input : inputElements) {
+      for (int j = 0; j < keyBitLength; j++) {
+        CompT zeroMask = leftPrgs.get(j).getNext();
+        CompT oneMask = rightPrgs.get(j).getNext();
+        diffs.add(zeroMask.subtract(oneMask).add(input));
+        zeroMasks.add(zeroMask);
+      }
+    }
+    network.send(otherId, factory.getSerializer().serialize(diffs));
+    List<CompT> productShares = new ArrayList<>(inputElements.size());
+    for (int i = 0; i < inputElements.size(); i++) {
+      productShares.add(
+          CompUIntUtils.recombine(zeroMasks, i * keyBitLength, keyBitLength).negateUInt());
+    }
+    return productShares;
+  }
+
+}
@@ -0,0 +1,85 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The <i>signer</i> party's side of Correlated Oblivious Product Evaluation (COPE) over
+ * Z<sub>2<sup>k + s</sup></sub>.
+ *
+ * <p>The signer holds a mac key share <i>&alpha;</i> in Z<sub>2<sup>s</sup></sub> and the
+ * inputter holds values <i>x<sub>1</sub>, ..., x<sub>n</sub></i>. The parties end up with
+ * additive shares of <i>&alpha; * x<sub>1</sub>, ..., &alpha; * x<sub>n</sub></i>. The s bits of
+ * the mac key share are used as choice bits of random OTs once, when the signer is created, and
+ * the resulting seeds are extended with PRGs. This fixes the mac key share across all later
+ * extensions. For the other side of the protocol, see {@link Spdz2kCopeInputter}.</p>
+ */
+public class Spdz2kCopeSigner<CompT extends CompUInt<?, ?, CompT>> {
+
+  private final List<CompUIntPrg<CompT>> prgs;
+  private final StrictBitVector keyBits;
+  private final CompUIntFactory<CompT> factory;
+  private final int otherId;
+  private final Network network;
+
+  /**
+   * Creates new COPE signer and runs the initialization sub-protocol.
+   *
+   * @param resourcePool the resource pool used to create the OT extension
+   * @param network the network to use for communication
+   * @param otherId the id of the inputter
+   * @param macKeyShare this party's share of the mac key
+   * @param factory factory for ring elements
+   */
+  public Spdz2kCopeSigner(MascotResourcePool resourcePool, Network network, int otherId,
+      CompT macKeyShare, CompUIntFactory<CompT> factory) {
+    this.otherId = otherId;
+    this.network = network;
+    this.factory = factory;
+    this.keyBits = CompUIntUtils.toChoiceBits(Collections.singletonList(macKeyShare),
+        factory.getHighBitLength());
+    List<StrictBitVector> seeds = resourcePool.createRot(otherId, network)
+        .receive(keyBits, resourcePool.getPrgSeedLength());
+    this.prgs = new ArrayList<>(seeds.size());
+    for (StrictBitVector seed : seeds) {
+      prgs.add(new CompUIntPrg<>(seed, factory));
+    }
+  }
+
+  /**
+   * Computes shares of the products of this party's mac key share and the inputter's values.
+   *
+   * @param numInputs number of values of the inputter
+   * @return this party's shares of the products
+   */
+  public List<CompT> extend(int numInputs) {
+    int keyBitLength = prgs.size();
+    List<CompT> diffs = factory.getSerializer().deserializeList(network.receive(otherId));
+    if (diffs.size() != numInputs * keyBitLength) {
+      throw new IllegalStateException("Expected " + numInputs * keyBitLength + " diffs but got "
+          + diffs.size());
+    }
+    List<CompT> summands = new ArrayList<>(diffs.size());
+    for (int i = 0; i < numInputs; i++) {
+      for (int j = 0; j < keyBitLength; j++) {
+        CompT masked = prgs.get(j).getNext();
+        if (keyBits.getBit(j, false)) {
+          masked = masked.add(diffs.get(i * keyBitLength + j));
+        }
+        summands.add(masked);
+      }
+    }
+    List<CompT> productShares = new ArrayList<>(numInputs);
+    for (int i = 0; i < numInputs; i++) {
+      productShares.add(CompUIntUtils.recombine(summands, i * keyBitLength, keyBitLength));
+    }
+    return productShares;
+  }
+
+}
@@ -0,0 +1,222 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actively-secure protocol for generating authenticated, secret-shared elements of
+ * Z<sub>2<sup>k + s</sup></sub>, following the MASCOT element generation adapted to rings as in
+ * SPDZ2k (<a href="https://eprint.iacr.org/2018/482.pdf">https://eprint.iacr.org/2018/482.pdf</a>).
+ *
+ * <p>Allows a single party to secret-share elements among all parties such that the elements are
+ * authenticated via a MAC under a mac key <i>&alpha;</i> in Z<sub>2<sup>s</sup></sub>. Since the
+ * ring has zero divisors, the random coefficients of all checks are sampled from
+ * Z<sub>2<sup>s</sup></sub> and the checks are performed modulo 2<sup>k + s</sup>, which bounds
+ * the probability of an undetected error in the k least significant bits by roughly
+ * 2<sup>-s</sup>.</p>
+ */
+public class Spdz2kElementGeneration<CompT extends CompUInt<?, ?, CompT>> {
+
+  private final Spdz2kMacCheck<CompT> macChecker;
+  private final CompT macKeyShare;
+  private final CompUIntPrg<CompT> localSampler;
+  private final CompUIntPrg<CompT> jointSampler;
+  private final Map<Integer, Spdz2kCopeSigner<CompT>> copeSigners;
+  private final Map<Integer, Spdz2kCopeInputter<CompT>> copeInputters;
+  private final MascotResourcePool resourcePool;
+  private final Network network;
+  private final CompUIntFactory<CompT> factory;
+
+  /**
+   * Creates new {@link Spdz2kElementGeneration}.
+   */
+  public Spdz2kElementGeneration(MascotResourcePool resourcePool, Network network,
+      CompUIntFactory<CompT> factory, CompT macKeyShare, CompUIntPrg<CompT> localSampler,
+      CompUIntPrg<CompT> jointSampler) {
+    this.resourcePool = resourcePool;
+    this.network = network;
+    this.factory = factory;
+    this.macChecker = new Spdz2kMacCheck<>(resourcePool, network, factory);
+    this.macKeyShare = macKeyShare;
+    this.localSampler = localSampler;
+    this.jointSampler = jointSampler;
+    this.copeSigners = new HashMap<>();
+    this.copeInputters = new HashMap<>();
+    initializeCope();
+  }
+
+  /**
+   * Computes this party's authenticated shares of input. To be called by the input party.
+   *
+   * @param values values to input
+   * @return authenticated shares of inputs
+   */
+  public List<Spdz2kSInt<CompT>> input(List<CompT> values) {
+    values = new ArrayList<>(values);
+    // add extra random element which masks the checked linear combination
+    values.add(localSampler.getNext());
+    List<CompT> shares = secretShare(values);
+    List<CompT> macs = macValues(values);
+    List<CompT> coefficients = sampleInputCoefficients(values.size() - 1);
+    CompT maskedValue = UInt.innerProduct(values, coefficients);
+    network.sendToAll(maskedValue.toByteArray());
+    // so that we can use receiveFromAll correctly later
+    network.receive(resourcePool.getMyId());
+    runMacCheck(maskedValue, coefficients, macs);
+    return toAuthenticated(shares, macs, values.size() - 1);
+  }
+
+  /**
+   * Computes this party's authenticated shares of the inputter party's inputs. To be called by the
+   * non-input parties.
+   *
+   * @param inputterId id of inputter
+   * @param numInputs number of inputs
+   * @return authenticated shares of inputs
+   */
+  public List<Spdz2kSInt<CompT>> input(Integer inputterId, int numInputs) {
+    List<CompT> shares = factory.getSerializer().deserializeList(network.receive(inputterId));
+    List<CompT> macs = copeSigners.get(inputterId).extend(numInputs + 1);
+    List<CompT> coefficients = sampleInputCoefficients(numInputs);
+    CompT maskedValue = factory.deserialize(network.receive(inputterId));
+    runMacCheck(maskedValue, coefficients, macs);
+    return toAuthenticated(shares, macs, numInputs);
+  }
+
+  /**
+   * Opens secret elements (distributes shares among all parties and recombines). The opened values
+   * must later be validated with {@link #check(List, List)}.
+   *
+   * @param closed authenticated elements to open
+   * @return opened values
+   */
+  public List<CompT> open(List<Spdz2kSInt<CompT>> closed) {
+    List<CompT> ownShares = new ArrayList<>(closed.size());
+    for (Spdz2kSInt<CompT> element : closed) {
+      ownShares.add(element.getShare());
+    }
+    network.sendToAll(factory.getSerializer().serialize(ownShares));
+    List<byte[]> rawShares = network.receiveFromAll();
+    List<CompT> opened = factory.getSerializer().deserializeList(rawShares.get(0));
+    for (byte[] raw : rawShares.subList(1, rawShares.size())) {
+      List<CompT> shares = factory.getSerializer().deserializeList(raw);
+      for (int i = 0; i < opened.size(); i++) {
+        opened.set(i, opened.get(i).add(shares.get(i)));
+      }
+    }
+    return opened;
+  }
+
+  /**
+   * Runs mac-check on a batch of opened values.
+   *
+   * @param sharesWithMacs authenticated shares holding mac shares
+   * @param openValues the claimed values of the authenticated elements
+   */
+  public void check(List<Spdz2kSInt<CompT>> sharesWithMacs, List<CompT> openValues) {
+    List<CompT> coefficients = sampleCoefficients(sharesWithMacs.size());
+    List<CompT> macs = new ArrayList<>(sharesWithMacs.size());
+    for (Spdz2kSInt<CompT> element : sharesWithMacs) {
+      macs.add(element.getMacShare());
+    }
+    runMacCheck(UInt.innerProduct(openValues, coefficients), coefficients, macs);
+  }
+
+  /**
+   * Returns this party's share of the mac key.
+   */
+  public CompT getMacKeyShare() {
+    return macKeyShare;
+  }
+
+  private List<CompT> sampleCoefficients(int numCoefficients) {
+    return jointSampler.getNextBounded(numCoefficients, factory.getHighBitLength());
+  }
+
+  /**
+   * Samples coefficients for the inputs and appends the coefficient one for the masking element.
+   * A random coefficient could be even, in which case the mask would not cover the low bits of
+   * the combination of the inputs.
+   */
+  private List<CompT> sampleInputCoefficients(int numInputs) {
+    List<CompT> coefficients = new ArrayList<>(sampleCoefficients(numInputs));
+    coefficients.add(factory.createElement(1));
+    return coefficients;
+  }
+
+  /**
+   * Computes shares of values * (alpha<sub>1</sub> + ... + alpha<sub>n</sub>).
+   */
+  private List<CompT> macValues(List<CompT> values) {
+    List<CompT> macs = new ArrayList<>(values.size());
+    for (CompT value : values) {
+      macs.add(value.multiply(macKeyShare));
+    }
+    for (Spdz2kCopeInputter<CompT> copeInputter : copeInputters.values()) {
+      List<CompT> products = copeInputter.extend(values);
+      for (int i = 0; i < macs.size(); i++) {
+        macs.set(i, macs.get(i).add(products.get(i)));
+      }
+    }
+    return macs;
+  }
+
+  /**
+   * Computes additive shares of values, sends the shares to the other parties and returns the
+   * shares of this party.
+   */
+  private List<CompT> secretShare(List<CompT> values) {
+    List<CompT> ownShares = new ArrayList<>(values);
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId != resourcePool.getMyId()) {
+        List<CompT> shares = localSampler.getNext(values.size());
+        for (int i = 0; i < ownShares.size(); i++) {
+          ownShares.set(i, ownShares.get(i).subtract(shares.get(i)));
+        }
+        network.send(partyId, factory.getSerializer().serialize(shares));
+      }
+    }
+    return ownShares;
+  }
+
+  private List<Spdz2kSInt<CompT>> toAuthenticated(List<CompT> shares, List<CompT> macs,
+      int numElements) {
+    List<Spdz2kSInt<CompT>> elements = new ArrayList<>(numElements);
+    for (int i = 0; i < numElements; i++) {
+      elements.add(new Spdz2kSInt<>(shares.get(i), macs.get(i)));
+    }
+    return elements;
+  }
+
+  private void runMacCheck(CompT value, List<CompT> coefficients, List<CompT> macs) {
+    macChecker.check(value, macKeyShare, UInt.innerProduct(macs, coefficients));
+  }
+
+  private void initializeCope() {
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (resourcePool.getMyId() != partyId) {
+        Spdz2kCopeSigner<CompT> signer;
+        Spdz2kCopeInputter<CompT> inputter;
+        // construction order matters since receive blocks and this is not parallelized
+        if (resourcePool.getMyId() < partyId) {
+          signer = new Spdz2kCopeSigner<>(resourcePool, network, partyId, macKeyShare, factory);
+          inputter = new Spdz2kCopeInputter<>(resourcePool, network, partyId, factory);
+        } else {
+          inputter = new Spdz2kCopeInputter<>(resourcePool, network, partyId, factory);
+          signer = new Spdz2kCopeSigner<>(resourcePool, network, partyId, macKeyShare, factory);
+        }
+        copeInputters.put(partyId, inputter);
+        copeSigners.put(partyId, signer);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,46 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.mascot.commit.CommitmentBasedInput;
+import java.util.List;
+
+/**
+ * Actively-secure protocol for performing a MAC check on a public element <i>y</i> of
+ * Z<sub>2<sup>k + s</sup></sub>. <br> Each party p_i holds a share of the MAC m_i and a share of
+ * the MAC key alpha_i. <br> This protocol validates that y * (alpha_1 + ... + alpha_n) = m_1 + ...
+ * + m_n modulo 2<sup>k + s</sup>.
+ */
+public class Spdz2kMacCheck<CompT extends CompUInt<?, ?, CompT>> extends
+    CommitmentBasedInput<CompT> {
+
+  /**
+   * Constructs new mac checker.
+   */
+  public Spdz2kMacCheck(MascotResourcePool resourcePool, Network network,
+      CompUIntFactory<CompT> factory) {
+    super(resourcePool, network, factory.getSerializer());
+  }
+
+  /**
+   * Runs mac-check on open value.
+   *
+   * @param opened the opened element to validate
+   * @param macKeyShare this party's share of the mac key
+   * @param macShare this party's share of the mac
+   * @throws MaliciousException if mac-check fails
+   */
+  public void check(CompT opened, CompT macKeyShare, CompT macShare) {
+    // we will check that all sigmas together add up to 0, including the s most significant bits
+    CompT sigma = macShare.subtract(opened.multiply(macKeyShare));
+    List<CompT> sigmas = allCommit(sigma);
+    if (!UInt.sum(sigmas).isZero()) {
+      throw new MaliciousException("Malicious mac forging detected");
+    }
+  }
+
+}
@@ -0,0 +1,104 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Two-party multiplication of bits held by one party with elements of
+ * Z<sub>2<sup>k + s</sup></sub> held by another party, based on random OT.
+ *
+ * <p>For each bit <i>a<sub>h</sub></i> of the <i>left</i> party and element <i>b<sub>h</sub></i>
+ * of the <i>right</i> party, the parties run a single random OT in which the left party chooses
+ * by <i>a<sub>h</sub></i>. The right party, holding messages <i>(q<sub>0</sub>,
+ * q<sub>1</sub>)</i>, sends <i>d = q<sub>0</sub> - q<sub>1</sub> + b<sub>h</sub></i>, after which
+ * the left party holds <i>q<sub>0</sub> + a<sub>h</sub> * b<sub>h</sub></i> and the right party
+ * holds <i>-q<sub>0</sub></i>. Since the left factors are bits, a product costs a single OT rather
+ * than one OT per bit of the left factor.</p>
+ */
+public class Spdz2kMultiplier<CompT extends CompUInt<?, ?, CompT>> {
+
+  private final RotBatch leftRot;
+  private final RotBatch rightRot;
+  private final CompUIntFactory<CompT> factory;
+  private final int otherId;
+  private final Network network;
+
+  /**
+   * Creates new multiplier between this party and another party, acting in both roles.
+   *
+   * @param resourcePool the resource pool used to create the OT extensions
+   * @param network the network to use for communication
+   * @param otherId the id of the other party
+   * @param factory factory for ring elements
+   */
+  public Spdz2kMultiplier(MascotResourcePool resourcePool, Network network, int otherId,
+      CompUIntFactory<CompT> factory) {
+    this.otherId = otherId;
+    this.network = network;
+    this.factory = factory;
+    // construction order matters since the OT extensions are paired up with the other party's
+    if (resourcePool.getMyId() < otherId) {
+      this.rightRot = resourcePool.createRot(otherId, network);
+      this.leftRot = resourcePool.createRot(otherId, network);
+    } else {
+      this.leftRot = resourcePool.createRot(otherId, network);
+      this.rightRot = resourcePool.createRot(otherId, network);
+    }
+  }
+
+  /**
+   * Computes shares of the products of this party's bits and the other party's elements. The
+   * other party must call {@link #multiplyRight(List)} with a factor per bit.
+   *
+   * @param leftFactors this party's bits
+   * @return this party's shares of the products
+   */
+  public List<CompT> multiplyLeft(StrictBitVector leftFactors) {
+    List<StrictBitVector> messages =
+        leftRot.receive(leftFactors, factory.getCompositeBitLength());
+    List<CompT> diffs = factory.getSerializer().deserializeList(network.receive(otherId));
+    if (diffs.size() != leftFactors.getSize()) {
+      throw new IllegalStateException("Expected " + leftFactors.getSize() + " diffs but got "
+          + diffs.size());
+    }
+    List<CompT> productShares = new ArrayList<>(diffs.size());
+    for (int h = 0; h < diffs.size(); h++) {
+      CompT message = factory.deserialize(messages.get(h).toByteArray());
+      if (leftFactors.getBit(h, false)) {
+        message = message.add(diffs.get(h));
+      }
+      productShares.add(message);
+    }
+    return productShares;
+  }
+
+  /**
+   * Computes shares of the products of the other party's bits and this party's elements. The
+   * other party must call {@link #multiplyLeft(StrictBitVector)} with a bit per factor.
+   *
+   * @param rightFactors this party's elements
+   * @return this party's shares of the products
+   */
+  public List<CompT> multiplyRight(List<CompT> rightFactors) {
+    List<Pair<StrictBitVector, StrictBitVector>> messages =
+        rightRot.send(rightFactors.size(), factory.getCompositeBitLength());
+    List<CompT> diffs = new ArrayList<>(rightFactors.size());
+    List<CompT> productShares = new ArrayList<>(rightFactors.size());
+    for (int h = 0; h < rightFactors.size(); h++) {
+      CompT zeroMessage = factory.deserialize(messages.get(h).getFirst().toByteArray());
+      CompT oneMessage = factory.deserialize(messages.get(h).getSecond().toByteArray());
+      diffs.add(zeroMessage.subtract(oneMessage).add(rightFactors.get(h)));
+      productShares.add(zeroMessage.negateUInt());
+    }
+    network.send(otherId, factory.getSerializer().serialize(diffs));
+    return productShares;
+  }
+
+}
@@ -0,0 +1,239 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.mascot.cointossing.CoinTossingMpc;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OT-based pre-processing for the SPDZ2k protocol suite. <br> Supports generation of
+ * multiplication triples, input masks, random authenticated elements, and random authenticated
+ * bits over Z<sub>2<sup>k + s</sup></sub>.
+ *
+ * <p>The protocol follows MASCOT (<a href="https://eprint.iacr.org/2016/505.pdf">https://eprint.iacr.org/2016/505.pdf</a>)
+ * with the changes of SPDZ2k (<a href="https://eprint.iacr.org/2018/482.pdf">https://eprint.iacr.org/2018/482.pdf</a>)
+ * needed to work over a ring: the mac key lives in Z<sub>2<sup>s</sup></sub>, MAC checks use
+ * random coefficients in Z<sub>2<sup>s</sup></sub>, and the left factors of triples are combined
+ * from random bits. The OT extension, commitments, coin tossing and broadcast are those of the
+ * MASCOT implementation, which is why this class takes a {@link MascotResourcePool}.</p>
+ */
+public class Spdz2kPreprocessing<CompT extends CompUInt<?, ?, CompT>> {
+
+  private final Spdz2kElementGeneration<CompT> elementGeneration;
+  private final Spdz2kTripleGeneration<CompT> tripleGeneration;
+  private final CompUIntPrg<CompT> localSampler;
+  private final MascotResourcePool resourcePool;
+  private final CompUIntFactory<CompT> factory;
+  private final CompT macKeyShare;
+
+  /**
+   * Creates new {@link Spdz2kPreprocessing}.
+   *
+   * @param resourcePool the resource pool, where the number of candidates per triple is the
+   *     number of random bits each left factor is combined from
+   * @param network the network to use for communication
+   * @param factory factory for ring elements
+   * @param macKeyShare this party's share of the mac key, must be in Z<sub>2<sup>s</sup></sub>
+   */
+  public Spdz2kPreprocessing(MascotResourcePool resourcePool, Network network,
+      CompUIntFactory<CompT> factory, CompT macKeyShare) {
+    this.resourcePool = resourcePool;
+    this.factory = factory;
+    this.macKeyShare = macKeyShare;
+    this.localSampler = new CompUIntPrg<>(
+        new StrictBitVector(resourcePool.getPrgSeedLength(), resourcePool.getRandomGenerator()),
+        factory);
+    StrictBitVector jointSeed = new CoinTossingMpc(resourcePool, network)
+        .generateJointSeed(resourcePool.getPrgSeedLength());
+    CompUIntPrg<CompT> jointSampler = new CompUIntPrg<>(jointSeed, factory);
+    this.elementGeneration = new Spdz2kElementGeneration<>(resourcePool, network, factory,
+        macKeyShare, localSampler, jointSampler);
+    this.tripleGeneration = new Spdz2kTripleGeneration<>(resourcePool, network, factory,
+        elementGeneration, localSampler, jointSampler);
+  }
+
+  /**
+   * Generates a batch of multiplication triples.
+   *
+   * @param numTriples number of triples in batch
+   * @return multiplication triples
+   */
+  public List<Spdz2kTriple<CompT>> getTriples(int numTriples) {
+    return tripleGeneration.triple(numTriples);
+  }
+
+  /**
+   * Creates random authenticated elements.
+   *
+   * @param numElements number of elements to create
+   * @return random authenticated elements
+   */
+  public List<Spdz2kSInt<CompT>> getRandomElements(int numElements) {
+    List<List<Spdz2kSInt<CompT>>> perPartyElements =
+        new ArrayList<>(resourcePool.getNoOfParties());
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId == resourcePool.getMyId()) {
+        perPartyElements.add(elementGeneration.input(localSampler.getNext(numElements)));
+      } else {
+        perPartyElements.add(elementGeneration.input(partyId, numElements));
+      }
+    }
+    return CompUIntUtils.sumRows(perPartyElements);
+  }
+
+  /**
+   * Generates random input masks.
+   *
+   * @param maskerId the party that knows the plain mask
+   * @param numMasks number of masks to generate
+   * @return input masks
+   */
+  public List<Spdz2kInputMask<CompT>> getInputMasks(int maskerId, int numMasks) {
+    List<Spdz2kInputMask<CompT>> masks = new ArrayList<>(numMasks);
+    if (maskerId == resourcePool.getMyId()) {
+      List<CompT> randomMasks = localSampler.getNext(numMasks);
+      List<Spdz2kSInt<CompT>> authenticated = elementGeneration.input(randomMasks);
+      for (int i = 0; i < numMasks; i++) {
+        masks.add(new Spdz2kInputMask<>(authenticated.get(i), randomMasks.get(i)));
+      }
+    } else {
+      for (Spdz2kSInt<CompT> authenticated : elementGeneration.input(maskerId, numMasks)) {
+        masks.add(new Spdz2kInputMask<>(authenticated));
+      }
+    }
+    return masks;
+  }
+
+  /**
+   * Generates random authenticated bits.
+   *
+   * <p>Every party inputs a random bit per output bit. The inputs are checked to be bits by opening
+   * <i>b * (b - 1)</i>, which is zero modulo 2<sup>k + s</sup> only if <i>b</i> is 0 or 1, and are
+   * then combined by computing <i>x + y - 2xy</i>. Both use Beaver multiplication with freshly
+   * generated triples, and all opened values are mac-checked before the bits are returned.</p>
+   *
+   * @param numBits number of bits to generate
+   * @return random bits
+   */
+  public List<Spdz2kSInt<CompT>> getRandomBits(int numBits) {
+    int noOfParties = resourcePool.getNoOfParties();
+    List<List<Spdz2kSInt<CompT>>> inputBits = new ArrayList<>(noOfParties);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      if (partyId == resourcePool.getMyId()) {
+        StrictBitVector bits = new StrictBitVector(toByteMultiple(numBits),
+            resourcePool.getRandomGenerator());
+        List<CompT> values = new ArrayList<>(numBits);
+        for (int i = 0; i < numBits; i++) {
+          values.add(bits.getBit(i, false) ? factory.createElement(1) : factory.zero());
+        }
+        inputBits.add(elementGeneration.input(values));
+      } else {
+        inputBits.add(elementGeneration.input(partyId, numBits));
+      }
+    }
+    List<Spdz2kTriple<CompT>> triples = tripleGeneration.triple((2 * noOfParties - 1) * numBits);
+    BeaverMultiplier multiplier = new BeaverMultiplier(triples);
+
+    // check that all inputs are bits
+    List<Spdz2kSInt<CompT>> allBits = new ArrayList<>(noOfParties * numBits);
+    List<Spdz2kSInt<CompT>> allBitsMinusOne = new ArrayList<>(noOfParties * numBits);
+    CompT minusOne = factory.zero().subtract(factory.createElement(1));
+    for (List<Spdz2kSInt<CompT>> bits : inputBits) {
+      for (Spdz2kSInt<CompT> bit : bits) {
+        allBits.add(bit);
+        allBitsMinusOne.add(addConstant(bit, minusOne));
+      }
+    }
+    List<Spdz2kSInt<CompT>> zeroes = multiplier.multiply(allBits, allBitsMinusOne);
+    List<CompT> openZeroes = elementGeneration.open(zeroes);
+    for (CompT openZero : openZeroes) {
+      if (!openZero.isZero()) {
+        throw new MaliciousException("Input to bit generation was not a bit");
+      }
+    }
+    multiplier.record(zeroes, openZeroes);
+
+    // xor the inputs of all parties
+    List<Spdz2kSInt<CompT>> result = inputBits.get(0);
+    for (List<Spdz2kSInt<CompT>> bits : inputBits.subList(1, noOfParties)) {
+      List<Spdz2kSInt<CompT>> products = multiplier.multiply(result, bits);
+      List<Spdz2kSInt<CompT>> xored = new ArrayList<>(numBits);
+      for (int i = 0; i < numBits; i++) {
+        Spdz2kSInt<CompT> product = products.get(i);
+        xored.add(result.get(i).add(bits.get(i)).subtract(product).subtract(product));
+      }
+      result = xored;
+    }
+    multiplier.check();
+    return result;
+  }
+
+  private static int toByteMultiple(int numBits) {
+    return (numBits + Byte.SIZE - 1) / Byte.SIZE * Byte.SIZE;
+  }
+
+  private Spdz2kSInt<CompT> addConstant(Spdz2kSInt<CompT> element, CompT constant) {
+    return element.addConstant(constant, macKeyShare, factory.zero(),
+        resourcePool.getMyId() == 1);
+  }
+
+  /**
+   * Multiplies authenticated elements with Beaver's technique and keeps track of the opened
+   * values, such that they can be mac-checked in a single batch.
+   */
+  private final class BeaverMultiplier {
+
+    private final List<Spdz2kTriple<CompT>> triples;
+    private final List<Spdz2kSInt<CompT>> closed;
+    private final List<CompT> opened;
+    private int nextTriple;
+
+    private BeaverMultiplier(List<Spdz2kTriple<CompT>> triples) {
+      this.triples = triples;
+      this.closed = new ArrayList<>();
+      this.opened = new ArrayList<>();
+    }
+
+    private List<Spdz2kSInt<CompT>> multiply(List<Spdz2kSInt<CompT>> left,
+        List<Spdz2kSInt<CompT>> right) {
+      List<Spdz2kTriple<CompT>> used = triples.subList(nextTriple, nextTriple + left.size());
+      nextTriple += left.size();
+      List<Spdz2kSInt<CompT>> masked = new ArrayList<>(2 * left.size());
+      for (int i = 0; i < left.size(); i++) {
+        masked.add(left.get(i).subtract(used.get(i).getLeft()));
+        masked.add(right.get(i).subtract(used.get(i).getRight()));
+      }
+      List<CompT> openMasked = elementGeneration.open(masked);
+      record(masked, openMasked);
+      List<Spdz2kSInt<CompT>> products = new ArrayList<>(left.size());
+      for (int i = 0; i < left.size(); i++) {
+        Spdz2kTriple<CompT> triple = used.get(i);
+        CompT epsilon = openMasked.get(2 * i);
+        CompT delta = openMasked.get(2 * i + 1);
+        Spdz2kSInt<CompT> product = triple.getProduct()
+            .add(triple.getRight().multiply(epsilon))
+            .add(triple.getLeft().multiply(delta));
+        products.add(addConstant(product, epsilon.multiply(delta)));
+      }
+      return products;
+    }
+
+    private void record(List<Spdz2kSInt<CompT>> closed, List<CompT> opened) {
+      this.closed.addAll(closed);
+      this.opened.addAll(opened);
+    }
+
+    private void check() {
+      elementGeneration.check(closed, opened);
+    }
+  }
+
+}
@@ -0,0 +1,189 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actively-secure protocol for computing authenticated, secret-shared multiplication triples over
+ * Z<sub>2<sup>k + s</sup></sub>, following the structure of the MASCOT triple generation.
+ *
+ * <p>Each party samples a right factor <i>b</i> and <i>&tau;</i> random bits <i>a<sub>1</sub>,
+ * ..., a<sub>&tau;</sub></i> per triple, where <i>&tau;</i> is given by {@link
+ * MascotResourcePool#getNumCandidatesPerTriple()}. The products <i>a<sub>h</sub> * b</i> are
+ * computed with a single OT per bit and pair of parties. The left factor <i>a</i> and its
+ * sacrifice counterpart <i>a'</i> are then computed as two random linear combinations of the
+ * bits, which hides any bits leaked to a malicious party through a selective failure attack, as
+ * long as <i>&tau;</i> exceeds 2(k + s) by a margin. Finally, the candidates are authenticated
+ * and every triple is checked by sacrificing its counterpart.</p>
+ */
+public class Spdz2kTripleGeneration<CompT extends CompUInt<?, ?, CompT>> {
+
+  private final Spdz2kElementGeneration<CompT> elementGeneration;
+  private final Map<Integer, Spdz2kMultiplier<CompT>> multipliers;
+  private final CompUIntPrg<CompT> localSampler;
+  private final CompUIntPrg<CompT> jointSampler;
+  private final MascotResourcePool resourcePool;
+  private final CompUIntFactory<CompT> factory;
+
+  /**
+   * Creates new triple generation protocol.
+   */
+  public Spdz2kTripleGeneration(MascotResourcePool resourcePool, Network network,
+      CompUIntFactory<CompT> factory, Spdz2kElementGeneration<CompT> elementGeneration,
+      CompUIntPrg<CompT> localSampler, CompUIntPrg<CompT> jointSampler) {
+    if (resourcePool.getNumCandidatesPerTriple() % Byte.SIZE != 0) {
+      throw new IllegalArgumentException(
+          "Number of bits per triple must be a multiple of 8 but was "
+              + resourcePool.getNumCandidatesPerTriple());
+    }
+    this.resourcePool = resourcePool;
+    this.factory = factory;
+    this.elementGeneration = elementGeneration;
+    this.localSampler = localSampler;
+    this.jointSampler = jointSampler;
+    this.multipliers = new HashMap<>();
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId != resourcePool.getMyId()) {
+        multipliers.put(partyId, new Spdz2kMultiplier<>(resourcePool, network, partyId, factory));
+      }
+    }
+  }
+
+  /**
+   * Generates a batch of multiplication triples.
+   *
+   * @param numTriples number of triples to generate
+   * @return valid multiplication triples
+   */
+  public List<Spdz2kTriple<CompT>> triple(int numTriples) {
+    int numBits = resourcePool.getNumCandidatesPerTriple();
+    StrictBitVector leftBits =
+        new StrictBitVector(numTriples * numBits, resourcePool.getRandomGenerator());
+    List<CompT> rightFactors = localSampler.getNext(numTriples);
+    List<CompT> products = multiply(leftBits, CompUIntUtils.stretch(rightFactors, numBits));
+    List<CompT> candidates = combine(leftBits, rightFactors, products);
+    List<Spdz2kSInt<CompT>> authenticated = authenticate(candidates);
+    return sacrifice(authenticated);
+  }
+
+  /**
+   * Computes this party's shares of the products of all parties' bits and all parties' right
+   * factors, i.e., of <i>(a<sub>h</sub><sup>1</sup> + ... + a<sub>h</sub><sup>n</sup>) *
+   * (b<sup>1</sup> + ... + b<sup>n</sup>)</i>.
+   */
+  private List<CompT> multiply(StrictBitVector leftBits, List<CompT> stretched) {
+    List<CompT> products = new ArrayList<>(stretched.size());
+    CompT zero = factory.zero();
+    for (int h = 0; h < stretched.size(); h++) {
+      products.add(leftBits.getBit(h, false) ? stretched.get(h) : zero);
+    }
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId != resourcePool.getMyId()) {
+        Spdz2kMultiplier<CompT> multiplier = multipliers.get(partyId);
+        List<CompT> first;
+        List<CompT> second;
+        if (resourcePool.getMyId() < partyId) {
+          first = multiplier.multiplyRight(stretched);
+          second = multiplier.multiplyLeft(leftBits);
+        } else {
+          first = multiplier.multiplyLeft(leftBits);
+          second = multiplier.multiplyRight(stretched);
+        }
+        for (int h = 0; h < products.size(); h++) {
+          products.set(h, products.get(h).add(first.get(h)).add(second.get(h)));
+        }
+      }
+    }
+    return products;
+  }
+
+  /**
+   * Combines the bits and products of each triple into unauthenticated candidates <i>(a, b, c,
+   * a', c')</i>, flattened into a single list.
+   */
+  private List<CompT> combine(StrictBitVector leftBits, List<CompT> rightFactors,
+      List<CompT> products) {
+    int numBits = resourcePool.getNumCandidatesPerTriple();
+    List<CompT> candidates = new ArrayList<>(5 * rightFactors.size());
+    for (int t = 0; t < rightFactors.size(); t++) {
+      List<CompT> masks = jointSampler.getNext(numBits);
+      List<CompT> sacrificeMasks = jointSampler.getNext(numBits);
+      CompT left = factory.zero();
+      CompT product = factory.zero();
+      CompT leftHat = factory.zero();
+      CompT productHat = factory.zero();
+      for (int h = 0; h < numBits; h++) {
+        int index = t * numBits + h;
+        if (leftBits.getBit(index, false)) {
+          left = left.add(masks.get(h));
+          leftHat = leftHat.add(sacrificeMasks.get(h));
+        }
+        product = product.add(products.get(index).multiply(masks.get(h)));
+        productHat = productHat.add(products.get(index).multiply(sacrificeMasks.get(h)));
+      }
+      candidates.add(left);
+      candidates.add(rightFactors.get(t));
+      candidates.add(product);
+      candidates.add(leftHat);
+      candidates.add(productHat);
+    }
+    return candidates;
+  }
+
+  /**
+   * Authenticates the candidates of all parties and sums them up.
+   */
+  private List<Spdz2kSInt<CompT>> authenticate(List<CompT> candidates) {
+    List<List<Spdz2kSInt<CompT>>> shares = new ArrayList<>(resourcePool.getNoOfParties());
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId == resourcePool.getMyId()) {
+        shares.add(elementGeneration.input(candidates));
+      } else {
+        shares.add(elementGeneration.input(partyId, candidates.size()));
+      }
+    }
+    return CompUIntUtils.sumRows(shares);
+  }
+
+  /**
+   * Checks each candidate <i>(a, b, c, a', c')</i> by opening <i>&rho; = t * a - a'</i> for a
+   * random <i>t</i> and checking that <i>t * c - c' - &rho; * b</i> is zero.
+   */
+  private List<Spdz2kTriple<CompT>> sacrifice(List<Spdz2kSInt<CompT>> candidates) {
+    int numTriples = candidates.size() / 5;
+    List<CompT> randomCoefficients = jointSampler.getNext(numTriples);
+    List<Spdz2kSInt<CompT>> rhos = new ArrayList<>(numTriples);
+    for (int t = 0; t < numTriples; t++) {
+      Spdz2kSInt<CompT> left = candidates.get(5 * t);
+      Spdz2kSInt<CompT> leftHat = candidates.get(5 * t + 3);
+      rhos.add(left.multiply(randomCoefficients.get(t)).subtract(leftHat));
+    }
+    List<CompT> openRhos = elementGeneration.open(rhos);
+    // the sigmas are checked against zero together with the opened rhos
+    List<Spdz2kSInt<CompT>> checked = new ArrayList<>(rhos);
+    List<CompT> claimed = new ArrayList<>(openRhos);
+    List<Spdz2kTriple<CompT>> triples = new ArrayList<>(numTriples);
+    for (int t = 0; t < numTriples; t++) {
+      Spdz2kSInt<CompT> right = candidates.get(5 * t + 1);
+      Spdz2kSInt<CompT> product = candidates.get(5 * t + 2);
+      Spdz2kSInt<CompT> productHat = candidates.get(5 * t + 4);
+      checked.add(product.multiply(randomCoefficients.get(t))
+          .subtract(productHat)
+          .subtract(right.multiply(openRhos.get(t))));
+      claimed.add(factory.zero());
+      triples.add(new Spdz2kTriple<>(candidates.get(5 * t), right, product));
+    }
+    elementGeneration.check(checked, claimed);
+    return triples;
+  }
+
+}
@@ -13,11 +13,12 @@ import dk.alexandra.fresco.lib.generic.CommitmentComputation;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntConverter;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntVector;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSIntVector;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
 import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
 import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDataSupplier;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -33,9 +34,10 @@ public class Spdz2kMacCheckComputation<
   private final CompUIntConverter<HighT, LowT, PlainT> converter;
   private final ByteSerializer<PlainT> serializer;
   private final Spdz2kDataSupplier<PlainT> supplier;
-  private final List<Spdz2kSInt<PlainT>> authenticatedElements;
-  private final List<PlainT> openValues;
-  private final List<PlainT> randomCoefficients;
+  private final Spdz2kSIntVector<PlainT> authenticatedElements;
+  private final CompUIntVector<PlainT> openValues;
+  private final CompUIntVector<PlainT> randomCoefficients;
+  private final int lowBitLength;
   private ByteSerializer<HashBasedCommitment> commitmentSerializer;
   private final int noOfParties;
   private final Drbg localDrbg;
@@ -51,11 +53,30 @@ public class Spdz2kMacCheckComputation<
   public Spdz2kMacCheckComputation(Pair<List<Spdz2kSInt<PlainT>>, List<PlainT>> toCheck,
       Spdz2kResourcePool<PlainT> resourcePool,
       CompUIntConverter<HighT, LowT, PlainT> converter) {
-    this.authenticatedElements = toCheck.getFirst();
-    this.openValues = toCheck.getSecond();
+    this(Spdz2kSIntVector.fromList(toCheck.getFirst(), resourcePool.getFactory()),
+        CompUIntVector.fromList(toCheck.getSecond(), resourcePool.getFactory()),
+        resourcePool, converter);
+  }
+
+  /**
+   * Creates new {@link Spdz2kMacCheckComputation} from values in vector form.
+   *
+   * @param authenticatedElements authenticated elements that must be checked
+   * @param openValues the open values of the authenticated elements
+   * @param resourcePool resources for running Spdz2k
+   * @param converter utility class for converting between {@link HighT} and {@link PlainT}, {@link
+   * LowT} and {@link PlainT}
+   */
+  public Spdz2kMacCheckComputation(Spdz2kSIntVector<PlainT> authenticatedElements,
+      CompUIntVector<PlainT> openValues,
+      Spdz2kResourcePool<PlainT> resourcePool,
+      CompUIntConverter<HighT, LowT, PlainT> converter) {
+    this.authenticatedElements = authenticatedElements;
+    this.openValues = openValues;
     this.converter = converter;
     this.serializer = resourcePool.getFactory().getSerializer();
     this.supplier = resourcePool.getDataSupplier();
+    this.lowBitLength = resourcePool.getFactory().getLowBitLength();
     this.randomCoefficients = sampleCoefficients(
         resourcePool.getRandomGenerator(),
         resourcePool.getFactory(),
@@ -68,64 +89,55 @@ public class Spdz2kMacCheckComputation<
   @Override
   public DRes<Void> buildComputation(ProtocolBuilderNumeric builder) {
     PlainT macKeyShare = supplier.getSecretSharedKey();
-    PlainT y = UInt.innerProduct(openValues, randomCoefficients);
+    PlainT y = openValues.innerProduct(randomCoefficients);
     Spdz2kSInt<PlainT> r = supplier.getNextRandomElementShare();
     return builder
         .seq(seq -> {
           if (noOfParties > 2) {
-            List<byte[]> sharesLowBits = authenticatedElements.stream()
-                .map(element -> element.getShare().getLeastSignificant().toByteArray())
-                .collect(Collectors.toList());
+            byte[] sharesLowBits = authenticatedElements.getShares()
+                .toByteArray(lowBitLength / Byte.SIZE);
             return new BroadcastComputation<ProtocolBuilderNumeric>(sharesLowBits, true)
                 .buildComputation(seq);
           } else {
             return () -> null;
           }
         })
-        .seq((seq, ignored) -> computePValues(seq, authenticatedElements, r))
-        .seq((seq, broadcastPjs) -> computeZValues(seq, authenticatedElements, macKeyShare, y, r,
-            broadcastPjs))
+        .seq((seq, ignored) -> computePValues(seq, r))
+        .seq((seq, broadcastPjs) -> computeZValues(seq, macKeyShare, y, r, broadcastPjs))
         .seq((seq, commitZjs) -> {
           if (!UInt.sum(serializer.deserializeList(commitZjs)).isZero()) {
             throw new MaliciousException("Mac check failed");
           }
-          authenticatedElements.clear();
-          openValues.clear();
           return null;
         });
   }
 
-  private HighT computePj(PlainT originalShare, PlainT randomCoefficient) {
-    HighT overflow = computeDifference(originalShare);
-    HighT randomCoefficientHigh = randomCoefficient.getLeastSignificantAsHigh();
-    return overflow.multiply(randomCoefficientHigh);
-  }
-
+  /**
+   * Computes this party's share of the sum of the overflows of the shares into the top s bits,
+   * weighted by the random coefficients, and masks it with the random element. <p>The overflow of
+   * share x is ((low(x) - x) % 2^{k + s} >> k) % 2^s, which equals -(x >> k) modulo 2^s, so all
+   * overflows are computed in one pass over the shares.</p>
+   */
   private DRes<List<byte[]>> computePValues(ProtocolBuilderNumeric builder,
-      List<Spdz2kSInt<PlainT>> authenticatedElements,
       Spdz2kSInt<PlainT> r) {
-    HighT pj = computePj(authenticatedElements.get(0).getShare(), randomCoefficients.get(0));
-    for (int i = 1; i < authenticatedElements.size(); i++) {
-      PlainT share = authenticatedElements.get(i).getShare();
-      PlainT randomCoefficient = randomCoefficients.get(i);
-      pj = pj.add(computePj(share, randomCoefficient));
-    }
-    byte[] pjBytes = pj.add(r.getShare().getLeastSignificantAsHigh()).toByteArray();
+    PlainT overflows = authenticatedElements.getShares()
+        .shiftRight(lowBitLength)
+        .innerProduct(randomCoefficients)
+        .negateUInt();
+    HighT pj = overflows.getLeastSignificantAsHigh()
+        .add(r.getShare().getLeastSignificantAsHigh());
+    byte[] pjBytes = pj.toByteArray();
     return new BroadcastComputation<ProtocolBuilderNumeric>(pjBytes).buildComputation(builder);
   }
 
   private DRes<List<byte[]>> computeZValues(ProtocolBuilderNumeric builder,
-      List<Spdz2kSInt<PlainT>> authenticatedElements,
       PlainT macKeyShare, PlainT y, Spdz2kSInt<PlainT> r,
       List<byte[]> broadcastPjs) {
     List<PlainT> pjList = serializer.deserializeList(broadcastPjs);
     HighT pLow = UInt.sum(
         pjList.stream().map(PlainT::getLeastSignificantAsHigh).collect(Collectors.toList()));
     PlainT p = converter.createFromHigh(pLow);
-    List<PlainT> macShares = authenticatedElements.stream()
-        .map(Spdz2kSInt::getMacShare)
-        .collect(Collectors.toList());
-    PlainT mj = UInt.innerProduct(macShares, randomCoefficients);
+    PlainT mj = authenticatedElements.getMacShares().innerProduct(randomCoefficients);
     PlainT zj = macKeyShare.multiply(y)
         .subtract(mj)
         .subtract(p.multiply(macKeyShare).shiftLowIntoHigh())
@@ -137,24 +149,12 @@ public class Spdz2kMacCheckComputation<
   /**
    * Samples random coefficients for mac-check using joint source of randomness.
    */
-  private List<PlainT> sampleCoefficients(Drbg drbg, CompUIntFactory<PlainT> factory,
+  private CompUIntVector<PlainT> sampleCoefficients(Drbg drbg, CompUIntFactory<PlainT> factory,
       int numCoefficients) {
-    List<PlainT> randomCoefficients = new ArrayList<>(numCoefficients);
-    for (int i = 0; i < numCoefficients; i++) {
-      byte[] bytes = new byte[factory.getHighBitLength() / Byte.SIZE];
-      drbg.nextBytes(bytes);
-      randomCoefficients.add(factory.deserialize(bytes));
-    }
-    return randomCoefficients;
-  }
-
-  /**
-   * For the input, where low denotes the value representing the k lower bits of v, and s is the
-   * number of upper bits, compute ((low - s) % 2^{k + s} >> k) % 2^s.
-   */
-  private HighT computeDifference(PlainT value) {
-    PlainT low = converter.createFromLow(value.getLeastSignificant());
-    return low.subtract(value).getMostSignificant();
+    int bytesPerCoefficient = factory.getHighBitLength() / Byte.SIZE;
+    byte[] bytes = new byte[numCoefficients * bytesPerCoefficient];
+    drbg.nextBytes(bytes);
+    return CompUIntVector.fromByteArray(bytes, bytesPerCoefficient, factory);
   }
 
 }
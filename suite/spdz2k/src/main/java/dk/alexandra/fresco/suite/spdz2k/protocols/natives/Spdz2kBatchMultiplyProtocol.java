@@ -0,0 +1,116 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.natives;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSIntVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOpenedValueStoreImpl;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multiplies two lists of secret values element-wise.
+ *
+ * <p>This is the vectorized version of {@link Spdz2kMultiplyProtocol}. The factors, triples and
+ * products are handled as {@link Spdz2kSIntVector} instances, the shares of all epsilons and
+ * deltas are sent to the other parties as a single message, and the opened values are pushed to
+ * the opened value store in vector form.</p>
+ *
+ * @param <PlainT> the type representing open values
+ */
+public class Spdz2kBatchMultiplyProtocol<PlainT extends CompUInt<?, ?, PlainT>>
+    extends Spdz2kNativeProtocol<List<DRes<SInt>>, PlainT> {
+
+  private final List<DRes<SInt>> left;
+  private final List<DRes<SInt>> right;
+  private Spdz2kSIntVector<PlainT> tripleLeft;
+  private Spdz2kSIntVector<PlainT> tripleRight;
+  private Spdz2kSIntVector<PlainT> tripleProduct;
+  private Spdz2kSIntVector<PlainT> epsilonsAndDeltas;
+  private List<DRes<SInt>> products;
+
+  /**
+   * Creates a new batch multiplication of <code>left</code> and <code>right</code>.
+   *
+   * @param left the left factors
+   * @param right the right factors, must have the same size as <code>left</code>
+   */
+  public Spdz2kBatchMultiplyProtocol(List<DRes<SInt>> left, List<DRes<SInt>> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Lists must be of the same size, was " + left.size() + " and " + right.size());
+    }
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, Spdz2kResourcePool<PlainT> resourcePool,
+      Network network) {
+    CompUIntFactory<PlainT> factory = resourcePool.getFactory();
+    int lowBytes = factory.getLowBitLength() / Byte.SIZE;
+    int size = left.size();
+    if (round == 0) {
+      List<Spdz2kTriple<PlainT>> triples =
+          resourcePool.getDataSupplier().getNextTripleShares(size);
+      List<Spdz2kSInt<PlainT>> lefts = new ArrayList<>(size);
+      List<Spdz2kSInt<PlainT>> rights = new ArrayList<>(size);
+      List<Spdz2kSInt<PlainT>> tripleProducts = new ArrayList<>(size);
+      for (Spdz2kTriple<PlainT> triple : triples) {
+        lefts.add(triple.getLeft());
+        rights.add(triple.getRight());
+        tripleProducts.add(triple.getProduct());
+      }
+      tripleLeft = Spdz2kSIntVector.fromList(lefts, factory);
+      tripleRight = Spdz2kSIntVector.fromList(rights, factory);
+      tripleProduct = Spdz2kSIntVector.fromList(tripleProducts, factory);
+      Spdz2kSIntVector<PlainT> epsilons = toVector(left, factory).subtract(tripleLeft);
+      Spdz2kSIntVector<PlainT> deltas = toVector(right, factory).subtract(tripleRight);
+      List<Spdz2kSIntVector<PlainT>> both = new ArrayList<>(2);
+      both.add(epsilons);
+      both.add(deltas);
+      epsilonsAndDeltas = Spdz2kSIntVector.concatenate(both, factory);
+      network.sendToAll(epsilonsAndDeltas.getShares().toByteArray(lowBytes));
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      CompUIntVector<PlainT> opened = new CompUIntVector<>(factory, 2 * size);
+      for (int i = 1; i <= resourcePool.getNoOfParties(); i++) {
+        opened.addInPlace(network.receive(i), lowBytes);
+      }
+      // compute [prod] = [c] + epsilon * [b] + delta * [a] + epsilon * delta
+      CompUIntVector<PlainT> e = opened.subVector(0, size);
+      CompUIntVector<PlainT> d = opened.subVector(size, 2 * size);
+      Spdz2kSIntVector<PlainT> product = tripleProduct
+          .add(tripleRight.multiply(e))
+          .add(tripleLeft.multiply(d))
+          .addConstant(e.multiply(d),
+              resourcePool.getDataSupplier().getSecretSharedKey(),
+              resourcePool.getMyId() == 1);
+      Spdz2kOpenedValueStoreImpl.pushOpenedVectors(resourcePool.getOpenedValueStore(),
+          epsilonsAndDeltas, opened);
+      this.products = new ArrayList<>(product.toList());
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  private Spdz2kSIntVector<PlainT> toVector(List<DRes<SInt>> values,
+      CompUIntFactory<PlainT> factory) {
+    List<Spdz2kSInt<PlainT>> unwrapped = new ArrayList<>(values.size());
+    for (DRes<SInt> value : values) {
+      unwrapped.add(toSpdz2kSInt(value));
+    }
+    return Spdz2kSIntVector.fromList(unwrapped, factory);
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return products;
+  }
+
+}
@@ -4,6 +4,8 @@ import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Interface for a supplier of pre-processing material. <p>Material includes random elements shares,
@@ -18,6 +20,20 @@ public interface Spdz2kDataSupplier<T extends CompUInt<?, ?, T>> {
    */
   Spdz2kTriple<T> getNextTripleShares();
 
+  /**
+   * Supplies the next triples.
+   *
+   * @param numTriples the number of triples
+   * @return the next new triples
+   */
+  default List<Spdz2kTriple<T>> getNextTripleShares(int numTriples) {
+    List<Spdz2kTriple<T>> triples = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      triples.add(getNextTripleShares());
+    }
+    return triples;
+  }
+
   /**
    * Supplies the next inputmask for a given input player.
    *
@@ -2,13 +2,106 @@ package dk.alexandra.fresco.suite.spdz2k.resource.storage;
 
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
 import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntVector;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSIntVector;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Spdz2k-specific instantiation of {@link OpenedValueStore}.
+ * Spdz2k-specific instantiation of {@link OpenedValueStore}. <p>Besides individual values, this
+ * store keeps opened values pushed as vectors in vector form, such that the mac check can consume
+ * them without converting each element, see {@link #popVectors(CompUIntFactory)}.</p>
  */
 public class Spdz2kOpenedValueStoreImpl<PlainT extends CompUInt<?, ?, PlainT>>
     extends OpenedValueStoreImpl<Spdz2kSInt<PlainT>, PlainT> {
 
+  private List<Spdz2kSIntVector<PlainT>> sharesWithMacsVectors = new ArrayList<>();
+  private List<CompUIntVector<PlainT>> openValuesVectors = new ArrayList<>();
+  private int numVectorElements;
+
+  /**
+   * Stores opened values, and the authenticated values they were opened from, in vector form.
+   */
+  public void pushOpenedValues(Spdz2kSIntVector<PlainT> newSharesWithMacs,
+      CompUIntVector<PlainT> newOpenedValues) {
+    sharesWithMacsVectors.add(newSharesWithMacs);
+    openValuesVectors.add(newOpenedValues);
+    numVectorElements += newSharesWithMacs.size();
+  }
+
+  /**
+   * Pops all stored values as a pair of vectors, converting the values that were pushed
+   * individually.
+   */
+  public Pair<Spdz2kSIntVector<PlainT>, CompUIntVector<PlainT>> popVectors(
+      CompUIntFactory<PlainT> factory) {
+    Pair<List<Spdz2kSInt<PlainT>>, List<PlainT>> values = super.popValues();
+    List<Spdz2kSIntVector<PlainT>> sharesWithMacs = sharesWithMacsVectors;
+    List<CompUIntVector<PlainT>> openValues = openValuesVectors;
+    sharesWithMacs.add(Spdz2kSIntVector.fromList(values.getFirst(), factory));
+    openValues.add(CompUIntVector.fromList(values.getSecond(), factory));
+    clearVectors();
+    return new Pair<>(Spdz2kSIntVector.concatenate(sharesWithMacs, factory),
+        CompUIntVector.concatenate(openValues, factory));
+  }
+
+  @Override
+  public Pair<List<Spdz2kSInt<PlainT>>, List<PlainT>> popValues() {
+    Pair<List<Spdz2kSInt<PlainT>>, List<PlainT>> values = super.popValues();
+    for (int i = 0; i < sharesWithMacsVectors.size(); i++) {
+      values.getFirst().addAll(sharesWithMacsVectors.get(i).toList());
+      values.getSecond().addAll(openValuesVectors.get(i).toList());
+    }
+    clearVectors();
+    return values;
+  }
+
+  @Override
+  public boolean hasPendingValues() {
+    return numVectorElements > 0 || super.hasPendingValues();
+  }
+
+  @Override
+  public boolean exceedsThreshold(int threshold) {
+    return super.exceedsThreshold(threshold - numVectorElements);
+  }
+
+  private void clearVectors() {
+    sharesWithMacsVectors = new ArrayList<>();
+    openValuesVectors = new ArrayList<>();
+    numVectorElements = 0;
+  }
+
+  /**
+   * Stores opened values in vector form if the store supports it, and as individual values
+   * otherwise.
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> void pushOpenedVectors(
+      OpenedValueStore<Spdz2kSInt<PlainT>, PlainT> store, Spdz2kSIntVector<PlainT> sharesWithMacs,
+      CompUIntVector<PlainT> openValues) {
+    if (store instanceof Spdz2kOpenedValueStoreImpl) {
+      ((Spdz2kOpenedValueStoreImpl<PlainT>) store).pushOpenedValues(sharesWithMacs, openValues);
+    } else {
+      store.pushOpenedValues(sharesWithMacs.toList(), openValues.toList());
+    }
+  }
+
+  /**
+   * Pops all values from a store as a pair of vectors.
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>>
+      Pair<Spdz2kSIntVector<PlainT>, CompUIntVector<PlainT>> popOpenedVectors(
+      OpenedValueStore<Spdz2kSInt<PlainT>, PlainT> store, CompUIntFactory<PlainT> factory) {
+    if (store instanceof Spdz2kOpenedValueStoreImpl) {
+      return ((Spdz2kOpenedValueStoreImpl<PlainT>) store).popVectors(factory);
+    }
+    Pair<List<Spdz2kSInt<PlainT>>, List<PlainT>> values = store.popValues();
+    return new Pair<>(Spdz2kSIntVector.fromList(values.getFirst(), factory),
+        CompUIntVector.fromList(values.getSecond(), factory));
+  }
+
 }
@@ -0,0 +1,323 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.preprocessing.CompUIntPrg;
+import dk.alexandra.fresco.suite.spdz2k.preprocessing.Spdz2kPreprocessing;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A data supplier which generates pre-processed material with the OT-based {@link
+ * Spdz2kPreprocessing} protocol.
+ *
+ * <p>Material is generated in batches of at least batchSize elements when it runs out. If a
+ * {@link Spdz2kPreprocessingCache} is given, material is taken from the cache for as long as it
+ * lasts before any is generated, and {@link #precompute(int, int, int, int)} can be used to fill
+ * the cache ahead of a computation.</p>
+ */
+public class Spdz2kOtDataSupplier<PlainT extends CompUInt<?, ?, PlainT>> implements
+    Spdz2kDataSupplier<PlainT> {
+
+  private static final Logger logger = LoggerFactory.getLogger(Spdz2kOtDataSupplier.class);
+  private static final String TRIPLES = "triples";
+  private static final String MASKS = "masks_";
+  private static final String BITS = "bits";
+  private static final String RANDOM_ELEMENTS = "random";
+
+  private final int myId;
+  private final int noOfParties;
+  private final int instanceId;
+  private final Supplier<Network> network;
+  private final CompUIntFactory<PlainT> factory;
+  private final PlainT ssk;
+  private final Map<Integer, RotList> seedOts;
+  private final Drbg drbg;
+  private final int prgSeedLength;
+  private final int batchSize;
+  private final Spdz2kPreprocessingCache<PlainT> cache;
+  private final ArrayDeque<Spdz2kTriple<PlainT>> triples;
+  private final Map<Integer, ArrayDeque<Spdz2kInputMask<PlainT>>> masks;
+  private final ArrayDeque<Spdz2kSInt<PlainT>> bits;
+  private final ArrayDeque<Spdz2kSInt<PlainT>> randomElements;
+  private Spdz2kPreprocessing<PlainT> preprocessing;
+
+  /**
+   * Creates new {@link Spdz2kOtDataSupplier}.
+   *
+   * @param myId this party's id
+   * @param noOfParties number of parties
+   * @param instanceId identifier used to distinguish parallel instances of the pre-processing
+   * @param network supplier of the network used by the pre-processing
+   * @param factory factory for ring elements
+   * @param ssk this party's mac key share, must be in Z<sub>2<sup>s</sup></sub>
+   * @param seedOts pre-computed base OTs
+   * @param drbg source of randomness
+   * @param prgSeedLength bit length of prg seeds
+   * @param batchSize minimum number of elements generated at a time
+   * @param cache cache to take material from before generating any, may be null
+   */
+  public Spdz2kOtDataSupplier(int myId, int noOfParties, int instanceId,
+      Supplier<Network> network, CompUIntFactory<PlainT> factory, PlainT ssk,
+      Map<Integer, RotList> seedOts, Drbg drbg, int prgSeedLength, int batchSize,
+      Spdz2kPreprocessingCache<PlainT> cache) {
+    if (!isKeySized(ssk, factory)) {
+      throw new IllegalArgumentException(
+          "Mac key share must be less than 2^" + factory.getHighBitLength());
+    }
+    this.myId = myId;
+    this.noOfParties = noOfParties;
+    this.instanceId = instanceId;
+    this.network = network;
+    this.factory = factory;
+    this.ssk = ssk;
+    this.seedOts = seedOts;
+    this.drbg = drbg;
+    this.prgSeedLength = prgSeedLength;
+    this.batchSize = batchSize;
+    this.cache = cache;
+    if (cache != null) {
+      cache.putSecretSharedKey(ssk);
+    }
+    this.triples = new ArrayDeque<>();
+    this.masks = new HashMap<>();
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      masks.put(partyId, new ArrayDeque<>());
+    }
+    this.bits = new ArrayDeque<>();
+    this.randomElements = new ArrayDeque<>();
+  }
+
+  /**
+   * Creates instance of {@link Spdz2kOtDataSupplier} without a cache.
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> Spdz2kOtDataSupplier<PlainT>
+      createSimpleSupplier(int myId, int noOfParties, Supplier<Network> network,
+      CompUIntFactory<PlainT> factory, PlainT ssk, Map<Integer, RotList> seedOts, Drbg drbg) {
+    return new Spdz2kOtDataSupplier<>(myId, noOfParties, 1, network, factory, ssk, seedOts,
+        drbg, 256, 16, null);
+  }
+
+  /**
+   * Creates a random element of Z<sub>2<sup>s</sup></sub> that can be used as the mac key share by
+   * the calling party.
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> PlainT createRandomSsk(
+      CompUIntFactory<PlainT> factory, int prgSeedLength) {
+    byte[] seedBytes = new byte[prgSeedLength / Byte.SIZE];
+    new SecureRandom().nextBytes(seedBytes);
+    return new CompUIntPrg<>(new StrictBitVector(seedBytes), factory)
+        .getNextBounded(factory.getHighBitLength());
+  }
+
+  /**
+   * Generates material and appends it to the cache. All parties must call this with the same
+   * arguments.
+   *
+   * @param numTriples number of triples to generate
+   * @param numMasks number of input masks to generate towards each party
+   * @param numBits number of bits to generate
+   * @param numRandomElements number of random elements to generate
+   */
+  public void precompute(int numTriples, int numMasks, int numBits, int numRandomElements) {
+    if (cache == null) {
+      throw new IllegalStateException("No cache to precompute into");
+    }
+    ensureInitialized();
+    if (numTriples > 0) {
+      cache.write(TRIPLES, fromTriples(preprocessing.getTriples(numTriples)));
+    }
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      if (numMasks > 0) {
+        cache.write(MASKS + partyId, fromMasks(preprocessing.getInputMasks(partyId, numMasks)));
+      }
+    }
+    if (numBits > 0) {
+      cache.write(BITS, fromElements(preprocessing.getRandomBits(numBits)));
+    }
+    if (numRandomElements > 0) {
+      cache.write(RANDOM_ELEMENTS,
+          fromElements(preprocessing.getRandomElements(numRandomElements)));
+    }
+  }
+
+  @Override
+  public Spdz2kTriple<PlainT> getNextTripleShares() {
+    if (triples.isEmpty()) {
+      int cached = cachedRecords(TRIPLES, 6);
+      if (cached > 0) {
+        triples.addAll(toTriples(cache.read(TRIPLES, 6 * cached)));
+      } else {
+        logger.trace("Getting another triple batch");
+        ensureInitialized();
+        triples.addAll(preprocessing.getTriples(batchSize));
+      }
+    }
+    return triples.pop();
+  }
+
+  @Override
+  public Spdz2kInputMask<PlainT> getNextInputMask(int towardPlayerId) {
+    ArrayDeque<Spdz2kInputMask<PlainT>> inputMasks = masks.get(towardPlayerId);
+    if (inputMasks.isEmpty()) {
+      String name = MASKS + towardPlayerId;
+      int recordLength = towardPlayerId == myId ? 3 : 2;
+      int cached = cachedRecords(name, recordLength);
+      if (cached > 0) {
+        inputMasks.addAll(toMasks(cache.read(name, recordLength * cached), recordLength));
+      } else {
+        logger.trace("Getting another mask batch");
+        ensureInitialized();
+        inputMasks.addAll(preprocessing.getInputMasks(towardPlayerId, batchSize));
+      }
+    }
+    return inputMasks.pop();
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextBitShare() {
+    if (bits.isEmpty()) {
+      int cached = cachedRecords(BITS, 2);
+      if (cached > 0) {
+        bits.addAll(toElements(cache.read(BITS, 2 * cached)));
+      } else {
+        logger.trace("Getting another bit batch");
+        ensureInitialized();
+        bits.addAll(preprocessing.getRandomBits(batchSize));
+      }
+    }
+    return bits.pop();
+  }
+
+  @Override
+  public PlainT getSecretSharedKey() {
+    return ssk;
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextRandomElementShare() {
+    if (randomElements.isEmpty()) {
+      int cached = cachedRecords(RANDOM_ELEMENTS, 2);
+      if (cached > 0) {
+        randomElements.addAll(toElements(cache.read(RANDOM_ELEMENTS, 2 * cached)));
+      } else {
+        logger.trace("Getting another random element batch");
+        ensureInitialized();
+        randomElements.addAll(preprocessing.getRandomElements(batchSize));
+      }
+    }
+    return randomElements.pop();
+  }
+
+  /**
+   * Returns the number of records to take from the cache at once, which is zero if there is no
+   * cache or the cache has run out of records.
+   */
+  private int cachedRecords(String name, int recordLength) {
+    if (cache == null) {
+      return 0;
+    }
+    return (int) Math.min(batchSize, cache.available(name) / recordLength);
+  }
+
+  private void ensureInitialized() {
+    if (preprocessing != null) {
+      return;
+    }
+    int bitsPerTriple = 2 * factory.getCompositeBitLength() + factory.getHighBitLength();
+    preprocessing = new Spdz2kPreprocessing<>(
+        new MascotResourcePoolImpl(myId, noOfParties, instanceId, drbg, seedOts,
+            new MascotSecurityParameters(factory.getHighBitLength(), prgSeedLength,
+                bitsPerTriple), factory), network.get(), factory, ssk);
+  }
+
+  private static boolean isKeySized(CompUInt<?, ?, ?> ssk, CompUIntFactory<?> factory) {
+    byte[] bytes = ssk.toByteArray();
+    int highBytes = (factory.getCompositeBitLength() - factory.getHighBitLength()) / Byte.SIZE;
+    for (byte b : Arrays.copyOfRange(bytes, 0, highBytes)) {
+      if (b != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private List<PlainT> fromElements(List<Spdz2kSInt<PlainT>> elements) {
+    List<PlainT> flat = new ArrayList<>(2 * elements.size());
+    for (Spdz2kSInt<PlainT> element : elements) {
+      flat.add(element.getShare());
+      flat.add(element.getMacShare());
+    }
+    return flat;
+  }
+
+  private List<Spdz2kSInt<PlainT>> toElements(List<PlainT> flat) {
+    List<Spdz2kSInt<PlainT>> elements = new ArrayList<>(flat.size() / 2);
+    for (int i = 0; i < flat.size(); i += 2) {
+      elements.add(new Spdz2kSInt<>(flat.get(i), flat.get(i + 1)));
+    }
+    return elements;
+  }
+
+  private List<PlainT> fromTriples(List<Spdz2kTriple<PlainT>> triples) {
+    List<Spdz2kSInt<PlainT>> elements = new ArrayList<>(3 * triples.size());
+    for (Spdz2kTriple<PlainT> triple : triples) {
+      elements.add(triple.getLeft());
+      elements.add(triple.getRight());
+      elements.add(triple.getProduct());
+    }
+    return fromElements(elements);
+  }
+
+  private List<Spdz2kTriple<PlainT>> toTriples(List<PlainT> flat) {
+    List<Spdz2kSInt<PlainT>> elements = toElements(flat);
+    List<Spdz2kTriple<PlainT>> triples = new ArrayList<>(elements.size() / 3);
+    for (int i = 0; i < elements.size(); i += 3) {
+      triples.add(new Spdz2kTriple<>(elements.get(i), elements.get(i + 1), elements.get(i + 2)));
+    }
+    return triples;
+  }
+
+  private List<PlainT> fromMasks(List<Spdz2kInputMask<PlainT>> masks) {
+    List<PlainT> flat = new ArrayList<>(3 * masks.size());
+    for (Spdz2kInputMask<PlainT> mask : masks) {
+      flat.add(mask.getMaskShare().getShare());
+      flat.add(mask.getMaskShare().getMacShare());
+      if (mask.getOpenValue() != null) {
+        flat.add(mask.getOpenValue());
+      }
+    }
+    return flat;
+  }
+
+  private List<Spdz2kInputMask<PlainT>> toMasks(List<PlainT> flat, int recordLength) {
+    List<Spdz2kInputMask<PlainT>> masks = new ArrayList<>(flat.size() / recordLength);
+    for (int i = 0; i < flat.size(); i += recordLength) {
+      Spdz2kSInt<PlainT> maskShare = new Spdz2kSInt<>(flat.get(i), flat.get(i + 1));
+      if (recordLength == 3) {
+        masks.add(new Spdz2kInputMask<>(maskShare, flat.get(i + 2)));
+      } else {
+        masks.add(new Spdz2kInputMask<>(maskShare));
+      }
+    }
+    return masks;
+  }
+
+}
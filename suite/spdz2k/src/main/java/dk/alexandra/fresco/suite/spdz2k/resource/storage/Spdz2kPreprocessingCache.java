@@ -0,0 +1,161 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+/**
+ * An on-disk cache of pre-processed material for a single party.
+ *
+ * <p>The cache holds named streams of ring elements, each stored in its own file as the raw
+ * serialized elements. Elements are appended by {@link #write(String, List)} and handed out
+ * exactly once by {@link #read(String, int)}. The number of elements handed out from a stream is
+ * stored next to it, such that material is never handed out twice, not even by a later instance
+ * using the same directory.</p>
+ *
+ * <p>The pre-processed material of the parties only fits together if it is handed out in the
+ * same order by all parties, so the caches of all parties should be filled in the same run.</p>
+ */
+public class Spdz2kPreprocessingCache<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private static final String KEY = "key";
+  private static final String DATA_SUFFIX = ".bin";
+  private static final String POSITION_SUFFIX = ".pos";
+
+  private final File directory;
+  private final String prefix;
+  private final CompUIntFactory<PlainT> factory;
+  private final int byteLength;
+
+  /**
+   * Creates a cache in the given directory. The directory is created if it does not exist.
+   *
+   * @param directory the directory holding the files of the cache
+   * @param myId the id of the party owning the cache
+   * @param factory factory for the cached elements
+   */
+  public Spdz2kPreprocessingCache(File directory, int myId, CompUIntFactory<PlainT> factory) {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IllegalArgumentException("Could not create cache directory " + directory);
+    }
+    this.directory = directory;
+    this.prefix = "spdz2k_" + myId + "_";
+    this.factory = factory;
+    this.byteLength = factory.getCompositeBitLength() / Byte.SIZE;
+  }
+
+  /**
+   * Returns the mac key share the cached material was generated under, or null if the cache does
+   * not hold a key.
+   */
+  public PlainT getSecretSharedKey() {
+    File file = dataFile(KEY);
+    if (!file.isFile()) {
+      return null;
+    }
+    try (DataInputStream input = new DataInputStream(new FileInputStream(file))) {
+      byte[] bytes = new byte[byteLength];
+      input.readFully(bytes);
+      return factory.deserialize(bytes);
+    } catch (IOException e) {
+      throw new RuntimeException("IOException reading " + file, e);
+    }
+  }
+
+  /**
+   * Stores the mac key share the cached material is generated under.
+   *
+   * @throws IllegalArgumentException if the cache already holds a different key
+   */
+  public void putSecretSharedKey(PlainT ssk) {
+    PlainT existing = getSecretSharedKey();
+    if (existing != null) {
+      if (!existing.subtract(ssk).isZero()) {
+        throw new IllegalArgumentException("The cache in " + directory
+            + " holds material generated under a different mac key share");
+      }
+      return;
+    }
+    File file = dataFile(KEY);
+    try (FileOutputStream output = new FileOutputStream(file)) {
+      output.write(ssk.toByteArray());
+    } catch (IOException e) {
+      throw new RuntimeException("IOException writing " + file, e);
+    }
+  }
+
+  /**
+   * Returns the number of elements in the given stream that are not yet handed out.
+   */
+  public long available(String name) {
+    return dataFile(name).length() / byteLength - position(name);
+  }
+
+  /**
+   * Appends elements to the given stream.
+   */
+  public void write(String name, List<PlainT> elements) {
+    File file = dataFile(name);
+    try (FileOutputStream output = new FileOutputStream(file, true)) {
+      output.write(factory.getSerializer().serialize(elements));
+    } catch (IOException e) {
+      throw new RuntimeException("IOException writing " + file, e);
+    }
+  }
+
+  /**
+   * Hands out the next elements of the given stream.
+   *
+   * @throws IllegalArgumentException if fewer than numElements elements are available
+   */
+  public List<PlainT> read(String name, int numElements) {
+    if (available(name) < numElements) {
+      throw new IllegalArgumentException("Only " + available(name) + " of " + numElements
+          + " elements of " + name + " are present in the cache");
+    }
+    long position = position(name);
+    File file = dataFile(name);
+    byte[] bytes = new byte[numElements * byteLength];
+    try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+      input.seek(position * byteLength);
+      input.readFully(bytes);
+    } catch (IOException e) {
+      throw new RuntimeException("IOException reading " + file, e);
+    }
+    setPosition(name, position + numElements);
+    return factory.getSerializer().deserializeList(bytes);
+  }
+
+  private File dataFile(String name) {
+    return new File(directory, prefix + name + DATA_SUFFIX);
+  }
+
+  private long position(String name) {
+    File file = new File(directory, prefix + name + POSITION_SUFFIX);
+    if (!file.isFile()) {
+      return 0;
+    }
+    try (DataInputStream input = new DataInputStream(new FileInputStream(file))) {
+      return input.readLong();
+    } catch (IOException e) {
+      throw new RuntimeException("IOException reading " + file, e);
+    }
+  }
+
+  private void setPosition(String name, long position) {
+    File file = new File(directory, prefix + name + POSITION_SUFFIX);
+    try (DataOutputStream output = new DataOutputStream(new FileOutputStream(file))) {
+      output.writeLong(position);
+    } catch (IOException e) {
+      throw new RuntimeException("IOException writing " + file, e);
+    }
+  }
+
+}
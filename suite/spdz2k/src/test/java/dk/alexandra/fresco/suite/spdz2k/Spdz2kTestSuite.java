@@ -30,6 +30,11 @@ public abstract class Spdz2kTestSuite<Spdz2kResourcePoolT extends Spdz2kResource
     runTest(new BasicArithmeticTests.TestMultiply<>(), EvaluationStrategy.SEQUENTIAL_BATCHED);
   }
 
+  @Test
+  public void testMultiplyList() {
+    runTest(new BasicArithmeticTests.TestMultiplyList<>(), EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
   @Test
   public void testMultiplyByZero() {
     runTest(new BasicArithmeticTests.TestMultiplyByZero<>(), EvaluationStrategy.SEQUENTIAL_BATCHED);
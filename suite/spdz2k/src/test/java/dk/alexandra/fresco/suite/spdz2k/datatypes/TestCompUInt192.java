@@ -0,0 +1,109 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt192 {
+
+  private final BigInteger twoTo64 = BigInteger.ONE.shiftLeft(64);
+  private final BigInteger twoTo128 = BigInteger.ONE.shiftLeft(128);
+  private final BigInteger twoTo192 = BigInteger.ONE.shiftLeft(192);
+
+  private BigInteger[] values() {
+    Random random = new Random(42);
+    BigInteger[] values = new BigInteger[16];
+    values[0] = BigInteger.ZERO;
+    values[1] = BigInteger.ONE;
+    values[2] = twoTo64.subtract(BigInteger.ONE);
+    values[3] = twoTo64;
+    values[4] = twoTo128.subtract(BigInteger.ONE);
+    values[5] = twoTo192.subtract(BigInteger.ONE);
+    for (int i = 6; i < values.length; i++) {
+      values[i] = new BigInteger(192, random);
+    }
+    return values;
+  }
+
+  @Test
+  public void testConstruct() {
+    for (BigInteger value : values()) {
+      assertEquals(value, new CompUInt192(value).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testArithmetic() {
+    for (BigInteger left : values()) {
+      for (BigInteger right : values()) {
+        CompUInt192 leftUInt = new CompUInt192(left);
+        CompUInt192 rightUInt = new CompUInt192(right);
+        assertEquals(left.add(right).mod(twoTo192), leftUInt.add(rightUInt).toBigInteger());
+        assertEquals(left.subtract(right).mod(twoTo192),
+            leftUInt.subtract(rightUInt).toBigInteger());
+        assertEquals(left.multiply(right).mod(twoTo192),
+            leftUInt.multiply(rightUInt).toBigInteger());
+      }
+    }
+  }
+
+  @Test
+  public void testNegate() {
+    for (BigInteger value : values()) {
+      assertEquals(value.negate().mod(twoTo192),
+          new CompUInt192(value).negateUInt().toBigInteger());
+    }
+  }
+
+  @Test
+  public void testParts() {
+    for (BigInteger value : values()) {
+      CompUInt192 uint = new CompUInt192(value);
+      assertEquals(value.mod(twoTo128), uint.getLeastSignificant().toBigInteger());
+      assertEquals(value.shiftRight(128), uint.getMostSignificant().toBigInteger());
+      assertEquals(value.mod(twoTo64), uint.getLeastSignificantAsHigh().toBigInteger());
+      assertEquals(value.shiftLeft(128).mod(twoTo192), uint.shiftLowIntoHigh().toBigInteger());
+      assertEquals(value.mod(twoTo128),
+          new CompUIntConverter192().createFromLow(uint.getLeastSignificant()).toBigInteger());
+      assertEquals(value.shiftRight(128),
+          new CompUIntConverter192().createFromHigh(uint.getMostSignificant()).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testToByteArray() {
+    byte[] bytes = new byte[24];
+    new Random(1).nextBytes(bytes);
+    assertArrayEquals(bytes, new CompUInt192(bytes).toByteArray());
+    byte[] expected = new byte[24];
+    expected[23] = 42;
+    assertArrayEquals(expected, new CompUInt192(new byte[]{42}).toByteArray());
+  }
+
+  @Test
+  public void testGetBitLength() {
+    CompUInt192 uint = new CompUInt192(BigInteger.ONE);
+    assertEquals(128, uint.getLowBitLength());
+    assertEquals(64, uint.getHighBitLength());
+    assertEquals(192, uint.getBitLength());
+  }
+
+  @Test
+  public void testIsZero() {
+    assertTrue(new CompUInt192(BigInteger.ZERO).isZero());
+    assertFalse(new CompUInt192(twoTo128).isZero());
+    assertTrue(new CompUInt192(twoTo192.subtract(BigInteger.ONE)).add(new CompUInt192(1))
+        .isZero());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooLarge() {
+    new CompUInt192(twoTo192);
+  }
+
+}
@@ -0,0 +1,111 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt256 {
+
+  private final BigInteger twoTo64 = BigInteger.ONE.shiftLeft(64);
+  private final BigInteger twoTo128 = BigInteger.ONE.shiftLeft(128);
+  private final BigInteger twoTo192 = BigInteger.ONE.shiftLeft(192);
+  private final BigInteger twoTo256 = BigInteger.ONE.shiftLeft(256);
+
+  private BigInteger[] values() {
+    Random random = new Random(42);
+    BigInteger[] values = new BigInteger[16];
+    values[0] = BigInteger.ZERO;
+    values[1] = BigInteger.ONE;
+    values[2] = twoTo64.subtract(BigInteger.ONE);
+    values[3] = twoTo64;
+    values[4] = twoTo128.subtract(BigInteger.ONE);
+    values[5] = twoTo256.subtract(BigInteger.ONE);
+    values[6] = twoTo192;
+    for (int i = 7; i < values.length; i++) {
+      values[i] = new BigInteger(256, random);
+    }
+    return values;
+  }
+
+  @Test
+  public void testConstruct() {
+    for (BigInteger value : values()) {
+      assertEquals(value, new CompUInt256(value).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testArithmetic() {
+    for (BigInteger left : values()) {
+      for (BigInteger right : values()) {
+        CompUInt256 leftUInt = new CompUInt256(left);
+        CompUInt256 rightUInt = new CompUInt256(right);
+        assertEquals(left.add(right).mod(twoTo256), leftUInt.add(rightUInt).toBigInteger());
+        assertEquals(left.subtract(right).mod(twoTo256),
+            leftUInt.subtract(rightUInt).toBigInteger());
+        assertEquals(left.multiply(right).mod(twoTo256),
+            leftUInt.multiply(rightUInt).toBigInteger());
+      }
+    }
+  }
+
+  @Test
+  public void testNegate() {
+    for (BigInteger value : values()) {
+      assertEquals(value.negate().mod(twoTo256),
+          new CompUInt256(value).negateUInt().toBigInteger());
+    }
+  }
+
+  @Test
+  public void testParts() {
+    for (BigInteger value : values()) {
+      CompUInt256 uint = new CompUInt256(value);
+      assertEquals(value.mod(twoTo128), uint.getLeastSignificant().toBigInteger());
+      assertEquals(value.shiftRight(128), uint.getMostSignificant().toBigInteger());
+      assertEquals(value.mod(twoTo128), uint.getLeastSignificantAsHigh().toBigInteger());
+      assertEquals(value.shiftLeft(128).mod(twoTo256), uint.shiftLowIntoHigh().toBigInteger());
+      assertEquals(value.mod(twoTo128),
+          new CompUIntConverter256().createFromLow(uint.getLeastSignificant()).toBigInteger());
+      assertEquals(value.shiftRight(128),
+          new CompUIntConverter256().createFromHigh(uint.getMostSignificant()).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testToByteArray() {
+    byte[] bytes = new byte[32];
+    new Random(1).nextBytes(bytes);
+    assertArrayEquals(bytes, new CompUInt256(bytes).toByteArray());
+    byte[] expected = new byte[32];
+    expected[31] = 42;
+    assertArrayEquals(expected, new CompUInt256(new byte[]{42}).toByteArray());
+  }
+
+  @Test
+  public void testGetBitLength() {
+    CompUInt256 uint = new CompUInt256(BigInteger.ONE);
+    assertEquals(128, uint.getLowBitLength());
+    assertEquals(128, uint.getHighBitLength());
+    assertEquals(256, uint.getBitLength());
+  }
+
+  @Test
+  public void testIsZero() {
+    assertTrue(new CompUInt256(BigInteger.ZERO).isZero());
+    assertFalse(new CompUInt256(twoTo128).isZero());
+    assertTrue(new CompUInt256(twoTo256.subtract(BigInteger.ONE)).add(new CompUInt256(1))
+        .isZero());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooLarge() {
+    new CompUInt256(twoTo256);
+  }
+
+}
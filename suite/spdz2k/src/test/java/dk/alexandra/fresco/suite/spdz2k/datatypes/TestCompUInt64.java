@@ -0,0 +1,74 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt64 {
+
+  private final BigInteger twoTo32 = BigInteger.ONE.shiftLeft(32);
+  private final BigInteger twoTo64 = BigInteger.ONE.shiftLeft(64);
+
+  private BigInteger[] values() {
+    Random random = new Random(42);
+    BigInteger[] values = new BigInteger[12];
+    values[0] = BigInteger.ZERO;
+    values[1] = BigInteger.ONE;
+    values[2] = twoTo32.subtract(BigInteger.ONE);
+    values[3] = twoTo64.subtract(BigInteger.ONE);
+    for (int i = 4; i < values.length; i++) {
+      values[i] = new BigInteger(64, random);
+    }
+    return values;
+  }
+
+  @Test
+  public void testArithmetic() {
+    for (BigInteger left : values()) {
+      for (BigInteger right : values()) {
+        CompUInt64 leftUInt = new CompUInt64(left);
+        CompUInt64 rightUInt = new CompUInt64(right);
+        assertEquals(left.add(right).mod(twoTo64), leftUInt.add(rightUInt).toBigInteger());
+        assertEquals(left.subtract(right).mod(twoTo64),
+            leftUInt.subtract(rightUInt).toBigInteger());
+        assertEquals(left.multiply(right).mod(twoTo64),
+            leftUInt.multiply(rightUInt).toBigInteger());
+      }
+      assertEquals(left.negate().mod(twoTo64), new CompUInt64(left).negateUInt().toBigInteger());
+    }
+  }
+
+  @Test
+  public void testParts() {
+    for (BigInteger value : values()) {
+      CompUInt64 uint = new CompUInt64(value);
+      assertEquals(value.mod(twoTo32), uint.getLeastSignificant().toBigInteger());
+      assertEquals(value.shiftRight(32), uint.getMostSignificant().toBigInteger());
+      assertEquals(value.mod(twoTo32), uint.getLeastSignificantAsHigh().toBigInteger());
+      assertEquals(value.shiftLeft(32).mod(twoTo64), uint.shiftLowIntoHigh().toBigInteger());
+      assertEquals(value.mod(twoTo32),
+          new CompUIntConverter64().createFromLow(uint.getLeastSignificant()).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testToByteArray() {
+    byte[] bytes = new byte[8];
+    new Random(1).nextBytes(bytes);
+    assertArrayEquals(bytes, new CompUInt64(bytes).toByteArray());
+    assertArrayEquals(new byte[]{0, 0, 0, 0, 0, 0, 0, 42},
+        new CompUInt64(new byte[]{0, 0, 0, 42}).toByteArray());
+  }
+
+  @Test
+  public void testGetBitLength() {
+    CompUInt64 uint = new CompUInt64(1);
+    assertEquals(32, uint.getLowBitLength());
+    assertEquals(32, uint.getHighBitLength());
+    assertEquals(64, uint.getBitLength());
+  }
+
+}
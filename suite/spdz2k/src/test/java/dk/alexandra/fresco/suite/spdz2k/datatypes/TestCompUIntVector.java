@@ -0,0 +1,117 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUIntVector {
+
+  private final Random random = new Random(42);
+
+  private <PlainT extends CompUInt<?, ?, PlainT>> List<PlainT> randomElements(
+      CompUIntFactory<PlainT> factory, int size) {
+    List<PlainT> elements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      elements.add(factory.createElement(new BigInteger(factory.getCompositeBitLength(), random)));
+    }
+    return elements;
+  }
+
+  private <PlainT extends CompUInt<?, ?, PlainT>> void assertVector(List<PlainT> expected,
+      CompUIntVector<PlainT> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).toBigInteger(), actual.get(i).toBigInteger());
+    }
+  }
+
+  private <PlainT extends CompUInt<?, ?, PlainT>> void testArithmetic(
+      CompUIntFactory<PlainT> factory) {
+    int size = 10;
+    List<PlainT> left = randomElements(factory, size);
+    List<PlainT> right = randomElements(factory, size);
+    PlainT scalar = randomElements(factory, 1).get(0);
+    CompUIntVector<PlainT> leftVector = CompUIntVector.fromList(left, factory);
+    CompUIntVector<PlainT> rightVector = CompUIntVector.fromList(right, factory);
+    List<PlainT> sums = new ArrayList<>();
+    List<PlainT> differences = new ArrayList<>();
+    List<PlainT> products = new ArrayList<>();
+    List<PlainT> scaled = new ArrayList<>();
+    List<PlainT> shifted = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      sums.add(left.get(i).add(right.get(i)));
+      differences.add(left.get(i).subtract(right.get(i)));
+      products.add(left.get(i).multiply(right.get(i)));
+      scaled.add(left.get(i).multiply(scalar));
+      shifted.add(factory.createElement(
+          left.get(i).toBigInteger().shiftRight(factory.getLowBitLength())));
+    }
+    assertVector(left, leftVector);
+    assertVector(sums, leftVector.add(rightVector));
+    assertVector(differences, leftVector.subtract(rightVector));
+    assertVector(products, leftVector.multiply(rightVector));
+    assertVector(scaled, leftVector.multiply(scalar));
+    assertVector(shifted, leftVector.shiftRight(factory.getLowBitLength()));
+    assertEquals(UInt.innerProduct(left, right).toBigInteger(),
+        leftVector.innerProduct(rightVector).toBigInteger());
+    assertVector(right.subList(2, 5), rightVector.subVector(2, 5));
+  }
+
+  private <PlainT extends CompUInt<?, ?, PlainT>> void testSerialization(
+      CompUIntFactory<PlainT> factory) {
+    List<PlainT> elements = randomElements(factory, 5);
+    CompUIntVector<PlainT> vector = CompUIntVector.fromList(elements, factory);
+    assertArrayEquals(factory.getSerializer().serialize(elements), vector.toByteArray());
+    int byteLength = factory.getCompositeBitLength() / Byte.SIZE;
+    assertVector(elements, CompUIntVector.fromByteArray(vector.toByteArray(), byteLength, factory));
+    int lowBytes = factory.getLowBitLength() / Byte.SIZE;
+    CompUIntVector<PlainT> sum = new CompUIntVector<>(factory, elements.size());
+    sum.addInPlace(vector.toByteArray(lowBytes), lowBytes);
+    sum.addInPlace(vector.toByteArray(lowBytes), lowBytes);
+    for (int i = 0; i < elements.size(); i++) {
+      BigInteger low = elements.get(i).getLeastSignificant().toBigInteger();
+      assertEquals(low.add(low), sum.get(i).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testArithmetic() {
+    testArithmetic(new CompUInt64Factory());
+    testArithmetic(new CompUInt128Factory());
+    testArithmetic(new CompUInt192Factory());
+    testArithmetic(new CompUInt256Factory());
+  }
+
+  @Test
+  public void testSerialization() {
+    testSerialization(new CompUInt64Factory());
+    testSerialization(new CompUInt128Factory());
+    testSerialization(new CompUInt192Factory());
+    testSerialization(new CompUInt256Factory());
+  }
+
+  @Test
+  public void testConcatenate() {
+    CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+    List<CompUInt128> first = randomElements(factory, 3);
+    List<CompUInt128> second = randomElements(factory, 2);
+    List<CompUIntVector<CompUInt128>> vectors = new ArrayList<>();
+    vectors.add(CompUIntVector.fromList(first, factory));
+    vectors.add(CompUIntVector.fromList(second, factory));
+    List<CompUInt128> expected = new ArrayList<>(first);
+    expected.addAll(second);
+    assertVector(expected, CompUIntVector.concatenate(vectors, factory));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddDifferentSizes() {
+    CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+    new CompUIntVector<>(factory, 2).add(new CompUIntVector<>(factory, 3));
+  }
+
+}
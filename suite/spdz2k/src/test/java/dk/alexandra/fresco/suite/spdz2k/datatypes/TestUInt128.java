@@ -0,0 +1,76 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.math.BigInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestUInt128 {
+
+  private final BigInteger twoTo128 = BigInteger.ONE.shiftLeft(128);
+  private final UInt128 left = new UInt128(-1L, -2L);
+  private final UInt128 right = new UInt128(3L, 123L);
+
+  private BigInteger leftValue() {
+    return left.toBigInteger();
+  }
+
+  private BigInteger rightValue() {
+    return right.toBigInteger();
+  }
+
+  @Test
+  public void testAdd() {
+    Assert.assertEquals(leftValue().add(rightValue()).mod(twoTo128),
+        left.add(right).toBigInteger());
+  }
+
+  @Test
+  public void multiply() {
+    Assert.assertEquals(leftValue().multiply(rightValue()).mod(twoTo128),
+        left.multiply(right).toBigInteger());
+  }
+
+  @Test
+  public void subtract() {
+    Assert.assertEquals(rightValue().subtract(leftValue()).mod(twoTo128),
+        right.subtract(left).toBigInteger());
+  }
+
+  @Test
+  public void negate() {
+    Assert.assertEquals(twoTo128.subtract(rightValue()), right.negateUInt().toBigInteger());
+  }
+
+  @Test
+  public void isZero() {
+    Assert.assertFalse(left.isZero());
+    Assert.assertTrue(new UInt128(0L, 0L).isZero());
+    Assert.assertTrue(left.add(left.negateUInt()).isZero());
+  }
+
+  @Test
+  public void getBitLength() {
+    Assert.assertEquals(128, left.getBitLength());
+  }
+
+  @Test
+  public void toByteArray() {
+    byte[] expected = new byte[16];
+    expected[7] = 3;
+    expected[15] = 123;
+    Assert.assertArrayEquals(expected, right.toByteArray());
+    Assert.assertArrayEquals(expected, new UInt128(expected).toByteArray());
+  }
+
+  @Test
+  public void toBigInteger() {
+    Assert.assertEquals(twoTo128.subtract(BigInteger.valueOf(2)), left.toBigInteger());
+  }
+
+  @Test
+  public void toLong() {
+    Assert.assertEquals(123, right.toLong());
+    Assert.assertEquals(123, right.toInt());
+  }
+
+}
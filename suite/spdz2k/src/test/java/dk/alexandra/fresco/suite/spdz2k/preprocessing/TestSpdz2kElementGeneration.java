@@ -0,0 +1,185 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdz2kElementGeneration {
+
+  private static final int PRG_SEED_LENGTH = 256;
+  private static final int NO_OF_PARTIES = 2;
+  private static final int INPUTTER = 1;
+  private static final int CHEATER = 2;
+
+  private final CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+  private final List<CloseableNetwork> networks =
+      Collections.synchronizedList(new ArrayList<>());
+  private ExecutorService executorService;
+
+  @Before
+  public void setUp() {
+    executorService = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+    for (CloseableNetwork network : networks) {
+      ExceptionConverter.safe(() -> {
+        network.close();
+        return null;
+      }, "IO Exception");
+    }
+  }
+
+  @Test
+  public void testInputOpenAndCheck() throws InterruptedException, ExecutionException {
+    List<CompUInt128> inputs = inputs();
+    for (Future<List<CompUInt128>> future : run(inputs, UnaryOperator.identity())) {
+      assertEquals(toBigIntegers(inputs), toBigIntegers(future.get()));
+    }
+  }
+
+  @Test
+  public void testTamperedShareFailsCheck() throws InterruptedException {
+    CompUInt128 one = factory.createElement(1);
+    assertCheckFails(run(inputs(), element ->
+        new Spdz2kSInt<>(element.getShare().add(one), element.getMacShare())));
+  }
+
+  @Test
+  public void testTamperedMacFailsCheck() throws InterruptedException {
+    CompUInt128 one = factory.createElement(1);
+    assertCheckFails(run(inputs(), element ->
+        new Spdz2kSInt<>(element.getShare(), element.getMacShare().add(one))));
+  }
+
+  private List<CompUInt128> inputs() {
+    return Arrays.asList(factory.createElement(7), factory.createElement(42),
+        factory.createElement(-1));
+  }
+
+  private List<BigInteger> toBigIntegers(List<CompUInt128> values) {
+    List<BigInteger> result = new ArrayList<>(values.size());
+    for (CompUInt128 value : values) {
+      result.add(value.toBigInteger());
+    }
+    return result;
+  }
+
+  private void assertCheckFails(List<Future<List<CompUInt128>>> futures)
+      throws InterruptedException {
+    for (Future<List<CompUInt128>> future : futures) {
+      try {
+        future.get();
+        fail("Mac check passed despite tampering");
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof MaliciousException);
+      }
+    }
+  }
+
+  /**
+   * Lets the inputter input the given values, after which the cheater applies tamper to each of its
+   * shares, and all parties open and check the shares. Returns the opened values per party.
+   */
+  private List<Future<List<CompUInt128>>> run(List<CompUInt128> inputs,
+      UnaryOperator<Spdz2kSInt<CompUInt128>> tamper) throws InterruptedException {
+    Map<Integer, NetworkConfiguration> confs =
+        NetworkUtil.getNetworkConfigurations(NetworkUtil.getFreePorts(NO_OF_PARTIES));
+    // all parties use the same joint seed, which is fine for testing the checks
+    byte[] jointSeed = new byte[PRG_SEED_LENGTH / Byte.SIZE];
+    new Random(0).nextBytes(jointSeed);
+    List<Callable<List<CompUInt128>>> tasks = new ArrayList<>();
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      int finalMyId = myId;
+      tasks.add(() -> {
+        CloseableNetwork network = new SocketNetwork(confs.get(finalMyId));
+        networks.add(network);
+        Drbg drbg = getDrbg(finalMyId);
+        MascotResourcePoolImpl resourcePool = new MascotResourcePoolImpl(finalMyId,
+            NO_OF_PARTIES, 1, drbg, getSeedOts(finalMyId, drbg, network),
+            new MascotSecurityParameters(factory.getHighBitLength(), PRG_SEED_LENGTH, 3),
+            factory);
+        CompUIntPrg<CompUInt128> localSampler =
+            new CompUIntPrg<>(new StrictBitVector(PRG_SEED_LENGTH, drbg), factory);
+        Spdz2kElementGeneration<CompUInt128> elementGeneration = new Spdz2kElementGeneration<>(
+            resourcePool, network, factory,
+            localSampler.getNextBounded(factory.getHighBitLength()), localSampler,
+            new CompUIntPrg<>(new StrictBitVector(jointSeed), factory));
+        List<Spdz2kSInt<CompUInt128>> shares = finalMyId == INPUTTER
+            ? elementGeneration.input(inputs)
+            : elementGeneration.input(INPUTTER, inputs.size());
+        if (finalMyId == CHEATER) {
+          shares.replaceAll(tamper);
+        }
+        List<CompUInt128> opened = elementGeneration.open(shares);
+        elementGeneration.check(shares, opened);
+        return opened;
+      });
+    }
+    return executorService.invokeAll(tasks);
+  }
+
+  private Drbg getDrbg(int myId) {
+    byte[] seed = new byte[PRG_SEED_LENGTH / Byte.SIZE];
+    new Random(myId).nextBytes(seed);
+    return AesCtrDrbgFactory.fromDerivedSeed(seed);
+  }
+
+  private Map<Integer, RotList> getSeedOts(int myId, Drbg drbg, Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= NO_OF_PARTIES; otherId++) {
+      if (otherId != myId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+}
@@ -0,0 +1,292 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdz2kOtDataSupplier {
+
+  private static final int PRG_SEED_LENGTH = 256;
+  private static final BigInteger MODULUS = BigInteger.ONE.shiftLeft(128);
+
+  private final CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+  private final List<CloseableNetwork> networks =
+      Collections.synchronizedList(new ArrayList<>());
+  private ExecutorService executorService;
+  private File cacheDirectory;
+
+  @Before
+  public void setUp() throws IOException {
+    executorService = Executors.newCachedThreadPool();
+    cacheDirectory = Files.createTempDirectory("spdz2k").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+    for (CloseableNetwork network : networks) {
+      ExceptionConverter.safe(() -> {
+        network.close();
+        return null;
+      }, "IO Exception");
+    }
+    for (File file : cacheDirectory.listFiles()) {
+      file.delete();
+    }
+    cacheDirectory.delete();
+  }
+
+  private Network createNetwork(NetworkConfiguration conf) {
+    CloseableNetwork network = new SocketNetwork(conf);
+    networks.add(network);
+    return network;
+  }
+
+  private Drbg getDrbg(int myId) {
+    byte[] seed = new byte[PRG_SEED_LENGTH / 8];
+    new Random(myId).nextBytes(seed);
+    return AesCtrDrbgFactory.fromDerivedSeed(seed);
+  }
+
+  private Map<Integer, RotList> getSeedOts(int myId, int noOfParties, Drbg drbg,
+      Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (otherId != myId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+
+  /**
+   * Runs a task per party with a supplier of its own, where the suppliers share the given cache
+   * directory if it is not null, and returns the results ordered by party id.
+   */
+  private <T> List<T> run(int noOfParties, List<CompUInt128> ssks, File cacheDirectory,
+      Function<Spdz2kOtDataSupplier<CompUInt128>, T> task) throws InterruptedException {
+    List<Integer> ports = NetworkUtil.getFreePorts(2 * noOfParties);
+    Map<Integer, NetworkConfiguration> otConfs =
+        NetworkUtil.getNetworkConfigurations(ports.subList(0, noOfParties));
+    Map<Integer, NetworkConfiguration> confs =
+        NetworkUtil.getNetworkConfigurations(ports.subList(noOfParties, 2 * noOfParties));
+    List<Callable<T>> tasks = new ArrayList<>();
+    for (int myId = 1; myId <= noOfParties; myId++) {
+      int finalMyId = myId;
+      tasks.add(() -> {
+        Drbg drbg = getDrbg(finalMyId);
+        Map<Integer, RotList> seedOts =
+            getSeedOts(finalMyId, noOfParties, drbg, createNetwork(otConfs.get(finalMyId)));
+        Spdz2kPreprocessingCache<CompUInt128> cache = cacheDirectory == null ? null
+            : new Spdz2kPreprocessingCache<>(cacheDirectory, finalMyId, factory);
+        return task.apply(new Spdz2kOtDataSupplier<>(finalMyId, noOfParties, 1,
+            () -> createNetwork(confs.get(finalMyId)), factory, ssks.get(finalMyId - 1),
+            seedOts, drbg, PRG_SEED_LENGTH, 4, cache));
+      });
+    }
+    List<T> results = new ArrayList<>();
+    for (Future<T> future : executorService.invokeAll(tasks)) {
+      results.add(ExceptionConverter.safe(future::get, "Party failed"));
+    }
+    return results;
+  }
+
+  private List<CompUInt128> createSsks(int noOfParties) {
+    List<CompUInt128> ssks = new ArrayList<>();
+    for (int i = 0; i < noOfParties; i++) {
+      ssks.add(Spdz2kOtDataSupplier.createRandomSsk(factory, PRG_SEED_LENGTH));
+    }
+    return ssks;
+  }
+
+  /**
+   * The material consumed by a single party.
+   */
+  private static class Consumed {
+
+    private final List<Spdz2kTriple<CompUInt128>> triples = new ArrayList<>();
+    private final List<Spdz2kInputMask<CompUInt128>> masks = new ArrayList<>();
+    private final List<Spdz2kSInt<CompUInt128>> bits = new ArrayList<>();
+    private final List<Spdz2kSInt<CompUInt128>> randomElements = new ArrayList<>();
+  }
+
+  private Consumed consume(Spdz2kOtDataSupplier<CompUInt128> supplier, int numTriples,
+      int numMasks, int numBits, int numRandomElements) {
+    Consumed consumed = new Consumed();
+    for (int i = 0; i < numTriples; i++) {
+      consumed.triples.add(supplier.getNextTripleShares());
+    }
+    for (int i = 0; i < numMasks; i++) {
+      consumed.masks.add(supplier.getNextInputMask(1));
+    }
+    for (int i = 0; i < numBits; i++) {
+      consumed.bits.add(supplier.getNextBitShare());
+    }
+    for (int i = 0; i < numRandomElements; i++) {
+      consumed.randomElements.add(supplier.getNextRandomElementShare());
+    }
+    return consumed;
+  }
+
+  private BigInteger open(List<Spdz2kSInt<CompUInt128>> shares, BigInteger macKey) {
+    BigInteger value = BigInteger.ZERO;
+    BigInteger mac = BigInteger.ZERO;
+    for (Spdz2kSInt<CompUInt128> share : shares) {
+      value = value.add(share.getShare().toBigInteger());
+      mac = mac.add(share.getMacShare().toBigInteger());
+    }
+    value = value.mod(MODULUS);
+    assertEquals(value.multiply(macKey).mod(MODULUS), mac.mod(MODULUS));
+    return value;
+  }
+
+  private void assertValid(List<Consumed> results, List<CompUInt128> ssks) {
+    BigInteger macKey = BigInteger.ZERO;
+    for (CompUInt128 ssk : ssks) {
+      macKey = macKey.add(ssk.toBigInteger());
+    }
+    Consumed first = results.get(0);
+    for (int i = 0; i < first.triples.size(); i++) {
+      List<Spdz2kSInt<CompUInt128>> left = new ArrayList<>();
+      List<Spdz2kSInt<CompUInt128>> right = new ArrayList<>();
+      List<Spdz2kSInt<CompUInt128>> product = new ArrayList<>();
+      for (Consumed consumed : results) {
+        left.add(consumed.triples.get(i).getLeft());
+        right.add(consumed.triples.get(i).getRight());
+        product.add(consumed.triples.get(i).getProduct());
+      }
+      assertEquals(open(left, macKey).multiply(open(right, macKey)).mod(MODULUS),
+          open(product, macKey));
+    }
+    for (int i = 0; i < first.masks.size(); i++) {
+      List<Spdz2kSInt<CompUInt128>> shares = new ArrayList<>();
+      for (Consumed consumed : results.subList(1, results.size())) {
+        assertNull(consumed.masks.get(i).getOpenValue());
+      }
+      for (Consumed consumed : results) {
+        shares.add(consumed.masks.get(i).getMaskShare());
+      }
+      assertEquals(first.masks.get(i).getOpenValue().toBigInteger(), open(shares, macKey));
+    }
+    for (int i = 0; i < first.bits.size(); i++) {
+      List<Spdz2kSInt<CompUInt128>> shares = new ArrayList<>();
+      for (Consumed consumed : results) {
+        shares.add(consumed.bits.get(i));
+      }
+      assertTrue(open(shares, macKey).bitLength() <= 1);
+    }
+    for (int i = 0; i < first.randomElements.size(); i++) {
+      List<Spdz2kSInt<CompUInt128>> shares = new ArrayList<>();
+      for (Consumed consumed : results) {
+        shares.add(consumed.randomElements.get(i));
+      }
+      open(shares, macKey);
+    }
+  }
+
+  private void testValidMaterial(int noOfParties) throws InterruptedException {
+    List<CompUInt128> ssks = createSsks(noOfParties);
+    // more than a batch of triples and masks
+    List<Consumed> results = run(noOfParties, ssks, null,
+        supplier -> consume(supplier, 6, 5, 3, 2));
+    assertValid(results, ssks);
+  }
+
+  @Test
+  public void testValidMaterialTwoParties() throws InterruptedException {
+    testValidMaterial(2);
+  }
+
+  @Test
+  public void testValidMaterialThreeParties() throws InterruptedException {
+    testValidMaterial(3);
+  }
+
+  @Test
+  public void testCachedMaterial() throws InterruptedException {
+    List<CompUInt128> ssks = createSsks(2);
+    run(2, ssks, cacheDirectory, supplier -> {
+      supplier.precompute(6, 5, 3, 2);
+      return null;
+    });
+    for (int myId = 1; myId <= 2; myId++) {
+      Spdz2kPreprocessingCache<CompUInt128> cache =
+          new Spdz2kPreprocessingCache<>(cacheDirectory, myId, factory);
+      assertEquals(ssks.get(myId - 1).toBigInteger(), cache.getSecretSharedKey().toBigInteger());
+      assertEquals(6 * 6, cache.available("triples"));
+    }
+    List<Consumed> results = new ArrayList<>();
+    for (int myId = 1; myId <= 2; myId++) {
+      // the cache holds all the material, so no network is needed
+      Spdz2kOtDataSupplier<CompUInt128> supplier = new Spdz2kOtDataSupplier<>(myId, 2, 1,
+          () -> {
+            throw new IllegalStateException("Generated material despite the cache");
+          }, factory, ssks.get(myId - 1), null, null, PRG_SEED_LENGTH, 4,
+          new Spdz2kPreprocessingCache<>(cacheDirectory, myId, factory));
+      results.add(consume(supplier, 6, 5, 3, 2));
+    }
+    assertValid(results, ssks);
+    assertEquals(0, new Spdz2kPreprocessingCache<>(cacheDirectory, 1, factory)
+        .available("triples"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCacheWithOtherKey() {
+    CompUInt128 ssk = Spdz2kOtDataSupplier.createRandomSsk(factory, PRG_SEED_LENGTH);
+    Spdz2kPreprocessingCache<CompUInt128> cache =
+        new Spdz2kPreprocessingCache<>(cacheDirectory, 1, factory);
+    cache.putSecretSharedKey(ssk);
+    cache.putSecretSharedKey(ssk.add(factory.createElement(1)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testKeyTooLarge() {
+    Spdz2kOtDataSupplier.createSimpleSupplier(1, 2, () -> null, factory,
+        factory.createElement(BigInteger.ONE.shiftLeft(64)), null, null);
+  }
+}
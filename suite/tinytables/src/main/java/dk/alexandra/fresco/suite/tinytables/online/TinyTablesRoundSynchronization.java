@@ -0,0 +1,70 @@
+package dk.alexandra.fresco.suite.tinytables.online;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.RegularBitVector;
+import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElementVector;
+import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesANDProtocol;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+import dk.alexandra.fresco.suite.tinytables.util.Util;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Round synchronization for the online phase of TinyTables which evaluates all AND gates of a batch
+ * together before the batch is evaluated.
+ *
+ * <p>
+ * All gates in a batch are independent, so the inputs of the AND gates are known when the batch
+ * starts. The table lookups of all AND gates are packed into a single bit vector which is sent to
+ * the other player in one message, and the opened bits are written directly into the outputs of
+ * the gates. The AND gates then finish without communicating when the batch is evaluated.
+ * </p>
+ */
+public class TinyTablesRoundSynchronization implements RoundSynchronization<ResourcePoolImpl> {
+
+  private final TinyTablesProtocolSuite protocolSuite;
+
+  public TinyTablesRoundSynchronization(TinyTablesProtocolSuite protocolSuite) {
+    this.protocolSuite = protocolSuite;
+  }
+
+  @Override
+  public void beforeBatch(ProtocolCollection<ResourcePoolImpl> protocols,
+      ResourcePoolImpl resourcePool, Network network) {
+    List<TinyTablesANDProtocol> gates = new ArrayList<>();
+    for (NativeProtocol<?, ResourcePoolImpl> protocol : protocols) {
+      if (protocol instanceof TinyTablesANDProtocol) {
+        gates.add((TinyTablesANDProtocol) protocol);
+      }
+    }
+    if (gates.isEmpty()) {
+      return;
+    }
+    TinyTablesStorage storage = protocolSuite.getStorage();
+    TinyTablesElementVector shares = new TinyTablesElementVector(gates.size());
+    for (int i = 0; i < gates.size(); i++) {
+      shares.setShare(i, gates.get(i).getShare(storage).getShare());
+    }
+    int otherId = Util.otherPlayerId(resourcePool.getMyId());
+    network.send(otherId, shares.payload());
+    TinyTablesElementVector otherShares =
+        new TinyTablesElementVector(network.receive(otherId), gates.size());
+    RegularBitVector open = TinyTablesElementVector.open(shares, otherShares);
+    for (int i = 0; i < gates.size(); i++) {
+      gates.get(i).setOpened(open.getBit(i));
+    }
+  }
+
+  @Override
+  public void finishedBatch(int gatesEvaluated, ResourcePoolImpl resourcePool, Network network) {
+  }
+
+  @Override
+  public void finishedEval(ResourcePoolImpl resourcePool, Network network) {
+  }
+
+}
@@ -9,6 +9,7 @@ import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
 import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -29,6 +30,12 @@ import java.util.Objects;
  * Both players now add their share with the other players share to get the masked value of the
  * output wire.
  * </p>
+ * <p>
+ * Normally, all AND gates of a batch are opened together by the
+ * {@link dk.alexandra.fresco.suite.tinytables.online.TinyTablesRoundSynchronization} before the
+ * batch is evaluated, in which case this protocol is done without communicating. Otherwise, the
+ * shares are exchanged by the protocol itself.
+ * </p>
  *
  * @author Jonas Lindstrøm (jonas.lindstrom@alexandra.dk)
  */
@@ -48,12 +55,11 @@ public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool> {
   public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
     TinyTablesProtocolSuite ps = TinyTablesProtocolSuite.getInstance(resourcePool.getMyId());
 
+    if (out != null) {
+      return EvaluationStatus.IS_DONE;
+    }
     if (round == 0) {
-      TinyTable tinyTable = Objects.requireNonNull(ps.getStorage().getTinyTable(id),
-          "Unable to find TinyTable for gate with id " + id);
-      TinyTablesElement myShare = tinyTable.getValue(((TinyTablesSBool) inLeft.out()).getValue(),
-          ((TinyTablesSBool) inRight.out()).getValue());
-
+      TinyTablesElement myShare = getShare(ps.getStorage());
       network.sendToAll(new byte[]{BooleanSerializer.toBytes(myShare.getShare())});
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
@@ -62,12 +68,33 @@ public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool> {
       for (byte[] bytes : buffers) {
         shares.add(TinyTablesElement.getInstance(BooleanSerializer.fromBytes(bytes[0])));
       }
-      boolean open = TinyTablesElement.open(shares);
-      this.out = TinyTablesSBool.getInstance(TinyTablesElement.getInstance(open));
+      setOpened(TinyTablesElement.open(shares));
       return EvaluationStatus.IS_DONE;
     }
   }
 
+  /**
+   * Looks up this player's share of the masked output in the TinyTable for this gate.
+   *
+   * @param storage the storage holding the TinyTables
+   * @return the entry of the TinyTable given by the masked inputs
+   */
+  public TinyTablesElement getShare(TinyTablesStorage storage) {
+    TinyTable tinyTable = Objects.requireNonNull(storage.getTinyTable(id),
+        "Unable to find TinyTable for gate with id " + id);
+    return tinyTable.getValue(((TinyTablesSBool) inLeft.out()).getValue(),
+        ((TinyTablesSBool) inRight.out()).getValue());
+  }
+
+  /**
+   * Sets the output of this gate to the given opened masked value, completing the protocol.
+   *
+   * @param open the sum of both players' shares
+   */
+  public void setOpened(boolean open) {
+    this.out = TinyTablesSBool.getInstance(TinyTablesElement.getInstance(open));
+  }
+
   @Override
   public SBool out() {
     return out;
@@ -20,9 +20,10 @@ import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
  * preprocessing phase, each of the two players picks his additive share of a mask for each input
  * wire of a protocol. Furthermore, for each AND protocol each of the two players must also
  * calculate a so-called <i>TinyTable</i> which is used in the online phase (see {@link
- * TinyTablesProtocolSuite}). This is done using oblivious transfer. To enhance performance, all
- * oblivious transfers are done at the end of the preprocessing (see {@link
- * #createRoundSynchronization}).
+ * TinyTablesProtocolSuite}). This is done using oblivious transfer. To enhance performance, the
+ * AND gates are collected and their TinyTables computed together once enough gates have been
+ * preprocessed (see {@link #createRoundSynchronization}). The TinyTables are written to disk as
+ * they are computed, so memory use does not grow with the size of the circuit.
  * </p>
  *
  * <p>
@@ -16,8 +16,8 @@ import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesOt;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproANDProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproProtocol;
 import dk.alexandra.fresco.suite.tinytables.storage.BatchTinyTablesTripleProvider;
+import dk.alexandra.fresco.suite.tinytables.storage.StreamingTinyTablesStorage;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
-import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorageImpl;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesTripleProvider;
 import dk.alexandra.fresco.suite.tinytables.util.TinyTablesTripleGenerator;
 import dk.alexandra.fresco.suite.tinytables.util.Util;
@@ -28,9 +28,6 @@ import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePoolImpl;
 import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
 import dk.alexandra.fresco.tools.ot.otextension.RotList;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -47,7 +44,7 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
 
   private final Drng drng;
   private final List<TinyTablesPreproANDProtocol> unprocessedAnds;
-  private final TinyTablesStorage storage;
+  private final StreamingTinyTablesStorage storage;
   private final File tinyTablesFile;
   private final Supplier<TinyTablesTripleProvider> supplier;
   private TinyTablesTripleProvider tinyTablesTripleProvider;
@@ -60,14 +57,17 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
    * @param baseOt OT functionality for the base OTs
    * @param drbg Secure bit randomness generator
    * @param otBatchSize The amount of OTs to preprocess in a batch
-   * @param tinyTablesFile file for data
+   * @param tinyTablesFile file for data. TinyTables are spilled to temporary files in the same
+   *     directory while preprocessing
    */
   public TinyTablesPreproResourcePool(int myId, TinyTablesOt baseOt, Drbg drbg,
       int computationalSecurity, int statisticalSecurity,
       int otBatchSize, File tinyTablesFile, Supplier<Network> network) {
     super(myId, 2);
     this.unprocessedAnds = Collections.synchronizedList(new ArrayList<>());
-    this.storage = new TinyTablesStorageImpl();
+    this.storage = ExceptionConverter.safe(
+        () -> new StreamingTinyTablesStorage(tinyTablesFile.getAbsoluteFile().getParentFile()),
+        "Failed to create TinyTables storage");
     this.tinyTablesFile = tinyTablesFile;
     this.drng = new DrngImpl(drbg);
     this.supplier = () -> {
@@ -109,6 +109,12 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
     return unprocessedAnds;
   }
 
+  /**
+   * Computes the TinyTables of the AND gates collected since the last call and writes them to
+   * disk, after which the gates are released.
+   *
+   * @param network the network used to open the masked inputs
+   */
   void calculateTinyTables(Network network) {
     int unprocessedGates = this.unprocessedAnds.size();
     /*
@@ -165,6 +171,10 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
     }
 
     this.unprocessedAnds.clear();
+    ExceptionConverter.safe(() -> {
+      storage.flush();
+      return null;
+    }, "Failed to write TinyTables");
   }
 
   public void closeEvaluation() {
@@ -175,20 +185,13 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
      * Store the TinyTables to a file.
      */
     ExceptionConverter.safe(() -> {
-      storeTinyTables(storage, tinyTablesFile);
+      storage.writeTo(tinyTablesFile);
+      storage.close();
       LOGGER.info("TinyTables stored to " + tinyTablesFile);
       return null;
     }, "Failed to store TinyTables");
   }
 
-  private void storeTinyTables(TinyTablesStorage tinyTablesStorage, File file) throws IOException {
-    file.createNewFile();
-    FileOutputStream fout = new FileOutputStream(file);
-    ObjectOutputStream oos = new ObjectOutputStream(fout);
-    oos.writeObject(tinyTablesStorage);
-    oos.close();
-  }
-
   public TinyTablesStorage getStorage() {
     return storage;
   }
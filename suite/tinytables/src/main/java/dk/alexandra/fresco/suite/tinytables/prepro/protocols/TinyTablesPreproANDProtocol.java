@@ -52,15 +52,15 @@ public class TinyTablesPreproANDProtocol extends TinyTablesPreproProtocol<SBool>
       Network network) {
 
     /*
-     * Here we only pick the mask of the output wire. The TinyTable is calculated after all AND
-     * gates has been preprocessed.
+     * Here we only pick the mask of the output wire. The TinyTable is calculated later together
+     * with the TinyTables of other AND gates.
      */
     boolean rO = resourcePool.getDrng().nextBit();
     out = new TinyTablesPreproSBool(TinyTablesElement.getInstance(rO));
 
     /*
-     * We need to finish the processing of this gate after all preprocessing is done (see
-     * calculateTinyTable). To do this, we keep a reference to all AND gates.
+     * We need to finish the processing of this gate later (see calculateTinyTable). To do this,
+     * the resource pool keeps a reference to the gate until its TinyTable is computed.
      */
     resourcePool.addAndProtocol(this);
 
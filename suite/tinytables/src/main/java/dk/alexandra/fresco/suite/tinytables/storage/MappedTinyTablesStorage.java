@@ -0,0 +1,123 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only {@link TinyTablesStorage} backed by a memory-mapped file written by
+ * {@link TinyTablesStorageImpl#writeTo(File)}. <p>Loading only maps the file, and lookups read the
+ * packed bits directly from the mapping, so the online phase neither deserializes nor copies the
+ * preprocessed data.</p>
+ *
+ * <p>The file consists of a header of three ints (a magic number, the number of table ids and the
+ * number of mask ids) followed by four arrays of longs: the packed tables, the table presence bits,
+ * the mask shares and the mask presence bits. See {@link TinyTablesBits} for the packing.</p>
+ *
+ * <p>Serializing the storage only writes the location of the file, which is mapped again when the
+ * storage is deserialized.</p>
+ */
+public class MappedTinyTablesStorage implements TinyTablesStorage {
+
+  static final int MAGIC = 0x54545331;
+  private static final long serialVersionUID = 3212398614361432457L;
+  private static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+  private final File file;
+  private transient ByteBuffer buffer;
+  private final int tableIds;
+  private final int maskIds;
+  private final int tablesOffset;
+  private final int tablesPresentOffset;
+  private final int masksOffset;
+  private final int masksPresentOffset;
+
+  private MappedTinyTablesStorage(File file, ByteBuffer buffer) {
+    if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Not a TinyTables storage file");
+    }
+    this.file = file;
+    this.buffer = buffer;
+    this.tableIds = buffer.getInt(Integer.BYTES);
+    this.maskIds = buffer.getInt(2 * Integer.BYTES);
+    this.tablesOffset = HEADER_BYTES;
+    this.tablesPresentOffset = tablesOffset + TinyTablesBits.tableWords(tableIds) * Long.BYTES;
+    this.masksOffset = tablesPresentOffset + TinyTablesBits.bitWords(tableIds) * Long.BYTES;
+    this.masksPresentOffset = masksOffset + TinyTablesBits.bitWords(maskIds) * Long.BYTES;
+    int expectedBytes = masksPresentOffset + TinyTablesBits.bitWords(maskIds) * Long.BYTES;
+    if (buffer.capacity() != expectedBytes) {
+      throw new IllegalArgumentException(
+          "Expected " + expectedBytes + " bytes of TinyTables but got " + buffer.capacity());
+    }
+  }
+
+  /**
+   * Maps a file written by {@link TinyTablesStorageImpl#writeTo(File)} into memory.
+   *
+   * @param file the file to load
+   * @return a read-only storage backed by the file
+   * @throws IOException if the file cannot be mapped
+   */
+  public static MappedTinyTablesStorage load(File file) throws IOException {
+    return new MappedTinyTablesStorage(file, map(file));
+  }
+
+  private static ByteBuffer map(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      return channel.map(MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    MappedTinyTablesStorage mapped;
+    try {
+      mapped = load(file);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidObjectException(e.getMessage());
+    }
+    if (mapped.tableIds != tableIds || mapped.maskIds != maskIds) {
+      throw new InvalidObjectException("TinyTables file " + file + " changed since it was loaded");
+    }
+    buffer = mapped.buffer;
+  }
+
+  @Override
+  public TinyTable getTinyTable(int id) {
+    if (id >= tableIds || !getBit(tablesPresentOffset, id)) {
+      return null;
+    }
+    long word = buffer.getLong(tablesOffset + TinyTablesBits.tableWordIndex(id) * Long.BYTES);
+    return TinyTablesBits.toTinyTable(TinyTablesBits.getTable(word, id));
+  }
+
+  @Override
+  public TinyTablesElement getMaskShare(int id) {
+    if (id >= maskIds || !getBit(masksPresentOffset, id)) {
+      return null;
+    }
+    return TinyTablesElement.getInstance(getBit(masksOffset, id));
+  }
+
+  @Override
+  public void storeTinyTable(int id, TinyTable table) {
+    throw new UnsupportedOperationException("Memory-mapped TinyTables are read-only");
+  }
+
+  @Override
+  public void storeMaskShare(int id, TinyTablesElement r) {
+    throw new UnsupportedOperationException("Memory-mapped TinyTables are read-only");
+  }
+
+  private boolean getBit(int offset, int id) {
+    return TinyTablesBits.getBit(buffer.getLong(offset + (id / Long.SIZE) * Long.BYTES), id);
+  }
+
+}
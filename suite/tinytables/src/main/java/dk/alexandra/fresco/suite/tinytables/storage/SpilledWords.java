@@ -0,0 +1,167 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * An array of longs kept in a temporary file. <p>Bits are only ever set, so updates are collected
+ * in memory with {@link #or(int, long)} and merged into the file by {@link #flush()}. The pending
+ * updates are kept as a contiguous range of words, which is merged into the file with a single
+ * read and a single write. The range is flushed early if it would grow beyond
+ * {@value #MAX_PENDING_WORDS} words, so the memory use stays bounded.</p>
+ */
+final class SpilledWords implements Closeable {
+
+  static final int MAX_PENDING_WORDS = 1 << 16;
+  private static final int INITIAL_PENDING_WORDS = 1024;
+
+  private final FileChannel channel;
+  private final ByteBuffer word = ByteBuffer.allocate(Long.BYTES);
+  private long[] pending = new long[INITIAL_PENDING_WORDS];
+  private int pendingStart;
+  private int pendingCount;
+  private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_PENDING_WORDS * Long.BYTES);
+
+  /**
+   * Creates a new array backed by the given file. The file is truncated and deleted when the array
+   * is closed.
+   */
+  SpilledWords(File file) throws IOException {
+    this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE,
+        StandardOpenOption.DELETE_ON_CLOSE);
+  }
+
+  /**
+   * Sets the given bits in the word at the given index.
+   */
+  void or(int index, long bits) throws IOException {
+    if (pendingCount == 0) {
+      pendingStart = index;
+    }
+    int start = Math.min(pendingStart, index);
+    int end = Math.max(pendingStart + pendingCount, index + 1);
+    if ((long) end - start > MAX_PENDING_WORDS) {
+      flush();
+      start = index;
+      end = index + 1;
+    }
+    extendPending(start, end);
+    pending[index - pendingStart] |= bits;
+  }
+
+  /**
+   * Extends the pending range to cover the words from <code>start</code> to <code>end</code>,
+   * which must include the current range.
+   */
+  private void extendPending(int start, int end) {
+    int shift = pendingCount == 0 ? 0 : pendingStart - start;
+    if (end - start > pending.length) {
+      long[] extended =
+          new long[Math.min(MAX_PENDING_WORDS, Math.max(end - start, 2 * pending.length))];
+      System.arraycopy(pending, 0, extended, shift, pendingCount);
+      pending = extended;
+    } else if (shift > 0) {
+      System.arraycopy(pending, 0, pending, shift, pendingCount);
+      Arrays.fill(pending, 0, shift, 0L);
+    }
+    pendingStart = start;
+    pendingCount = end - start;
+  }
+
+  /**
+   * Returns the word at the given index including any updates not yet flushed.
+   */
+  long get(int index) throws IOException {
+    long value = read(index);
+    if (index >= pendingStart && index - pendingStart < pendingCount) {
+      value |= pending[index - pendingStart];
+    }
+    return value;
+  }
+
+  /**
+   * Merges all pending updates into the file.
+   */
+  void flush() throws IOException {
+    if (pendingCount == 0) {
+      return;
+    }
+    int bytes = pendingCount * Long.BYTES;
+    if (buffer.capacity() < bytes) {
+      buffer = ByteBuffer.allocate(Math.max(bytes, 2 * buffer.capacity()));
+    }
+    long position = (long) pendingStart * Long.BYTES;
+    buffer.clear();
+    buffer.limit(bytes);
+    while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+      // read until the range is complete or the end of the file is reached
+    }
+    Arrays.fill(buffer.array(), buffer.position(), bytes, (byte) 0);
+    buffer.clear();
+    buffer.limit(bytes);
+    LongBuffer words = buffer.asLongBuffer();
+    for (int i = 0; i < pendingCount; i++) {
+      words.put(i, words.get(i) | pending[i]);
+    }
+    while (buffer.hasRemaining()) {
+      channel.write(buffer, position + buffer.position());
+    }
+    Arrays.fill(pending, 0, pendingCount, 0L);
+    pendingCount = 0;
+  }
+
+  /**
+   * Flushes and writes the first <code>count</code> words to the given stream. Words never written
+   * are zero.
+   */
+  void writeTo(DataOutputStream out, int count) throws IOException {
+    flush();
+    ByteBuffer buffer = ByteBuffer.allocate(1024 * Long.BYTES);
+    long position = 0;
+    int written = 0;
+    while (written < count) {
+      buffer.clear();
+      buffer.limit(Math.min(buffer.capacity(), (count - written) * Long.BYTES));
+      while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+        // read until the buffer is full or the end of the file is reached
+      }
+      while (buffer.hasRemaining()) {
+        buffer.put((byte) 0);
+      }
+      buffer.flip();
+      position += buffer.limit();
+      while (buffer.hasRemaining()) {
+        out.writeLong(buffer.getLong());
+        written++;
+      }
+    }
+  }
+
+  private long read(int index) throws IOException {
+    word.clear();
+    long position = (long) index * Long.BYTES;
+    while (word.hasRemaining() && channel.read(word, position + word.position()) > 0) {
+      // read until the word is complete or the end of the file is reached
+    }
+    if (word.hasRemaining()) {
+      return 0;
+    }
+    word.flip();
+    return word.getLong();
+  }
+
+  @Override
+  public void close() throws IOException {
+    pendingCount = 0;
+    channel.close();
+  }
+
+}
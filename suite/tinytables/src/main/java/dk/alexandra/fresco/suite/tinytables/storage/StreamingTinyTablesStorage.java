@@ -0,0 +1,113 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * {@link TinyTablesStorage} used during preprocessing which keeps the {@link TinyTable}s on disk.
+ * <p>The tables are packed as in {@link TinyTablesStorageImpl}, but the packed words are spilled
+ * to temporary files next to the output file every time {@link #flush()} is called, or earlier if
+ * the tables computed since the last flush span too many words, so the heap use stays bounded.
+ * Mask shares are only stored for input and output gates and are kept in memory.
+ * {@link #writeTo(File)} produces the format read by {@link MappedTinyTablesStorage}.</p>
+ */
+public class StreamingTinyTablesStorage implements TinyTablesStorage, Closeable {
+
+  private static final long serialVersionUID = -4410872683360271553L;
+
+  private final transient SpilledWords tables;
+  private final transient SpilledWords tablesPresent;
+  private final TinyTablesStorageImpl masks;
+  private int tableIds;
+
+  /**
+   * Creates a new storage spilling tables to temporary files in the given directory.
+   *
+   * @param directory the directory for the temporary files
+   * @throws IOException if the temporary files cannot be created
+   */
+  public StreamingTinyTablesStorage(File directory) throws IOException {
+    this.tables = new SpilledWords(File.createTempFile("tinytables", ".tables", directory));
+    this.tablesPresent =
+        new SpilledWords(File.createTempFile("tinytables", ".present", directory));
+    this.masks = new TinyTablesStorageImpl();
+  }
+
+  @Override
+  public synchronized void storeTinyTable(int id, TinyTable table) {
+    long bits = TinyTablesBits.fromTinyTable(table);
+    ExceptionConverter.safe(() -> {
+      tables.or(TinyTablesBits.tableWordIndex(id), bits << (4 * (id % (Long.SIZE / 4))));
+      tablesPresent.or(id / Long.SIZE, 1L << (id % Long.SIZE));
+      return null;
+    }, "Failed to spill TinyTable");
+    tableIds = Math.max(tableIds, id + 1);
+  }
+
+  @Override
+  public synchronized TinyTable getTinyTable(int id) {
+    return ExceptionConverter.safe(() -> {
+      if (id >= tableIds || !TinyTablesBits.getBit(tablesPresent.get(id / Long.SIZE), id)) {
+        return null;
+      }
+      long word = tables.get(TinyTablesBits.tableWordIndex(id));
+      return TinyTablesBits.toTinyTable(TinyTablesBits.getTable(word, id));
+    }, "Failed to read TinyTable");
+  }
+
+  @Override
+  public void storeMaskShare(int id, TinyTablesElement r) {
+    masks.storeMaskShare(id, r);
+  }
+
+  @Override
+  public TinyTablesElement getMaskShare(int id) {
+    return masks.getMaskShare(id);
+  }
+
+  /**
+   * Writes the tables stored since the last flush to disk.
+   *
+   * @throws IOException if writing to the temporary files fails
+   */
+  public synchronized void flush() throws IOException {
+    tables.flush();
+    tablesPresent.flush();
+  }
+
+  /**
+   * Writes the content of this storage to a file which can be loaded using
+   * {@link MappedTinyTablesStorage#load(File)}.
+   *
+   * @param file the file to write to
+   * @throws IOException if writing the file fails
+   */
+  public synchronized void writeTo(File file) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeInt(MappedTinyTablesStorage.MAGIC);
+      out.writeInt(tableIds);
+      out.writeInt(masks.getMaskIds());
+      tables.writeTo(out, TinyTablesBits.tableWords(tableIds));
+      tablesPresent.writeTo(out, TinyTablesBits.bitWords(tableIds));
+      masks.writeMasks(out);
+    }
+  }
+
+  /**
+   * Deletes the temporary files.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    tables.close();
+    tablesPresent.close();
+  }
+
+}
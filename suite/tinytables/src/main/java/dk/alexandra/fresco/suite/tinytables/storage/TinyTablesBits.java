@@ -0,0 +1,102 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+
+/**
+ * Bit packing shared by the TinyTables storage implementations. <p>A {@link TinyTable} is packed
+ * into four bits where bit 2 * u + v holds the entry for inputs (u, v). Sixteen tables fit in a
+ * long, with the table for id i in bits 4 * (i % 16) to 4 * (i % 16) + 3 of word i / 16. Single
+ * bits are packed 64 to a long in the same way.</p>
+ */
+final class TinyTablesBits {
+
+  private static final int TABLES_PER_WORD = Long.SIZE / 4;
+  private static final TinyTable[] TABLES = new TinyTable[16];
+
+  static {
+    for (int bits = 0; bits < TABLES.length; bits++) {
+      TinyTablesElement[] values = new TinyTablesElement[4];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = TinyTablesElement.getInstance(((bits >>> i) & 1) == 1);
+      }
+      TABLES[bits] = new TinyTable(values);
+    }
+  }
+
+  private TinyTablesBits() {
+  }
+
+  /**
+   * Returns the number of longs needed to hold the given number of tables.
+   */
+  static int tableWords(int ids) {
+    return (ids + TABLES_PER_WORD - 1) / TABLES_PER_WORD;
+  }
+
+  /**
+   * Returns the number of longs needed to hold the given number of bits.
+   */
+  static int bitWords(int ids) {
+    return (ids + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  /**
+   * Packs a {@link TinyTable} into four bits.
+   */
+  static int fromTinyTable(TinyTable table) {
+    int bits = 0;
+    for (int i = 0; i < 4; i++) {
+      TinyTablesElement u = TinyTablesElement.getInstance((i & 2) != 0);
+      TinyTablesElement v = TinyTablesElement.getInstance((i & 1) != 0);
+      if (table.getValue(u, v).getShare()) {
+        bits |= 1 << i;
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * Unpacks four bits into a {@link TinyTable}. Tables are immutable, so a shared instance is
+   * returned for each of the sixteen possible tables.
+   */
+  static TinyTable toTinyTable(int bits) {
+    return TABLES[bits];
+  }
+
+  /**
+   * Returns the index of the long holding the table for the given id.
+   */
+  static int tableWordIndex(int id) {
+    return id / TABLES_PER_WORD;
+  }
+
+  static int getTable(long[] words, int id) {
+    return getTable(words[tableWordIndex(id)], id);
+  }
+
+  static int getTable(long word, int id) {
+    return (int) (word >>> (4 * (id % TABLES_PER_WORD))) & 0xF;
+  }
+
+  static void setTable(long[] words, int id, int bits) {
+    int shift = 4 * (id % TABLES_PER_WORD);
+    int index = tableWordIndex(id);
+    words[index] = (words[index] & ~(0xFL << shift)) | ((long) bits << shift);
+  }
+
+  static boolean getBit(long[] words, int id) {
+    return getBit(words[id / Long.SIZE], id);
+  }
+
+  static boolean getBit(long word, int id) {
+    return ((word >>> (id % Long.SIZE)) & 1) == 1;
+  }
+
+  static void setBit(long[] words, int id, boolean bit) {
+    long mask = 1L << (id % Long.SIZE);
+    int index = id / Long.SIZE;
+    words[index] = bit ? words[index] | mask : words[index] & ~mask;
+  }
+
+}
@@ -2,36 +2,115 @@ package dk.alexandra.fresco.suite.tinytables.storage;
 
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
 
+/**
+ * In-memory {@link TinyTablesStorage} used during preprocessing. <p>Protocol ids are handed out by
+ * a counter, so instead of maps keyed by id the storage keeps dense bit arrays indexed by id: four
+ * bits per {@link TinyTable} and one bit per mask share, each with an additional bit marking the
+ * id as present. The arrays are written sequentially with {@link #writeTo(File)} in the format read
+ * by {@link MappedTinyTablesStorage}.</p>
+ */
 public class TinyTablesStorageImpl implements TinyTablesStorage {
 
-	/**
-	 * 
-	 */
-	private static final long serialVersionUID = -1135044173153933992L;
-	private Map<Integer, TinyTable> tinyTables = new ConcurrentHashMap<>();
-	private Map<Integer, TinyTablesElement> maskShares = new ConcurrentHashMap<>();
-		
-	@Override
-	public TinyTable getTinyTable(int id) {
-		return tinyTables.get(id);
-	}
-
-	@Override
-	public void storeTinyTable(int id, TinyTable table) {
-		tinyTables.put(id, table);
-	}
-
-	@Override
-	public void storeMaskShare(int id, TinyTablesElement r) {
-		maskShares.put(id, r);
-	}
-
-	@Override
-	public TinyTablesElement getMaskShare(int id) {
-		return maskShares.get(id);
-	}
+  private static final long serialVersionUID = -1135044173153933992L;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private long[] tables = new long[TinyTablesBits.tableWords(INITIAL_CAPACITY)];
+  private long[] tablesPresent = new long[TinyTablesBits.bitWords(INITIAL_CAPACITY)];
+  private int tableIds;
+  private long[] masks = new long[TinyTablesBits.bitWords(INITIAL_CAPACITY)];
+  private long[] masksPresent = new long[TinyTablesBits.bitWords(INITIAL_CAPACITY)];
+  private int maskIds;
+
+  @Override
+  public synchronized TinyTable getTinyTable(int id) {
+    if (id >= tableIds || !TinyTablesBits.getBit(tablesPresent, id)) {
+      return null;
+    }
+    return TinyTablesBits.toTinyTable(TinyTablesBits.getTable(tables, id));
+  }
+
+  @Override
+  public synchronized void storeTinyTable(int id, TinyTable table) {
+    ensureTableCapacity(id + 1);
+    TinyTablesBits.setTable(tables, id, TinyTablesBits.fromTinyTable(table));
+    TinyTablesBits.setBit(tablesPresent, id, true);
+    tableIds = Math.max(tableIds, id + 1);
+  }
+
+  @Override
+  public synchronized void storeMaskShare(int id, TinyTablesElement r) {
+    ensureMaskCapacity(id + 1);
+    TinyTablesBits.setBit(masks, id, r.getShare());
+    TinyTablesBits.setBit(masksPresent, id, true);
+    maskIds = Math.max(maskIds, id + 1);
+  }
+
+  @Override
+  public synchronized TinyTablesElement getMaskShare(int id) {
+    if (id >= maskIds || !TinyTablesBits.getBit(masksPresent, id)) {
+      return null;
+    }
+    return TinyTablesElement.getInstance(TinyTablesBits.getBit(masks, id));
+  }
+
+  /**
+   * Writes the content of this storage to a file which can be loaded using
+   * {@link MappedTinyTablesStorage#load(File)}.
+   *
+   * @param file the file to write to
+   * @throws IOException if writing the file fails
+   */
+  public synchronized void writeTo(File file) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeInt(MappedTinyTablesStorage.MAGIC);
+      out.writeInt(tableIds);
+      out.writeInt(maskIds);
+      writeWords(out, tables, TinyTablesBits.tableWords(tableIds));
+      writeWords(out, tablesPresent, TinyTablesBits.bitWords(tableIds));
+      writeMasks(out);
+    }
+  }
+
+  synchronized int getMaskIds() {
+    return maskIds;
+  }
+
+  /**
+   * Writes the mask shares and their presence bits, which make up the last part of the file.
+   */
+  synchronized void writeMasks(DataOutputStream out) throws IOException {
+    writeWords(out, masks, TinyTablesBits.bitWords(maskIds));
+    writeWords(out, masksPresent, TinyTablesBits.bitWords(maskIds));
+  }
+
+  private void writeWords(DataOutputStream out, long[] words, int count) throws IOException {
+    for (int i = 0; i < count; i++) {
+      out.writeLong(words[i]);
+    }
+  }
+
+  private void ensureTableCapacity(int ids) {
+    if (TinyTablesBits.bitWords(ids) > tablesPresent.length) {
+      int capacity = Math.max(ids, 2 * tablesPresent.length * Long.SIZE);
+      tables = Arrays.copyOf(tables, TinyTablesBits.tableWords(capacity));
+      tablesPresent = Arrays.copyOf(tablesPresent, TinyTablesBits.bitWords(capacity));
+    }
+  }
+
+  private void ensureMaskCapacity(int ids) {
+    if (TinyTablesBits.bitWords(ids) > masksPresent.length) {
+      int capacity = Math.max(ids, 2 * masksPresent.length * Long.SIZE);
+      masks = Arrays.copyOf(masks, TinyTablesBits.bitWords(capacity));
+      masksPresent = Arrays.copyOf(masksPresent, TinyTablesBits.bitWords(capacity));
+    }
+  }
 
 }
@@ -0,0 +1,151 @@
+package dk.alexandra.fresco.suite.tinytables.online;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.ProtocolCollectionList;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
+import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesANDProtocol;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorageImpl;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.junit.Test;
+
+public class TestTinyTablesRoundSynchronization {
+
+  private static final int GATES = 20;
+
+  @Test
+  public void testBeforeBatchOpensAllAndGates() throws Exception {
+    Random random = new Random(42);
+    boolean[] leftInputs = new boolean[GATES];
+    boolean[] rightInputs = new boolean[GATES];
+    boolean[][][] tables = new boolean[2][GATES][4];
+    for (int i = 0; i < GATES; i++) {
+      leftInputs[i] = random.nextBoolean();
+      rightInputs[i] = random.nextBoolean();
+      for (int j = 0; j < 4; j++) {
+        tables[0][i][j] = random.nextBoolean();
+        tables[1][i][j] = random.nextBoolean();
+      }
+    }
+    List<List<TinyTablesANDProtocol>> gates = new ArrayList<>();
+    List<ResourcePoolImpl> resourcePools = new ArrayList<>();
+    List<TinyTablesRoundSynchronization> synchronizations = new ArrayList<>();
+    for (int playerId = 1; playerId <= 2; playerId++) {
+      TinyTablesStorageImpl storage = new TinyTablesStorageImpl();
+      List<TinyTablesANDProtocol> playerGates = new ArrayList<>(GATES);
+      for (int i = 0; i < GATES; i++) {
+        storage.storeTinyTable(i, table(tables[playerId - 1][i]));
+        playerGates.add(new TinyTablesANDProtocol(i, sbool(leftInputs[i]), sbool(rightInputs[i])));
+      }
+      ResourcePoolImpl resourcePool = new ResourcePoolImpl(playerId, 2);
+      TinyTablesProtocolSuite suite = new TinyTablesProtocolSuite(playerId, write(storage));
+      suite.init(resourcePool);
+      gates.add(playerGates);
+      resourcePools.add(resourcePool);
+      synchronizations.add(new TinyTablesRoundSynchronization(suite));
+    }
+
+    BlockingQueue<byte[]> toOne = new LinkedBlockingQueue<>();
+    BlockingQueue<byte[]> toTwo = new LinkedBlockingQueue<>();
+    List<Network> networks = new ArrayList<>();
+    networks.add(new QueueNetwork(toTwo, toOne));
+    networks.add(new QueueNetwork(toOne, toTwo));
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int p = 0; p < 2; p++) {
+        final int player = p;
+        futures.add(executor.submit(() -> {
+          ProtocolCollectionList<ResourcePoolImpl> protocols = new ProtocolCollectionList<>(GATES);
+          gates.get(player).forEach(protocols::addProtocol);
+          synchronizations.get(player)
+              .beforeBatch(protocols, resourcePools.get(player), networks.get(player));
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Network unused = new QueueNetwork(null, null);
+    for (int p = 0; p < 2; p++) {
+      for (int i = 0; i < GATES; i++) {
+        int index = (leftInputs[i] ? 2 : 0) + (rightInputs[i] ? 1 : 0);
+        boolean expected = tables[0][i][index] ^ tables[1][i][index];
+        TinyTablesANDProtocol gate = gates.get(p).get(i);
+        assertEquals(expected, ((TinyTablesSBool) gate.out()).getValue().getShare());
+        // the gate is already opened, so it must not touch the network
+        assertEquals(EvaluationStatus.IS_DONE, gate.evaluate(0, resourcePools.get(p), unused));
+      }
+    }
+  }
+
+  private static TinyTablesSBool sbool(boolean value) {
+    return TinyTablesSBool.getInstance(TinyTablesElement.getInstance(value));
+  }
+
+  private static TinyTable table(boolean[] values) {
+    TinyTablesElement[] elements = new TinyTablesElement[4];
+    for (int i = 0; i < 4; i++) {
+      elements[i] = TinyTablesElement.getInstance(values[i]);
+    }
+    return new TinyTable(elements);
+  }
+
+  private static File write(TinyTablesStorageImpl storage) throws IOException {
+    File file = File.createTempFile("tinytables", ".bin");
+    file.deleteOnExit();
+    storage.writeTo(file);
+    return file;
+  }
+
+  /**
+   * Two party network passing messages through a pair of queues. Fails on any use if the queues
+   * are null.
+   */
+  private static class QueueNetwork implements Network {
+
+    private final BlockingQueue<byte[]> out;
+    private final BlockingQueue<byte[]> in;
+
+    private QueueNetwork(BlockingQueue<byte[]> out, BlockingQueue<byte[]> in) {
+      this.out = out;
+      this.in = in;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      out.add(data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      try {
+        return in.take();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return 2;
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestTinyTablesStorage {
+
+  private static final int IDS = 5000;
+
+  @Test
+  public void testStoreAndLoad() throws IOException {
+    Random random = new Random(42);
+    boolean[][] tables = new boolean[IDS][];
+    boolean[] masks = new boolean[IDS];
+    TinyTablesStorageImpl storage = new TinyTablesStorageImpl();
+    // even ids are AND gates and ids divisible by three are masks, the rest are left out
+    for (int id = 0; id < IDS; id += 2) {
+      tables[id] = new boolean[]{random.nextBoolean(), random.nextBoolean(),
+          random.nextBoolean(), random.nextBoolean()};
+      storage.storeTinyTable(id, table(tables[id]));
+    }
+    for (int id = 0; id < IDS; id += 3) {
+      masks[id] = random.nextBoolean();
+      storage.storeMaskShare(id, TinyTablesElement.getInstance(masks[id]));
+    }
+    assertStorage(storage, tables, masks);
+
+    File file = File.createTempFile("tinytables", ".bin");
+    file.deleteOnExit();
+    storage.writeTo(file);
+    assertStorage(MappedTinyTablesStorage.load(file), tables, masks);
+  }
+
+  @Test
+  public void testStreamingStoreAndLoad() throws IOException {
+    Random random = new Random(42);
+    boolean[][] tables = new boolean[IDS][];
+    boolean[] masks = new boolean[IDS];
+    File directory = new File(System.getProperty("java.io.tmpdir"));
+    try (StreamingTinyTablesStorage storage = new StreamingTinyTablesStorage(directory)) {
+      // store the tables in descending order and flush every 100 tables to get words which are
+      // written in several flushes
+      for (int id = IDS - 2; id >= 0; id -= 2) {
+        tables[id] = new boolean[]{random.nextBoolean(), random.nextBoolean(),
+            random.nextBoolean(), random.nextBoolean()};
+        storage.storeTinyTable(id, table(tables[id]));
+        if (id % 200 == 0) {
+          storage.flush();
+        }
+      }
+      for (int id = 0; id < IDS; id += 3) {
+        masks[id] = random.nextBoolean();
+        storage.storeMaskShare(id, TinyTablesElement.getInstance(masks[id]));
+      }
+      assertStorage(storage, tables, masks);
+
+      File file = File.createTempFile("tinytables", ".bin");
+      file.deleteOnExit();
+      storage.writeTo(file);
+      assertStorage(MappedTinyTablesStorage.load(file), tables, masks);
+    }
+  }
+
+  @Test
+  public void testStreamingSpillsWideRange() throws IOException {
+    // ids further apart than the pending range force a flush while storing
+    int far = SpilledWords.MAX_PENDING_WORDS * (Long.SIZE / 4) + 7;
+    boolean[] low = new boolean[]{true, false, false, true};
+    boolean[] high = new boolean[]{false, true, true, false};
+    File file = File.createTempFile("tinytables", ".bin");
+    file.deleteOnExit();
+    try (StreamingTinyTablesStorage storage = new StreamingTinyTablesStorage(
+        file.getParentFile())) {
+      storage.storeTinyTable(far, table(high));
+      storage.storeTinyTable(1, table(low));
+      storage.storeTinyTable(far + 1, table(low));
+      storage.writeTo(file);
+    }
+    MappedTinyTablesStorage storage = MappedTinyTablesStorage.load(file);
+    for (int i = 0; i < 4; i++) {
+      TinyTablesElement u = TinyTablesElement.getInstance((i & 2) != 0);
+      TinyTablesElement v = TinyTablesElement.getInstance((i & 1) != 0);
+      assertEquals(low[i], storage.getTinyTable(1).getValue(u, v).getShare());
+      assertEquals(high[i], storage.getTinyTable(far).getValue(u, v).getShare());
+      assertEquals(low[i], storage.getTinyTable(far + 1).getValue(u, v).getShare());
+    }
+    assertNull(storage.getTinyTable(0));
+    assertNull(storage.getTinyTable(far - 1));
+  }
+
+  @Test
+  public void testStreamingEmpty() throws IOException {
+    File file = File.createTempFile("tinytables", ".bin");
+    file.deleteOnExit();
+    try (StreamingTinyTablesStorage storage = new StreamingTinyTablesStorage(
+        file.getParentFile())) {
+      storage.writeTo(file);
+    }
+    MappedTinyTablesStorage storage = MappedTinyTablesStorage.load(file);
+    assertNull(storage.getTinyTable(0));
+    assertNull(storage.getMaskShare(0));
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    File file = File.createTempFile("tinytables", ".bin");
+    file.deleteOnExit();
+    new TinyTablesStorageImpl().writeTo(file);
+    MappedTinyTablesStorage storage = MappedTinyTablesStorage.load(file);
+    assertNull(storage.getTinyTable(0));
+    assertNull(storage.getMaskShare(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLoadInvalidFile() throws IOException {
+    File file = File.createTempFile("tinytables", ".bin");
+    file.deleteOnExit();
+    MappedTinyTablesStorage.load(file);
+  }
+
+  @Test
+  public void testSerializeMapped() throws IOException, ClassNotFoundException {
+    Random random = new Random(42);
+    boolean[][] tables = new boolean[IDS][];
+    boolean[] masks = new boolean[IDS];
+    TinyTablesStorageImpl storage = new TinyTablesStorageImpl();
+    for (int id = 0; id < IDS; id += 2) {
+      tables[id] = new boolean[]{random.nextBoolean(), random.nextBoolean(),
+          random.nextBoolean(), random.nextBoolean()};
+      storage.storeTinyTable(id, table(tables[id]));
+    }
+    for (int id = 0; id < IDS; id += 3) {
+      masks[id] = random.nextBoolean();
+      storage.storeMaskShare(id, TinyTablesElement.getInstance(masks[id]));
+    }
+    File file = File.createTempFile("tinytables", ".bin");
+    file.deleteOnExit();
+    storage.writeTo(file);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(MappedTinyTablesStorage.load(file));
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      assertStorage((TinyTablesStorage) in.readObject(), tables, masks);
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testMappedIsReadOnly() throws IOException {
+    File file = File.createTempFile("tinytables", ".bin");
+    file.deleteOnExit();
+    new TinyTablesStorageImpl().writeTo(file);
+    MappedTinyTablesStorage.load(file).storeMaskShare(0, TinyTablesElement.getInstance(true));
+  }
+
+  private void assertStorage(TinyTablesStorage storage, boolean[][] tables, boolean[] masks) {
+    for (int id = 0; id < IDS + 10; id++) {
+      TinyTable table = storage.getTinyTable(id);
+      if (id < IDS && tables[id] != null) {
+        for (int i = 0; i < 4; i++) {
+          TinyTablesElement u = TinyTablesElement.getInstance((i & 2) != 0);
+          TinyTablesElement v = TinyTablesElement.getInstance((i & 1) != 0);
+          assertEquals(tables[id][i], table.getValue(u, v).getShare());
+        }
+      } else {
+        assertNull(table);
+      }
+      TinyTablesElement mask = storage.getMaskShare(id);
+      if (id < IDS && id % 3 == 0) {
+        assertEquals(masks[id], mask.getShare());
+      } else {
+        assertNull(mask);
+      }
+    }
+  }
+
+  private TinyTable table(boolean[] values) {
+    TinyTablesElement[] elements = new TinyTablesElement[4];
+    for (int i = 0; i < 4; i++) {
+      elements[i] = TinyTablesElement.getInstance(values[i]);
+    }
+    return new TinyTable(elements);
+  }
+
+}